@@ -26,6 +26,7 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.ng.AbstractFbBlob;
 import org.firebirdsql.gds.ng.FbBlob;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.jna.fbclient.FbClientLibrary;
 import org.firebirdsql.jna.fbclient.ISC_STATUS;
@@ -101,13 +102,13 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
             } else {
                 bpb = new byte[0];
             }
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobClosed();
 
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     if (isOutput()) {
                         clientLibrary.isc_create_blob2(statusVector, db.getJnaHandle(), getTransaction().getJnaHandle(),
                                 getJnaHandle(), blobId, (short) bpb.length, bpb);
@@ -143,13 +144,13 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
             sizeRequested = Math.min(sizeRequested, getMaximumSegmentSize());
             final ByteBuffer responseBuffer = ByteBuffer.allocateDirect(sizeRequested);
             final ShortByReference actualLength = new ShortByReference();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobOpen();
 
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_get_segment(statusVector, getJnaHandle(), actualLength, (short) sizeRequested,
                             responseBuffer);
                 }
@@ -166,6 +167,7 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
             final int actualLengthInt = ((int) actualLength.getValue()) & 0xFFFF;
             final byte[] segment = new byte[actualLengthInt];
             responseBuffer.get(segment);
+            recordBlobBytes(actualLengthInt);
             return segment;
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -184,16 +186,17 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
             if (segment.length > getMaximumSegmentSize()) {
                 throw new FbExceptionBuilder().exception(jb_blobPutSegmentTooLong).toSQLException();
             }
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobOpen();
 
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_put_segment(statusVector, getJnaHandle(), (short) segment.length, segment);
                 }
                 processStatusVector();
+                recordBlobBytes(segment.length);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -204,12 +207,12 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
     @Override
     public void seek(int offset, SeekMode seekMode) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
 
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     // result is the current position in the blob (see .NET provider source)
                     // We ignore the result TODO check if useful; not used in wire protocol either
                     IntByReference result = new IntByReference();
@@ -229,10 +232,10 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
         try {
             final ByteBuffer responseBuffer = ByteBuffer.allocateDirect(bufferLength);
 
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_blob_info(statusVector, getJnaHandle(),
                             (short) requestItems.length, requestItems,
                             (short) bufferLength, responseBuffer);
@@ -251,9 +254,9 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
 
     @Override
     protected void closeImpl() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final JnaDatabase db = getDatabase();
-            synchronized (db.getSynchronizationObject()) {
+            try (LockCloseable ignoredDbLock = db.withLock()) {
                 clientLibrary.isc_close_blob(statusVector, getJnaHandle());
             }
             processStatusVector();
@@ -262,9 +265,9 @@ public class JnaBlob extends AbstractFbBlob implements FbBlob, DatabaseListener
 
     @Override
     protected void cancelImpl() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final JnaDatabase db = getDatabase();
-            synchronized (db.getSynchronizationObject()) {
+            try (LockCloseable ignoredDbLock = db.withLock()) {
                 clientLibrary.isc_cancel_blob(statusVector, getJnaHandle());
             }
             processStatusVector();
@@ -151,9 +151,9 @@ public abstract class JnaConnection<T extends IAttachProperties<T>, C extends Jn
 
     final DatatypeCoder createDatatypeCoder() {
         if (bigEndian) {
-            return new BigEndianDatatypeCoder(getEncodingFactory());
+            return DefaultDatatypeCoder.getSharedInstance(new BigEndianDatatypeCoder(getEncodingFactory()));
         }
-        return new LittleEndianDatatypeCoder(getEncodingFactory());
+        return DefaultDatatypeCoder.getSharedInstance(new LittleEndianDatatypeCoder(getEncodingFactory()));
     }
 
     /**
@@ -18,16 +18,23 @@
  */
 package org.firebirdsql.gds.ng.jna;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Platform;
 import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
 import org.firebirdsql.encodings.EncodingDefinition;
 import org.firebirdsql.gds.*;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.TransactionListener;
 import org.firebirdsql.jna.fbclient.FbClientLibrary;
 import org.firebirdsql.jna.fbclient.ISC_STATUS;
 import org.firebirdsql.jna.fbclient.WinFbClientLibrary;
+import org.firebirdsql.jna.fbclient.XSQLVAR;
 
 import java.nio.ByteBuffer;
 import java.sql.SQLException;
@@ -49,6 +56,8 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
     // TODO Find out if there are any exception from JNA that we need to be prepared to handle.
 
     private static final ParameterConverter<JnaDatabaseConnection, ?> PARAMETER_CONVERTER = new JnaParameterConverter();
+    // Null indicator value never written by the client library, used to detect that exec_immed2 produced no row
+    private static final short SQLIND_NO_ROW = Short.MIN_VALUE;
     public static final int STATUS_VECTOR_SIZE = 20;
     public static final int MAX_STATEMENT_LENGTH = 64 * 1024;
 
@@ -78,7 +87,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
 
     @Override
     protected void internalDetach() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 clientLibrary.isc_detach_database(statusVector, handle);
                 processStatusVector();
@@ -117,7 +126,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
         final byte[] dbName = getEncoding().encodeToCharset(connection.getAttachUrl());
         final byte[] dpbArray = dpb.toBytesWithType();
 
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 if (create) {
                     clientLibrary.isc_create_database(statusVector, (short) dbName.length, dbName, handle,
@@ -175,7 +184,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
     public void dropDatabase() throws SQLException {
         try {
             checkConnected();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     clientLibrary.isc_drop_database(statusVector, handle);
                     processStatusVector();
@@ -214,7 +223,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
             checkConnected();
             final IntByReference transactionHandle = new IntByReference(0);
             final byte[] tpbArray = tpb.toBytesWithType();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clientLibrary.isc_start_transaction(statusVector, transactionHandle, (short) 1, handle,
                         (short) tpbArray.length, tpbArray);
                 processStatusVector();
@@ -239,7 +248,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
                 transactionIdBuffer[i] = (byte) (transactionId >>> (i * 8));
             }
             final IntByReference transactionHandle = new IntByReference(0);
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clientLibrary.isc_reconnect_transaction(statusVector, handle, transactionHandle,
                         (short) transactionIdBuffer.length, transactionIdBuffer);
                 processStatusVector();
@@ -287,7 +296,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
     public byte[] getDatabaseInfo(final byte[] requestItems, final int maxBufferLength) throws SQLException {
         try {
             final ByteBuffer responseBuffer = ByteBuffer.allocateDirect(maxBufferLength);
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clientLibrary.isc_database_info(statusVector, handle, (short) requestItems.length, requestItems,
                         (short) maxBufferLength, responseBuffer);
                 processStatusVector();
@@ -303,19 +312,14 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
 
     @Override
     public void executeImmediate(String statementText, FbTransaction transaction) throws SQLException {
-        // TODO also implement op_exec_immediate2
         try {
             if (isAttached()) {
                 if (transaction == null) {
                     throw FbExceptionBuilder
                             .forException(JaybirdErrorCodes.jb_executeImmediateRequiresTransactionAttached)
                             .toFlatSQLException();
-                } else if (!(transaction instanceof JnaTransaction)) {
-                    // TODO SQLState and/or Firebird specific error
-                    throw new SQLNonTransientException(
-                            String.format("Invalid transaction handle type: %s, expected: %s",
-                            transaction.getClass(), JnaTransaction.class));
                 }
+                validateTransaction(transaction);
                 checkTransactionActive(transaction);
             } else if (transaction != null) {
                 throw FbExceptionBuilder
@@ -324,7 +328,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
             }
 
             final byte[] statementArray = getEncoding().encodeToCharset(statementText);
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clientLibrary.isc_dsql_execute_immediate(statusVector, handle,
                         transaction != null ? ((JnaTransaction) transaction).getJnaHandle() : new IntByReference(),
                         (short) statementArray.length, statementArray, getConnectionDialect(), null);
@@ -341,6 +345,160 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code isc_dsql_exec_immed2}. The native client does not report whether an output row was
+     * produced: the null indicators of the output are preset to a value the client library never writes, and if
+     * they are unchanged after the call, there was no row and {@code null} is returned.
+     * </p>
+     */
+    @Override
+    public RowValue executeImmediate(String statementText, FbTransaction transaction,
+            RowDescriptor parameterDescriptor, RowValue parameters, RowDescriptor outputDescriptor)
+            throws SQLException {
+        final boolean hasParameters = parameters != null && parameters.getCount() > 0;
+        final boolean hasOutput = outputDescriptor != null && outputDescriptor.getCount() > 0;
+        try {
+            validateExecuteImmediate(transaction, parameterDescriptor, parameters);
+            if (!hasParameters && !hasOutput) {
+                executeImmediate(statementText, transaction);
+                return null;
+            }
+            final JnaTransaction jnaTransaction = validateTransaction(transaction);
+
+            final byte[] statementArray = getEncoding().encodeToCharset(statementText);
+            final XSqlDaBuffer inXSqlDa = XSqlDaBuffer.create(hasParameters ? parameterDescriptor : null);
+            if (hasParameters) {
+                JnaStatement.setXSqlDaData(inXSqlDa, parameterDescriptor, parameters);
+            }
+            final XSqlDaBuffer outXSqlDa = hasOutput ? XSqlDaBuffer.create(outputDescriptor) : null;
+            if (hasOutput) {
+                for (XSQLVAR xSqlVar : outXSqlDa.getXSqlDa().sqlvar) {
+                    xSqlVar.sqlind.setValue(SQLIND_NO_ROW);
+                }
+            }
+            try (LockCloseable ignored = withLock()) {
+                clientLibrary.isc_dsql_exec_immed2(statusVector, handle, jnaTransaction.getJnaHandle(), (short) statementArray.length, statementArray,
+                        getConnectionDialect(), inXSqlDa.getXSqlDa(), hasOutput ? outXSqlDa.getXSqlDa() : null);
+                processStatusVector();
+                if (!hasOutput || outXSqlDa.getXSqlDa().sqlvar[0].sqlind.getValue() == SQLIND_NO_ROW) {
+                    return null;
+                }
+                return outXSqlDa.toRowValue(outputDescriptor);
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code isc_get_slice}; the elements are copied from native memory with a single bulk read.
+     * </p>
+     */
+    @Override
+    public Object getArraySlice(FbTransaction transaction, long arrayId, ArrayDescriptor arrayDescriptor)
+            throws SQLException {
+        try {
+            checkConnected();
+            checkTransactionActive(transaction);
+            final JnaTransaction jnaTransaction = validateTransaction(transaction);
+            final byte[] sdl = arrayDescriptor.getSdl();
+            final int sliceLength = arrayDescriptor.getSliceLength();
+            final Memory slice = new Memory(sliceLength);
+            // Elements not returned by the server remain 0
+            slice.clear();
+            try (LockCloseable ignored = withLock()) {
+                clientLibrary.isc_get_slice(statusVector, handle, jnaTransaction.getJnaHandle(),
+                        new LongByReference(arrayId), (short) sdl.length, sdl, (short) 0, null, sliceLength, slice,
+                        new IntByReference());
+                processStatusVector();
+            }
+            final Object flatArray = arrayDescriptor.newFlatArray();
+            final int count = arrayDescriptor.getElementCount();
+            switch (arrayDescriptor.getBlrType()) {
+            case BlrConstants.blr_short:
+                slice.read(0, (short[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_long:
+                slice.read(0, (int[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_int64:
+                slice.read(0, (long[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_float:
+                slice.read(0, (float[]) flatArray, 0, count);
+                break;
+            default:
+                slice.read(0, (double[]) flatArray, 0, count);
+                break;
+            }
+            return flatArray;
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code isc_put_slice}; the elements are copied to native memory with a single bulk write.
+     * </p>
+     */
+    @Override
+    public long putArraySlice(FbTransaction transaction, ArrayDescriptor arrayDescriptor, Object flatArray)
+            throws SQLException {
+        try {
+            checkConnected();
+            checkTransactionActive(transaction);
+            final JnaTransaction jnaTransaction = validateTransaction(transaction);
+            arrayDescriptor.checkFlatArray(flatArray);
+            final byte[] sdl = arrayDescriptor.getSdl();
+            final int sliceLength = arrayDescriptor.getSliceLength();
+            final Memory slice = new Memory(sliceLength);
+            final int count = arrayDescriptor.getElementCount();
+            switch (arrayDescriptor.getBlrType()) {
+            case BlrConstants.blr_short:
+                slice.write(0, (short[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_long:
+                slice.write(0, (int[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_int64:
+                slice.write(0, (long[]) flatArray, 0, count);
+                break;
+            case BlrConstants.blr_float:
+                slice.write(0, (float[]) flatArray, 0, count);
+                break;
+            default:
+                slice.write(0, (double[]) flatArray, 0, count);
+                break;
+            }
+            final LongByReference arrayId = new LongByReference(0);
+            try (LockCloseable ignored = withLock()) {
+                clientLibrary.isc_put_slice(statusVector, handle, jnaTransaction.getJnaHandle(), arrayId,
+                        (short) sdl.length, sdl, (short) 0, null, sliceLength, slice);
+                processStatusVector();
+            }
+            return arrayId.getValue();
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    private static JnaTransaction validateTransaction(FbTransaction transaction) throws SQLException {
+        if (!(transaction instanceof JnaTransaction)) {
+            throw new FbExceptionBuilder().nonTransientException(ISCConstants.isc_bad_trans_handle)
+                    .toFlatSQLException();
+        }
+        return (JnaTransaction) transaction;
+    }
+
     @Override
     public int getHandle() {
         return handle.getValue();
@@ -372,7 +530,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
     public JnaEventHandle createEventHandle(String eventName, EventHandler eventHandler) throws SQLException {
         // TODO Any JNA errors we need to track and convert to SQLException here?
         final JnaEventHandle eventHandle = new JnaEventHandle(eventName, eventHandler, getEncoding());
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             int size = clientLibrary.isc_event_block(eventHandle.getEventBuffer(), eventHandle.getResultBuffer(),
                     (short) 1, eventHandle.getEventNameMemory());
             eventHandle.setSize(size);
@@ -385,7 +543,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
         try {
             final JnaEventHandle jnaEventHandle = validateEventHandle(eventHandle);
 
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clientLibrary.isc_event_counts(statusVector, (short) jnaEventHandle.getSize(),
                         jnaEventHandle.getEventBuffer().getValue(), jnaEventHandle.getResultBuffer().getValue());
             }
@@ -402,7 +560,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
             checkConnected();
             final JnaEventHandle jnaEventHandle = validateEventHandle(eventHandle);
 
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (Platform.isWindows()) {
                     ((WinFbClientLibrary) clientLibrary).isc_que_events(statusVector, getJnaHandle(),
                             jnaEventHandle.getJnaEventId(),
@@ -428,7 +586,7 @@ public class JnaDatabase extends AbstractFbDatabase<JnaDatabaseConnection>
             checkConnected();
             final JnaEventHandle jnaEventHandle = validateEventHandle(eventHandle);
 
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     clientLibrary.isc_cancel_events(statusVector, getJnaHandle(), jnaEventHandle.getJnaEventId());
                     processStatusVector();
@@ -18,13 +18,13 @@
  */
 package org.firebirdsql.gds.ng.jna;
 
-import com.sun.jna.Memory;
 import com.sun.jna.ptr.IntByReference;
-import com.sun.jna.ptr.ShortByReference;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.*;
+import org.firebirdsql.gds.ng.monitor.StatementOperation;
 import org.firebirdsql.jna.fbclient.FbClientLibrary;
 import org.firebirdsql.jna.fbclient.ISC_STATUS;
 import org.firebirdsql.jna.fbclient.XSQLDA;
@@ -52,8 +52,9 @@ public class JnaStatement extends AbstractFbStatement {
     private JnaDatabase database;
     private final ISC_STATUS[] statusVector = new ISC_STATUS[JnaDatabase.STATUS_VECTOR_SIZE];
     private final FbClientLibrary clientLibrary;
-    private XSQLDA inXSqlDa;
-    private XSQLDA outXSqlDa;
+    private XSqlDaBuffer inXSqlDa;
+    private XSqlDaBuffer outXSqlDa;
+    private boolean cursorNameSet;
 
     public JnaStatement(JnaDatabase database) {
         this.database = database;
@@ -62,30 +63,31 @@ public class JnaStatement extends AbstractFbStatement {
 
     @Override
     protected void setParameterDescriptor(RowDescriptor parameterDescriptor) {
-        final XSQLDA xsqlda = allocateXSqlDa(parameterDescriptor);
-        synchronized (getSynchronizationObject()) {
-            inXSqlDa = xsqlda;
+        try (LockCloseable ignored = withLock()) {
+            inXSqlDa = allocateXSqlDa(inXSqlDa, parameterDescriptor);
             super.setParameterDescriptor(parameterDescriptor);
         }
     }
 
     @Override
     protected void setFieldDescriptor(RowDescriptor fieldDescriptor) {
-        final XSQLDA xsqlda = allocateXSqlDa(fieldDescriptor);
-        synchronized (getSynchronizationObject()) {
-            outXSqlDa = xsqlda;
+        try (LockCloseable ignored = withLock()) {
+            outXSqlDa = allocateXSqlDa(outXSqlDa, fieldDescriptor);
             super.setFieldDescriptor(fieldDescriptor);
         }
     }
 
     @Override
     protected void free(int option) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final JnaDatabase db = getDatabase();
-            synchronized (db.getSynchronizationObject()) {
+            try (LockCloseable ignoredDbLock = db.withLock()) {
                 clientLibrary.isc_dsql_free_statement(statusVector, handle, (short) option);
             }
             processStatusVector();
+            if (option == ISCConstants.DSQL_drop) {
+                cursorNameSet = false;
+            }
             // Reset statement information
             reset(option == ISCConstants.DSQL_drop);
         }
@@ -121,15 +123,16 @@ public class JnaStatement extends AbstractFbStatement {
                         .messageParameter(statementArray.length)
                         .toFlatSQLException();
             }
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkTransactionActive(getTransaction());
                 final StatementState currentState = getState();
                 if (!isPrepareAllowed(currentState)) {
                     throw new SQLNonTransientException(String.format("Current statement state (%s) does not allow call to prepare", currentState));
                 }
                 resetAll();
+                final long startTime = startOperation();
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     if (currentState == StatementState.NEW) {
                         clientLibrary.isc_dsql_allocate_statement(statusVector, db.getJnaHandle(), handle);
                         processStatusVector();
@@ -152,6 +155,7 @@ public class JnaStatement extends AbstractFbStatement {
                     parseStatementInfo(statementInfo);
                 }
                 switchState(StatementState.PREPARED);
+                recordOperation(StatementOperation.PREPARE, startTime);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -163,24 +167,25 @@ public class JnaStatement extends AbstractFbStatement {
     public void execute(RowValue parameters) throws SQLException {
         final StatementState initialState = getState();
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 checkTransactionActive(getTransaction());
                 validateParameters(parameters);
                 reset(false);
 
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     switchState(StatementState.EXECUTING);
 
                     setXSqlDaData(inXSqlDa, getParameterDescriptor(), parameters);
+                    final XSQLDA inSqlDa = inXSqlDa.getXSqlDa();
                     final StatementType statementType = getType();
                     if (statementType.isTypeWithSingletonResult()) {
                         clientLibrary.isc_dsql_execute2(statusVector, getTransaction().getJnaHandle(), handle,
-                                inXSqlDa.version, inXSqlDa, outXSqlDa);
+                                inSqlDa.version, inSqlDa, outXSqlDa.getXSqlDa());
                     } else {
                         clientLibrary.isc_dsql_execute(statusVector, getTransaction().getJnaHandle(), handle,
-                                inXSqlDa.version, inXSqlDa);
+                                inSqlDa.version, inSqlDa);
                     }
                     processStatusVector();
 
@@ -191,7 +196,7 @@ public class JnaStatement extends AbstractFbStatement {
                          */
                         statementListenerDispatcher.statementExecuted(this, false, hasFields);
                         if (hasFields) {
-                            queueRowData(toRowValue(getFieldDescriptor(), outXSqlDa));
+                            queueRowData(outXSqlDa.toRowValue(getFieldDescriptor()));
                             setAllRowsFetched(true);
                         }
                     } else {
@@ -218,16 +223,18 @@ public class JnaStatement extends AbstractFbStatement {
     }
 
     /**
-     * Creates and populates a XSQLDA from the row descriptor and parameter values.
+     * Populates the XSQLDA (and its native buffer) from the row descriptor and parameter values.
      *
-     * @param xSqlDa
-     *         XSQLDA
+     * @param xSqlDaBuffer
+     *         XSQLDA buffer
      * @param rowDescriptor
      *         Row descriptor
      * @param parameters
      *         Parameter values
      */
-    protected void setXSqlDaData(final XSQLDA xSqlDa, final RowDescriptor rowDescriptor, final RowValue parameters) {
+    static void setXSqlDaData(final XSqlDaBuffer xSqlDaBuffer, final RowDescriptor rowDescriptor,
+            final RowValue parameters) {
+        final XSQLDA xSqlDa = xSqlDaBuffer.getXSqlDa();
         for (int idx = 0; idx < parameters.getCount(); idx++) {
             final XSQLVAR xSqlVar = xSqlDa.sqlvar[idx];
             // Zero-fill sqldata
@@ -255,121 +262,79 @@ public class JnaStatement extends AbstractFbStatement {
                     xSqlVar.sqllen = (short) Math.min(fieldDescriptor.getLength(), fieldData.length);
                     if (fieldDescriptor.getSubType() != ISCConstants.CS_BINARY) {
                         // Non-binary CHAR field: fill with spaces
-                        xSqlVar.sqldata.setMemory(0, xSqlVar.sqllen & 0xff, (byte) ' ');
+                        xSqlVar.sqldata.setMemory(0, xSqlVar.sqllen & 0xffff, (byte) ' ');
                     }
                 }
                 xSqlVar.sqldata.write(bufferOffset, fieldData, 0, fieldData.length);
             }
         }
+        // sqllen may have changed
+        xSqlDaBuffer.writeStructure();
     }
 
     /**
-     * Creates an XSQLDA, populates type information and allocates memory for the sqldata fields.
+     * Creates an XSQLDA, populates type information and allocates a single native buffer for the sqldata and sqlind
+     * fields of all columns.
+     * <p>
+     * If {@code current} has the same layout as required for {@code rowDescriptor}, it is reused instead.
+     * </p>
      *
+     * @param current
+     *         Currently allocated XSQLDA buffer (can be {@code null})
      * @param rowDescriptor
      *         The row descriptor
-     * @return Allocated XSQLDA without data
+     * @return Allocated XSQLDA buffer without data
      */
-    protected XSQLDA allocateXSqlDa(RowDescriptor rowDescriptor) {
-        if (rowDescriptor == null || rowDescriptor.getCount() == 0) {
-            final XSQLDA xSqlDa = new XSQLDA(1);
-            xSqlDa.sqld = xSqlDa.sqln = 0;
-            return xSqlDa;
-        }
-        final XSQLDA xSqlDa = new XSQLDA(rowDescriptor.getCount());
-
-        for (int idx = 0; idx < rowDescriptor.getCount(); idx++) {
-            final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
-            final XSQLVAR xSqlVar = xSqlDa.sqlvar[idx];
-
-            xSqlVar.sqltype = (short) (fieldDescriptor.getType() | 1); // Always make nullable
-            xSqlVar.sqlsubtype = (short) fieldDescriptor.getSubType();
-            xSqlVar.sqlscale = (short) fieldDescriptor.getScale();
-            xSqlVar.sqllen = (short) fieldDescriptor.getLength();
-            xSqlVar.sqlind = new ShortByReference();
-
-            final int requiredDataSize = fieldDescriptor.isVarying()
-                    ? fieldDescriptor.getLength() + 3 // 2 bytes for length, 1 byte for nul terminator
-                    : fieldDescriptor.getLength() + 1; // 1 byte for nul terminator
-
-            xSqlVar.sqldata = new Memory(requiredDataSize);
-        }
-        return xSqlDa;
-    }
-
-    /**
-     * Converts the data from an XSQLDA to a RowValue.
-     *
-     * @param rowDescriptor
-     *         Row descriptor
-     * @param xSqlDa
-     *         XSQLDA
-     * @return Row value
-     */
-    protected RowValue toRowValue(RowDescriptor rowDescriptor, XSQLDA xSqlDa) {
-        final RowValueBuilder row = new RowValueBuilder(rowDescriptor);
-
-        for (int idx = 0; idx < xSqlDa.sqlvar.length; idx++) {
-            final XSQLVAR xSqlVar = xSqlDa.sqlvar[idx];
-
-            row.setFieldIndex(idx);
-
-            if (xSqlVar.sqlind.getValue() == XSQLVAR.SQLIND_NULL) {
-                row.set(null);
-            } else {
-                int bufferOffset = 0;
-                int bufferLength = xSqlVar.sqllen;
-
-                if (rowDescriptor.getFieldDescriptor(idx).isVarying()) {
-                    bufferOffset = 2;
-                    bufferLength = xSqlVar.sqldata.getShort(0) & 0xff;
-                }
-
-                byte[] data = new byte[bufferLength];
-                xSqlVar.sqldata.read(bufferOffset, data, 0, bufferLength);
-                row.set(data);
-            }
-        }
-        return row.toRowValue(false);
+    XSqlDaBuffer allocateXSqlDa(XSqlDaBuffer current, RowDescriptor rowDescriptor) {
+        return XSqlDaBuffer.reuseOrCreate(current, rowDescriptor);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * The JNA implementation ignores the specified {@code fetchSize} to prevent problems with - for example -
-     * positioned updates with named cursors. For the wire protocol that case is handled by the server ignoring the
-     * fetch size. Internally the native fetch will batch a number of records, but the number is outside our control.
+     * The JNA implementation calls {@code isc_dsql_fetch} up to {@code fetchSize} times. If a cursor name has been
+     * set, only a single row is fetched to prevent problems with positioned updates. For the wire protocol that case
+     * is handled by the server ignoring the fetch size. Internally the native fetch will batch a number of records,
+     * but the number is outside our control.
      * </p>
      */
     @Override
     public void fetchRows(int fetchSize) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 if (!getState().isCursorOpen()) {
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_cursor_not_open).toSQLException();
                 }
                 if (isAllRowsFetched()) return;
 
+                final long startTime = startOperation();
+                final int maxRows = cursorNameSet ? 1 : Math.max(fetchSize, 1);
+                final RowDescriptor fieldDescriptor = getFieldDescriptor();
+                final XSQLDA outSqlDa = outXSqlDa.getXSqlDa();
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
-                    final ISC_STATUS fetchStatus = clientLibrary.isc_dsql_fetch(statusVector, handle, outXSqlDa.version,
-                            outXSqlDa);
-                    processStatusVector();
+                try (LockCloseable ignoredDbLock = db.withLock()) {
+                    for (int row = 0; row < maxRows; row++) {
+                        final ISC_STATUS fetchStatus = clientLibrary.isc_dsql_fetch(statusVector, handle,
+                                outSqlDa.version, outSqlDa);
+                        processStatusVector();
 
-                    int fetchStatusInt = fetchStatus.intValue();
-                    if (fetchStatusInt == ISCConstants.FETCH_OK) {
-                        queueRowData(toRowValue(getFieldDescriptor(), outXSqlDa));
-                    } else if (fetchStatusInt == ISCConstants.FETCH_NO_MORE_ROWS) {
-                        setAllRowsFetched(true);
-                        getSqlCounts();
-                        // Note: we are not explicitly 'closing' the cursor here
-                    } else {
-                        final String message = "Unexpected fetch status (expected 0 or 100): " + fetchStatusInt;
-                        log.error(message);
-                        throw new SQLException(message);
+                        int fetchStatusInt = fetchStatus.intValue();
+                        if (fetchStatusInt == ISCConstants.FETCH_OK) {
+                            queueRowData(outXSqlDa.toRowValue(fieldDescriptor));
+                        } else if (fetchStatusInt == ISCConstants.FETCH_NO_MORE_ROWS) {
+                            setAllRowsFetched(true);
+                            getSqlCounts();
+                            // Note: we are not explicitly 'closing' the cursor here
+                            break;
+                        } else {
+                            final String message = "Unexpected fetch status (expected 0 or 100): " + fetchStatusInt;
+                            log.error(message);
+                            throw new SQLException(message);
+                        }
                     }
                 }
+                recordOperation(StatementOperation.FETCH, startTime);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -382,10 +347,10 @@ public class JnaStatement extends AbstractFbStatement {
         try {
             final ByteBuffer responseBuffer = ByteBuffer.allocateDirect(bufferLength);
 
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_dsql_sql_info(statusVector, handle,
                             (short) requestItems.length, requestItems,
                             (short) bufferLength, responseBuffer);
@@ -417,10 +382,10 @@ public class JnaStatement extends AbstractFbStatement {
     @Override
     public void setCursorName(String cursorName) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 final JnaDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_dsql_set_cursor_name(statusVector, handle,
                             // Null termination is needed due to a quirk of the protocol
                             db.getEncoding().encodeToCharset(cursorName + '\0'),
@@ -428,6 +393,7 @@ public class JnaStatement extends AbstractFbStatement {
                             (short) 0);
                 }
                 processStatusVector();
+                cursorNameSet = true;
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
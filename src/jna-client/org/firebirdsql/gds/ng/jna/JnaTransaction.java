@@ -20,6 +20,7 @@ package org.firebirdsql.gds.ng.jna;
 
 import com.sun.jna.ptr.IntByReference;
 import org.firebirdsql.gds.ng.AbstractFbTransaction;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.TransactionState;
 import org.firebirdsql.jna.fbclient.FbClientLibrary;
 import org.firebirdsql.jna.fbclient.ISC_STATUS;
@@ -77,11 +78,11 @@ public class JnaTransaction extends AbstractFbTransaction {
     @Override
     public void commit() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 final JnaDatabase db = getDatabase();
                 db.checkConnected();
                 switchState(TransactionState.COMMITTING);
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_commit_transaction(statusVector, handle);
                 }
                 processStatusVector();
@@ -102,11 +103,11 @@ public class JnaTransaction extends AbstractFbTransaction {
     @Override
     public void rollback() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 final JnaDatabase db = getDatabase();
                 db.checkConnected();
                 switchState(TransactionState.ROLLING_BACK);
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_rollback_transaction(statusVector, handle);
                 }
                 processStatusVector();
@@ -127,11 +128,11 @@ public class JnaTransaction extends AbstractFbTransaction {
     @Override
     public void prepare(byte[] recoveryInformation) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 final JnaDatabase db = getDatabase();
                 db.checkConnected();
                 switchState(TransactionState.PREPARING);
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     if (recoveryInformation == null || recoveryInformation.length == 0) {
                         clientLibrary.isc_prepare_transaction(statusVector, handle);
                     } else {
@@ -156,10 +157,10 @@ public class JnaTransaction extends AbstractFbTransaction {
     public byte[] getTransactionInfo(byte[] requestItems, int maxBufferLength) throws SQLException {
         try {
             final ByteBuffer responseBuffer = ByteBuffer.allocateDirect(maxBufferLength);
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 final JnaDatabase db = getDatabase();
                 db.checkConnected();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     clientLibrary.isc_transaction_info(statusVector, handle, (short) requestItems.length, requestItems,
                             (short) maxBufferLength, responseBuffer);
                 }
@@ -73,6 +73,23 @@ public final class LittleEndianDatatypeCoder extends DefaultDatatypeCoder {
         return (b1 + (b2 << 8) + (b3 << 16) + (b4 << 24));
     }
 
+    @Override
+    protected int decodeInt(byte[] buffer, int offset) {
+        int b1 = buffer[offset] & 0xFF;
+        int b2 = buffer[offset + 1] & 0xFF;
+        int b3 = buffer[offset + 2] & 0xFF;
+        int b4 = buffer[offset + 3] & 0xFF;
+        return (b1 + (b2 << 8) + (b3 << 16) + (b4 << 24));
+    }
+
+    @Override
+    protected void encodeInt(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) (value & 0xff);
+        buffer[offset + 1] = (byte) ((value >>> 8) & 0xff);
+        buffer[offset + 2] = (byte) ((value >>> 16) & 0xff);
+        buffer[offset + 3] = (byte) ((value >>> 24) & 0xff);
+    }
+
     @Override
     public byte[] encodeLong(long value) {
         byte[] ret = new byte[8];
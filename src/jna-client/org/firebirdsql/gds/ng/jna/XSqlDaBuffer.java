@@ -0,0 +1,214 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.jna;
+
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.ShortByReference;
+import org.firebirdsql.gds.ng.fields.FieldDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.fields.RowValueBuilder;
+import org.firebirdsql.jna.fbclient.XSQLDA;
+import org.firebirdsql.jna.fbclient.XSQLVAR;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An {@link XSQLDA} together with a single native buffer for the data and null indicators of all its columns.
+ * <p>
+ * The XSQLDA is written to native memory once on creation and automatic synchronization of the structure is
+ * disabled: the native calls only change the column data and null indicators, which are read directly from the
+ * buffer. Code that changes fields of the structure itself (eg {@code sqllen} of a parameter) must call
+ * {@link #writeStructure()} before passing the XSQLDA to a native call.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class XSqlDaBuffer {
+
+    private static final int DATA_ALIGNMENT = 8;
+    private static final int INDICATOR_SIZE = 2;
+
+    private final RowDescriptor rowDescriptor;
+    private final XSQLDA xSqlDa;
+    private final Memory buffer;
+    private final int[] dataOffsets;
+    private final int[] indicatorOffsets;
+    private final boolean[] varying;
+    private byte[] rowBytes;
+    private ByteBuffer rowByteBuffer;
+
+    private XSqlDaBuffer(RowDescriptor rowDescriptor) {
+        this.rowDescriptor = rowDescriptor;
+        final int count = rowDescriptor != null ? rowDescriptor.getCount() : 0;
+        dataOffsets = new int[count];
+        indicatorOffsets = new int[count];
+        varying = new boolean[count];
+        if (count == 0) {
+            xSqlDa = new XSQLDA(1);
+            xSqlDa.sqld = xSqlDa.sqln = 0;
+            buffer = null;
+        } else {
+            xSqlDa = new XSQLDA(count);
+            int offset = 0;
+            for (int idx = 0; idx < count; idx++) {
+                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
+                varying[idx] = fieldDescriptor.isVarying();
+                offset = align(offset, DATA_ALIGNMENT);
+                dataOffsets[idx] = offset;
+                offset += requiredDataSize(fieldDescriptor);
+                offset = align(offset, INDICATOR_SIZE);
+                indicatorOffsets[idx] = offset;
+                offset += INDICATOR_SIZE;
+            }
+            buffer = new Memory(offset);
+            buffer.clear();
+
+            for (int idx = 0; idx < count; idx++) {
+                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
+                final XSQLVAR xSqlVar = xSqlDa.sqlvar[idx];
+
+                xSqlVar.sqltype = (short) (fieldDescriptor.getType() | 1); // Always make nullable
+                xSqlVar.sqlsubtype = (short) fieldDescriptor.getSubType();
+                xSqlVar.sqlscale = (short) fieldDescriptor.getScale();
+                xSqlVar.sqllen = (short) fieldDescriptor.getLength();
+                xSqlVar.sqldata = buffer.share(dataOffsets[idx], requiredDataSize(fieldDescriptor));
+                final ShortByReference sqlind = new ShortByReference();
+                sqlind.setPointer(buffer.share(indicatorOffsets[idx], INDICATOR_SIZE));
+                xSqlVar.sqlind = sqlind;
+            }
+        }
+        writeStructure();
+        xSqlDa.setAutoSynch(false);
+    }
+
+    /**
+     * Creates the XSQLDA and buffer for a row descriptor.
+     *
+     * @param rowDescriptor
+     *         Row descriptor (can be {@code null})
+     * @return XSQLDA buffer
+     */
+    static XSqlDaBuffer create(RowDescriptor rowDescriptor) {
+        return new XSqlDaBuffer(rowDescriptor);
+    }
+
+    /**
+     * Returns this buffer if it has the same layout as needed for {@code rowDescriptor}, otherwise creates a new
+     * buffer.
+     *
+     * @param current
+     *         Current buffer (can be {@code null})
+     * @param rowDescriptor
+     *         Row descriptor (can be {@code null})
+     * @return {@code current} or a new buffer
+     */
+    static XSqlDaBuffer reuseOrCreate(XSqlDaBuffer current, RowDescriptor rowDescriptor) {
+        if (current != null && current.hasLayoutOf(rowDescriptor)) {
+            return current;
+        }
+        return create(rowDescriptor);
+    }
+
+    /**
+     * @return The XSQLDA structure
+     */
+    XSQLDA getXSqlDa() {
+        return xSqlDa;
+    }
+
+    /**
+     * Writes the XSQLDA structure to native memory.
+     */
+    void writeStructure() {
+        xSqlDa.write();
+    }
+
+    /**
+     * Converts the current data in the buffer to a row value.
+     * <p>
+     * The data of all columns is read from native memory in a single call.
+     * </p>
+     *
+     * @param rowDescriptor
+     *         Row descriptor of the row value
+     * @return Row value
+     */
+    RowValue toRowValue(RowDescriptor rowDescriptor) {
+        final RowValueBuilder row = new RowValueBuilder(rowDescriptor);
+        final int count = dataOffsets.length;
+        if (count == 0) {
+            return row.toRowValue(false);
+        }
+        final ByteBuffer rowData = readRowData();
+        for (int idx = 0; idx < count; idx++) {
+            row.setFieldIndex(idx);
+            if (rowData.getShort(indicatorOffsets[idx]) == XSQLVAR.SQLIND_NULL) {
+                row.set(null);
+            } else {
+                int bufferOffset = dataOffsets[idx];
+                final int bufferLength;
+                if (varying[idx]) {
+                    bufferLength = rowData.getShort(bufferOffset) & 0xffff;
+                    bufferOffset += 2;
+                } else {
+                    bufferLength = xSqlDa.sqlvar[idx].sqllen & 0xffff;
+                }
+                final byte[] data = new byte[bufferLength];
+                System.arraycopy(rowBytes, bufferOffset, data, 0, bufferLength);
+                row.set(data);
+            }
+        }
+        return row.toRowValue(false);
+    }
+
+    private ByteBuffer readRowData() {
+        final int size = (int) buffer.size();
+        if (rowBytes == null) {
+            rowBytes = new byte[size];
+            rowByteBuffer = ByteBuffer.wrap(rowBytes).order(ByteOrder.nativeOrder());
+        }
+        buffer.read(0, rowBytes, 0, size);
+        return rowByteBuffer;
+    }
+
+    private boolean hasLayoutOf(RowDescriptor other) {
+        final int count = other != null ? other.getCount() : 0;
+        if (count != dataOffsets.length) {
+            return false;
+        }
+        for (int idx = 0; idx < count; idx++) {
+            if (!rowDescriptor.getFieldDescriptor(idx).typeEquals(other.getFieldDescriptor(idx))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int requiredDataSize(FieldDescriptor fieldDescriptor) {
+        return fieldDescriptor.isVarying()
+                ? fieldDescriptor.getLength() + 3 // 2 bytes for length, 1 byte for nul terminator
+                : fieldDescriptor.getLength() + 1; // 1 byte for nul terminator
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) & ~(alignment - 1);
+    }
+}
@@ -364,6 +364,13 @@ public interface FbClientLibrary extends com.sun.jna.Library {
 	ISC_STATUS isc_get_slice(ISC_STATUS[] statusVector, IntByReference dbHandle, IntByReference trHandle,
             GDS_QUAD_t arrayId, short s1, byte ISC_SCHARPtr1[], short s2, int ISC_LONGPtr1[], int ISC_LONG1,
             Pointer voidPtr1, IntBuffer ISC_LONGPtr2);
+	/**
+	 * Original signature : <code>ISC_STATUS isc_get_slice(ISC_STATUS*, isc_db_handle*, isc_tr_handle*, ISC_QUAD*, short, const ISC_SCHAR*, short, const ISC_LONG*, ISC_LONG, void*, ISC_LONG*)</code><br>
+	 * <i>native declaration : C:\Program Files\Firebird\Firebird_2_5\include\ibase.h:686</i>
+	 */
+	ISC_STATUS isc_get_slice(ISC_STATUS[] statusVector, IntByReference dbHandle, IntByReference trHandle,
+            LongByReference arrayId, short sdlLength, byte[] sdl, short paramLength, int[] params, int sliceLength,
+            Pointer slice, IntByReference returnLength);
 	/**
 	 * CVC: This non-const signature is needed for compatibility, see gds.cpp.<br>
 	 * Original signature : <code>ISC_LONG isc_interprete(ISC_SCHAR*, ISC_STATUS**)</code><br>
@@ -413,6 +420,13 @@ public interface FbClientLibrary extends com.sun.jna.Library {
 	ISC_STATUS isc_put_slice(ISC_STATUS[] statusVector, IntByReference dbHandle, IntByReference trHandle,
             GDS_QUAD_t arrayId, short s1, byte ISC_SCHARPtr1[], short s2, int ISC_LONGPtr1[], int ISC_LONG1,
             Pointer voidPtr1);
+	/**
+	 * Original signature : <code>ISC_STATUS isc_put_slice(ISC_STATUS*, isc_db_handle*, isc_tr_handle*, ISC_QUAD*, short, const ISC_SCHAR*, short, const ISC_LONG*, ISC_LONG, void*)</code><br>
+	 * <i>native declaration : C:\Program Files\Firebird\Firebird_2_5\include\ibase.h:736</i>
+	 */
+	ISC_STATUS isc_put_slice(ISC_STATUS[] statusVector, IntByReference dbHandle, IntByReference trHandle,
+            LongByReference arrayId, short sdlLength, byte[] sdl, short paramLength, int[] params, int sliceLength,
+            Pointer slice);
 	/**
 	 * Original signature : <code>ISC_STATUS isc_que_events(ISC_STATUS*, isc_db_handle*, ISC_LONG*, short, const ISC_UCHAR*, ISC_EVENT_CALLBACK, void*)</code><br>
 	 * <i>native declaration : C:\Program Files\Firebird\Firebird_2_5\include\ibase.h:747</i>
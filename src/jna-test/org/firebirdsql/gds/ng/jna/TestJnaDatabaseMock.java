@@ -0,0 +1,138 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.jna;
+
+import com.sun.jna.ptr.IntByReference;
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.FbConnectionProperties;
+import org.firebirdsql.gds.ng.TransactionState;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptorBuilder;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.jna.fbclient.FbClientLibrary;
+import org.firebirdsql.jna.fbclient.ISC_STATUS;
+import org.firebirdsql.jna.fbclient.XSQLDA;
+import org.firebirdsql.jna.fbclient.XSQLVAR;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JnaDatabase} execute immediate behaviour using a stub {@link FbClientLibrary} (no native client
+ * library or database required).
+ *
+ * @since 3.0
+ */
+public class TestJnaDatabaseMock {
+
+    private static final String SQL = "select 1 from rdb$database where 1 = ?";
+
+    private final StubClientLibrary stub = new StubClientLibrary();
+    private AttachedJnaDatabase database;
+    private JnaTransaction transaction;
+    private RowDescriptor descriptor;
+    private RowValue parameters;
+
+    @Before
+    public void setUp() throws Exception {
+        final FbClientLibrary clientLibrary = (FbClientLibrary) Proxy.newProxyInstance(
+                FbClientLibrary.class.getClassLoader(), new Class<?>[] { FbClientLibrary.class }, stub);
+        final FbConnectionProperties connectionProperties = new FbConnectionProperties();
+        connectionProperties.setEncoding("NONE");
+        database = new AttachedJnaDatabase(new JnaDatabaseConnection(clientLibrary, connectionProperties));
+        transaction = new JnaTransaction(database, new IntByReference(1), TransactionState.ACTIVE);
+        descriptor = new RowDescriptorBuilder(1, database.getDatatypeCoder())
+                .setType(ISCConstants.SQL_LONG | 1).setLength(4).setFieldName("ID").addField()
+                .toRowDescriptor();
+        parameters = RowValue.of(descriptor, database.getDatatypeCoder().encodeInt(1));
+    }
+
+    @Test
+    public void testExecuteImmediate_row() throws Exception {
+        stub.outputValue = 5;
+
+        final RowValue row = database.executeImmediate(SQL, transaction, descriptor, parameters, descriptor);
+
+        assertNotNull("Expected a row", row);
+        assertEquals(5, database.getDatatypeCoder().decodeInt(row.getFieldValue(0).getFieldData()));
+    }
+
+    @Test
+    public void testExecuteImmediate_nullValue() throws Exception {
+        stub.outputValue = null;
+
+        final RowValue row = database.executeImmediate(SQL, transaction, descriptor, parameters, descriptor);
+
+        assertNotNull("Expected a row", row);
+        assertNull(row.getFieldValue(0).getFieldData());
+    }
+
+    @Test
+    public void testExecuteImmediate_noRow() throws Exception {
+        stub.produceRow = false;
+
+        assertNull("Expected no row, as in the wire protocol implementation",
+                database.executeImmediate(SQL, transaction, descriptor, parameters, descriptor));
+    }
+
+    private static final class AttachedJnaDatabase extends JnaDatabase {
+
+        private AttachedJnaDatabase(JnaDatabaseConnection connection) {
+            super(connection);
+            setAttached();
+        }
+    }
+
+    /**
+     * Stub for the client library that produces a row for {@code isc_dsql_exec_immed2}, or leaves the output
+     * untouched if {@link #produceRow} is {@code false}.
+     */
+    private static final class StubClientLibrary implements InvocationHandler {
+
+        private boolean produceRow = true;
+        private Integer outputValue;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final ISC_STATUS[] statusVector = (ISC_STATUS[]) args[0];
+            Arrays.fill(statusVector, new ISC_STATUS(0));
+            switch (method.getName()) {
+            case "isc_dsql_exec_immed2":
+                if (produceRow) {
+                    final XSQLVAR outVar = ((XSQLDA) args[7]).sqlvar[0];
+                    if (outputValue != null) {
+                        outVar.sqldata.setInt(0, outputValue);
+                        outVar.sqlind.setValue(XSQLVAR.SQLIND_NOT_NULL);
+                    } else {
+                        outVar.sqlind.setValue(XSQLVAR.SQLIND_NULL);
+                    }
+                }
+                return new ISC_STATUS(0);
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.jna;
+
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.FbConnectionProperties;
+import org.firebirdsql.gds.ng.StatementState;
+import org.firebirdsql.gds.ng.StatementType;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptorBuilder;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.wire.SimpleStatementListener;
+import org.firebirdsql.jna.fbclient.FbClientLibrary;
+import org.firebirdsql.jna.fbclient.ISC_STATUS;
+import org.firebirdsql.jna.fbclient.XSQLDA;
+import org.firebirdsql.jna.fbclient.XSQLVAR;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link JnaStatement} fetch behaviour using a stub {@link FbClientLibrary} (no native client library or
+ * database required).
+ *
+ * @since 3.0
+ */
+public class TestJnaStatementMock {
+
+    private static final int ROW_COUNT = 5;
+    private static final int VARCHAR_LENGTH = 300;
+
+    private final StubClientLibrary stub = new StubClientLibrary();
+    private TestableJnaStatement statement;
+    private SimpleStatementListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        final FbClientLibrary clientLibrary = (FbClientLibrary) Proxy.newProxyInstance(
+                FbClientLibrary.class.getClassLoader(), new Class<?>[] { FbClientLibrary.class }, stub);
+        final FbConnectionProperties connectionProperties = new FbConnectionProperties();
+        connectionProperties.setEncoding("NONE");
+        final JnaDatabase database = new JnaDatabaseConnection(clientLibrary, connectionProperties).identify();
+
+        final RowDescriptor rowDescriptor = new RowDescriptorBuilder(2, database.getDatatypeCoder())
+                .setType(ISCConstants.SQL_LONG | 1).setLength(4).setFieldName("ID").addField()
+                .setType(ISCConstants.SQL_VARYING | 1).setLength(VARCHAR_LENGTH).setFieldName("VAL").addField()
+                .toRowDescriptor();
+        statement = new TestableJnaStatement(database);
+        statement.openCursor(rowDescriptor);
+        listener = new SimpleStatementListener();
+        statement.addStatementListener(listener);
+    }
+
+    @Test
+    public void testFetchRows_fetchesUpToFetchSize() throws Exception {
+        statement.fetchRows(3);
+
+        assertEquals("Expected one isc_dsql_fetch per row", 3, stub.fetchCount);
+        assertEquals(3, listener.getRows().size());
+        assertNull("Not all rows fetched yet", listener.isAllRowsFetched());
+
+        statement.fetchRows(10);
+
+        assertEquals("Expected remaining rows and end of cursor", 3 + 3, stub.fetchCount);
+        assertEquals(ROW_COUNT, listener.getRows().size());
+        assertEquals(Boolean.TRUE, listener.isAllRowsFetched());
+    }
+
+    @Test
+    public void testFetchRows_rowValues() throws Exception {
+        statement.fetchRows(ROW_COUNT + 1);
+
+        final List<RowValue> rows = listener.getRows();
+        assertEquals(ROW_COUNT, rows.size());
+        for (int rowIdx = 0; rowIdx < ROW_COUNT; rowIdx++) {
+            final RowValue row = rows.get(rowIdx);
+            assertEquals(rowIdx, statement.getDatabase().getDatatypeCoder()
+                    .decodeInt(row.getFieldValue(0).getFieldData()));
+            if (rowIdx == 2) {
+                assertNull("Expected null for row 2", row.getFieldValue(1).getFieldData());
+            } else {
+                assertArrayEquals(expectedValue(rowIdx), row.getFieldValue(1).getFieldData());
+            }
+        }
+    }
+
+    @Test
+    public void testFetchRows_cursorNameFetchesSingleRow() throws Exception {
+        statement.setCursorName("NAMED_CURSOR");
+
+        statement.fetchRows(10);
+
+        assertEquals(1, stub.fetchCount);
+        assertEquals(1, listener.getRows().size());
+    }
+
+    /**
+     * Value of the VARCHAR column; row 4 exceeds 255 bytes to check the full length is used.
+     */
+    private static byte[] expectedValue(int rowIdx) {
+        final byte[] value = new byte[rowIdx == 4 ? VARCHAR_LENGTH : rowIdx + 1];
+        Arrays.fill(value, (byte) ('a' + rowIdx));
+        return value;
+    }
+
+    private static final class TestableJnaStatement extends JnaStatement {
+
+        private TestableJnaStatement(JnaDatabase database) {
+            super(database);
+        }
+
+        void openCursor(RowDescriptor rowDescriptor) throws SQLException {
+            switchState(StatementState.ALLOCATED);
+            setType(StatementType.SELECT);
+            setFieldDescriptor(rowDescriptor);
+            switchState(StatementState.PREPARED);
+            switchState(StatementState.EXECUTING);
+            switchState(StatementState.CURSOR_OPEN);
+        }
+    }
+
+    /**
+     * Stub for the client library that produces {@link #ROW_COUNT} rows for {@code isc_dsql_fetch}.
+     */
+    private static final class StubClientLibrary implements InvocationHandler {
+
+        private int fetchCount;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final ISC_STATUS[] statusVector = (ISC_STATUS[]) args[0];
+            Arrays.fill(statusVector, new ISC_STATUS(0));
+            switch (method.getName()) {
+            case "isc_dsql_fetch":
+                return fetch((XSQLDA) args[3]);
+            case "isc_dsql_sql_info":
+                ((ByteBuffer) args[5]).put(0, (byte) ISCConstants.isc_info_end);
+                return new ISC_STATUS(0);
+            case "isc_dsql_set_cursor_name":
+                return new ISC_STATUS(0);
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private ISC_STATUS fetch(XSQLDA xSqlDa) {
+            final int rowIdx = fetchCount++;
+            if (rowIdx >= ROW_COUNT) {
+                return new ISC_STATUS(ISCConstants.FETCH_NO_MORE_ROWS);
+            }
+            final XSQLVAR idVar = xSqlDa.sqlvar[0];
+            idVar.sqldata.setInt(0, rowIdx);
+            idVar.sqlind.setValue(XSQLVAR.SQLIND_NOT_NULL);
+
+            final XSQLVAR valueVar = xSqlDa.sqlvar[1];
+            if (rowIdx == 2) {
+                valueVar.sqlind.setValue(XSQLVAR.SQLIND_NULL);
+            } else {
+                final byte[] value = expectedValue(rowIdx);
+                valueVar.sqldata.setShort(0, (short) value.length);
+                valueVar.sqldata.write(2, value, 0, value.length);
+                valueVar.sqlind.setValue(XSQLVAR.SQLIND_NOT_NULL);
+            }
+            return new ISC_STATUS(ISCConstants.FETCH_OK);
+        }
+    }
+}
@@ -86,4 +86,18 @@ public class TestLittleEndianDatatypeCoder {
 
         assertEquals(0b1000_0001_0100_0010_0010_0100_0001_1000_1001_0001_0101_0010_0010_1100_0001_1010L, result);
     }
+
+    @Test
+    public void encodeTimestamp_dateAndTimeLittleEndian() {
+        java.sql.Timestamp testValue = java.sql.Timestamp.valueOf("2014-03-29 17:43:01.9751");
+        byte[] result = datatypeCoder.encodeTimestamp(testValue);
+
+        byte[] date = new byte[4];
+        System.arraycopy(result, 0, date, 0, 4);
+        byte[] time = new byte[4];
+        System.arraycopy(result, 4, time, 0, 4);
+        assertArrayEquals(datatypeCoder.encodeDate(java.sql.Date.valueOf("2014-03-29")), date);
+        assertEquals(17 * 36000000 + 43 * 600000 + 1 * 10000 + 9751, datatypeCoder.decodeInt(time));
+        assertEquals(testValue, datatypeCoder.decodeTimestamp(result));
+    }
 }
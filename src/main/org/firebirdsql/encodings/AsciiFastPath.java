@@ -0,0 +1,136 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.encodings;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Helper methods for encoding and decoding strings that only consist of ASCII characters, which is the common case
+ * for most character sets.
+ * <p>
+ * The checks for ASCII accumulate the values of the whole range before doing a single comparison; without a branch
+ * per element, the JIT can unroll and vectorize these loops.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class AsciiFastPath {
+
+    /**
+     * Strings that switch the state of stateful character sets (ISO-2022 escape sequences, shift out/shift in,
+     * UTF-7 and HZ), these do not decode to themselves in those character sets.
+     */
+    private static final String[] STATEFUL_PROBES = {
+            "\u001B$B$\"\u001B(B", "\u001B$)A\u000E!!\u000F", "+AGEAYQ-", "~{<:~}"
+    };
+
+    private AsciiFastPath() {
+        // no instances
+    }
+
+    /**
+     * Checks if the ASCII fast path can be used for a character set.
+     * <p>
+     * This is the case if all ASCII characters (0x00 - 0x7F) map to the identical byte value and vice versa, and the
+     * character set does not use ASCII characters to switch state.
+     * </p>
+     *
+     * @param charset
+     *         Character set (can be {@code null})
+     * @return {@code true} if strings of only ASCII characters can be encoded and decoded without using
+     * {@code charset}
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        if (charset == null) {
+            return false;
+        }
+        try {
+            final byte[] asciiBytes = new byte[0x80];
+            for (int i = 0; i < asciiBytes.length; i++) {
+                asciiBytes[i] = (byte) i;
+                final String decoded = new String(asciiBytes, i, 1, charset);
+                if (decoded.length() != 1 || decoded.charAt(0) != i) {
+                    return false;
+                }
+            }
+            final String asciiChars = decodeAscii(asciiBytes, 0, asciiBytes.length);
+            if (!Arrays.equals(asciiBytes, asciiChars.getBytes(charset))
+                    || !asciiChars.equals(new String(asciiBytes, charset))) {
+                return false;
+            }
+            for (String probe : STATEFUL_PROBES) {
+                final byte[] probeBytes = encodeAscii(probe);
+                if (!probe.equals(new String(probeBytes, charset))
+                        || !Arrays.equals(probeBytes, probe.getBytes(charset))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Eg encode not supported by the charset
+            return false;
+        }
+    }
+
+    /**
+     * @return {@code true} if all bytes in the range are ASCII (0x00 - 0x7F)
+     */
+    static boolean isAscii(final byte[] in, final int offset, final int length) {
+        int accumulated = 0;
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            accumulated |= in[i];
+        }
+        return accumulated >= 0;
+    }
+
+    /**
+     * @return {@code true} if all characters of the string are ASCII (0x00 - 0x7F)
+     */
+    static boolean isAscii(final String str) {
+        int accumulated = 0;
+        final int length = str.length();
+        for (int i = 0; i < length; i++) {
+            accumulated |= str.charAt(i);
+        }
+        return accumulated < 0x80;
+    }
+
+    /**
+     * Decodes bytes that are all ASCII (see {@link #isAscii(byte[], int, int)}).
+     */
+    @SuppressWarnings("deprecation")
+    static String decodeAscii(final byte[] in, final int offset, final int length) {
+        // Deprecated constructor with high byte 0 is an ISO-8859-1 decode without charset lookup or decoder
+        return new String(in, 0, offset, length);
+    }
+
+    /**
+     * Encodes a string of only ASCII characters (see {@link #isAscii(String)}).
+     */
+    @SuppressWarnings("deprecation")
+    static byte[] encodeAscii(final String str) {
+        final int length = str.length();
+        final byte[] result = new byte[length];
+        // Deprecated method copies the low byte of each char, without charset lookup or encoder
+        str.getBytes(0, length, result, 0);
+        return result;
+    }
+}
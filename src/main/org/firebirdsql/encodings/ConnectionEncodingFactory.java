@@ -178,4 +178,24 @@ class ConnectionEncodingFactory implements IEncodingFactory {
     public IEncodingFactory withDefaultEncodingDefinition(Charset charset) {
         return factory.withDefaultEncodingDefinition(charset);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Two connection encoding factories are equal if they wrap the same encoding factory and have the same default
+     * encoding definition instance, as they will then behave identically.
+     * </p>
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConnectionEncodingFactory)) return false;
+        ConnectionEncodingFactory other = (ConnectionEncodingFactory) o;
+        return factory == other.factory && defaultEncodingDefinition == other.defaultEncodingDefinition;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(factory) + System.identityHashCode(defaultEncodingDefinition);
+    }
 }
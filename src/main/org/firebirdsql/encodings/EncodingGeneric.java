@@ -29,6 +29,10 @@ import java.nio.charset.Charset;
  * The main use for this class is for multi-byte character sets, but it also works for single byte character sets,
  * although {@link EncodingSingleByte} is more efficient for shorter strings.
  * </p>
+ * <p>
+ * For character sets that are compatible with ASCII (eg UTF-8), strings and byte arrays consisting only of ASCII
+ * characters are encoded and decoded directly, without going through the encoder or decoder of the character set.
+ * </p>
  */
 final class EncodingGeneric implements Encoding {
 
@@ -37,23 +41,31 @@ final class EncodingGeneric implements Encoding {
     // while EncodingGeneric is (slightly) faster with longer strings
 
     private final Charset charset;
+    private final boolean asciiCompatible;
 
     EncodingGeneric(final Charset charset) {
         this.charset = charset;
+        asciiCompatible = AsciiFastPath.isAsciiCompatible(charset);
     }
 
     @Override
     public byte[] encodeToCharset(final String in) {
+        if (asciiCompatible && AsciiFastPath.isAscii(in)) {
+            return AsciiFastPath.encodeAscii(in);
+        }
         return in.getBytes(charset);
     }
 
     @Override
     public String decodeFromCharset(final byte[] in) {
-        return new String(in, charset);
+        return decodeFromCharset(in, 0, in.length);
     }
 
     @Override
     public String decodeFromCharset(final byte[] in, final int offset, final int length) {
+        if (asciiCompatible && AsciiFastPath.isAscii(in, offset, length)) {
+            return AsciiFastPath.decodeAscii(in, offset, length);
+        }
         return new String(in, offset, length, charset);
     }
 
@@ -87,19 +99,17 @@ final class EncodingGeneric implements Encoding {
 
         @Override
         public byte[] encodeToCharset(final String in) {
-            return EncodingGeneric.this.encodeToCharset(new String(translate(in.toCharArray())));
+            return EncodingGeneric.this.encodeToCharset(translate(in));
         }
 
         @Override
         public String decodeFromCharset(final byte[] in) {
-            final String result = EncodingGeneric.this.decodeFromCharset(in);
-            return new String(translate(result.toCharArray()));
+            return translate(EncodingGeneric.this.decodeFromCharset(in));
         }
 
         @Override
         public String decodeFromCharset(final byte[] in, final int off, final int len) {
-            final String result = EncodingGeneric.this.decodeFromCharset(in, off, len);
-            return new String(translate(result.toCharArray()));
+            return translate(EncodingGeneric.this.decodeFromCharset(in, off, len));
         }
 
         /**
@@ -121,11 +131,27 @@ final class EncodingGeneric implements Encoding {
             return charset.name();
         }
 
-        private char[] translate(char[] chars) {
-            for (int i = 0; i < chars.length; i++) {
-                chars[i] = translator.getMapping(chars[i]);
+        /**
+         * Applies the translation to a string.
+         *
+         * @param str
+         *         String to translate
+         * @return Translated string, or {@code str} itself if the translation does not change any character
+         */
+        private String translate(final String str) {
+            final int length = str.length();
+            int idx = 0;
+            while (idx < length && translator.getMapping(str.charAt(idx)) == str.charAt(idx)) {
+                idx++;
+            }
+            if (idx == length) {
+                return str;
+            }
+            final char[] chars = str.toCharArray();
+            for (; idx < length; idx++) {
+                chars[idx] = translator.getMapping(chars[idx]);
             }
-            return chars;
+            return new String(chars);
         }
     }
 }
@@ -21,15 +21,26 @@
 package org.firebirdsql.encodings;
 
 import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementation of {@link Encoding} for single byte character sets.
+ * <p>
+ * The mapping from chars to bytes is stored in pages of 256 entries, which are only allocated for the (usually very
+ * few) blocks of chars used by the character set. Instances with a translation are cached by the untranslated
+ * instance.
+ * </p>
  */
 final class EncodingSingleByte implements Encoding {
 
+    private static final int PAGE_SIZE = 256;
+
     private final char[] byteToChar;
-    private final byte[] charToByte;
+    private final byte[][] charToBytePages;
+    private final boolean asciiIdentity;
     private final Charset charset;
+    private final ConcurrentMap<CharacterTranslator, EncodingSingleByte> translations;
 
     public EncodingSingleByte(final Charset charset) {
         this(charset, CharacterTranslator.IDENTITY_TRANSLATOR);
@@ -39,24 +50,46 @@ final class EncodingSingleByte implements Encoding {
         assert charset != null : "charset should not be null";
         assert translator != null : "translator should not be null";
         byteToChar = new char[256];
-        charToByte = new byte[256 * 256];
+        charToBytePages = new byte[PAGE_SIZE][];
         this.charset = charset;
 
-        byte[] val = new byte[1];
+        final byte[] allBytes = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            allBytes[i] = (byte) i;
+        }
+        final String allChars = new String(allBytes, charset);
+        boolean asciiIdentity = true;
         for (int i = 0; i < 256; i++) {
-            val[0] = (byte) i;
-            char ch = new String(val, 0, 1, charset).charAt(0);
-            byteToChar[i] = translator.getMapping(ch);
-            charToByte[byteToChar[i]] = (byte) i;
+            final char ch = translator.getMapping(allChars.charAt(i));
+            byteToChar[i] = ch;
+            byte[] page = charToBytePages[ch >>> 8];
+            if (page == null) {
+                page = charToBytePages[ch >>> 8] = new byte[PAGE_SIZE];
+            }
+            page[ch & 0xFF] = (byte) i;
+            if (i < 0x80 && ch != i) {
+                asciiIdentity = false;
+            }
         }
+        this.asciiIdentity = asciiIdentity;
+        translations = translator == CharacterTranslator.IDENTITY_TRANSLATOR
+                ? new ConcurrentHashMap<CharacterTranslator, EncodingSingleByte>()
+                : null;
     }
 
     @Override
     public byte[] encodeToCharset(final String str) {
+        if (asciiIdentity && AsciiFastPath.isAscii(str)) {
+            return AsciiFastPath.encodeAscii(str);
+        }
         final int length = str.length();
         final byte[] result = new byte[length];
+        final byte[][] charToBytePages = this.charToBytePages;
         for (int i = 0; i < length; i++) {
-            result[i] = charToByte[str.charAt(i)];
+            final char ch = str.charAt(i);
+            final byte[] page = charToBytePages[ch >>> 8];
+            // Unmapped characters are encoded as 0
+            result[i] = page != null ? page[ch & 0xFF] : 0;
         }
         return result;
     }
@@ -68,19 +101,35 @@ final class EncodingSingleByte implements Encoding {
 
     @Override
     public String decodeFromCharset(final byte[] in, final int offset, final int length) {
-        final StringBuilder sb = new StringBuilder(length);
-        for (int i = offset, limit = offset + length; i < limit; i++) {
-            sb.append(byteToChar[in[i] & 0xFF]);
+        if (asciiIdentity && AsciiFastPath.isAscii(in, offset, length)) {
+            return AsciiFastPath.decodeAscii(in, offset, length);
         }
-        return sb.toString();
+        final char[] chars = new char[length];
+        final char[] byteToChar = this.byteToChar;
+        for (int i = 0; i < length; i++) {
+            chars[i] = byteToChar[in[offset + i] & 0xFF];
+        }
+        return new String(chars);
     }
 
     @Override
     public Encoding withTranslation(final CharacterTranslator translator) {
-        if (translator != null) {
+        if (translator == null) {
+            return this;
+        }
+        if (translations == null) {
+            // Instance already has a translation
             return new EncodingSingleByte(charset, translator);
         }
-        return this;
+        EncodingSingleByte translated = translations.get(translator);
+        if (translated == null) {
+            translated = new EncodingSingleByte(charset, translator);
+            final EncodingSingleByte existing = translations.putIfAbsent(translator, translated);
+            if (existing != null) {
+                translated = existing;
+            }
+        }
+        return translated;
     }
 
     @Override
@@ -251,22 +251,48 @@ public class GDSExceptionHelper {
          * @return string representation of the message.
          */
         public String toString() {
-            String message = template;
-            // TODO Use MessageFormat?
-            for (int i = 0; i < params.length; i++) {
-                String param = "{" + i + "}";
-                int pos = message.indexOf(param);
-                if (pos > -1) {
-                    message = message.substring(0, pos)
-                            + (params[i] != null ? params[i] : "(null)")
-                            + message.substring(pos + param.length());
+            // Single pass over the template; only the first occurrence of each parameter is replaced
+            final int length = template.length();
+            final StringBuilder message = new StringBuilder(length + 16 * params.length);
+            long replaced = 0;
+            int pos = 0;
+            while (pos < length) {
+                final char c = template.charAt(pos);
+                final int end;
+                final int index;
+                if (c == '{' && (end = template.indexOf('}', pos + 1)) > pos + 1
+                        && (index = parseIndex(template, pos + 1, end)) >= 0 && index < params.length
+                        && (index >= 64 || (replaced & (1L << index)) == 0)) {
+                    if (index < 64) {
+                        replaced |= 1L << index;
+                    }
+                    message.append(params[index] != null ? params[index] : "(null)");
+                    pos = end + 1;
+                } else {
+                    message.append(c);
+                    pos++;
                 }
             }
             // Include extra parameters at the end of the message
             for (String extraParameter : extraParameters) {
-                message = message + "; " + extraParameter;
+                message.append("; ").append(extraParameter);
+            }
+            return message.toString();
+        }
+
+        /**
+         * @return Value of the digits between {@code start} (inclusive) and {@code end} (exclusive), or {@code -1} if
+         * not all characters are digits
+         */
+        private static int parseIndex(String template, int start, int end) {
+            if (end - start > 4) return -1;
+            int index = 0;
+            for (int pos = start; pos < end; pos++) {
+                final char c = template.charAt(pos);
+                if (c < '0' || c > '9') return -1;
+                index = index * 10 + (c - '0');
             }
-            return message;
+            return index;
         }
     }
 
@@ -183,6 +183,17 @@ public interface ISCConstants {
     int isc_dpb_so_timeout              = 141;
     int isc_dpb_column_label_for_name   = 142;
     int isc_dpb_use_firebird_autocommit = 143;
+    int isc_dpb_pipeline_transactions   = 144;
+    int isc_dpb_deduplicate_strings     = 145;
+    int isc_dpb_keep_alive_interval     = 146;
+    int isc_dpb_metadata_cache_ttl      = 147;
+    int isc_dpb_fast_connect            = 148;
+    int isc_dpb_host_selection          = 149;
+    int isc_dpb_enable_metrics          = 150;
+    int isc_dpb_slow_statement_threshold = 151;
+    int isc_dpb_retry_policy            = 152;
+    int isc_dpb_request_pipelining      = 153;
+    int isc_dpb_blob_prefetch_size      = 154;
 
     /*************************************/
     /* Transaction parameter block stuff */
@@ -774,6 +785,28 @@ public interface ISCConstants {
     int isc_info_blob_total_length      = 6;
     int isc_info_blob_type              = 7;
 
+    /*************************************/
+    /* Slice description language (SDL) */
+    /*************************************/
+    int isc_sdl_version1                = 1;
+    int isc_sdl_eoc                     = 255;
+    int isc_sdl_relation                = 2;
+    int isc_sdl_rid                     = 3;
+    int isc_sdl_field                   = 4;
+    int isc_sdl_fid                     = 5;
+    int isc_sdl_struct                  = 6;
+    int isc_sdl_variable                = 7;
+    int isc_sdl_scalar                  = 8;
+    int isc_sdl_tiny_integer            = 9;
+    int isc_sdl_short_integer           = 10;
+    int isc_sdl_long_integer            = 11;
+    int isc_sdl_begin                   = 31;
+    int isc_sdl_end                     = 32;
+    int isc_sdl_do3                     = 33;
+    int isc_sdl_do2                     = 34;
+    int isc_sdl_do1                     = 35;
+    int isc_sdl_element                 = 36;
+
 
     /*********************************/
     /* Transaction information items */
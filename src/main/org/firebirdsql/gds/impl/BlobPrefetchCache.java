@@ -0,0 +1,141 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.impl;
+
+import org.firebirdsql.gds.ng.FbTransaction;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache for the content of prefetched blobs, see {@link GDSHelper#prefetchBlobs(long[])}.
+ * <p>
+ * Blob ids are only valid within a transaction, so the cache only holds content read in one transaction: storing
+ * or taking content for another transaction clears the cache. If the total size of the content exceeds the capacity,
+ * the oldest content is evicted.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class BlobPrefetchCache {
+
+    private final int capacity;
+    private final Map<Long, byte[]> content = new LinkedHashMap<>();
+    private FbTransaction transaction;
+    private int size;
+
+    /**
+     * @param capacity
+     *         Maximum total size in bytes of the cached content
+     */
+    BlobPrefetchCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return Maximum total size in bytes of the cached content
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Total size in bytes of the cached content
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param transaction
+     *         Transaction of the blob
+     * @param blobId
+     *         Blob id
+     * @return {@code true} if the content of the blob is cached
+     */
+    boolean contains(FbTransaction transaction, long blobId) {
+        return this.transaction == transaction && content.containsKey(blobId);
+    }
+
+    /**
+     * Stores the content of a blob.
+     *
+     * @param transaction
+     *         Transaction the blob was read in
+     * @param blobId
+     *         Blob id
+     * @param data
+     *         Content of the blob
+     */
+    void put(FbTransaction transaction, long blobId, byte[] data) {
+        if (this.transaction != transaction) {
+            clear();
+            this.transaction = transaction;
+        }
+        if (data.length > capacity) {
+            return;
+        }
+        remove(blobId);
+        final Iterator<byte[]> iterator = content.values().iterator();
+        while (size + data.length > capacity && iterator.hasNext()) {
+            size -= iterator.next().length;
+            iterator.remove();
+        }
+        content.put(blobId, data);
+        size += data.length;
+    }
+
+    /**
+     * Removes and returns the content of a blob.
+     *
+     * @param transaction
+     *         Current transaction
+     * @param blobId
+     *         Blob id
+     * @return Content of the blob, or {@code null} if not cached for {@code transaction}
+     */
+    byte[] take(FbTransaction transaction, long blobId) {
+        if (this.transaction != transaction) {
+            clear();
+            return null;
+        }
+        return remove(blobId);
+    }
+
+    /**
+     * Removes all content.
+     */
+    void clear() {
+        content.clear();
+        size = 0;
+        transaction = null;
+    }
+
+    private byte[] remove(long blobId) {
+        final byte[] data = content.remove(blobId);
+        if (data != null) {
+            size -= data.length;
+        }
+        return data;
+    }
+}
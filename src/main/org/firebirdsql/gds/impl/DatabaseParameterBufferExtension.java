@@ -54,6 +54,17 @@ public interface DatabaseParameterBufferExtension extends DatabaseParameterBuffe
     int SO_TIMEOUT                      = ISCConstants.isc_dpb_so_timeout;
     int COLUMN_LABEL_FOR_NAME           = ISCConstants.isc_dpb_column_label_for_name;
     int USE_FIREBIRD_AUTOCOMMIT         = ISCConstants.isc_dpb_use_firebird_autocommit;
+    int PIPELINE_TRANSACTIONS           = ISCConstants.isc_dpb_pipeline_transactions;
+    int DEDUPLICATE_STRINGS             = ISCConstants.isc_dpb_deduplicate_strings;
+    int KEEP_ALIVE_INTERVAL             = ISCConstants.isc_dpb_keep_alive_interval;
+    int METADATA_CACHE_TTL              = ISCConstants.isc_dpb_metadata_cache_ttl;
+    int FAST_CONNECT                    = ISCConstants.isc_dpb_fast_connect;
+    int HOST_SELECTION                  = ISCConstants.isc_dpb_host_selection;
+    int ENABLE_METRICS                  = ISCConstants.isc_dpb_enable_metrics;
+    int SLOW_STATEMENT_THRESHOLD        = ISCConstants.isc_dpb_slow_statement_threshold;
+    int RETRY_POLICY                    = ISCConstants.isc_dpb_retry_policy;
+    int REQUEST_PIPELINING              = ISCConstants.isc_dpb_request_pipelining;
+    int BLOB_PREFETCH_SIZE              = ISCConstants.isc_dpb_blob_prefetch_size;
     
     /**
      * List of the DPB extensions. This array is used to filter the parameters
@@ -75,7 +86,18 @@ public interface DatabaseParameterBufferExtension extends DatabaseParameterBuffe
         OCTETS_AS_BYTES,
         SO_TIMEOUT,
         COLUMN_LABEL_FOR_NAME,
-        USE_FIREBIRD_AUTOCOMMIT
+        USE_FIREBIRD_AUTOCOMMIT,
+        PIPELINE_TRANSACTIONS,
+        DEDUPLICATE_STRINGS,
+        KEEP_ALIVE_INTERVAL,
+        METADATA_CACHE_TTL,
+        FAST_CONNECT,
+        HOST_SELECTION,
+        ENABLE_METRICS,
+        SLOW_STATEMENT_THRESHOLD,
+        RETRY_POLICY,
+        REQUEST_PIPELINING,
+        BLOB_PREFETCH_SIZE
     };
 
     /**
@@ -66,6 +66,10 @@ public class DbAttachInfo {
 		} else if (sep > 0) {
 			server = connectInfo.substring(0, sep);
 			fileName = connectInfo.substring(sep + 1);
+			if (server.indexOf(',') != -1) {
+				parseServerList(connectInfo, portSepChar);
+				return;
+			}
 			int portSep = server.indexOf(portSepChar);
 			if (portSep == 0 || portSep == server.length() - 1) {
                 throw new FbExceptionBuilder()
@@ -92,6 +96,49 @@ public class DbAttachInfo {
 		}
 	}
 
+	/**
+	 * Parses a list of servers (eg {@code host1:3050,host2} or {@code host1/3050,host2}) into the server name format
+	 * for multiple servers, {@code host1/3050,host2/3050} (see {@link org.firebirdsql.gds.ng.wire.ServerAddress}).
+	 * The port of the first server is used as the port.
+	 */
+	private void parseServerList(String connectInfo, char portSepChar) throws SQLException {
+		final StringBuilder serverList = new StringBuilder();
+		int firstPort = -1;
+		for (String entry : server.split(",", -1)) {
+			String host = entry.trim();
+			int entryPort = port;
+			int portSep = host.indexOf(portSepChar);
+			if (host.isEmpty() || portSep == 0 || portSep == host.length() - 1) {
+				throw new FbExceptionBuilder()
+						.nonTransientConnectionException(JaybirdErrorCodes.jb_invalidConnectionString)
+						.messageParameter(connectInfo)
+						.messageParameter("Empty host or port in server list: " + server)
+						.toFlatSQLException();
+			} else if (portSep > 0) {
+				String portString = host.substring(portSep + 1);
+				try {
+					entryPort = Integer.parseInt(portString);
+				} catch (NumberFormatException e) {
+					throw new FbExceptionBuilder()
+							.nonTransientConnectionException(JaybirdErrorCodes.jb_invalidConnectionString)
+							.messageParameter(connectInfo)
+							.messageParameter("Bad port: '" + portString + "' is not a number")
+							.cause(e)
+							.toFlatSQLException();
+				}
+				host = host.substring(0, portSep);
+			}
+			if (firstPort == -1) {
+				firstPort = entryPort;
+			} else {
+				serverList.append(',');
+			}
+			serverList.append(host).append('/').append(entryPort);
+		}
+		server = serverList.toString();
+		port = firstPort;
+	}
+
 	public DbAttachInfo(String server, Integer port, String fileName)
 			throws GDSException {
 		if (fileName == null || fileName.equals("")) {
@@ -26,8 +26,10 @@ package org.firebirdsql.gds.impl;
 
 import org.firebirdsql.gds.*;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -37,7 +39,14 @@ public class GDSHelper {
 
     public static final int DEFAULT_BLOB_BUFFER_SIZE = 16 * 1024;
 
+    // Maximum segment size of a blob (see AbstractFbBlob.getMaximumSegmentSize())
+    private static final int MAX_BLOB_PREFETCH_SIZE = Short.MAX_VALUE - 2;
+    private static final int BLOB_PREFETCH_CACHE_CAPACITY = 4 * 1024 * 1024;
+
+    private final DriverLock lock = new DriverLock();
     private final FbDatabase database;
+    private final int blobPrefetchSize;
+    private final BlobPrefetchCache blobPrefetchCache;
     private FbTransaction transaction;
 
     private boolean registerResultSets;
@@ -51,15 +60,33 @@ public class GDSHelper {
                 .hasArgument(DatabaseParameterBufferExtension.NO_RESULT_SET_TRACKING);
 
         this.database = database;
+        blobPrefetchSize = Math.max(0,
+                Math.min(database.getConnectionProperties().getBlobPrefetchSize(), MAX_BLOB_PREFETCH_SIZE));
+        blobPrefetchCache = blobPrefetchSize > 0 ? new BlobPrefetchCache(BLOB_PREFETCH_CACHE_CAPACITY) : null;
     }
 
-    public synchronized FbTransaction getCurrentTransaction() {
-        return transaction;
+    /**
+     * Acquires the lock of this helper, which also guards the blobs created through it.
+     *
+     * @return Closeable that releases the lock
+     */
+    public LockCloseable withLock() {
+        return lock.withLock();
     }
 
-    public synchronized void setCurrentTransaction(FbTransaction transaction) {
-        this.transaction = transaction;
-        notifyAll();
+    public FbTransaction getCurrentTransaction() {
+        try (LockCloseable ignored = withLock()) {
+            return transaction;
+        }
+    }
+
+    public void setCurrentTransaction(FbTransaction transaction) {
+        try (LockCloseable ignored = withLock()) {
+            this.transaction = transaction;
+            if (blobPrefetchCache != null) {
+                blobPrefetchCache.clear();
+            }
+        }
     }
 
     public FbDatabase getCurrentDatabase() {
@@ -140,6 +167,82 @@ public class GDSHelper {
         return blob;
     }
 
+    /**
+     * @return Maximum size in bytes of blobs read by {@link #prefetchBlobs(long[])}, {@code 0} if blob prefetch is
+     * disabled (connection property {@code blobPrefetchSize})
+     */
+    public int getBlobPrefetchSize() {
+        return blobPrefetchSize;
+    }
+
+    /**
+     * @return Maximum number of blobs read by one call to {@link #prefetchBlobs(long[])}, {@code 0} if blob prefetch
+     * is disabled
+     */
+    public int getBlobPrefetchBatchSize() {
+        return blobPrefetchCache != null ? blobPrefetchCache.getCapacity() / blobPrefetchSize : 0;
+    }
+
+    /**
+     * Reads the content of blobs within the current transaction for retrieval with {@link #takePrefetchedBlob(long)}.
+     * <p>
+     * Blobs larger than {@link #getBlobPrefetchSize()} are not read, and only the first
+     * {@link #getBlobPrefetchBatchSize()} blobs not already prefetched are read. Does nothing if blob prefetch is
+     * disabled.
+     * </p>
+     *
+     * @param blobIds
+     *         Ids of the blobs to read
+     * @throws SQLException
+     *         if a Firebird-specific database error occurs
+     * @see FbDatabase#readBlobs(FbTransaction, long[], int)
+     */
+    public void prefetchBlobs(long[] blobIds) throws SQLException {
+        if (blobPrefetchCache == null || blobIds.length == 0) {
+            return;
+        }
+        try (LockCloseable ignored = withLock()) {
+            final FbTransaction transaction = getCurrentTransaction();
+            if (transaction == null) {
+                return;
+            }
+            long[] idsToRead = new long[Math.min(blobIds.length, getBlobPrefetchBatchSize())];
+            int count = 0;
+            for (int idx = 0; idx < blobIds.length && count < idsToRead.length; idx++) {
+                if (!blobPrefetchCache.contains(transaction, blobIds[idx])) {
+                    idsToRead[count++] = blobIds[idx];
+                }
+            }
+            if (count == 0) {
+                return;
+            } else if (count < idsToRead.length) {
+                idsToRead = Arrays.copyOf(idsToRead, count);
+            }
+            final byte[][] content = database.readBlobs(transaction, idsToRead, blobPrefetchSize);
+            for (int idx = 0; idx < count; idx++) {
+                if (content[idx] != null) {
+                    blobPrefetchCache.put(transaction, idsToRead[idx], content[idx]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the content of a blob read by {@link #prefetchBlobs(long[])}.
+     *
+     * @param blobId
+     *         Id of the blob
+     * @return Content of the blob, or {@code null} if the blob was not prefetched in the current transaction
+     */
+    public byte[] takePrefetchedBlob(long blobId) {
+        if (blobPrefetchCache == null) {
+            return null;
+        }
+        try (LockCloseable ignored = withLock()) {
+            return blobPrefetchCache.take(getCurrentTransaction(), blobId);
+        }
+    }
+
     /**
      * Create a new blob within the current transaction.
      *
@@ -161,6 +264,38 @@ public class GDSHelper {
         return blob;
     }
 
+    /**
+     * Read a whole array within the current transaction.
+     *
+     * @param arrayId
+     *         The identifier of the array
+     * @param arrayDescriptor
+     *         The descriptor of the array
+     * @return Flat array with the elements
+     * @throws SQLException
+     *         if a Firebird-specific database error occurs
+     * @see FbDatabase#getArraySlice(FbTransaction, long, ArrayDescriptor)
+     */
+    public Object getArraySlice(long arrayId, ArrayDescriptor arrayDescriptor) throws SQLException {
+        return database.getArraySlice(getCurrentTransaction(), arrayId, arrayDescriptor);
+    }
+
+    /**
+     * Write a new array within the current transaction.
+     *
+     * @param arrayDescriptor
+     *         The descriptor of the array
+     * @param flatArray
+     *         Flat array with the elements
+     * @return The identifier of the new array
+     * @throws SQLException
+     *         if a Firebird-specific database error occurs
+     * @see FbDatabase#putArraySlice(FbTransaction, ArrayDescriptor, Object)
+     */
+    public long putArraySlice(ArrayDescriptor arrayDescriptor, Object flatArray) throws SQLException {
+        return database.putArraySlice(getCurrentTransaction(), arrayDescriptor, flatArray);
+    }
+
     public FbTransaction startTransaction(TransactionParameterBuffer tpb) throws SQLException {
         FbTransaction transaction = database.startTransaction(tpb);
         setCurrentTransaction(transaction);
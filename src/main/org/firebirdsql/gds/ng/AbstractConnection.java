@@ -21,6 +21,7 @@ package org.firebirdsql.gds.ng;
 import org.firebirdsql.encodings.Encoding;
 import org.firebirdsql.encodings.EncodingDefinition;
 import org.firebirdsql.encodings.IEncodingFactory;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.jdbc.SQLStateConstants;
 
 import java.sql.SQLException;
@@ -39,6 +40,7 @@ public abstract class AbstractConnection<T extends IAttachProperties<T>, C exten
     protected final T attachProperties;
     private final EncodingDefinition encodingDefinition;
     private final IEncodingFactory encodingFactory;
+    private volatile MetricsListener metricsListener;
 
     protected AbstractConnection(T attachProperties, IEncodingFactory encodingFactory) throws SQLException {
         this.attachProperties = attachProperties.asNewMutable();
@@ -102,4 +104,21 @@ public abstract class AbstractConnection<T extends IAttachProperties<T>, C exten
     public final IEncodingFactory getEncodingFactory() {
         return encodingFactory;
     }
+
+    /**
+     * @return Listener for driver metrics, or {@code null} if metrics are disabled
+     */
+    public final MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets the listener for driver metrics of this connection.
+     *
+     * @param metricsListener
+     *         Metrics listener, or {@code null} to disable metrics
+     */
+    public final void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
 }
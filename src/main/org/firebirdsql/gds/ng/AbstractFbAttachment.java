@@ -44,7 +44,7 @@ public abstract class AbstractFbAttachment<T extends AbstractConnection<? extend
     private static final Logger log = LoggerFactory.getLogger(AbstractFbAttachment.class);
 
     private final AtomicBoolean attached = new AtomicBoolean();
-    private final Object syncObject = new Object();
+    private final DriverLock lock = new DriverLock();
     protected final ExceptionListenerDispatcher exceptionListenerDispatcher = new ExceptionListenerDispatcher(this);
     protected final T connection;
     private final DatatypeCoder datatypeCoder;
@@ -112,8 +112,15 @@ public abstract class AbstractFbAttachment<T extends AbstractConnection<? extend
     }
 
     @Override
-    public final Object getSynchronizationObject() {
-        return syncObject;
+    public final LockCloseable withLock() {
+        return lock.withLock();
+    }
+
+    /**
+     * @return The lock of this attachment, for sharing with other objects that need to serialize on this attachment
+     */
+    protected final DriverLock getLock() {
+        return lock;
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.gds.ng.listeners.ExceptionListener;
 import org.firebirdsql.gds.ng.listeners.ExceptionListenerDispatcher;
 import org.firebirdsql.gds.ng.listeners.TransactionListener;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.logging.Logger;
 import org.firebirdsql.logging.LoggerFactory;
 
@@ -40,7 +41,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
 
     private static final Logger log = LoggerFactory.getLogger(AbstractFbBlob.class);
 
-    private final Object syncObject = new Object();
+    private final DriverLock lock = new DriverLock();
     protected final ExceptionListenerDispatcher exceptionListenerDispatcher = new ExceptionListenerDispatcher(this);
     private final BlobParameterBuffer blobParameterBuffer;
     private FbTransaction transaction;
@@ -58,14 +59,14 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
 
     @Override
     public final boolean isOpen() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return open;
         }
     }
 
     @Override
     public final boolean isEof() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return eof || !isOpen();
         }
     }
@@ -78,7 +79,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
      */
     protected final void setEof() {
         if (isOutput()) return;
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             // TODO Can stream blobs be 'reopened' using seek?
             eof = true;
         }
@@ -91,7 +92,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
      * </p>
      */
     protected final void resetEof() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             eof = false;
         }
     }
@@ -105,7 +106,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
      * @param open New value of open.
      */
     protected final void setOpen(boolean open) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.open = open;
         }
     }
@@ -113,7 +114,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     @Override
     public final void close() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (!isOpen()) return;
                 checkDatabaseAttached();
                 checkTransactionActive();
@@ -140,7 +141,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     @Override
     public final void cancel() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 try {
@@ -162,8 +163,8 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     protected abstract void cancelImpl() throws SQLException;
 
     @Override
-    public final Object getSynchronizationObject() {
-        return syncObject;
+    public final LockCloseable withLock() {
+        return lock.withLock();
     }
 
     @Override
@@ -176,7 +177,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
         switch (newState) {
         case COMMITTED:
         case ROLLED_BACK:
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 clearTransaction();
                 setOpen(false);
             }
@@ -190,7 +191,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
 
     @Override
     public void detaching(FbDatabase database) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (this.database != database) {
                 database.removeDatabaseListener(this);
             } else if (isOpen()) {
@@ -206,7 +207,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
 
     @Override
     public void detached(FbDatabase database) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (this.database == database) {
                 open = false;
                 clearDatabase();
@@ -234,7 +235,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
      *         When no database is set, or the database is not attached
      */
     protected void checkDatabaseAttached() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (database == null || !database.isAttached()) {
                 throw new FbExceptionBuilder().nonTransientException(ISCConstants.isc_segstr_wrong_db).toSQLException();
             }
@@ -263,13 +264,13 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     }
 
     protected FbTransaction getTransaction() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return transaction;
         }
     }
 
     protected final void clearTransaction() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (transaction != null) {
                 transaction.removeTransactionListener(this);
             }
@@ -279,11 +280,25 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
 
     @Override
     public FbDatabase getDatabase() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return database;
         }
     }
 
+    /**
+     * Reports blob bytes read or written to the metrics listener (if any).
+     *
+     * @param count
+     *         Number of bytes
+     */
+    protected final void recordBlobBytes(int count) {
+        final FbDatabase database = getDatabase();
+        final MetricsListener metricsListener = database != null ? database.getMetricsListener() : null;
+        if (metricsListener != null) {
+            metricsListener.blobBytes(count);
+        }
+    }
+
     @Override
     public <T> T getBlobInfo(final byte[] requestItems, final int bufferLength, final InfoProcessor<T> infoProcessor)
             throws SQLException {
@@ -299,7 +314,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     @Override
     public long length() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 if (getBlobId() == FbBlob.NO_BLOB_ID) {
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_bad_segstr_id).toSQLException();
@@ -324,7 +339,7 @@ public abstract class AbstractFbBlob implements FbBlob, TransactionListener, Dat
     }
 
     protected final void clearDatabase() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (database != null) {
                 database.removeDatabaseListener(this);
             }
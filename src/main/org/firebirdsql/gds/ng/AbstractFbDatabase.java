@@ -20,16 +20,21 @@ package org.firebirdsql.gds.ng;
 
 import org.firebirdsql.gds.BlobParameterBuffer;
 import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.BlobParameterBufferImp;
 import org.firebirdsql.gds.impl.TransactionParameterBufferImpl;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.gds.ng.listeners.DatabaseListenerDispatcher;
 import org.firebirdsql.gds.ng.listeners.TransactionListener;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.logging.Logger;
 import org.firebirdsql.logging.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
 import java.sql.SQLWarning;
 import java.util.Collections;
 import java.util.HashSet;
@@ -66,6 +71,13 @@ public abstract class AbstractFbDatabase<T extends AbstractConnection<IConnectio
             isc_info_end };
     // @formatter:on
 
+    /**
+     * Info-request block for {@link #ping(int)}: an item that the server can answer without accessing the database
+     * or its attachments.
+     */
+    protected static final byte[] PING_INFO_BLOCK = new byte[] { isc_info_ods_version, isc_info_end };
+    protected static final int PING_INFO_BUFFER_LENGTH = 16;
+
     private final DatabaseListenerDispatcher databaseListenerDispatcher = new DatabaseListenerDispatcher();
     private final Set<FbTransaction> activeTransactions = Collections.synchronizedSet(new HashSet<FbTransaction>());
     private final WarningMessageCallback warningCallback = new WarningMessageCallback() {
@@ -169,7 +181,7 @@ public abstract class AbstractFbDatabase<T extends AbstractConnection<IConnectio
     public final void close() throws SQLException {
         try {
             checkConnected();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (getActiveTransactionCount() > 0) {
                     // Throw open transactions as exception, fbclient doesn't disconnect with outstanding (unprepared)
                     // transactions
@@ -264,6 +276,87 @@ public abstract class AbstractFbDatabase<T extends AbstractConnection<IConnectio
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation requests {@link #PING_INFO_BLOCK} and ignores {@code timeout}.
+     * </p>
+     */
+    @Override
+    public void ping(int timeout) throws SQLException {
+        getDatabaseInfo(PING_INFO_BLOCK, PING_INFO_BUFFER_LENGTH);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads the blobs one by one.
+     * </p>
+     */
+    @Override
+    public byte[][] readBlobs(FbTransaction transaction, long[] blobIds, int maxLength) throws SQLException {
+        final byte[][] content = new byte[blobIds.length][];
+        for (int idx = 0; idx < blobIds.length; idx++) {
+            try {
+                content[idx] = readBlob(transaction, blobIds[idx], maxLength);
+            } catch (SQLException e) {
+                log.debug("Exception reading blob " + blobIds[idx], e);
+            }
+        }
+        return content;
+    }
+
+    private byte[] readBlob(FbTransaction transaction, long blobId, int maxLength) throws SQLException {
+        final FbBlob blob = createBlobForInput(transaction, null, blobId);
+        blob.open();
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            while (!blob.isEof()) {
+                // Request one byte more than the remaining length to detect blobs larger than maxLength
+                final int remaining = maxLength - content.size() + 1;
+                final byte[] segment = blob.getSegment(Math.min(remaining, blob.getMaximumSegmentSize()));
+                if (segment.length > remaining - 1 || segment.length == 0 && !blob.isEof()) {
+                    return null;
+                }
+                content.write(segment, 0, segment.length);
+            }
+            return content.toByteArray();
+        } finally {
+            blob.close();
+        }
+    }
+
+    /**
+     * Validates the arguments of
+     * {@link #executeImmediate(String, FbTransaction, RowDescriptor, RowValue, RowDescriptor)} for a statement with
+     * parameters or output.
+     *
+     * @param transaction
+     *         Transaction
+     * @param parameterDescriptor
+     *         Descriptor of the parameters (can be {@code null})
+     * @param parameters
+     *         Parameter values (can be {@code null})
+     * @throws SQLException
+     *         If not attached, {@code transaction} is {@code null} or not active, or the number of parameters does
+     *         not match the descriptor
+     */
+    protected final void validateExecuteImmediate(FbTransaction transaction, RowDescriptor parameterDescriptor,
+            RowValue parameters) throws SQLException {
+        checkConnected();
+        if (!isAttached() || transaction == null) {
+            throw FbExceptionBuilder.forException(JaybirdErrorCodes.jb_executeImmediateRequiresTransactionAttached)
+                    .toFlatSQLException();
+        }
+        TransactionHelper.checkTransactionActive(transaction);
+        final int expectedSize = parameterDescriptor != null ? parameterDescriptor.getCount() : 0;
+        final int actualSize = parameters != null ? parameters.getCount() : 0;
+        if (actualSize != expectedSize) {
+            throw new SQLNonTransientException(String.format("Invalid number of parameters, expected %d, got %d",
+                    expectedSize, actualSize), "07008"); // invalid descriptor count
+        }
+    }
+
     protected byte[] getDescribeDatabaseInfoBlock() {
         return DESCRIBE_DATABASE_INFO_BLOCK;
     }
@@ -317,6 +410,16 @@ public abstract class AbstractFbDatabase<T extends AbstractConnection<IConnectio
         return connection.getAttachProperties().asImmutable();
     }
 
+    @Override
+    public final void setMetricsListener(MetricsListener metricsListener) {
+        connection.setMetricsListener(metricsListener);
+    }
+
+    @Override
+    public final MetricsListener getMetricsListener() {
+        return connection.getMetricsListener();
+    }
+
     @Override
     public final RowDescriptor emptyRowDescriptor() {
         return emptyRowDescriptor;
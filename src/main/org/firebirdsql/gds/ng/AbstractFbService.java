@@ -98,7 +98,7 @@ public abstract class AbstractFbService<T extends AbstractConnection<IServicePro
     public final void close() throws SQLException {
         try {
             checkConnected();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 serviceListenerDispatcher.detaching(this);
                 try {
                     internalDetach();
@@ -23,6 +23,8 @@ import org.firebirdsql.gds.ng.fields.FieldValue;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
 import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.*;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
+import org.firebirdsql.gds.ng.monitor.StatementOperation;
 import org.firebirdsql.jdbc.SQLStateConstants;
 import org.firebirdsql.logging.Logger;
 import org.firebirdsql.logging.LoggerFactory;
@@ -48,7 +50,7 @@ public abstract class AbstractFbStatement implements FbStatement {
             EnumSet.of(StatementState.EXECUTING, StatementState.CURSOR_OPEN));
     private static final Logger log = LoggerFactory.getLogger(AbstractFbStatement.class);
 
-    private final Object syncObject = new Object();
+    private final DriverLock lock = new DriverLock();
     private final WarningMessageCallback warningCallback = new WarningMessageCallback() {
         @Override
         public void processWarning(SQLWarning warning) {
@@ -63,6 +65,9 @@ public abstract class AbstractFbStatement implements FbStatement {
     private volatile RowDescriptor parameterDescriptor;
     private volatile RowDescriptor fieldDescriptor;
     private volatile FbTransaction transaction;
+    private long executeStartTime;
+    // Only modified under lock
+    private volatile long operationNanos;
 
     private final TransactionListener transactionListener = new TransactionListener() {
         @Override
@@ -75,7 +80,7 @@ public abstract class AbstractFbStatement implements FbStatement {
             switch (newState) {
             case COMMITTED:
             case ROLLED_BACK:
-                synchronized (getSynchronizationObject()) {
+                try (LockCloseable ignored = withLock()) {
                     try {
                         if (RESET_TO_PREPARED.contains(getState())) {
                             // Cursor has been closed due to commit, rollback, etc, back to prepared state
@@ -118,19 +123,19 @@ public abstract class AbstractFbStatement implements FbStatement {
     }
 
     /**
-     * Get synchronization object.
+     * Acquires the lock of this statement.
      *
-     * @return object, cannot be <code>null</code>.
+     * @return Closeable that releases the lock
      */
-    protected final Object getSynchronizationObject() {
-        return syncObject;
+    protected final LockCloseable withLock() {
+        return lock.withLock();
     }
 
     @Override
     public void close() throws SQLException {
         if (getState() == StatementState.CLOSED) return;
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 // TODO do additional checks (see also old implementation and .NET)
                 try {
                     final StatementState currentState = getState();
@@ -161,7 +166,7 @@ public abstract class AbstractFbStatement implements FbStatement {
     @Override
     public final void closeCursor(boolean transactionEnd) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (!getState().isCursorOpen()) return;
                 // TODO do additional checks (see also old implementation and .NET)
                 try {
@@ -196,11 +201,12 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         When the state is changed to an illegal next state
      */
     protected final void switchState(final StatementState newState) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final StatementState currentState = state;
             if (currentState == newState || currentState == StatementState.CLOSED) return;
             if (currentState.isValidTransition(newState)) {
                 state = newState;
+                recordStateTransition(currentState, newState);
                 statementListenerDispatcher.statementStateChanged(this, newState, currentState);
             } else {
                 throw new SQLNonTransientException(String.format("Statement state %s only allows next states %s, received %s", currentState, currentState.validTransitionSet(), newState));
@@ -219,7 +225,7 @@ public abstract class AbstractFbStatement implements FbStatement {
      * @see #switchState(StatementState)
      */
     private void forceState(final StatementState newState) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final StatementState currentState = state;
             if (currentState == newState || currentState == StatementState.CLOSED) return;
             if (log.isDebugEnabled() && !currentState.isValidTransition(newState)) {
@@ -229,10 +235,55 @@ public abstract class AbstractFbStatement implements FbStatement {
                         new IllegalStateException());
             }
             state = newState;
+            recordStateTransition(currentState, newState);
             statementListenerDispatcher.statementStateChanged(this, newState, currentState);
         }
     }
 
+    /**
+     * Reports the latency of an execute to the metrics listener, measured from the switch to
+     * {@link StatementState#EXECUTING} to the switch to the next (non-error) state.
+     */
+    private void recordStateTransition(StatementState previousState, StatementState newState) {
+        if (newState == StatementState.EXECUTING) {
+            executeStartTime = startOperation();
+        } else if (previousState == StatementState.EXECUTING && newState != StatementState.ERROR) {
+            recordOperation(StatementOperation.EXECUTE, executeStartTime);
+        }
+    }
+
+    /**
+     * Gets the start time of an operation to report with {@link #recordOperation(StatementOperation, long)}.
+     *
+     * @return Start time (in nanoseconds), or {@code 0} if metrics are disabled
+     */
+    protected final long startOperation() {
+        return getDatabase().getMetricsListener() != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports the duration of a statement operation to the metrics listener (if any), and adds it to
+     * {@link #getOperationNanos()}.
+     *
+     * @param operation
+     *         Statement operation
+     * @param startTime
+     *         Start time obtained with {@link #startOperation()}
+     */
+    protected final void recordOperation(StatementOperation operation, long startTime) {
+        final MetricsListener metricsListener = getDatabase().getMetricsListener();
+        if (metricsListener != null && startTime != 0) {
+            final long nanos = System.nanoTime() - startTime;
+            operationNanos += nanos;
+            metricsListener.statementOperation(operation, nanos);
+        }
+    }
+
+    @Override
+    public final long getOperationNanos() {
+        return operationNanos;
+    }
+
     @Override
     public final StatementType getType() {
         return type;
@@ -245,7 +296,7 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         New type
      */
     protected void setType(StatementType type) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.type = type;
         }
     }
@@ -257,6 +308,10 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         Row data
      */
     protected final void queueRowData(RowValue rowData) {
+        final MetricsListener metricsListener = getDatabase().getMetricsListener();
+        if (metricsListener != null) {
+            metricsListener.rowsFetched(1);
+        }
         statementListenerDispatcher.receivedRow(this, rowData);
     }
 
@@ -271,7 +326,7 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         <code>true</code>: all rows fetched, <code>false</code> not all rows fetched.
      */
     protected final void setAllRowsFetched(boolean allRowsFetched) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.allRowsFetched = allRowsFetched;
         }
         if (allRowsFetched) {
@@ -298,14 +353,14 @@ public abstract class AbstractFbStatement implements FbStatement {
     }
 
     /**
-     * Resets the statement for next execution. Implementation in derived class must synchronize on {@link #getSynchronizationObject()} and
+     * Resets the statement for next execution. Implementation in derived class must hold the lock of {@link #withLock()} and
      * call <code>super.reset(resetAll)</code>
      *
      * @param resetAll
      *         Also reset field and parameter info
      */
     protected void reset(boolean resetAll) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             setAllRowsFetched(false);
 
             if (resetAll) {
@@ -342,7 +397,7 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         Parameter descriptor
      */
     protected void setParameterDescriptor(RowDescriptor parameterDescriptor) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.parameterDescriptor = parameterDescriptor;
         }
     }
@@ -359,7 +414,7 @@ public abstract class AbstractFbStatement implements FbStatement {
      *         Field descriptor
      */
     protected void setFieldDescriptor(RowDescriptor fieldDescriptor) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.fieldDescriptor = fieldDescriptor;
         }
     }
@@ -568,7 +623,7 @@ public abstract class AbstractFbStatement implements FbStatement {
             if (newTransaction == null || isValidTransactionClass(newTransaction.getClass())) {
                 // TODO Is there a statement or transaction state where we should not be switching transactions?
                 // Probably an error to switch when newTransaction is not null and current state is ERROR, CURSOR_OPEN, EXECUTING, CLOSING or CLOSED
-                synchronized (getSynchronizationObject()) {
+                try (LockCloseable ignored = withLock()) {
                     if (newTransaction == transaction) return;
                     if (transaction != null) {
                         transaction.removeTransactionListener(getTransactionListener());
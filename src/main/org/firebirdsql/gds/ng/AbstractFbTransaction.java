@@ -44,7 +44,7 @@ public abstract class AbstractFbTransaction implements FbTransaction {
             EnumSet.of(TransactionState.ACTIVE, TransactionState.PREPARED));
     protected final ExceptionListenerDispatcher exceptionListenerDispatcher = new ExceptionListenerDispatcher(this);
     private final FbDatabase database;
-    private final Object syncObject = new Object();
+    private final DriverLock lock = new DriverLock();
     protected final TransactionListenerDispatcher transactionListenerDispatcher = new TransactionListenerDispatcher();
     private volatile TransactionState state = TransactionState.ACTIVE;
 
@@ -80,7 +80,7 @@ public abstract class AbstractFbTransaction implements FbTransaction {
      *         current state is also changed in a concurrent thread.
      */
     protected final void switchState(final TransactionState newState) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             final TransactionState currentState = state;
             if (currentState == newState) return;
             if (currentState.isValidTransition(newState)) {
@@ -143,12 +143,12 @@ public abstract class AbstractFbTransaction implements FbTransaction {
     }
 
     /**
-     * Get synchronization object.
+     * Acquires the lock of this transaction.
      *
-     * @return object, cannot be <code>null</code>.
+     * @return Closeable that releases the lock
      */
-    protected final Object getSynchronizationObject() {
-        return syncObject;
+    protected final LockCloseable withLock() {
+        return lock.withLock();
     }
 
     @Override
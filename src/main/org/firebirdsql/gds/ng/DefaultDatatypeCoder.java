@@ -20,6 +20,7 @@ package org.firebirdsql.gds.ng;
 
 import org.firebirdsql.encodings.Encoding;
 import org.firebirdsql.encodings.IEncodingFactory;
+import org.firebirdsql.util.WeakInterner;
 
 import java.sql.Date;
 import java.sql.SQLException;
@@ -27,6 +28,9 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The default datatype coder.
@@ -37,13 +41,38 @@ import java.util.GregorianCalendar;
  * As a lot of the implementation also applies to the big endian and little endian decoders for the JNA implementation,
  * this class is not placed in package {@link org.firebirdsql.gds.ng.wire}
  * </p>
+ * <p>
+ * Dates and times are converted between the Firebird representation (day number and fractions of a day) and
+ * milliseconds since the epoch arithmetically, using a cache of time zone offsets per local day (see
+ * {@link TimeZoneOffsetCache}), kept per time zone id so connections and calendars in different time zones do not
+ * evict each other's cache. A {@link Calendar} is only used for dates before the Gregorian cutover, for
+ * calendars other than a {@link GregorianCalendar} with the default cutover, and for days with a time zone
+ * transition.
+ * </p>
  *
  * @author <a href="mailto:mrotteveel@users.sourceforge.net">Mark Rotteveel</a>
  * @since 3.0
  */
 public class DefaultDatatypeCoder implements DatatypeCoder {
 
+    /**
+     * Firebird day number (Modified Julian Day) of 1970-01-01.
+     */
+    private static final int EPOCH_DAY_NUMBER = 40587;
+    /**
+     * Days since the epoch of 1582-10-15, the default Gregorian cutover of {@link GregorianCalendar}.
+     */
+    private static final int GREGORIAN_CUTOVER_EPOCH_DAY = -141427;
+    private static final long DEFAULT_GREGORIAN_CUTOVER = new GregorianCalendar().getGregorianChange().getTime();
+    private static final long NO_FAST_PATH = Long.MIN_VALUE;
+    private static final WeakInterner<DefaultDatatypeCoder> SHARED_INSTANCES = new WeakInterner<>();
+    /**
+     * Maximum number of time zones with a cached offset; the caches are discarded when exceeded.
+     */
+    private static final int MAX_CACHED_TIME_ZONES = 16;
+
     private final IEncodingFactory encodingFactory;
+    private final ConcurrentMap<String, TimeZoneOffsetCache> timeZoneOffsetCaches = new ConcurrentHashMap<>();
 
     public DefaultDatatypeCoder(IEncodingFactory encodingFactory) {
         if (encodingFactory == null) {
@@ -52,6 +81,24 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
         this.encodingFactory = encodingFactory;
     }
 
+    /**
+     * Returns a datatype coder shared between connections with the same encoding configuration.
+     * <p>
+     * Sharing the datatype coder allows field and row descriptors of different connections to be equal (see
+     * {@link org.firebirdsql.gds.ng.fields.RowDescriptor#intern()}).
+     * </p>
+     *
+     * @param datatypeCoder
+     *         Datatype coder
+     * @param <T>
+     *         Type of datatype coder
+     * @return Shared instance equal to {@code datatypeCoder}, or {@code datatypeCoder} itself
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends DefaultDatatypeCoder> T getSharedInstance(T datatypeCoder) {
+        return (T) SHARED_INSTANCES.intern(datatypeCoder);
+    }
+
     @Override
     public byte[] encodeShort(short value) {
         return intToBytes(value);
@@ -98,6 +145,46 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
         return ((b1 << 24) + (b2 << 16) + (b3 << 8) + b4);
     }
 
+    /**
+     * Decode an <code>int</code> value from a <code>byte</code> array at an offset.
+     * <p>
+     * Implementations overriding {@link #decodeInt(byte[])} with a different byte order must also override this method.
+     * </p>
+     *
+     * @param buffer
+     *         The <code>byte</code> array
+     * @param offset
+     *         Offset of the value
+     * @return The decoded <code>int</code>
+     */
+    protected int decodeInt(byte[] buffer, int offset) {
+        int b1 = buffer[offset] & 0xFF;
+        int b2 = buffer[offset + 1] & 0xFF;
+        int b3 = buffer[offset + 2] & 0xFF;
+        int b4 = buffer[offset + 3] & 0xFF;
+        return ((b1 << 24) + (b2 << 16) + (b3 << 8) + b4);
+    }
+
+    /**
+     * Encode an <code>int</code> value into a <code>byte</code> array at an offset.
+     * <p>
+     * Implementations overriding {@link #encodeInt(int)} with a different byte order must also override this method.
+     * </p>
+     *
+     * @param value
+     *         The value to be encoded
+     * @param buffer
+     *         The <code>byte</code> array
+     * @param offset
+     *         Offset of the value
+     */
+    protected void encodeInt(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) ((value >>> 24) & 0xff);
+        buffer[offset + 1] = (byte) ((value >>> 16) & 0xff);
+        buffer[offset + 2] = (byte) ((value >>> 8) & 0xff);
+        buffer[offset + 3] = (byte) ((value) & 0xff);
+    }
+
     @Override
     public byte[] encodeLong(long value) {
         byte[] ret = new byte[8];
@@ -199,7 +286,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public byte[] encodeTimestamp(Timestamp value) {
-        return encodeTimestampCalendar(value, new GregorianCalendar());
+        final byte[] result = encodeTimestamp(value, TimeZone.getDefault());
+        return result != null ? result : encodeTimestampCalendar(value, new GregorianCalendar());
     }
 
     @Override
@@ -217,10 +305,25 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
          * the number of days since 17 Nov 1858 and one representing number
          * of 100 nano-seconds since midnight" (NOTE: It is actually 100 microseconds!)
          */
+        final byte[] result = encodeTimestamp(value, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime d = new datetime(value, c);
         return d.toTimestampBytes();
     }
 
+    private byte[] encodeTimestamp(Timestamp value, TimeZone timeZone) {
+        if (timeZone == null) return null;
+        final long localMillis = toLocalMillis(value.getTime(), timeZone);
+        final int epochDay = (int) floorDiv(localMillis, TimeZoneOffsetCache.MILLIS_PER_DAY);
+        if (epochDay <= GREGORIAN_CUTOVER_EPOCH_DAY) return null;
+        final int millisOfDay = (int) (localMillis - epochDay * TimeZoneOffsetCache.MILLIS_PER_DAY);
+        final int fractionsInDay = millisOfDay / 1000 * FRACTIONS_PER_SECOND
+                + value.getNanos() / NANOSECONDS_PER_FRACTION;
+        return toTimestampBytes(epochDay + EPOCH_DAY_NUMBER, fractionsInDay);
+    }
+
     @Override
     public java.sql.Timestamp decodeTimestamp(Timestamp value, Calendar cal) {
         return decodeTimestamp(value, cal, false);
@@ -241,7 +344,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Timestamp decodeTimestamp(byte[] byte_long) {
-        return decodeTimestampCalendar(byte_long, new GregorianCalendar());
+        final Timestamp result = decodeTimestamp(byte_long, TimeZone.getDefault());
+        return result != null ? result : fromLongBytes(byte_long).toTimestamp(new GregorianCalendar());
     }
 
     @Override
@@ -252,10 +356,26 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Timestamp decodeTimestampCalendar(byte[] byte_long, Calendar c) {
+        final Timestamp result = decodeTimestamp(byte_long, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime d = fromLongBytes(byte_long);
         return d.toTimestamp(c);
     }
 
+    private Timestamp decodeTimestamp(byte[] byte_long, TimeZone timeZone) {
+        checkLongBytes(byte_long);
+        if (timeZone == null) return null;
+        final int fractionsInDay = decodeInt(byte_long, 4);
+        final long millis = toEpochMillis(decodeInt(byte_long, 0),
+                fractionsInDay / FRACTIONS_PER_SECOND * 1000, timeZone);
+        if (millis == NO_FAST_PATH) return null;
+        final Timestamp timestamp = new Timestamp(millis);
+        timestamp.setNanos(fractionsInDay % FRACTIONS_PER_SECOND * NANOSECONDS_PER_FRACTION);
+        return timestamp;
+    }
+
     @Override
     public java.sql.Time encodeTime(Time d, Calendar cal, boolean invertTimeZone) {
         if (cal == null) {
@@ -271,7 +391,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public byte[] encodeTime(Time d) {
-        return encodeTimeCalendar(d, new GregorianCalendar());
+        final byte[] result = encodeTime(d, TimeZone.getDefault());
+        return result != null ? result : encodeTimeCalendar(d, new GregorianCalendar());
     }
 
     @Override
@@ -281,10 +402,23 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public byte[] encodeTimeCalendar(Time d, Calendar c) {
+        final byte[] result = encodeTime(d, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime dt = new datetime(d, c);
         return dt.toTimeBytes();
     }
 
+    private byte[] encodeTime(Time value, TimeZone timeZone) {
+        if (timeZone == null) return null;
+        final long localMillis = toLocalMillis(value.getTime(), timeZone);
+        final long epochDay = floorDiv(localMillis, TimeZoneOffsetCache.MILLIS_PER_DAY);
+        if (epochDay <= GREGORIAN_CUTOVER_EPOCH_DAY) return null;
+        final int millisOfDay = (int) (localMillis - epochDay * TimeZoneOffsetCache.MILLIS_PER_DAY);
+        return encodeInt(millisOfDay * FRACTIONS_PER_MILLISECOND);
+    }
+
     @Override
     public java.sql.Time decodeTime(java.sql.Time d, Calendar cal, boolean invertTimeZone) {
         if (cal == null) {
@@ -300,7 +434,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Time decodeTime(byte[] int_byte) {
-        return decodeTimeCalendar(int_byte, new GregorianCalendar());
+        final Time result = decodeTime(int_byte, TimeZone.getDefault());
+        return result != null ? result : new datetime(null, int_byte).toTime(new GregorianCalendar());
     }
 
     @Override
@@ -311,10 +446,21 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Time decodeTimeCalendar(byte[] int_byte, Calendar c) {
+        final Time result = decodeTime(int_byte, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime dt = new datetime(null, int_byte);
         return dt.toTime(c);
     }
 
+    private Time decodeTime(byte[] int_byte, TimeZone timeZone) {
+        if (timeZone == null) return null;
+        final long millis = toEpochMillis(EPOCH_DAY_NUMBER,
+                decodeInt(int_byte) / FRACTIONS_PER_MILLISECOND, timeZone);
+        return millis != NO_FAST_PATH ? new Time(millis) : null;
+    }
+
     @Override
     public Date encodeDate(java.sql.Date d, Calendar cal) {
         if (cal == null) {
@@ -327,7 +473,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public byte[] encodeDate(Date d) {
-        return encodeDateCalendar(d, new GregorianCalendar());
+        final byte[] result = encodeDate(d, TimeZone.getDefault());
+        return result != null ? result : encodeDateCalendar(d, new GregorianCalendar());
     }
 
     @Override
@@ -337,10 +484,21 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public byte[] encodeDateCalendar(Date d, Calendar c) {
+        final byte[] result = encodeDate(d, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime dt = new datetime(d, c);
         return dt.toDateBytes();
     }
 
+    private byte[] encodeDate(Date value, TimeZone timeZone) {
+        if (timeZone == null) return null;
+        final long epochDay = floorDiv(toLocalMillis(value.getTime(), timeZone), TimeZoneOffsetCache.MILLIS_PER_DAY);
+        if (epochDay <= GREGORIAN_CUTOVER_EPOCH_DAY) return null;
+        return encodeInt((int) epochDay + EPOCH_DAY_NUMBER);
+    }
+
     @Override
     public java.sql.Date decodeDate(Date d, Calendar cal) {
         if (cal == null || d == null) {
@@ -353,7 +511,8 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Date decodeDate(byte[] byte_int) {
-        return decodeDateCalendar(byte_int, new GregorianCalendar());
+        final Date result = decodeDate(byte_int, TimeZone.getDefault());
+        return result != null ? result : new datetime(byte_int, null).toDate(new GregorianCalendar());
     }
 
     @Override
@@ -364,10 +523,20 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
 
     @Override
     public Date decodeDateCalendar(byte[] byte_int, Calendar c) {
+        final Date result = decodeDate(byte_int, getFastPathTimeZone(c));
+        if (result != null) {
+            return result;
+        }
         datetime dt = new datetime(byte_int, null);
         return dt.toDate(c);
     }
 
+    private Date decodeDate(byte[] byte_int, TimeZone timeZone) {
+        if (timeZone == null) return null;
+        final long millis = toEpochMillis(decodeInt(byte_int), 0, timeZone);
+        return millis != NO_FAST_PATH ? new Date(millis) : null;
+    }
+
     @Override
     public boolean decodeBoolean(byte[] data) {
         return data[0] != 0;
@@ -401,20 +570,100 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
         return encodingFactory;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Datatype coders are equal if they are of the same class and have an equal encoding factory.
+     * </p>
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return encodingFactory.equals(((DefaultDatatypeCoder) o).encodingFactory);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getClass().hashCode() + encodingFactory.hashCode();
+    }
+
     private datetime fromLongBytes(byte[] byte_long) {
+        checkLongBytes(byte_long);
+        // we have to extract time and date correctly see encodeTimestamp(...) for explanations
+        return new datetime(decodeInt(byte_long, 0), decodeInt(byte_long, 4));
+    }
+
+    private static void checkLongBytes(byte[] byte_long) {
         if (byte_long.length != 8) {
             throw new IllegalArgumentException("Bad parameter to decode, require byte array of length 8");
         }
+    }
 
-        // we have to extract time and date correctly see encodeTimestamp(...) for explanations
+    private byte[] toTimestampBytes(int sqlDate, int fractionsInDay) {
+        final byte[] result = new byte[8];
+        encodeInt(sqlDate, result, 0);
+        encodeInt(fractionsInDay, result, 4);
+        return result;
+    }
 
-        byte[] date = new byte[4];
-        byte[] time = new byte[4];
+    /**
+     * Returns the time zone of a calendar if the calendar can be replaced by arithmetic on the epoch milliseconds.
+     *
+     * @param c
+     *         Calendar
+     * @return Time zone of the calendar, or {@code null} if the calendar needs to be used
+     */
+    private static TimeZone getFastPathTimeZone(Calendar c) {
+        if (c instanceof GregorianCalendar
+                && ((GregorianCalendar) c).getGregorianChange().getTime() == DEFAULT_GREGORIAN_CUTOVER) {
+            return c.getTimeZone();
+        }
+        return null;
+    }
 
-        System.arraycopy(byte_long, 0, date, 0, 4);
-        System.arraycopy(byte_long, 4, time, 0, 4);
+    /**
+     * Converts a local date and time to milliseconds since the epoch.
+     *
+     * @param sqlDate
+     *         Firebird day number
+     * @param millisOfDay
+     *         Milliseconds since midnight
+     * @param timeZone
+     *         Time zone
+     * @return Milliseconds since the epoch, or {@link #NO_FAST_PATH} if the conversion needs a calendar
+     */
+    private long toEpochMillis(int sqlDate, int millisOfDay, TimeZone timeZone) {
+        final int epochDay = sqlDate - EPOCH_DAY_NUMBER;
+        if (epochDay <= GREGORIAN_CUTOVER_EPOCH_DAY) return NO_FAST_PATH;
+        final int offset = getTimeZoneOffsetCache(timeZone).getOffsetOfLocalDay(epochDay);
+        if (offset == TimeZoneOffsetCache.TRANSITION_DAY) return NO_FAST_PATH;
+        return epochDay * TimeZoneOffsetCache.MILLIS_PER_DAY + millisOfDay - offset;
+    }
+
+    private TimeZoneOffsetCache getTimeZoneOffsetCache(TimeZone timeZone) {
+        final String timeZoneId = timeZone.getID();
+        TimeZoneOffsetCache cache = timeZoneOffsetCaches.get(timeZoneId);
+        if (cache == null || !cache.hasSameRules(timeZone)) {
+            if (timeZoneOffsetCaches.size() >= MAX_CACHED_TIME_ZONES) {
+                timeZoneOffsetCaches.clear();
+            }
+            cache = new TimeZoneOffsetCache(timeZone);
+            timeZoneOffsetCaches.put(timeZoneId, cache);
+        }
+        return cache;
+    }
+
+    private static long toLocalMillis(long epochMillis, TimeZone timeZone) {
+        return epochMillis + timeZone.getOffset(epochMillis);
+    }
 
-        return new datetime(date, time);
+    private static long floorDiv(long x, long y) {
+        long result = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            result--;
+        }
+        return result;
     }
 
     /**
@@ -471,47 +720,57 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
         }
 
         datetime(byte[] date, byte[] time) {
-
             if (date != null) {
-                int sql_date = decodeInt(date);
-                int century;
-                sql_date -= 1721119 - 2400001;
-                century = (4 * sql_date - 1) / 146097;
-                sql_date = 4 * sql_date - 1 - 146097 * century;
-                raw.day = sql_date / 4;
-
-                sql_date = (4 * raw.day + 3) / 1461;
-                raw.day = 4 * raw.day + 3 - 1461 * sql_date;
-                raw.day = (raw.day + 4) / 4;
-
-                raw.month = (5 * raw.day - 3) / 153;
-                raw.day = 5 * raw.day - 3 - 153 * raw.month;
-                raw.day = (raw.day + 5) / 5;
-
-                raw.year = 100 * century + sql_date;
-
-                if (raw.month < 10) {
-                    raw.month += 3;
-                } else {
-                    raw.month -= 9;
-                    raw.year += 1;
-                }
+                setDate(decodeInt(date));
             }
             if (time != null) {
-                int fractionsInDay = decodeInt(time);
-                raw.hour = fractionsInDay / FRACTIONS_PER_HOUR;
-                fractionsInDay -= raw.hour * FRACTIONS_PER_HOUR;
-                raw.minute = fractionsInDay / FRACTIONS_PER_MINUTE;
-                fractionsInDay -= raw.minute * FRACTIONS_PER_MINUTE;
-                raw.second = fractionsInDay / FRACTIONS_PER_SECOND;
-                raw.fractions = fractionsInDay - raw.second * FRACTIONS_PER_SECOND;
+                setTime(decodeInt(time));
             }
         }
 
+        datetime(int sqlDate, int fractionsInDay) {
+            setDate(sqlDate);
+            setTime(fractionsInDay);
+        }
+
         datetime(RawDateTimeStruct raw) {
             this.raw = new RawDateTimeStruct(raw);
         }
 
+        private void setDate(int sql_date) {
+            int century;
+            sql_date -= 1721119 - 2400001;
+            century = (4 * sql_date - 1) / 146097;
+            sql_date = 4 * sql_date - 1 - 146097 * century;
+            raw.day = sql_date / 4;
+
+            sql_date = (4 * raw.day + 3) / 1461;
+            raw.day = 4 * raw.day + 3 - 1461 * sql_date;
+            raw.day = (raw.day + 4) / 4;
+
+            raw.month = (5 * raw.day - 3) / 153;
+            raw.day = 5 * raw.day - 3 - 153 * raw.month;
+            raw.day = (raw.day + 5) / 5;
+
+            raw.year = 100 * century + sql_date;
+
+            if (raw.month < 10) {
+                raw.month += 3;
+            } else {
+                raw.month -= 9;
+                raw.year += 1;
+            }
+        }
+
+        private void setTime(int fractionsInDay) {
+            raw.hour = fractionsInDay / FRACTIONS_PER_HOUR;
+            fractionsInDay -= raw.hour * FRACTIONS_PER_HOUR;
+            raw.minute = fractionsInDay / FRACTIONS_PER_MINUTE;
+            fractionsInDay -= raw.minute * FRACTIONS_PER_MINUTE;
+            raw.second = fractionsInDay / FRACTIONS_PER_SECOND;
+            raw.fractions = fractionsInDay - raw.second * FRACTIONS_PER_SECOND;
+        }
+
         /**
          * @return A copy of the raw data time struct contained in this datetime.
          */
@@ -520,15 +779,21 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
         }
 
         byte[] toTimeBytes() {
-            int fractionsInDay =
-                    raw.hour * FRACTIONS_PER_HOUR
-                            + raw.minute * FRACTIONS_PER_MINUTE
-                            + raw.second * FRACTIONS_PER_SECOND
-                            + raw.fractions;
-            return encodeInt(fractionsInDay);
+            return encodeInt(toTimeValue());
+        }
+
+        int toTimeValue() {
+            return raw.hour * FRACTIONS_PER_HOUR
+                    + raw.minute * FRACTIONS_PER_MINUTE
+                    + raw.second * FRACTIONS_PER_SECOND
+                    + raw.fractions;
         }
 
         byte[] toDateBytes() {
+            return encodeInt(toDateValue());
+        }
+
+        int toDateValue() {
             int cpMonth = raw.month;
             int cpYear = raw.year;
             int c, ya;
@@ -543,22 +808,14 @@ public class DefaultDatatypeCoder implements DatatypeCoder {
             c = cpYear / 100;
             ya = cpYear - 100 * c;
 
-            int value = ((146097 * c) / 4 +
+            return ((146097 * c) / 4 +
                     (1461 * ya) / 4 +
                     (153 * cpMonth + 2) / 5 +
                     raw.day + 1721119 - 2400001);
-            return encodeInt(value);
         }
 
         byte[] toTimestampBytes() {
-            byte[] date = toDateBytes();
-            byte[] time = toTimeBytes();
-
-            byte[] result = new byte[8];
-            System.arraycopy(date, 0, result, 0, 4);
-            System.arraycopy(time, 0, result, 4, 4);
-
-            return result;
+            return DefaultDatatypeCoder.this.toTimestampBytes(toDateValue(), toTimeValue());
         }
 
         Time toTime(Calendar cOrig) {
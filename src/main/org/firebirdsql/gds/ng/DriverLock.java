@@ -0,0 +1,92 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reentrant lock used to serialize access to connections, statements, transactions and blobs.
+ * <p>
+ * The driver uses these locks instead of {@code synchronized} blocks, so a thread blocked on socket I/O while holding
+ * the lock does not hold a monitor. This allows virtual threads to unmount while waiting, instead of pinning their
+ * carrier thread.
+ * </p>
+ * <p>
+ * Locks are non-fair by default; system property {@value #FAIR_LOCKING_PROPERTY} set to {@code true} makes them fair
+ * (see {@link ReentrantLock#ReentrantLock(boolean)}). The property is read once, when this class is loaded.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class DriverLock extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * System property to create fair locks.
+     */
+    public static final String FAIR_LOCKING_PROPERTY = "org.firebirdsql.jdbc.fairLocking";
+
+    private static final boolean FAIR_LOCKING = isFairLockingConfigured();
+
+    private final transient LockCloseable unlock = new LockCloseable() {
+        @Override
+        public void close() {
+            unlock();
+        }
+    };
+
+    /**
+     * Creates a lock with the fairness configured by system property {@value #FAIR_LOCKING_PROPERTY}.
+     */
+    public DriverLock() {
+        this(FAIR_LOCKING);
+    }
+
+    /**
+     * Creates a lock with the specified fairness.
+     *
+     * @param fair
+     *         {@code true} for a fair lock
+     */
+    public DriverLock(boolean fair) {
+        super(fair);
+    }
+
+    /**
+     * Acquires this lock.
+     *
+     * @return Closeable that releases the lock
+     */
+    public LockCloseable withLock() {
+        lock();
+        return unlock;
+    }
+
+    private static boolean isFairLockingConfigured() {
+        return Boolean.parseBoolean(AccessController.doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return System.getProperty(FAIR_LOCKING_PROPERTY);
+            }
+        }));
+    }
+}
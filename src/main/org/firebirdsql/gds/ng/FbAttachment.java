@@ -79,11 +79,14 @@ public interface FbAttachment extends AutoCloseable, ExceptionListenable {
     boolean isAttached();
 
     /**
-     * Get synchronization object.
+     * Acquires the lock of this attachment.
+     * <p>
+     * Use in try-with-resources: {@code try (LockCloseable ignored = withLock()) { ... }}.
+     * </p>
      *
-     * @return object, cannot be <code>null</code>.
+     * @return Closeable that releases the lock
      */
-    Object getSynchronizationObject();
+    LockCloseable withLock();
 
     /**
      * @return The {@link IEncodingFactory} for this connection
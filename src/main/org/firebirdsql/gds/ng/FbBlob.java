@@ -109,11 +109,14 @@ public interface FbBlob extends ExceptionListenable {
     boolean isOutput();
 
     /**
-     * Get synchronization object.
+     * Acquires the lock of this blob.
+     * <p>
+     * Use in try-with-resources: {@code try (LockCloseable ignored = withLock()) { ... }}.
+     * </p>
      *
-     * @return object, cannot be <code>null</code>.
+     * @return Closeable that releases the lock
      */
-    Object getSynchronizationObject();
+    LockCloseable withLock();
 
     // TODO Consider different blob api, eg more like InputStream / OutputStream methods taking a buffer with offset and length?
 
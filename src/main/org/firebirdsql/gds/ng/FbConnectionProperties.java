@@ -44,6 +44,17 @@ public final class FbConnectionProperties extends AbstractAttachProperties<IConn
     private int pageCacheSize;
     private boolean resultSetDefaultHoldable;
     private boolean columnLabelForName;
+    private boolean pipelineTransactions;
+    private boolean deduplicateStrings;
+    private int keepAliveInterval;
+    private int metaDataCacheTtl;
+    private boolean fastConnect;
+    private String hostSelection;
+    private boolean enableMetrics;
+    private int slowStatementThreshold;
+    private String retryPolicy;
+    private boolean requestPipelining;
+    private int blobPrefetchSize;
     private final DatabaseParameterBuffer extraDatabaseParameters = new DatabaseParameterBufferImp(
             DatabaseParameterBufferImp.DpbMetaData.DPB_VERSION_1,
             EncodingFactory.getPlatformEncoding());
@@ -68,6 +79,17 @@ public final class FbConnectionProperties extends AbstractAttachProperties<IConn
             pageCacheSize = src.getPageCacheSize();
             resultSetDefaultHoldable = src.isResultSetDefaultHoldable();
             columnLabelForName = src.isColumnLabelForName();
+            pipelineTransactions = src.isPipelineTransactions();
+            deduplicateStrings = src.isDeduplicateStrings();
+            keepAliveInterval = src.getKeepAliveInterval();
+            metaDataCacheTtl = src.getMetaDataCacheTtl();
+            fastConnect = src.isFastConnect();
+            hostSelection = src.getHostSelection();
+            enableMetrics = src.isEnableMetrics();
+            slowStatementThreshold = src.getSlowStatementThreshold();
+            retryPolicy = src.getRetryPolicy();
+            requestPipelining = src.isRequestPipelining();
+            blobPrefetchSize = src.getBlobPrefetchSize();
             for (Parameter parameter : src.getExtraDatabaseParameters()) {
                 parameter.copyTo(extraDatabaseParameters, null);
             }
@@ -140,6 +162,127 @@ public final class FbConnectionProperties extends AbstractAttachProperties<IConn
         return columnLabelForName;
     }
 
+    @Override
+    public void setPipelineTransactions(final boolean pipelineTransactions) {
+        this.pipelineTransactions = pipelineTransactions;
+        dirtied();
+    }
+
+    @Override
+    public boolean isPipelineTransactions() {
+        return pipelineTransactions;
+    }
+
+    @Override
+    public void setDeduplicateStrings(final boolean deduplicateStrings) {
+        this.deduplicateStrings = deduplicateStrings;
+        dirtied();
+    }
+
+    @Override
+    public boolean isDeduplicateStrings() {
+        return deduplicateStrings;
+    }
+
+    @Override
+    public void setKeepAliveInterval(final int keepAliveInterval) {
+        this.keepAliveInterval = keepAliveInterval;
+        dirtied();
+    }
+
+    @Override
+    public int getKeepAliveInterval() {
+        return keepAliveInterval;
+    }
+
+    @Override
+    public void setMetaDataCacheTtl(final int metaDataCacheTtl) {
+        this.metaDataCacheTtl = metaDataCacheTtl;
+        dirtied();
+    }
+
+    @Override
+    public int getMetaDataCacheTtl() {
+        return metaDataCacheTtl;
+    }
+
+    @Override
+    public void setFastConnect(final boolean fastConnect) {
+        this.fastConnect = fastConnect;
+        dirtied();
+    }
+
+    @Override
+    public boolean isFastConnect() {
+        return fastConnect;
+    }
+
+    @Override
+    public void setHostSelection(final String hostSelection) {
+        this.hostSelection = hostSelection;
+        dirtied();
+    }
+
+    @Override
+    public String getHostSelection() {
+        return hostSelection;
+    }
+
+    @Override
+    public void setEnableMetrics(final boolean enableMetrics) {
+        this.enableMetrics = enableMetrics;
+        dirtied();
+    }
+
+    @Override
+    public boolean isEnableMetrics() {
+        return enableMetrics;
+    }
+
+    @Override
+    public void setSlowStatementThreshold(final int slowStatementThreshold) {
+        this.slowStatementThreshold = slowStatementThreshold;
+        dirtied();
+    }
+
+    @Override
+    public int getSlowStatementThreshold() {
+        return slowStatementThreshold;
+    }
+
+    @Override
+    public void setRetryPolicy(final String retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        dirtied();
+    }
+
+    @Override
+    public String getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public void setRequestPipelining(final boolean requestPipelining) {
+        this.requestPipelining = requestPipelining;
+        dirtied();
+    }
+
+    @Override
+    public boolean isRequestPipelining() {
+        return requestPipelining;
+    }
+
+    @Override
+    public void setBlobPrefetchSize(final int blobPrefetchSize) {
+        this.blobPrefetchSize = blobPrefetchSize;
+        dirtied();
+    }
+
+    @Override
+    public int getBlobPrefetchSize() {
+        return blobPrefetchSize;
+    }
+
     @Override
     public DatabaseParameterBuffer getExtraDatabaseParameters() {
         return extraDatabaseParameters;
@@ -208,6 +351,39 @@ public final class FbConnectionProperties extends AbstractAttachProperties<IConn
             case isc_dpb_column_label_for_name:
                 setColumnLabelForName(true);
                 break;
+            case isc_dpb_pipeline_transactions:
+                setPipelineTransactions(true);
+                break;
+            case isc_dpb_deduplicate_strings:
+                setDeduplicateStrings(true);
+                break;
+            case isc_dpb_keep_alive_interval:
+                setKeepAliveInterval(parameter.getValueAsInt());
+                break;
+            case isc_dpb_metadata_cache_ttl:
+                setMetaDataCacheTtl(parameter.getValueAsInt());
+                break;
+            case isc_dpb_fast_connect:
+                setFastConnect(true);
+                break;
+            case isc_dpb_host_selection:
+                setHostSelection(parameter.getValueAsString());
+                break;
+            case isc_dpb_enable_metrics:
+                setEnableMetrics(true);
+                break;
+            case isc_dpb_slow_statement_threshold:
+                setSlowStatementThreshold(parameter.getValueAsInt());
+                break;
+            case isc_dpb_retry_policy:
+                setRetryPolicy(parameter.getValueAsString());
+                break;
+            case isc_dpb_request_pipelining:
+                setRequestPipelining(true);
+                break;
+            case isc_dpb_blob_prefetch_size:
+                setBlobPrefetchSize(parameter.getValueAsInt());
+                break;
             case isc_dpb_utf8_filename:
                 // Filter out, handled explicitly in protocol implementation
                 break;
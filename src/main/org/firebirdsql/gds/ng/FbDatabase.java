@@ -28,9 +28,12 @@ import org.firebirdsql.gds.BlobParameterBuffer;
 import org.firebirdsql.gds.EventHandle;
 import org.firebirdsql.gds.EventHandler;
 import org.firebirdsql.gds.TransactionParameterBuffer;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.gds.ng.listeners.ExceptionListenable;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 
 import java.sql.SQLException;
 
@@ -136,6 +139,27 @@ public interface FbDatabase extends FbAttachment {
      */
     FbBlob createBlobForInput(FbTransaction transaction, BlobParameterBuffer blobParameterBuffer, long blobId);
 
+    /**
+     * Reads the content of multiple (small) blobs.
+     * <p>
+     * Implementations minimize the number of roundtrips to the server (eg the wire protocol opens a chunk of blobs
+     * with one roundtrip and reads them with another). Blobs larger than {@code maxLength} are not read; their
+     * content must be read through {@link #createBlobForInput(FbTransaction, BlobParameterBuffer, long)}.
+     * </p>
+     *
+     * @param transaction
+     *         Transaction associated with the blobs
+     * @param blobIds
+     *         Ids of the blobs to read
+     * @param maxLength
+     *         Maximum length in bytes of a blob to read
+     * @return Array with the content of the blob at the same index in {@code blobIds}, or {@code null} if the blob
+     *         was not read (larger than {@code maxLength}, or an error occurred opening or reading it)
+     * @throws SQLException
+     *         For errors communicating with the server
+     */
+    byte[][] readBlobs(FbTransaction transaction, long[] blobIds, int maxLength) throws SQLException;
+
     /**
      * Creates a blob parameter buffer that is usable with {@link #createBlobForInput(FbTransaction,
      * org.firebirdsql.gds.BlobParameterBuffer, long)}
@@ -183,6 +207,24 @@ public interface FbDatabase extends FbAttachment {
      */
     byte[] getDatabaseInfo(byte[] requestItems, int maxBufferLength) throws SQLException;
 
+    /**
+     * Checks if the connection to the database is alive with a minimal roundtrip to the server.
+     * <p>
+     * Implementations use the cheapest operation available for the protocol (eg {@code op_ping} for the wire
+     * protocol version 13 and higher). If the server does not respond within {@code timeout}, the connection is
+     * closed, as the response might still arrive and would corrupt the next operation. Implementations that cannot
+     * enforce a timeout (eg native) ignore it.
+     * </p>
+     *
+     * @param timeout
+     *         Timeout in milliseconds, {@code 0} for no timeout (other than the configured socket timeout)
+     * @throws java.sql.SQLTimeoutException
+     *         If the server did not respond within the timeout
+     * @throws SQLException
+     *         If the connection is closed or not alive
+     */
+    void ping(int timeout) throws SQLException;
+
     /**
      * Performs an execute immediate of a statement.
      * <p>
@@ -199,6 +241,78 @@ public interface FbDatabase extends FbAttachment {
      */
     void executeImmediate(String statementText, FbTransaction transaction) throws SQLException;
 
+    /**
+     * Performs an execute immediate of a statement with parameters and/or a singleton result.
+     * <p>
+     * A call to this method is the equivalent of a <code>isc_dsql_exec_immed2()</code>: the statement is prepared,
+     * executed and released by the server in a single operation, without allocating a statement handle. As the
+     * statement is not prepared by the client, the caller describes the parameters and the output; the server
+     * converts from and to the actual types of the statement. This can only be used for statements that do not
+     * open a cursor, eg DML, {@code EXECUTE PROCEDURE} or a singleton {@code SELECT}. No update counts are
+     * available.
+     * </p>
+     *
+     * @param statementText
+     *         Statement text
+     * @param transaction
+     *         Active transaction
+     * @param parameterDescriptor
+     *         Descriptor of the parameters (<code>null</code> if no parameters)
+     * @param parameters
+     *         Parameter values (<code>null</code> if no parameters)
+     * @param outputDescriptor
+     *         Descriptor of the output (<code>null</code> if the statement has no singleton result)
+     * @return Output row, or <code>null</code> if <code>outputDescriptor</code> is <code>null</code> or empty, or the
+     * statement produced no row
+     * @throws SQLException
+     *         For errors executing the statement, if not attached, or if the number of parameters does not match
+     *         the parameter descriptor
+     */
+    RowValue executeImmediate(String statementText, FbTransaction transaction, RowDescriptor parameterDescriptor,
+            RowValue parameters, RowDescriptor outputDescriptor) throws SQLException;
+
+    /**
+     * Reads a whole array in a single slice.
+     * <p>
+     * A call to this method is the equivalent of a <code>isc_get_slice()</code> with the slice description language
+     * of {@code arrayDescriptor}. The elements are decoded directly into a flat primitive array.
+     * </p>
+     *
+     * @param transaction
+     *         Active transaction
+     * @param arrayId
+     *         Id of the array (value of the array column)
+     * @param arrayDescriptor
+     *         Descriptor of the array
+     * @return Flat array with the elements of the array (see {@link ArrayDescriptor}); elements not returned by the
+     * server are {@code 0}
+     * @throws SQLException
+     *         For errors reading the array, or if not attached or the transaction is not active
+     */
+    Object getArraySlice(FbTransaction transaction, long arrayId, ArrayDescriptor arrayDescriptor)
+            throws SQLException;
+
+    /**
+     * Writes a whole array in a single slice.
+     * <p>
+     * A call to this method is the equivalent of a <code>isc_put_slice()</code> with the slice description language
+     * of {@code arrayDescriptor}. A new array is created; its id must be used as the value of the array column.
+     * </p>
+     *
+     * @param transaction
+     *         Active transaction
+     * @param arrayDescriptor
+     *         Descriptor of the array
+     * @param flatArray
+     *         Flat array with the elements of the array (see {@link ArrayDescriptor})
+     * @return Id of the new array
+     * @throws SQLException
+     *         For errors writing the array, if {@code flatArray} does not match {@code arrayDescriptor}, or if not
+     *         attached or the transaction is not active
+     */
+    long putArraySlice(FbTransaction transaction, ArrayDescriptor arrayDescriptor, Object flatArray)
+            throws SQLException;
+
     /**
      * @return The database dialect
      */
@@ -300,4 +414,17 @@ public interface FbDatabase extends FbAttachment {
      * @return A potentially cached empty row descriptor for this database.
      */
     RowDescriptor emptyRowDescriptor();
+
+    /**
+     * Sets the listener for driver metrics of this database connection.
+     *
+     * @param metricsListener
+     *         Metrics listener, or {@code null} to disable metrics
+     */
+    void setMetricsListener(MetricsListener metricsListener);
+
+    /**
+     * @return Listener for driver metrics, or {@code null} if metrics are disabled
+     */
+    MetricsListener getMetricsListener();
 }
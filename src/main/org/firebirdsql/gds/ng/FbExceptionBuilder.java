@@ -23,6 +23,10 @@ import org.firebirdsql.jdbc.FBSQLExceptionInfo;
 import org.firebirdsql.jdbc.SQLStateConstants;
 import org.firebirdsql.util.SQLExceptionChainBuilder;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.sql.*;
 import java.util.*;
 
@@ -41,6 +45,27 @@ public final class FbExceptionBuilder {
     private static final String SQLSTATE_FEATURE_NOT_SUPPORTED_PREFIX = "0A";
     private static final String SQLSTATE_SYNTAX_ERROR_PREFIX = "42";
 
+    /**
+     * System property to enable stackless exceptions for expected, retryable errors (see {@link #toFlatSQLException()}).
+     */
+    static final String STACKLESS_EXCEPTIONS_PROPERTY = "org.firebirdsql.jdbc.stacklessExceptions";
+
+    /**
+     * Error codes that are part of normal operation under concurrency (and are usually handled by retrying), and
+     * for which a stack trace adds little value.
+     */
+    private static final Set<Integer> RETRYABLE_ERROR_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            isc_lock_conflict, isc_deadlock, isc_update_conflict, isc_lock_timeout, isc_unique_key_violation, isc_no_dup,
+            isc_foreign_key)));
+
+    private static volatile boolean stacklessExceptions = Boolean.parseBoolean(
+            AccessController.doPrivileged(new PrivilegedAction<String>() {
+                @Override
+                public String run() {
+                    return System.getProperty(STACKLESS_EXCEPTIONS_PROPERTY);
+                }
+            }));
+
     private final List<ExceptionInformation> exceptionInfo = new ArrayList<>();
     private ExceptionInformation current = null;
 
@@ -256,46 +281,78 @@ public final class FbExceptionBuilder {
      */
     public SQLException toFlatSQLException() {
         if (exceptionInfo.isEmpty()) return null;
-        // We are recording the unflattened state if people need the details
-        SQLExceptionChainBuilder<FBSQLExceptionInfo> chain = new SQLExceptionChainBuilder<>();
-        StringBuilder fullExceptionMessage = new StringBuilder();
-        ExceptionInformation interestingExceptionInfo = null;
+        final ExceptionInformation firstExceptionInfo = exceptionInfo.get(0);
+        final ExceptionInformation interestingExceptionInfo = findInterestingExceptionInfo(exceptionInfo);
+
+        /* If the type of the head of the chain is not Type.EXCEPTION we use that, not the type of the interesting
+         * exception info as the head of the chain has been set explicitly to an expected exception type (eg Type.WARNING).
+         */
+        Type exceptionType = firstExceptionInfo.type != Type.EXCEPTION
+                ? firstExceptionInfo.type
+                : interestingExceptionInfo.type;
+        if (stacklessExceptions && exceptionType == Type.EXCEPTION
+                && RETRYABLE_ERROR_CODES.contains(interestingExceptionInfo.errorCode)) {
+            return new StacklessSQLException(new ArrayList<>(exceptionInfo), interestingExceptionInfo);
+        }
+        SQLException exception = exceptionType.createSQLException(
+                toFlatMessage(exceptionInfo, interestingExceptionInfo), interestingExceptionInfo.sqlState,
+                interestingExceptionInfo.errorCode);
+        exception.initCause(toExceptionInfoChain(exceptionInfo));
+        return exception;
+    }
 
+    /**
+     * @return The first exception information with an interesting error code and SQL state, or the first exception
+     * information if there is none.
+     */
+    private static ExceptionInformation findInterestingExceptionInfo(List<ExceptionInformation> exceptionInfo) {
         for (ExceptionInformation info : exceptionInfo) {
-            if (interestingExceptionInfo == null
-                    && !UNINTERESTING_ERROR_CODES.contains(info.errorCode)
-                    && !SQLSTATE_SUCCESS.equals(info.sqlState)) {
-                interestingExceptionInfo = info;
+            if (!UNINTERESTING_ERROR_CODES.contains(info.errorCode) && !SQLSTATE_SUCCESS.equals(info.sqlState)) {
+                return info;
             }
+        }
+        return exceptionInfo.get(0);
+    }
 
+    /**
+     * @return Message of all exception information joined together, followed by SQL state and error code of the
+     * interesting exception information
+     */
+    private static String toFlatMessage(List<ExceptionInformation> exceptionInfo,
+            ExceptionInformation interestingExceptionInfo) {
+        StringBuilder fullExceptionMessage = new StringBuilder();
+        for (ExceptionInformation info : exceptionInfo) {
             if (fullExceptionMessage.length() > 0) {
                 fullExceptionMessage.append("; ");
             }
             fullExceptionMessage.append(info.toMessage());
-
-            chain.append(info.toSQLExceptionInfo());
         }
-
-        final ExceptionInformation firstExceptionInfo = exceptionInfo.get(0);
-        if (interestingExceptionInfo == null) {
-            interestingExceptionInfo = firstExceptionInfo;
-        }
-
-        fullExceptionMessage
+        return fullExceptionMessage
                 .append(" [SQLState:").append(interestingExceptionInfo.sqlState)
                 .append(", ISC error code:").append(interestingExceptionInfo.errorCode)
-                .append(']');
+                .append(']')
+                .toString();
+    }
 
-        /* If the type of the head of the chain is not Type.EXCEPTION we use that, not the type of the interesting
-         * exception info as the head of the chain has been set explicitly to an expected exception type (eg Type.WARNING).
-         */
-        Type exceptionType = firstExceptionInfo.type != Type.EXCEPTION
-                ? firstExceptionInfo.type
-                : interestingExceptionInfo.type;
-        SQLException exception = exceptionType.createSQLException(
-                fullExceptionMessage.toString(), interestingExceptionInfo.sqlState, interestingExceptionInfo.errorCode);
-        exception.initCause(chain.getException());
-        return exception;
+    /**
+     * @return Chain of {@link FBSQLExceptionInfo} recording the unflattened state (for people needing the details)
+     */
+    private static FBSQLExceptionInfo toExceptionInfoChain(List<ExceptionInformation> exceptionInfo) {
+        SQLExceptionChainBuilder<FBSQLExceptionInfo> chain = new SQLExceptionChainBuilder<>();
+        for (ExceptionInformation info : exceptionInfo) {
+            chain.append(info.toSQLExceptionInfo());
+        }
+        return chain.getException();
+    }
+
+    /**
+     * Enables or disables stackless exceptions; for testing purposes.
+     *
+     * @param enabled
+     *         {@code true} to enable stackless exceptions
+     */
+    static void setStacklessExceptions(boolean enabled) {
+        stacklessExceptions = enabled;
     }
 
     /**
@@ -364,10 +421,11 @@ public final class FbExceptionBuilder {
 
     private static final class ExceptionInformation {
         private final Type type;
-        private final List<String> messageParameters = new ArrayList<>();
+        private List<String> messageParameters = Collections.emptyList();
         private final int errorCode;
         private String sqlState;
         private Throwable cause;
+        private String message;
 
         ExceptionInformation(Type type, int errorCode) {
             if (type == null) throw new IllegalArgumentException("type must not be null");
@@ -408,7 +466,11 @@ public final class FbExceptionBuilder {
          *         The value of the message parameter
          */
         void addMessageParameter(String argument) {
+            if (messageParameters.isEmpty()) {
+                messageParameters = new ArrayList<>(4);
+            }
             messageParameters.add(argument);
+            message = null;
         }
 
         /**
@@ -422,9 +484,12 @@ public final class FbExceptionBuilder {
          * @return The message string with the parameter substituted into the message.
          */
         String toMessage() {
-            GDSExceptionHelper.GDSMessage gdsMessage = GDSExceptionHelper.getMessage(errorCode);
-            gdsMessage.setParameters(getMessageParameters());
-            return gdsMessage.toString();
+            if (message == null) {
+                GDSExceptionHelper.GDSMessage gdsMessage = GDSExceptionHelper.getMessage(errorCode);
+                gdsMessage.setParameters(messageParameters);
+                message = gdsMessage.toString();
+            }
+            return message;
         }
 
         /**
@@ -460,6 +525,68 @@ public final class FbExceptionBuilder {
         }
     }
 
+    /**
+     * Flattened exception without stack trace, for expected errors that are usually handled by retrying.
+     * <p>
+     * Both the message and the chain of {@link FBSQLExceptionInfo} (the cause) are only built when requested.
+     * </p>
+     */
+    private static final class StacklessSQLException extends SQLException {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient List<ExceptionInformation> exceptionInfo;
+        private transient ExceptionInformation interestingExceptionInfo;
+        private String message;
+
+        private StacklessSQLException(List<ExceptionInformation> exceptionInfo,
+                ExceptionInformation interestingExceptionInfo) {
+            super(null, interestingExceptionInfo.sqlState, interestingExceptionInfo.errorCode);
+            this.exceptionInfo = exceptionInfo;
+            this.interestingExceptionInfo = interestingExceptionInfo;
+        }
+
+        @Override
+        public synchronized String getMessage() {
+            if (message == null && exceptionInfo != null) {
+                message = toFlatMessage(exceptionInfo, interestingExceptionInfo);
+            }
+            return message;
+        }
+
+        @Override
+        public synchronized Throwable getCause() {
+            initExceptionInfoChain();
+            return super.getCause();
+        }
+
+        @Override
+        public synchronized Throwable initCause(Throwable cause) {
+            initExceptionInfoChain();
+            return super.initCause(cause);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+        private void initExceptionInfoChain() {
+            if (exceptionInfo != null) {
+                getMessage();
+                final List<ExceptionInformation> info = exceptionInfo;
+                exceptionInfo = null;
+                interestingExceptionInfo = null;
+                super.initCause(toExceptionInfoChain(info));
+            }
+        }
+
+        private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+            initExceptionInfoChain();
+            out.defaultWriteObject();
+        }
+    }
+
     /**
      * Type of exception.
      */
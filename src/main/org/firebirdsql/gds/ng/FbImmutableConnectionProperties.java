@@ -35,6 +35,17 @@ public final class FbImmutableConnectionProperties extends AbstractImmutableAtta
     private final int pageCacheSize;
     private final boolean resultSetDefaultHoldable;
     private final boolean columnLabelForName;
+    private final boolean pipelineTransactions;
+    private final boolean deduplicateStrings;
+    private final int keepAliveInterval;
+    private final int metaDataCacheTtl;
+    private final boolean fastConnect;
+    private final String hostSelection;
+    private final boolean enableMetrics;
+    private final int slowStatementThreshold;
+    private final String retryPolicy;
+    private final boolean requestPipelining;
+    private final int blobPrefetchSize;
     private final DatabaseParameterBuffer extraDatabaseParameters;
 
     /**
@@ -54,6 +65,17 @@ public final class FbImmutableConnectionProperties extends AbstractImmutableAtta
         pageCacheSize = src.getPageCacheSize();
         resultSetDefaultHoldable = src.isResultSetDefaultHoldable();
         columnLabelForName = src.isColumnLabelForName();
+        pipelineTransactions = src.isPipelineTransactions();
+        deduplicateStrings = src.isDeduplicateStrings();
+        keepAliveInterval = src.getKeepAliveInterval();
+        metaDataCacheTtl = src.getMetaDataCacheTtl();
+        fastConnect = src.isFastConnect();
+        hostSelection = src.getHostSelection();
+        enableMetrics = src.isEnableMetrics();
+        slowStatementThreshold = src.getSlowStatementThreshold();
+        retryPolicy = src.getRetryPolicy();
+        requestPipelining = src.isRequestPipelining();
+        blobPrefetchSize = src.getBlobPrefetchSize();
         extraDatabaseParameters = src.getExtraDatabaseParameters().deepCopy();
     }
 
@@ -112,6 +134,116 @@ public final class FbImmutableConnectionProperties extends AbstractImmutableAtta
         return columnLabelForName;
     }
 
+    @Override
+    public void setPipelineTransactions(final boolean pipelineTransactions) {
+        immutable();
+    }
+
+    @Override
+    public boolean isPipelineTransactions() {
+        return pipelineTransactions;
+    }
+
+    @Override
+    public void setDeduplicateStrings(final boolean deduplicateStrings) {
+        immutable();
+    }
+
+    @Override
+    public boolean isDeduplicateStrings() {
+        return deduplicateStrings;
+    }
+
+    @Override
+    public void setKeepAliveInterval(final int keepAliveInterval) {
+        immutable();
+    }
+
+    @Override
+    public int getKeepAliveInterval() {
+        return keepAliveInterval;
+    }
+
+    @Override
+    public void setMetaDataCacheTtl(final int metaDataCacheTtl) {
+        immutable();
+    }
+
+    @Override
+    public int getMetaDataCacheTtl() {
+        return metaDataCacheTtl;
+    }
+
+    @Override
+    public void setFastConnect(final boolean fastConnect) {
+        immutable();
+    }
+
+    @Override
+    public boolean isFastConnect() {
+        return fastConnect;
+    }
+
+    @Override
+    public void setHostSelection(final String hostSelection) {
+        immutable();
+    }
+
+    @Override
+    public String getHostSelection() {
+        return hostSelection;
+    }
+
+    @Override
+    public void setEnableMetrics(final boolean enableMetrics) {
+        immutable();
+    }
+
+    @Override
+    public boolean isEnableMetrics() {
+        return enableMetrics;
+    }
+
+    @Override
+    public void setSlowStatementThreshold(final int slowStatementThreshold) {
+        immutable();
+    }
+
+    @Override
+    public int getSlowStatementThreshold() {
+        return slowStatementThreshold;
+    }
+
+    @Override
+    public void setRetryPolicy(final String retryPolicy) {
+        immutable();
+    }
+
+    @Override
+    public String getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public void setRequestPipelining(final boolean requestPipelining) {
+        immutable();
+    }
+
+    @Override
+    public boolean isRequestPipelining() {
+        return requestPipelining;
+    }
+
+    @Override
+    public void setBlobPrefetchSize(final int blobPrefetchSize) {
+        immutable();
+    }
+
+    @Override
+    public int getBlobPrefetchSize() {
+        return blobPrefetchSize;
+    }
+
     @Override
     public DatabaseParameterBuffer getExtraDatabaseParameters() {
         return extraDatabaseParameters.deepCopy();
@@ -233,6 +233,17 @@ public interface FbStatement extends ExceptionListenable {
      */
     SqlCountHolder getSqlCounts() throws SQLException;
 
+    /**
+     * Gets the total time spent in the prepare, execute and fetch operations of this statement.
+     * <p>
+     * Operations are only measured while the database has a metrics listener (see
+     * {@link FbDatabase#setMetricsListener(org.firebirdsql.gds.ng.monitor.MetricsListener)}).
+     * </p>
+     *
+     * @return Total time of the operations in nanoseconds
+     */
+    long getOperationNanos();
+
     /**
      * Sets the named cursor name for this statement.
      *
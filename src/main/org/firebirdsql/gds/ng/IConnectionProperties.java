@@ -157,6 +157,280 @@ public interface IConnectionProperties extends IAttachProperties<IConnectionProp
      */
     boolean isColumnLabelForName();
 
+    /**
+     * Set if the start and commit of transactions are pipelined with the next operation.
+     * <p>
+     * When enabled (and supported by the protocol implementation), {@code op_transaction} and {@code op_commit} are
+     * not sent immediately, but together with the next operation, and their responses are processed when the
+     * response to that operation is read. This saves round trips, especially in auto-commit mode, but errors
+     * starting or committing a transaction are reported by a later operation.
+     * </p>
+     *
+     * @param pipelineTransactions
+     *         <code>true</code> pipeline transaction start and commit, <code>false</code> (default) wait for the
+     *         response of each transaction start and commit
+     */
+    void setPipelineTransactions(boolean pipelineTransactions);
+
+    /**
+     * Gets the current setting of <code>pipelineTransactions</code>
+     *
+     * @return <code>true</code> pipeline transaction start and commit, <code>false</code> (default) wait for the
+     *         response of each transaction start and commit
+     * @see #setPipelineTransactions(boolean)
+     */
+    boolean isPipelineTransactions();
+
+    /**
+     * Set if string values of result set columns are deduplicated.
+     * <p>
+     * When enabled, each {@code CHAR} and {@code VARCHAR} column of a result set keeps a small cache of decoded
+     * values, and returns the same {@code String} instance for repeated values. This reduces memory usage and
+     * decoding for columns with few distinct values (eg status or country codes). The cache disables itself for
+     * columns with many distinct values. The default can be overridden per statement with
+     * {@link org.firebirdsql.jdbc.FirebirdStatement#setDeduplicateStrings(boolean)}.
+     * </p>
+     *
+     * @param deduplicateStrings
+     *         <code>true</code> deduplicate string values, <code>false</code> (default) decode each value separately
+     */
+    void setDeduplicateStrings(boolean deduplicateStrings);
+
+    /**
+     * Gets the current setting of <code>deduplicateStrings</code>
+     *
+     * @return <code>true</code> deduplicate string values, <code>false</code> (default) decode each value separately
+     * @see #setDeduplicateStrings(boolean)
+     */
+    boolean isDeduplicateStrings();
+
+    /**
+     * Set the keep-alive interval.
+     * <p>
+     * When set, a background task pings a connection that has been idle for about the specified interval (see
+     * {@link org.firebirdsql.gds.ng.FbDatabase#ping(int)}). This prevents firewalls or NAT devices from dropping idle
+     * connections, and detects broken connections before they are used. If the server does not respond within the
+     * interval, the connection is closed. Only supported by the pure Java implementation.
+     * </p>
+     *
+     * @param keepAliveInterval
+     *         Keep-alive interval in seconds, <code>0</code> (default) disables keep-alive
+     */
+    void setKeepAliveInterval(int keepAliveInterval);
+
+    /**
+     * Gets the current setting of <code>keepAliveInterval</code>
+     *
+     * @return Keep-alive interval in seconds, <code>0</code> (default) if keep-alive is disabled
+     * @see #setKeepAliveInterval(int)
+     */
+    int getKeepAliveInterval();
+
+    /**
+     * Set the time-to-live of cached {@link java.sql.DatabaseMetaData} results.
+     * <p>
+     * When set, the results of the system table queries of {@link java.sql.DatabaseMetaData} are cached and shared
+     * by all connections created by the same {@link org.firebirdsql.jca.FBManagedConnectionFactory}. Cached results
+     * are discarded after the time-to-live, and when DDL is executed through the driver.
+     * </p>
+     *
+     * @param metaDataCacheTtl
+     *         Time-to-live in seconds, <code>0</code> (default) disables the metadata cache
+     */
+    void setMetaDataCacheTtl(int metaDataCacheTtl);
+
+    /**
+     * Gets the current setting of <code>metaDataCacheTtl</code>
+     *
+     * @return Time-to-live in seconds, <code>0</code> (default) if the metadata cache is disabled
+     * @see #setMetaDataCacheTtl(int)
+     */
+    int getMetaDataCacheTtl();
+
+    /**
+     * Set if connection establishment is pipelined.
+     * <p>
+     * When enabled (pure Java implementation only), the {@code op_attach} and the request for database information
+     * are sent together with the last authentication message of the connect phase, if the server accepted the
+     * authentication plugin and that plugin needs no further exchanges (eg Srp), or together with each other if
+     * authentication does not need additional exchanges after the attach. This saves up to two round trips per
+     * connection. It cannot be used with authentication plugins that need multiple exchanges after the first
+     * authentication response of the server.
+     * </p>
+     *
+     * @param fastConnect
+     *         <code>true</code> pipeline connection establishment, <code>false</code> (default) wait for the response
+     *         of each step
+     */
+    void setFastConnect(boolean fastConnect);
+
+    /**
+     * Gets the current setting of <code>fastConnect</code>
+     *
+     * @return <code>true</code> pipeline connection establishment, <code>false</code> (default) wait for the response
+     *         of each step
+     * @see #setFastConnect(boolean)
+     */
+    boolean isFastConnect();
+
+    /**
+     * Set the order in which servers are tried if the server name is a list of servers.
+     * <p>
+     * Supported values:
+     * </p>
+     * <ul>
+     * <li>{@code failover} (default): servers are tried in the listed order</li>
+     * <li>{@code roundRobin}: each connection starts with the next server of the list</li>
+     * <li>{@code leastLatency}: servers are tried in order of their recent connect latency</li>
+     * </ul>
+     * <p>
+     * With all values, a server that recently failed to connect is tried last (see
+     * {@link org.firebirdsql.gds.ng.wire.HostSelector}). Only supported by the pure Java implementation.
+     * </p>
+     *
+     * @param hostSelection
+     *         Host selection policy, or {@code null} for the default
+     */
+    void setHostSelection(String hostSelection);
+
+    /**
+     * Gets the current setting of <code>hostSelection</code>
+     *
+     * @return Host selection policy, or {@code null} for the default ({@code failover})
+     * @see #setHostSelection(String)
+     */
+    String getHostSelection();
+
+    /**
+     * Set if driver metrics are collected for this connection.
+     * <p>
+     * When enabled, the connection reports round-trips, bytes and packets sent and received, statement latencies,
+     * rows fetched and blob bytes to the {@link org.firebirdsql.gds.ng.monitor.DriverMetrics} of its
+     * {@link org.firebirdsql.jca.FBManagedConnectionFactory}, which is registered as JMX MBean. When disabled, nothing
+     * is measured.
+     * </p>
+     *
+     * @param enableMetrics
+     *         <code>true</code> collect driver metrics, <code>false</code> (default) no metrics
+     */
+    void setEnableMetrics(boolean enableMetrics);
+
+    /**
+     * Gets the current setting of <code>enableMetrics</code>
+     *
+     * @return <code>true</code> collect driver metrics, <code>false</code> (default) no metrics
+     * @see #setEnableMetrics(boolean)
+     */
+    boolean isEnableMetrics();
+
+    /**
+     * Set the threshold for logging slow statements.
+     * <p>
+     * When set, the time from the start of the execution of a statement until its completion (for a query: until the
+     * result set is closed or fully fetched) is measured. Statements exceeding the threshold are logged with their
+     * SQL, parameters (with string and binary values redacted), row counts, round-trips, execution plan and the page
+     * reads, writes, fetches and marks of the connection during the execution, and reported to the
+     * {@link org.firebirdsql.jdbc.SlowStatementListener} service providers. Collecting the page counters requires an
+     * additional database information request at the start of each execution.
+     * </p>
+     *
+     * @param slowStatementThreshold
+     *         Threshold in milliseconds, <code>0</code> (default) disables the slow statement log
+     */
+    void setSlowStatementThreshold(int slowStatementThreshold);
+
+    /**
+     * Gets the current setting of <code>slowStatementThreshold</code>
+     *
+     * @return Threshold in milliseconds, <code>0</code> (default) if the slow statement log is disabled
+     * @see #setSlowStatementThreshold(int)
+     */
+    int getSlowStatementThreshold();
+
+    /**
+     * Set the policy for automatically retrying statements that failed with a lock conflict, deadlock or update
+     * conflict.
+     * <p>
+     * Retries are only done in auto-commit mode (not with {@code useFirebirdAutoCommit}), where the failed statement
+     * is the only work of its transaction. The value is a comma separated list of {@code key:value} entries (or
+     * {@code default}), for example {@code deadlock:3,update_conflict:5,backoff:20,maxBackoff:500,statements:dml}:
+     * </p>
+     * <ul>
+     * <li>{@code deadlock}, {@code lock_conflict}, {@code update_conflict}, {@code lock_timeout} or a numeric error
+     * code: maximum number of retries of an execution for that error (default: 3 for deadlock, lock conflict and update
+     * conflict)</li>
+     * <li>{@code backoff}: initial backoff in milliseconds (default 10), doubled for each retry with random jitter</li>
+     * <li>{@code maxBackoff}: maximum backoff in milliseconds (default 1000)</li>
+     * <li>{@code statements}: statements that are considered idempotent and can be retried: {@code select}
+     * (default), {@code dml} (select, insert, update and delete) or {@code all} (also procedures and execute
+     * block)</li>
+     * </ul>
+     * <p>
+     * See {@link org.firebirdsql.jdbc.RetryPolicy}.
+     * </p>
+     *
+     * @param retryPolicy
+     *         Retry policy, or {@code null} (default) for no retries
+     */
+    void setRetryPolicy(String retryPolicy);
+
+    /**
+     * Gets the current setting of <code>retryPolicy</code>
+     *
+     * @return Retry policy, or {@code null} (default) for no retries
+     * @see #setRetryPolicy(String)
+     */
+    String getRetryPolicy();
+
+    /**
+     * Set if statement executes and fetches are pipelined.
+     * <p>
+     * When enabled (pure Java implementation only), statements sharing the connection do not hold the connection for
+     * the full request/response cycle of an execute or fetch: the request is sent, after which the connection is
+     * available to send requests of other statements while waiting for the response. Responses are read in the order
+     * the requests were sent. All other operations still wait for all outstanding responses. This only helps
+     * statements used concurrently from multiple threads outside auto-commit mode, as in auto-commit statements of a
+     * connection are executed one at a time.
+     * </p>
+     *
+     * @param requestPipelining
+     *         <code>true</code> pipeline executes and fetches, <code>false</code> (default) hold the connection until
+     *         the response has been read
+     */
+    void setRequestPipelining(boolean requestPipelining);
+
+    /**
+     * Gets the current setting of <code>requestPipelining</code>
+     *
+     * @return <code>true</code> pipeline executes and fetches, <code>false</code> (default) hold the connection until
+     *         the response has been read
+     * @see #setRequestPipelining(boolean)
+     */
+    boolean isRequestPipelining();
+
+    /**
+     * Set the maximum size of blobs that are prefetched for result sets.
+     * <p>
+     * When set, the blobs of each batch of rows fetched for a result set are read together, if they are not larger
+     * than this size. The pure Java implementation reads them with two roundtrips for the whole batch instead of
+     * several roundtrips per blob. Prefetched content is kept until it is read or the transaction ends, with a
+     * bound on the total size kept. Larger blobs are read on access as usual. The size is limited to the maximum
+     * segment size (32765 bytes).
+     * </p>
+     *
+     * @param blobPrefetchSize
+     *         Maximum blob size in bytes, <code>0</code> (default) disables blob prefetch
+     */
+    void setBlobPrefetchSize(int blobPrefetchSize);
+
+    /**
+     * Gets the current setting of <code>blobPrefetchSize</code>
+     *
+     * @return Maximum blob size in bytes, <code>0</code> (default) if blob prefetch is disabled
+     * @see #setBlobPrefetchSize(int)
+     */
+    int getBlobPrefetchSize();
+
     /**
      * Gets the extra database parameters. This can be used to pass extra database parameters that are not directly
      * supported.
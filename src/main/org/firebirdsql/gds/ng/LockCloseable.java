@@ -0,0 +1,48 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng;
+
+/**
+ * Releases a lock acquired with {@link DriverLock#withLock()} when closed, intended for use in try-with-resources:
+ * <pre>
+ * try (LockCloseable ignored = withLock()) {
+ *     // do something...
+ * }
+ * </pre>
+ *
+ * @since 3.0
+ */
+public interface LockCloseable extends AutoCloseable {
+
+    /**
+     * Instance that does not release anything, for objects without a lock.
+     */
+    LockCloseable NO_LOCK = new LockCloseable() {
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    };
+
+    /**
+     * Releases the lock.
+     */
+    @Override
+    void close();
+}
@@ -159,10 +159,11 @@ enum ServerVersionInformation {
                 isc_info_sql_sqlda_seq,
                 isc_info_sql_type, isc_info_sql_sub_type,
                 isc_info_sql_scale, isc_info_sql_length,
+                // Field and relation are available for parameters assigned to a column (needed for arrays)
+                isc_info_sql_field,
+                isc_info_sql_relation,
                 // TODO: Information not available in normal queries, check for procedures, otherwise remove
-                //isc_info_sql_field,
                 //isc_info_sql_alias,
-                //isc_info_sql_relation,
                 //isc_info_sql_relation_alias,
                 //isc_info_sql_owner,
                 isc_info_sql_describe_end
@@ -197,10 +198,11 @@ enum ServerVersionInformation {
                 isc_info_sql_sqlda_seq,
                 isc_info_sql_type, isc_info_sql_sub_type,
                 isc_info_sql_scale, isc_info_sql_length,
+                // Field and relation are available for parameters assigned to a column (needed for arrays)
+                isc_info_sql_field,
+                isc_info_sql_relation,
                 // TODO: Information not available in normal queries, check for procedures, otherwise remove
-                //isc_info_sql_field,
                 //isc_info_sql_alias,
-                //isc_info_sql_relation,
                 //isc_info_sql_relation_alias,
                 //isc_info_sql_owner,
                 isc_info_sql_describe_end
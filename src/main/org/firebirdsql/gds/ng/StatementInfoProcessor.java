@@ -273,12 +273,14 @@ public final class StatementInfoProcessor implements InfoProcessor<InfoProcessor
 
         @Override
         public RowDescriptor getFields() {
-            return fieldBuilder != null ? fieldBuilder.toRowDescriptor() : database.emptyRowDescriptor();
+            return fieldBuilder != null ? fieldBuilder.toRowDescriptor().intern() : database.emptyRowDescriptor();
         }
 
         @Override
         public RowDescriptor getParameters() {
-            return parameterBuilder != null ? parameterBuilder.toRowDescriptor() : database.emptyRowDescriptor();
+            return parameterBuilder != null
+                    ? parameterBuilder.toRowDescriptor().intern()
+                    : database.emptyRowDescriptor();
         }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng;
+
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache of the offset of a time zone for local days without an offset transition.
+ * <p>
+ * Converting a local date and time to an instant with {@link java.util.Calendar} requires a calendar instance and
+ * a lot of field calculations. For the vast majority of days, the offset of the time zone is the same for the
+ * entire day, and the instant can be calculated as the local time minus that offset. This cache stores that offset
+ * per local day (in a small direct-mapped table). Days with - or close to - an offset transition are marked as such,
+ * and need to be handled by a calendar to get the same disambiguation for gaps and overlaps.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class TimeZoneOffsetCache {
+
+    /**
+     * Returned by {@link #getOffsetOfLocalDay(int)} for days with (or close to) an offset transition.
+     */
+    static final int TRANSITION_DAY = Integer.MIN_VALUE;
+
+    static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    /**
+     * Margin around a day that should be without transitions, to exclude gaps and overlaps near midnight.
+     */
+    private static final long TRANSITION_MARGIN = 6 * 60 * 60 * 1000L;
+    private static final int CACHE_SIZE = 256;
+    private static final long EMPTY_ENTRY = (long) Integer.MIN_VALUE << 32;
+
+    private final TimeZone timeZone;
+    private final AtomicLongArray entries = new AtomicLongArray(CACHE_SIZE);
+
+    TimeZoneOffsetCache(TimeZone timeZone) {
+        this.timeZone = (TimeZone) timeZone.clone();
+        for (int idx = 0; idx < CACHE_SIZE; idx++) {
+            entries.set(idx, EMPTY_ENTRY);
+        }
+    }
+
+    /**
+     * Checks if the specified time zone has the same rules as the time zone of this cache.
+     * <p>
+     * The caller is expected to look up the cache by time zone id; this only guards against time zones with the same
+     * id and different rules (eg a modified {@link java.util.SimpleTimeZone}).
+     * </p>
+     *
+     * @param other
+     *         Time zone
+     * @return {@code true} if {@code other} has the same rules as the time zone of this cache
+     */
+    boolean hasSameRules(TimeZone other) {
+        return timeZone == other || timeZone.hasSameRules(other);
+    }
+
+    /**
+     * Returns the offset of the time zone on a local day.
+     *
+     * @param epochDay
+     *         Local day (number of days since 1970-01-01)
+     * @return Offset in milliseconds, or {@link #TRANSITION_DAY} if the offset is not the same for the whole day
+     */
+    int getOffsetOfLocalDay(int epochDay) {
+        final int slot = epochDay & (CACHE_SIZE - 1);
+        final long entry = entries.get(slot);
+        if ((int) (entry >> 32) == epochDay && entry != EMPTY_ENTRY) {
+            return (int) entry;
+        }
+        final int offset = calculateOffsetOfLocalDay(epochDay);
+        entries.lazySet(slot, ((long) epochDay << 32) | (offset & 0xFFFFFFFFL));
+        return offset;
+    }
+
+    private int calculateOffsetOfLocalDay(int epochDay) {
+        final long localStart = epochDay * MILLIS_PER_DAY;
+        final int estimatedOffset = timeZone.getOffset(localStart - timeZone.getRawOffset());
+        final long utcStart = localStart - estimatedOffset;
+        final int offset = timeZone.getOffset(utcStart);
+        if (offset != estimatedOffset
+                || timeZone.getOffset(utcStart - TRANSITION_MARGIN) != offset
+                || timeZone.getOffset(utcStart + MILLIS_PER_DAY / 2) != offset
+                || timeZone.getOffset(utcStart + MILLIS_PER_DAY + TRANSITION_MARGIN) != offset) {
+            return TRANSITION_DAY;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.fields;
+
+import org.firebirdsql.jdbc.SQLStateConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientException;
+import java.util.Arrays;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+import static org.firebirdsql.gds.ISCConstants.*;
+
+/**
+ * Describes the element type and bounds of an array column, and the slice description language (SDL) to transfer
+ * the whole array.
+ * <p>
+ * The data of an array slice is exchanged with {@link org.firebirdsql.gds.ng.FbDatabase} as a <em>flat</em>
+ * primitive array with the elements in row-major order (the last dimension varies fastest). The type of the flat
+ * array depends on the element type: {@code short[]} for {@code SMALLINT}, {@code int[]} for {@code INTEGER},
+ * {@code long[]} for {@code BIGINT}, {@code float[]} for {@code FLOAT} and {@code double[]} for
+ * {@code DOUBLE PRECISION}. For {@code NUMERIC} and {@code DECIMAL} elements the flat array contains the unscaled
+ * values.
+ * </p>
+ * <p>
+ * Only arrays with numeric elements are supported.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class ArrayDescriptor {
+
+    private final String relationName;
+    private final String fieldName;
+    private final int blrType;
+    private final int scale;
+    private final int elementLength;
+    private final int[] lowerBounds;
+    private final int[] upperBounds;
+    private final int elementCount;
+    private final byte[] sdl;
+
+    /**
+     * Creates an array descriptor.
+     *
+     * @param relationName
+     *         Name of the table of the array column
+     * @param fieldName
+     *         Name of the array column
+     * @param blrType
+     *         BLR type of the elements (as stored in {@code RDB$FIELDS.RDB$FIELD_TYPE})
+     * @param scale
+     *         Scale of the elements
+     * @param lowerBounds
+     *         Lower bound of each dimension
+     * @param upperBounds
+     *         Upper bound of each dimension
+     * @throws SQLException
+     *         If a name is missing, the element type is not supported, or the bounds are invalid
+     */
+    public ArrayDescriptor(String relationName, String fieldName, int blrType, int scale, int[] lowerBounds,
+            int[] upperBounds) throws SQLException {
+        if (relationName == null || relationName.isEmpty() || fieldName == null || fieldName.isEmpty()) {
+            throw new SQLNonTransientException("Array requires the name of its table and column");
+        }
+        final int elementLength = elementLength(blrType);
+        if (elementLength == -1) {
+            throw new SQLFeatureNotSupportedException(
+                    String.format("Arrays with element type (blr) %d not supported", blrType),
+                    SQLStateConstants.SQL_STATE_FEATURE_NOT_SUPPORTED);
+        }
+        if (lowerBounds.length == 0 || lowerBounds.length != upperBounds.length || lowerBounds.length > 16) {
+            throw new SQLNonTransientException(String.format("Invalid number of array dimensions %d (%d)",
+                    lowerBounds.length, upperBounds.length));
+        }
+        long count = 1;
+        for (int dimension = 0; dimension < lowerBounds.length; dimension++) {
+            final long dimensionLength = (long) upperBounds[dimension] - lowerBounds[dimension] + 1;
+            if (dimensionLength < 1) {
+                throw new SQLNonTransientException(String.format("Invalid bounds [%d:%d] for array dimension %d",
+                        lowerBounds[dimension], upperBounds[dimension], dimension + 1));
+            }
+            count *= dimensionLength;
+            if (count * elementLength > Integer.MAX_VALUE) {
+                throw new SQLNonTransientException("Array too large");
+            }
+        }
+        this.relationName = relationName;
+        this.fieldName = fieldName;
+        this.blrType = blrType;
+        this.scale = scale;
+        this.elementLength = elementLength;
+        this.lowerBounds = lowerBounds.clone();
+        this.upperBounds = upperBounds.clone();
+        elementCount = (int) count;
+        sdl = generateSdl();
+    }
+
+    /**
+     * @return Name of the table of the array column
+     */
+    public String getRelationName() {
+        return relationName;
+    }
+
+    /**
+     * @return Name of the array column
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @return BLR type of the elements
+     */
+    public int getBlrType() {
+        return blrType;
+    }
+
+    /**
+     * @return Scale of the elements
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return Number of dimensions
+     */
+    public int getDimensions() {
+        return lowerBounds.length;
+    }
+
+    /**
+     * @param dimension
+     *         Dimension (0-based)
+     * @return Lower bound of the dimension
+     */
+    public int getLowerBound(int dimension) {
+        return lowerBounds[dimension];
+    }
+
+    /**
+     * @param dimension
+     *         Dimension (0-based)
+     * @return Upper bound of the dimension
+     */
+    public int getUpperBound(int dimension) {
+        return upperBounds[dimension];
+    }
+
+    /**
+     * @param dimension
+     *         Dimension (0-based)
+     * @return Number of elements in the dimension
+     */
+    public int getDimensionLength(int dimension) {
+        return upperBounds[dimension] - lowerBounds[dimension] + 1;
+    }
+
+    /**
+     * @return Total number of elements of the array
+     */
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @return Length in bytes of an element in the native (client) representation of a slice
+     */
+    public int getElementLength() {
+        return elementLength;
+    }
+
+    /**
+     * @return Length in bytes of the whole array in the native (client) representation of a slice
+     */
+    public int getSliceLength() {
+        return elementCount * elementLength;
+    }
+
+    /**
+     * @return Slice description language for the whole array
+     */
+    public byte[] getSdl() {
+        return sdl.clone();
+    }
+
+    /**
+     * @return New (zero-filled) flat array for the elements of this array
+     */
+    public Object newFlatArray() {
+        switch (blrType) {
+        case blr_short:
+            return new short[elementCount];
+        case blr_long:
+            return new int[elementCount];
+        case blr_int64:
+            return new long[elementCount];
+        case blr_float:
+            return new float[elementCount];
+        default:
+            return new double[elementCount];
+        }
+    }
+
+    /**
+     * Checks if {@code flatArray} is a flat array of the right type and length for this array.
+     *
+     * @param flatArray
+     *         Flat array
+     * @throws SQLException
+     *         If {@code flatArray} has the wrong type or length
+     */
+    public void checkFlatArray(Object flatArray) throws SQLException {
+        final Class<?> expectedClass = newFlatArray().getClass();
+        if (flatArray == null || flatArray.getClass() != expectedClass) {
+            throw new SQLNonTransientException(String.format("Expected flat array of type %s, got %s",
+                    expectedClass.getSimpleName(), flatArray != null ? flatArray.getClass().getSimpleName() : null));
+        }
+        final int length = java.lang.reflect.Array.getLength(flatArray);
+        if (length != elementCount) {
+            throw new SQLNonTransientException(
+                    String.format("Expected flat array with %d elements, got %d", elementCount, length));
+        }
+    }
+
+    private byte[] generateSdl() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(32 + 2 * 31 + lowerBounds.length * 12);
+        out.write(isc_sdl_version1);
+        out.write(isc_sdl_struct);
+        out.write(1);
+        out.write(blrType);
+        if (blrType != blr_float && blrType != blr_double) {
+            out.write(scale);
+        }
+        writeName(out, isc_sdl_relation, relationName);
+        writeName(out, isc_sdl_field, fieldName);
+        for (int dimension = 0; dimension < lowerBounds.length; dimension++) {
+            if (lowerBounds[dimension] == 1) {
+                out.write(isc_sdl_do1);
+                out.write(dimension);
+            } else {
+                out.write(isc_sdl_do2);
+                out.write(dimension);
+                writeLiteral(out, lowerBounds[dimension]);
+            }
+            writeLiteral(out, upperBounds[dimension]);
+        }
+        out.write(isc_sdl_element);
+        out.write(1);
+        out.write(isc_sdl_scalar);
+        out.write(0);
+        out.write(lowerBounds.length);
+        for (int dimension = 0; dimension < lowerBounds.length; dimension++) {
+            out.write(isc_sdl_variable);
+            out.write(dimension);
+        }
+        out.write(isc_sdl_eoc);
+        return out.toByteArray();
+    }
+
+    private static void writeName(ByteArrayOutputStream out, int item, String name) {
+        // Metadata is stored in UNICODE_FSS
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        out.write(item);
+        out.write(nameBytes.length);
+        out.write(nameBytes, 0, nameBytes.length);
+    }
+
+    private static void writeLiteral(ByteArrayOutputStream out, int value) {
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            out.write(isc_sdl_tiny_integer);
+            out.write(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            out.write(isc_sdl_short_integer);
+            out.write(value);
+            out.write(value >> 8);
+        } else {
+            out.write(isc_sdl_long_integer);
+            out.write(value);
+            out.write(value >> 8);
+            out.write(value >> 16);
+            out.write(value >> 24);
+        }
+    }
+
+    private static int elementLength(int blrType) {
+        switch (blrType) {
+        case blr_short:
+            return 2;
+        case blr_long:
+        case blr_float:
+            return 4;
+        case blr_int64:
+        case blr_double:
+            return 8;
+        default:
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ArrayDescriptor[")
+                .append(relationName).append('.').append(fieldName)
+                .append(", blrType=").append(blrType)
+                .append(", scale=").append(scale)
+                .append(", bounds=");
+        for (int dimension = 0; dimension < lowerBounds.length; dimension++) {
+            sb.append('[').append(lowerBounds[dimension]).append(':').append(upperBounds[dimension]).append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ArrayDescriptor)) return false;
+        final ArrayDescriptor other = (ArrayDescriptor) obj;
+        return blrType == other.blrType
+                && scale == other.scale
+                && relationName.equals(other.relationName)
+                && fieldName.equals(other.fieldName)
+                && Arrays.equals(lowerBounds, other.lowerBounds)
+                && Arrays.equals(upperBounds, other.upperBounds);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = relationName.hashCode();
+        result = 31 * result + fieldName.hashCode();
+        result = 31 * result + blrType;
+        result = 31 * result + Arrays.hashCode(upperBounds);
+        return result;
+    }
+}
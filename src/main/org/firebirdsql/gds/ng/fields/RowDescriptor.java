@@ -26,6 +26,7 @@ package org.firebirdsql.gds.ng.fields;
 
 import org.firebirdsql.encodings.IEncodingFactory;
 import org.firebirdsql.gds.ng.DatatypeCoder;
+import org.firebirdsql.util.WeakInterner;
 
 import java.util.*;
 
@@ -43,6 +44,7 @@ import java.util.*;
 public final class RowDescriptor implements Iterable<FieldDescriptor> {
 
     private static final FieldDescriptor[] NO_DESCRIPTORS = new FieldDescriptor[0];
+    private static final WeakInterner<RowDescriptor> SHARED_INSTANCES = new WeakInterner<>();
     private final FieldDescriptor[] fieldDescriptors;
     private final DatatypeCoder datatypeCoder;
     private int hash;
@@ -149,6 +151,26 @@ public final class RowDescriptor implements Iterable<FieldDescriptor> {
         return sb.toString();
     }
 
+    /**
+     * Returns a canonical instance of this row descriptor, shared by all statements (of all connections) with an
+     * equal row descriptor.
+     * <p>
+     * Row descriptors of different connections can only be equal if they share the datatype coder (see
+     * {@code DefaultDatatypeCoder.getSharedInstance}).
+     * Sharing the row descriptor of frequently prepared statements reduces memory use, and allows caches keyed by
+     * row descriptor to be effective across statements. Canonical instances are only weakly referenced.
+     * </p>
+     *
+     * @return Canonical instance equal to this row descriptor (this instance for an empty row descriptor)
+     */
+    public RowDescriptor intern() {
+        if (fieldDescriptors.length == 0) {
+            // Equality of empty row descriptors ignores the datatype coder
+            return this;
+        }
+        return SHARED_INSTANCES.intern(this);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
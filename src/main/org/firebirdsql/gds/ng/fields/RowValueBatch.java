@@ -0,0 +1,277 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.fields;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.util.Arrays;
+
+/**
+ * Growable, columnar store for the field data of a batch of rows (usually parameter values for
+ * {@link java.sql.PreparedStatement#addBatch()}).
+ * <p>
+ * Instead of keeping a copy of the {@link RowValue} (and its {@link FieldValue} objects and byte arrays) per row, the
+ * field data of all rows is stored contiguously in a single byte array, with the length of each field value in an
+ * {@code int} array (length {@code -1} marks {@code null}). A row is materialized again into a {@link RowValue} with
+ * {@link #readRow(int, RowValue)} when it is executed.
+ * </p>
+ * <p>
+ * Objects cached per field (see {@link FieldValue#getCachedObject()}) are stored separately; the array for these is
+ * only allocated when a cached object is set.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class RowValueBatch {
+
+    private static final int INITIAL_ROW_CAPACITY = 16;
+    private static final int INITIAL_DATA_CAPACITY = 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int NULL_LENGTH = -1;
+    private static final byte[] EMPTY_BYTES = new byte[0];
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private final int fieldCount;
+    private byte[] data = EMPTY_BYTES;
+    private int dataLength;
+    private int[] rowOffsets = EMPTY_INTS;
+    private int[] lengths = EMPTY_INTS;
+    private Object[] cachedObjects;
+    private int rowCount;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param fieldCount
+     *         Number of fields per row
+     */
+    public RowValueBatch(int fieldCount) {
+        if (fieldCount < 0) {
+            throw new IllegalArgumentException("fieldCount must be >= 0, was " + fieldCount);
+        }
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * @return Number of fields per row
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return Number of rows in this batch
+     */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * @return {@code true} if this batch has no rows
+     */
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * Adds a row with a copy of the field data of {@code rowValue}.
+     * <p>
+     * Cached objects of the field values are not copied, use {@link #setCachedObject(int, int, Object)}.
+     * </p>
+     *
+     * @param rowValue
+     *         Row value with {@link #getFieldCount()} fields
+     * @return Index (0-based) of the added row
+     * @throws SQLException
+     *         If the batch would exceed the maximum size
+     */
+    public int addRow(RowValue rowValue) throws SQLException {
+        if (rowValue.getCount() != fieldCount) {
+            throw new IllegalArgumentException(String.format("Expected row value with %d fields, got %d",
+                    fieldCount, rowValue.getCount()));
+        }
+        long rowLength = 0;
+        for (int idx = 0; idx < fieldCount; idx++) {
+            final byte[] fieldData = rowValue.getFieldValue(idx).getFieldData();
+            if (fieldData != null) {
+                rowLength += fieldData.length;
+            }
+        }
+        ensureRowCapacity(rowCount + 1);
+        ensureDataCapacity(dataLength + rowLength);
+
+        final int row = rowCount;
+        rowOffsets[row] = dataLength;
+        final int lengthsOffset = row * fieldCount;
+        for (int idx = 0; idx < fieldCount; idx++) {
+            final byte[] fieldData = rowValue.getFieldValue(idx).getFieldData();
+            if (fieldData == null) {
+                lengths[lengthsOffset + idx] = NULL_LENGTH;
+            } else {
+                System.arraycopy(fieldData, 0, data, dataLength, fieldData.length);
+                dataLength += fieldData.length;
+                lengths[lengthsOffset + idx] = fieldData.length;
+            }
+        }
+        rowCount++;
+        return row;
+    }
+
+    /**
+     * Sets the field data of the field values in {@code target} to (a copy of) the data of a row.
+     * <p>
+     * The cached objects of {@code target} are not changed.
+     * </p>
+     *
+     * @param row
+     *         Index (0-based) of the row
+     * @param target
+     *         Row value with {@link #getFieldCount()} fields
+     */
+    public void readRow(int row, RowValue target) {
+        checkRow(row);
+        if (target.getCount() != fieldCount) {
+            throw new IllegalArgumentException(String.format("Expected row value with %d fields, got %d",
+                    fieldCount, target.getCount()));
+        }
+        int offset = rowOffsets[row];
+        final int lengthsOffset = row * fieldCount;
+        for (int idx = 0; idx < fieldCount; idx++) {
+            final int length = lengths[lengthsOffset + idx];
+            final FieldValue fieldValue = target.getFieldValue(idx);
+            if (length == NULL_LENGTH) {
+                fieldValue.setFieldData(null);
+            } else {
+                fieldValue.setFieldData(Arrays.copyOfRange(data, offset, offset + length));
+                offset += length;
+            }
+        }
+    }
+
+    /**
+     * Checks if a field of a row is {@code null}.
+     *
+     * @param row
+     *         Index (0-based) of the row
+     * @param field
+     *         Index (0-based) of the field
+     * @return {@code true} if the field data is {@code null}
+     */
+    public boolean isNull(int row, int field) {
+        checkRow(row);
+        checkField(field);
+        return lengths[row * fieldCount + field] == NULL_LENGTH;
+    }
+
+    /**
+     * Sets the cached object of a field of a row.
+     *
+     * @param row
+     *         Index (0-based) of the row
+     * @param field
+     *         Index (0-based) of the field
+     * @param cachedObject
+     *         Cached object (can be {@code null})
+     */
+    public void setCachedObject(int row, int field, Object cachedObject) {
+        checkRow(row);
+        checkField(field);
+        if (cachedObjects == null) {
+            if (cachedObject == null) {
+                return;
+            }
+            cachedObjects = new Object[lengths.length];
+        }
+        cachedObjects[row * fieldCount + field] = cachedObject;
+    }
+
+    /**
+     * Gets the cached object of a field of a row.
+     *
+     * @param row
+     *         Index (0-based) of the row
+     * @param field
+     *         Index (0-based) of the field
+     * @return Cached object, or {@code null} if not set
+     */
+    public Object getCachedObject(int row, int field) {
+        checkRow(row);
+        checkField(field);
+        return cachedObjects != null ? cachedObjects[row * fieldCount + field] : null;
+    }
+
+    /**
+     * Removes all rows, and releases the memory used for them.
+     */
+    public void clear() {
+        data = EMPTY_BYTES;
+        dataLength = 0;
+        rowOffsets = EMPTY_INTS;
+        lengths = EMPTY_INTS;
+        cachedObjects = null;
+        rowCount = 0;
+    }
+
+    private void ensureRowCapacity(int requiredRows) throws SQLException {
+        if (requiredRows <= rowOffsets.length) {
+            return;
+        }
+        final long newRows = Math.max(requiredRows, Math.max(INITIAL_ROW_CAPACITY, 2L * rowOffsets.length));
+        final long requiredLengths = (long) requiredRows * fieldCount;
+        if (requiredLengths > MAX_ARRAY_SIZE) {
+            throw batchTooLarge();
+        }
+        final int newRowCapacity = (int) Math.min(newRows, MAX_ARRAY_SIZE / Math.max(fieldCount, 1));
+        rowOffsets = Arrays.copyOf(rowOffsets, newRowCapacity);
+        lengths = Arrays.copyOf(lengths, newRowCapacity * fieldCount);
+        if (cachedObjects != null) {
+            cachedObjects = Arrays.copyOf(cachedObjects, lengths.length);
+        }
+    }
+
+    private void ensureDataCapacity(long requiredLength) throws SQLException {
+        if (requiredLength <= data.length) {
+            return;
+        }
+        if (requiredLength > MAX_ARRAY_SIZE) {
+            throw batchTooLarge();
+        }
+        final long newLength = Math.max(requiredLength, Math.max(INITIAL_DATA_CAPACITY, 2L * data.length));
+        data = Arrays.copyOf(data, (int) Math.min(newLength, MAX_ARRAY_SIZE));
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range, size " + rowCount);
+        }
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of range, count " + fieldCount);
+        }
+    }
+
+    private static SQLException batchTooLarge() {
+        return new SQLNonTransientException("Batch exceeds maximum size, execute the batch before adding more rows");
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aggregated driver metrics of the connections of a database.
+ * <p>
+ * Counters are striped and latencies are recorded in lock-free histograms, so connections of the same database can
+ * report concurrently with little contention. All events are also forwarded to the {@link MetricsListener} instances
+ * added to this object, and to the listeners registered as service provider.
+ * </p>
+ * <p>
+ * The metrics can be exposed through JMX with {@link #register(String)}. Connection factories obtain shared
+ * instances registered per database through {@link SharedDriverMetrics}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class DriverMetrics implements MetricsListener, DriverMetricsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverMetrics.class);
+    private static final String OBJECT_NAME_PREFIX = "org.firebirdsql:type=DriverMetrics";
+    private static final AtomicInteger instanceCounter = new AtomicInteger();
+
+    private final StripedCounter bytesSent = new StripedCounter();
+    private final StripedCounter bytesReceived = new StripedCounter();
+    private final StripedCounter packetsSent = new StripedCounter();
+    private final StripedCounter rowsFetched = new StripedCounter();
+    private final StripedCounter blobBytes = new StripedCounter();
+    private final StripedCounter statementRetries = new StripedCounter();
+    private final LatencyHistogram roundTripLatency = new LatencyHistogram();
+    private final LatencyHistogram prepareLatency = new LatencyHistogram();
+    private final LatencyHistogram executeLatency = new LatencyHistogram();
+    private final LatencyHistogram fetchLatency = new LatencyHistogram();
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile ObjectName objectName;
+
+    /**
+     * Creates driver metrics with the listeners registered as service provider.
+     */
+    public DriverMetrics() {
+        this(true);
+    }
+
+    DriverMetrics(boolean loadServiceProviders) {
+        if (loadServiceProviders) {
+            loadServiceProviders();
+        }
+    }
+
+    /**
+     * Adds a listener that receives all events reported to this object.
+     *
+     * @param listener
+     *         Metrics listener
+     */
+    public void addMetricsListener(MetricsListener listener) {
+        if (listener == this) {
+            throw new IllegalArgumentException("Adding this instance to itself is not allowed");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener
+     *         Metrics listener
+     */
+    public void removeMetricsListener(MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Registers this object as MBean in the platform MBean server.
+     * <p>
+     * The object name is {@code org.firebirdsql:type=DriverMetrics,id=<n>,name=<name>}. Failure to register is
+     * logged, and does not prevent collection of the metrics.
+     * </p>
+     *
+     * @param name
+     *         Descriptive name (eg the database of the connection factory)
+     * @return {@code true} if registered
+     */
+    public synchronized boolean register(String name) {
+        if (objectName != null) {
+            return true;
+        }
+        try {
+            final ObjectName newObjectName = new ObjectName(OBJECT_NAME_PREFIX
+                    + ",id=" + instanceCounter.incrementAndGet()
+                    + ",name=" + ObjectName.quote(name != null ? name : ""));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+            objectName = newObjectName;
+            return true;
+        } catch (JMException | SecurityException e) {
+            log.warn("Unable to register driver metrics MBean; see debug level for stacktrace");
+            log.debug("Unable to register driver metrics MBean", e);
+            return false;
+        }
+    }
+
+    /**
+     * Unregisters this object from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() {
+        final ObjectName currentObjectName = objectName;
+        if (currentObjectName == null) {
+            return;
+        }
+        objectName = null;
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(currentObjectName)) {
+                mBeanServer.unregisterMBean(currentObjectName);
+            }
+        } catch (JMException | SecurityException e) {
+            log.debug("Unable to unregister driver metrics MBean", e);
+        }
+    }
+
+    /**
+     * @return Object name of the MBean, or {@code null} if not registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public void bytesSent(int count) {
+        bytesSent.add(count);
+        for (MetricsListener listener : listeners) {
+            listener.bytesSent(count);
+        }
+    }
+
+    @Override
+    public void bytesReceived(int count) {
+        bytesReceived.add(count);
+        for (MetricsListener listener : listeners) {
+            listener.bytesReceived(count);
+        }
+    }
+
+    @Override
+    public void packetSent() {
+        packetsSent.increment();
+        for (MetricsListener listener : listeners) {
+            listener.packetSent();
+        }
+    }
+
+    @Override
+    public void responseReceived(long nanos) {
+        roundTripLatency.record(nanos);
+        for (MetricsListener listener : listeners) {
+            listener.responseReceived(nanos);
+        }
+    }
+
+    @Override
+    public void statementOperation(StatementOperation operation, long nanos) {
+        switch (operation) {
+        case PREPARE:
+            prepareLatency.record(nanos);
+            break;
+        case EXECUTE:
+            executeLatency.record(nanos);
+            break;
+        case FETCH:
+            fetchLatency.record(nanos);
+            break;
+        }
+        for (MetricsListener listener : listeners) {
+            listener.statementOperation(operation, nanos);
+        }
+    }
+
+    @Override
+    public void rowsFetched(int count) {
+        rowsFetched.add(count);
+        for (MetricsListener listener : listeners) {
+            listener.rowsFetched(count);
+        }
+    }
+
+    @Override
+    public void blobBytes(int count) {
+        blobBytes.add(count);
+        for (MetricsListener listener : listeners) {
+            listener.blobBytes(count);
+        }
+    }
+
+    @Override
+    public void statementRetried(int errorCode) {
+        statementRetries.increment();
+        for (MetricsListener listener : listeners) {
+            listener.statementRetried(errorCode);
+        }
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public long getPacketsSent() {
+        return packetsSent.sum();
+    }
+
+    @Override
+    public long getRoundTrips() {
+        return roundTripLatency.count();
+    }
+
+    @Override
+    public long getRowsFetched() {
+        return rowsFetched.sum();
+    }
+
+    @Override
+    public long getBlobBytes() {
+        return blobBytes.sum();
+    }
+
+    @Override
+    public long getStatementRetries() {
+        return statementRetries.sum();
+    }
+
+    @Override
+    public LatencySnapshot getRoundTripLatency() {
+        return roundTripLatency.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getPrepareLatency() {
+        return prepareLatency.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getExecuteLatency() {
+        return executeLatency.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getFetchLatency() {
+        return fetchLatency.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        bytesSent.reset();
+        bytesReceived.reset();
+        packetsSent.reset();
+        rowsFetched.reset();
+        blobBytes.reset();
+        statementRetries.reset();
+        roundTripLatency.reset();
+        prepareLatency.reset();
+        executeLatency.reset();
+        fetchLatency.reset();
+    }
+
+    private void loadServiceProviders() {
+        final Iterator<MetricsListener> providers =
+                ServiceLoader.load(MetricsListener.class, DriverMetrics.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    return;
+                }
+                listeners.add(providers.next());
+            } catch (ServiceConfigurationError e) {
+                log.warn("Unable to load MetricsListener service provider; see debug level for stacktrace");
+                log.debug("Unable to load MetricsListener service provider", e);
+            }
+        }
+    }
+}
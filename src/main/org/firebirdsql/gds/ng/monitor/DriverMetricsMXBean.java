@@ -0,0 +1,87 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+/**
+ * JMX management interface of {@link DriverMetrics}.
+ *
+ * @since 3.0
+ */
+public interface DriverMetricsMXBean {
+
+    /**
+     * @return Total number of bytes written to the server
+     */
+    long getBytesSent();
+
+    /**
+     * @return Total number of bytes read from the server
+     */
+    long getBytesReceived();
+
+    /**
+     * @return Total number of packets (flushes) sent to the server
+     */
+    long getPacketsSent();
+
+    /**
+     * @return Total number of responses received from the server (round-trips)
+     */
+    long getRoundTrips();
+
+    /**
+     * @return Total number of rows fetched
+     */
+    long getRowsFetched();
+
+    /**
+     * @return Total number of blob bytes read and written
+     */
+    long getBlobBytes();
+
+    /**
+     * @return Total number of statement executions retried after a lock conflict or deadlock
+     */
+    long getStatementRetries();
+
+    /**
+     * @return Latencies of waiting for a response from the server
+     */
+    LatencySnapshot getRoundTripLatency();
+
+    /**
+     * @return Latencies of statement prepares
+     */
+    LatencySnapshot getPrepareLatency();
+
+    /**
+     * @return Latencies of statement executes
+     */
+    LatencySnapshot getExecuteLatency();
+
+    /**
+     * @return Latencies of fetches
+     */
+    LatencySnapshot getFetchLatency();
+
+    /**
+     * Resets all counters and latency histograms.
+     */
+    void reset();
+}
@@ -0,0 +1,138 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with logarithmic buckets.
+ * <p>
+ * Like an HDR histogram, each power of two is divided into {@value #SUB_BUCKETS} linear sub-buckets, so percentiles are
+ * reported with a relative error of at most 25%, using a fixed amount of memory for the full range of {@code long}.
+ * Recording a value does not allocate and does not lock.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final StripedCounter count = new StripedCounter();
+    private final StripedCounter totalNanos = new StripedCounter();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos
+     *         Latency in nanoseconds (negative values are recorded as {@code 0})
+     */
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        long currentMax;
+        while (nanos > (currentMax = maxNanos.get()) && !maxNanos.compareAndSet(currentMax, nanos)) {
+            // retry
+        }
+    }
+
+    /**
+     * @return Number of recorded latencies
+     */
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return Snapshot of the current values (not atomic when recorded concurrently)
+     */
+    LatencySnapshot snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int idx = 0; idx < BUCKET_COUNT; idx++) {
+            total += counts[idx] = buckets.get(idx);
+        }
+        if (total == 0) {
+            return new LatencySnapshot(0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySnapshot(total,
+                toMicros(totalNanos.sum() / Math.max(count.sum(), 1)),
+                toMicros(percentile(counts, total, 0.50)),
+                toMicros(percentile(counts, total, 0.90)),
+                toMicros(percentile(counts, total, 0.99)),
+                toMicros(maxNanos.get()));
+    }
+
+    void reset() {
+        for (int idx = 0; idx < BUCKET_COUNT; idx++) {
+            buckets.set(idx, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * @return Upper bound in nanoseconds of the bucket containing the requested percentile
+     */
+    private static long percentile(long[] counts, long total, double percentile) {
+        final long threshold = (long) Math.ceil(total * percentile);
+        long cumulative = 0;
+        for (int idx = 0; idx < counts.length; idx++) {
+            cumulative += counts[idx];
+            if (cumulative >= threshold) {
+                return bucketUpperBound(idx);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = highestBit - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of a latency histogram, with all latencies in microseconds.
+ * <p>
+ * Percentiles are the upper bound of the histogram bucket containing the percentile.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({ "count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros" })
+    public LatencySnapshot(long count, long meanMicros, long p50Micros, long p90Micros, long p99Micros,
+            long maxMicros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * @return Number of recorded latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Mean latency
+     */
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    /**
+     * @return Median latency
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * @return 90th percentile latency
+     */
+    public long getP90Micros() {
+        return p90Micros;
+    }
+
+    /**
+     * @return 99th percentile latency
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * @return Maximum latency
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{count=" + count + ", meanMicros=" + meanMicros + ", p50Micros=" + p50Micros
+                + ", p90Micros=" + p90Micros + ", p99Micros=" + p99Micros + ", maxMicros=" + maxMicros + '}';
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+/**
+ * Listener for low-level driver metrics of a connection.
+ * <p>
+ * Metrics are only reported for connections with connection property {@code enableMetrics} set; connections without
+ * this property have no listener and do not measure anything. Implementations are called on the thread performing the
+ * operation, while it holds the lock of the connection, so they must be thread-safe and should return quickly.
+ * </p>
+ * <p>
+ * Listeners can be added to the {@link DriverMetrics} of a connection factory with
+ * {@link DriverMetrics#addMetricsListener(MetricsListener)}, or registered as a service provider in
+ * {@code META-INF/services/org.firebirdsql.gds.ng.monitor.MetricsListener}; a service provider is instantiated for
+ * each {@link DriverMetrics}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public interface MetricsListener {
+
+    /**
+     * Bytes written to the socket of a connection.
+     *
+     * @param count
+     *         Number of bytes
+     */
+    void bytesSent(int count);
+
+    /**
+     * Bytes read from the socket of a connection.
+     *
+     * @param count
+     *         Number of bytes
+     */
+    void bytesReceived(int count);
+
+    /**
+     * A packet (the buffered requests of an operation) was flushed to the socket of a connection.
+     */
+    void packetSent();
+
+    /**
+     * A response was received from the server.
+     *
+     * @param nanos
+     *         Time in nanoseconds waited for the response
+     */
+    void responseReceived(long nanos);
+
+    /**
+     * A statement operation completed successfully.
+     *
+     * @param operation
+     *         Statement operation
+     * @param nanos
+     *         Duration of the operation in nanoseconds
+     */
+    void statementOperation(StatementOperation operation, long nanos);
+
+    /**
+     * Rows received by a fetch or a singleton execute.
+     *
+     * @param count
+     *         Number of rows
+     */
+    void rowsFetched(int count);
+
+    /**
+     * Blob data read or written.
+     *
+     * @param count
+     *         Number of bytes
+     */
+    void blobBytes(int count);
+
+    /**
+     * A failed statement execution is retried by the driver.
+     *
+     * @param errorCode
+     *         Firebird error code of the failed execution
+     */
+    void statementRetried(int errorCode);
+}
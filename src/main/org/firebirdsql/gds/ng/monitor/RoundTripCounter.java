@@ -0,0 +1,107 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics listener of a single connection counting its round-trips, and forwarding all events to an optional
+ * delegate (eg the {@link DriverMetrics} of the connection factory).
+ *
+ * @since 3.0
+ */
+public final class RoundTripCounter implements MetricsListener {
+
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final MetricsListener delegate;
+
+    /**
+     * Creates a round-trip counter.
+     *
+     * @param delegate
+     *         Listener to forward all events to, or {@code null} for none
+     */
+    public RoundTripCounter(MetricsListener delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return Number of responses received from the server since this counter was created
+     */
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public void bytesSent(int count) {
+        if (delegate != null) {
+            delegate.bytesSent(count);
+        }
+    }
+
+    @Override
+    public void bytesReceived(int count) {
+        if (delegate != null) {
+            delegate.bytesReceived(count);
+        }
+    }
+
+    @Override
+    public void packetSent() {
+        if (delegate != null) {
+            delegate.packetSent();
+        }
+    }
+
+    @Override
+    public void responseReceived(long nanos) {
+        roundTrips.incrementAndGet();
+        if (delegate != null) {
+            delegate.responseReceived(nanos);
+        }
+    }
+
+    @Override
+    public void statementOperation(StatementOperation operation, long nanos) {
+        if (delegate != null) {
+            delegate.statementOperation(operation, nanos);
+        }
+    }
+
+    @Override
+    public void rowsFetched(int count) {
+        if (delegate != null) {
+            delegate.rowsFetched(count);
+        }
+    }
+
+    @Override
+    public void blobBytes(int count) {
+        if (delegate != null) {
+            delegate.blobBytes(count);
+        }
+    }
+
+    @Override
+    public void statementRetried(int errorCode) {
+        if (delegate != null) {
+            delegate.statementRetried(errorCode);
+        }
+    }
+}
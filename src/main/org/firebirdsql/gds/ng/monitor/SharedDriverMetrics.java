@@ -0,0 +1,192 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the {@link DriverMetrics} shared by the connection factories of a database.
+ * <p>
+ * Connection factories are created per distinct set of connection properties, and the driver only caches them through
+ * soft references, so an MBean per factory would leak for each discarded factory. Instead, the factories of a database
+ * share one instance, which is registered as MBean while it has owners. Owners are tracked with weak references:
+ * the share of a garbage collected owner is released by a daemon cleaner thread, and the MBean is unregistered once
+ * the last owner is gone. The cleaner thread only runs while there are owners, so it does not keep the driver loaded
+ * after the last owner has been collected.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class SharedDriverMetrics {
+
+    private static final Map<String, Entry> entries = new HashMap<>();
+    // Keeps the owner references reachable until they have been dequeued
+    private static final Set<OwnerReference> owners = new HashSet<>();
+    private static final ReferenceQueue<Object> ownerQueue = new ReferenceQueue<>();
+    private static final long CLEANER_POLL_MILLIS = 10000;
+    // Guarded by entries
+    private static Thread cleanerThread;
+
+    private SharedDriverMetrics() {
+        // no instances
+    }
+
+    /**
+     * Acquires the driver metrics of a database for an owner.
+     * <p>
+     * The metrics are created, and registered as MBean, if the database has no other owners.
+     * </p>
+     *
+     * @param database
+     *         Database (eg the database of the connection factory)
+     * @param owner
+     *         Owner of the share (eg the connection factory)
+     * @return Driver metrics of the database
+     */
+    public static DriverMetrics acquire(String database, Object owner) {
+        final String key = database != null ? database : "";
+        synchronized (entries) {
+            expungeCollectedOwners();
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key, new DriverMetrics());
+                entry.metrics.register(key);
+                entries.put(key, entry);
+            }
+            entry.ownerCount++;
+            owners.add(new OwnerReference(owner, entry));
+            startCleaner();
+            return entry.metrics;
+        }
+    }
+
+    /**
+     * Releases all shares of an owner.
+     * <p>
+     * The metrics of a database are unregistered as MBean when their last owner is released. Explicit release is not
+     * required: the shares of an owner are released by the cleaner thread after it has been garbage collected.
+     * </p>
+     *
+     * @param owner
+     *         Owner of the share
+     */
+    public static void release(Object owner) {
+        synchronized (entries) {
+            expungeCollectedOwners();
+            final Iterator<OwnerReference> iterator = owners.iterator();
+            while (iterator.hasNext()) {
+                final OwnerReference ownerReference = iterator.next();
+                if (ownerReference.get() == owner) {
+                    iterator.remove();
+                    ownerReference.clear();
+                    releaseShare(ownerReference.entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the cleaner thread if it is not running; must be called while holding the lock on {@code entries}.
+     */
+    private static void startCleaner() {
+        if (cleanerThread != null) return;
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cleanUntilNoOwners();
+            }
+        }, "Jaybird driver metrics cleaner");
+        thread.setDaemon(true);
+        thread.setContextClassLoader(null);
+        cleanerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Releases the shares of collected owners until there are no owners left.
+     */
+    private static void cleanUntilNoOwners() {
+        try {
+            while (true) {
+                final Reference<?> reference = ownerQueue.remove(CLEANER_POLL_MILLIS);
+                synchronized (entries) {
+                    if (reference != null) {
+                        releaseCollectedOwner(reference);
+                    }
+                    expungeCollectedOwners();
+                    if (owners.isEmpty()) {
+                        cleanerThread = null;
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (entries) {
+                cleanerThread = null;
+            }
+        }
+    }
+
+    private static void releaseCollectedOwner(Reference<?> reference) {
+        if (owners.remove(reference)) {
+            releaseShare(((OwnerReference) reference).entry);
+        }
+    }
+
+    private static void expungeCollectedOwners() {
+        Reference<?> reference;
+        while ((reference = ownerQueue.poll()) != null) {
+            releaseCollectedOwner(reference);
+        }
+    }
+
+    private static void releaseShare(Entry entry) {
+        if (--entry.ownerCount == 0) {
+            entries.remove(entry.key);
+            entry.metrics.unregister();
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final DriverMetrics metrics;
+        private int ownerCount;
+
+        private Entry(String key, DriverMetrics metrics) {
+            this.key = key;
+            this.metrics = metrics;
+        }
+    }
+
+    private static final class OwnerReference extends WeakReference<Object> {
+        private final Entry entry;
+
+        private OwnerReference(Object owner, Entry entry) {
+            super(owner, ownerQueue);
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+/**
+ * Statement operations with a latency reported to {@link MetricsListener#statementOperation(StatementOperation, long)}.
+ *
+ * @since 3.0
+ */
+public enum StatementOperation {
+    /**
+     * Allocate (if needed) and prepare of a statement.
+     */
+    PREPARE,
+    /**
+     * Execute of a statement, from the start of the execute until the result (or open cursor) is received.
+     */
+    EXECUTE,
+    /**
+     * Fetch of a batch of rows from an open cursor.
+     */
+    FETCH
+}
@@ -0,0 +1,72 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter with striped cells to reduce contention when updated by many threads.
+ * <p>
+ * Each thread updates the cell selected by its thread id; cells are padded to avoid false sharing. The sum is not an
+ * atomic snapshot when updated concurrently.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class StripedCounter {
+
+    private static final int STRIPES = stripeCount();
+    // Cells are 8 longs (64 bytes) apart, so each cell has its own cache line
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    void increment() {
+        add(1);
+    }
+
+    void add(long delta) {
+        cells.getAndAdd(cellIndex(), delta);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int idx = 0; idx < STRIPES; idx++) {
+            sum += cells.get(idx * PADDING);
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int idx = 0; idx < STRIPES; idx++) {
+            cells.set(idx * PADDING, 0);
+        }
+    }
+
+    private static int cellIndex() {
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash & (STRIPES - 1)) * PADDING;
+    }
+
+    private static int stripeCount() {
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(processors * 2 - 1, 1));
+    }
+}
@@ -24,6 +24,7 @@ import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.AbstractFbBlob;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -46,9 +47,14 @@ public abstract class AbstractFbWireBlob extends AbstractFbBlob implements FbWir
         return (FbWireDatabase) super.getDatabase();
     }
 
+    @Override
+    protected FbWireTransaction getTransaction() {
+        return (FbWireTransaction) super.getTransaction();
+    }
+
     @Override
     public final int getHandle() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return blobHandle;
         }
     }
@@ -58,7 +64,7 @@ public abstract class AbstractFbWireBlob extends AbstractFbBlob implements FbWir
      *         The Firebird blob handle identifier
      */
     protected final void setHandle(int blobHandle) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.blobHandle = blobHandle;
         }
     }
@@ -76,7 +82,7 @@ public abstract class AbstractFbWireBlob extends AbstractFbBlob implements FbWir
      *         For database communication errors.
      */
     protected void releaseBlob(int releaseOperation) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             getDatabase().releaseObject(releaseOperation, getHandle());
         }
     }
@@ -97,8 +103,8 @@ public abstract class AbstractFbWireBlob extends AbstractFbBlob implements FbWir
     @Override
     public byte[] getBlobInfo(final byte[] requestItems, final int bufferLength) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
-                synchronized (getDatabase().getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
+                try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
                     try {
                         final XdrOutputStream xdrOut = getDatabase().getXdrStreamAccess().getXdrOut();
                         xdrOut.writeInt(WireProtocolConstants.op_info_blob);
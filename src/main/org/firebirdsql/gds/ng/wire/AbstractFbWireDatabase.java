@@ -25,9 +25,12 @@ import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.requireNonNull;
 
@@ -43,6 +46,23 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
     protected final ProtocolDescriptor protocolDescriptor;
     protected final FbWireOperations wireOperations;
     private FbWireAsynchronousChannel asynchronousChannel;
+    private final KeepAliveScheduler.Target keepAliveTarget = new KeepAliveScheduler.Target() {
+        @Override
+        public boolean isAttached() {
+            return AbstractFbWireDatabase.this.isAttached();
+        }
+
+        @Override
+        public long getIdleNanos() {
+            return connection.getIdleNanos();
+        }
+
+        @Override
+        public void ping(int timeout) throws SQLException {
+            AbstractFbWireDatabase.this.ping(timeout);
+        }
+    };
+    private ScheduledFuture<?> keepAlive;
 
     /**
      * Creates an AbstractFbWireDatabase instance.
@@ -54,10 +74,11 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
      *         used for creating further dependent objects).
      */
     protected AbstractFbWireDatabase(WireDatabaseConnection connection, ProtocolDescriptor descriptor) {
-        super(connection, new DefaultDatatypeCoder(connection.getEncodingFactory()));
+        super(connection,
+                DefaultDatatypeCoder.getSharedInstance(new DefaultDatatypeCoder(connection.getEncodingFactory())));
         protocolDescriptor = requireNonNull(descriptor, "parameter descriptor should be non-null");
         wireOperations = descriptor.createWireOperations(connection, getDatabaseWarningCallback(),
-                getSynchronizationObject());
+                getLock());
     }
 
     /**
@@ -135,8 +156,9 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
      */
     protected final void closeConnection() throws IOException {
         if (!connection.isConnected()) return;
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
+                stopKeepAlive();
                 connection.close();
             } finally {
                 setDetached();
@@ -144,6 +166,30 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
         }
     }
 
+    /**
+     * Starts keep-alive pings if the connection property {@code keepAliveInterval} is set.
+     * <p>
+     * Keep-alive is stopped when the connection is closed.
+     * </p>
+     */
+    protected final void startKeepAlive() {
+        final int keepAliveInterval = connection.getAttachProperties().getKeepAliveInterval();
+        if (keepAliveInterval <= 0) return;
+        try (LockCloseable ignored = withLock()) {
+            if (keepAlive == null) {
+                keepAlive = KeepAliveScheduler.getInstance()
+                        .schedule(keepAliveTarget, TimeUnit.SECONDS.toMillis(keepAliveInterval));
+            }
+        }
+    }
+
+    private void stopKeepAlive() {
+        if (keepAlive != null) {
+            keepAlive.cancel(false);
+            keepAlive = null;
+        }
+    }
+
     @Override
     public final FbBlob createBlobForOutput(FbTransaction transaction, BlobParameterBuffer blobParameterBuffer) {
         final FbWireBlob outputBlob =
@@ -183,6 +229,16 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
         return wireOperations.readResponse(warningCallback);
     }
 
+    @Override
+    public final LockCloseable awaitResponses(LockCloseable attachmentLock) {
+        return wireOperations.awaitResponses(attachmentLock);
+    }
+
+    @Override
+    public final LockCloseable withResponseLock() {
+        return wireOperations.withResponseLock();
+    }
+
     @Override
     public final EventHandle createEventHandle(String eventName, EventHandler eventHandler) {
         return new WireEventHandle(eventName, eventHandler, getEncoding());
@@ -192,7 +248,7 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
     public final void queueEvent(EventHandle eventHandle) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (asynchronousChannel == null || !asynchronousChannel.isConnected()) {
                     asynchronousChannel = initAsynchronousChannel();
                     AsynchronousProcessor.getInstance().registerAsynchronousChannel(asynchronousChannel);
@@ -209,7 +265,7 @@ public abstract class AbstractFbWireDatabase extends AbstractFbDatabase<WireData
     public final void cancelEvent(EventHandle eventHandle) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 if (asynchronousChannel == null || !asynchronousChannel.isConnected()) {
                     throw new FbExceptionBuilder()
                             .nonTransientException(JaybirdErrorCodes.jb_unableToCancelEventReasonNotConnected)
@@ -58,7 +58,7 @@ public abstract class AbstractFbWireService extends AbstractFbService<WireServic
         super(connection, new DefaultDatatypeCoder(connection.getEncodingFactory()));
         protocolDescriptor = requireNonNull(descriptor, "parameter descriptor should be non-null");
         wireOperations = descriptor.createWireOperations(connection, getServiceWarningCallback(),
-                getSynchronizationObject());
+                getLock());
     }
 
     @Override
@@ -23,13 +23,11 @@ import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.AbstractFbStatement;
 import org.firebirdsql.gds.ng.FbTransaction;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
 import org.firebirdsql.gds.ng.fields.RowValue;
 
 import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * @author <a href="mailto:mrotteveel@users.sourceforge.net">Mark Rotteveel</a>
@@ -37,7 +35,8 @@ import java.util.WeakHashMap;
  */
 public abstract class AbstractFbWireStatement extends AbstractFbStatement implements FbWireStatement {
 
-    private final Map<RowDescriptor, byte[]> blrCache = Collections.synchronizedMap(new WeakHashMap<RowDescriptor, byte[]>());
+    private volatile RowCodec fieldCodec;
+    private volatile RowCodec parameterCodec;
     private volatile int handle = WireProtocolConstants.INVALID_OBJECT;
     private FbWireDatabase database;
 
@@ -88,11 +87,49 @@ public abstract class AbstractFbWireStatement extends AbstractFbStatement implem
     }
 
     protected final void setHandle(int handle) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             this.handle = handle;
         }
     }
 
+    /**
+     * Returns the row codec for a {@link RowDescriptor}, or <code>null</code> if the parameter is null.
+     * <p>
+     * The codecs of the field and parameter descriptor of this statement are cached, so they are only calculated
+     * once after each prepare (or not at all if the prepare returned an equal descriptor).
+     * </p>
+     *
+     * @param rowDescriptor
+     *         The row descriptor.
+     * @return Row codec or <code>null</code> when <code>rowDescriptor</code> is <code>null</code>
+     * @throws SQLException
+     *         When the {@link RowDescriptor} contains an unsupported field type.
+     */
+    protected final RowCodec getRowCodec(RowDescriptor rowDescriptor) throws SQLException {
+        if (rowDescriptor == null) return null;
+        RowCodec codec = fieldCodec;
+        if (matches(codec, rowDescriptor)) {
+            return codec;
+        }
+        codec = parameterCodec;
+        if (matches(codec, rowDescriptor)) {
+            return codec;
+        }
+        codec = RowCodec.create(rowDescriptor, getDatabase().getBlrCalculator());
+        if (rowDescriptor == getFieldDescriptor()) {
+            fieldCodec = codec;
+        } else if (rowDescriptor == getParameterDescriptor()) {
+            parameterCodec = codec;
+        }
+        return codec;
+    }
+
+    private static boolean matches(RowCodec codec, RowDescriptor rowDescriptor) {
+        if (codec == null) return false;
+        final RowDescriptor codecRowDescriptor = codec.getRowDescriptor();
+        return codecRowDescriptor == rowDescriptor || codecRowDescriptor.equals(rowDescriptor);
+    }
+
     /**
      * Returns the (possibly cached) blr byte array for a {@link RowDescriptor}, or <code>null</code> if the parameter is null.
      *
@@ -104,19 +141,15 @@ public abstract class AbstractFbWireStatement extends AbstractFbStatement implem
      */
     protected final byte[] calculateBlr(RowDescriptor rowDescriptor) throws SQLException {
         if (rowDescriptor == null) return null;
-        byte[] blr = blrCache.get(rowDescriptor);
-        if (blr == null) {
-            blr = getDatabase().getBlrCalculator().calculateBlr(rowDescriptor);
-            blrCache.put(rowDescriptor, blr);
-        }
-        return blr;
+        return getRowCodec(rowDescriptor).getBlr();
     }
 
     /**
      * Returns the blr byte array for a {@link RowValue}, or <code>null</code> if the parameter is null.
      * <p>
-     * Contrary to {@link #calculateBlr(org.firebirdsql.gds.ng.fields.RowDescriptor)}, it is not allowed
-     * to cache this value as it depends on the actual row value.
+     * Contrary to {@link #calculateBlr(org.firebirdsql.gds.ng.fields.RowDescriptor)}, this value depends on the
+     * actual row value; it is only reused if the data lengths of the fields are the same as for the previous call
+     * (see {@link RowCodec#getBlr(RowValue)}).
      * </p>
      *
      * @param rowValue
@@ -127,7 +160,7 @@ public abstract class AbstractFbWireStatement extends AbstractFbStatement implem
      */
     protected final byte[] calculateBlr(RowDescriptor rowDescriptor, RowValue rowValue) throws SQLException {
         if (rowDescriptor == null || rowValue == null) return null;
-        return getDatabase().getBlrCalculator().calculateBlr(rowDescriptor, rowValue);
+        return getRowCodec(rowDescriptor).getBlr(rowValue);
     }
 
     @Override
@@ -136,13 +169,19 @@ public abstract class AbstractFbWireStatement extends AbstractFbStatement implem
             super.close();
         } finally {
             // TODO Preferably this should be done elsewhere and AbstractFbStatement.close() should be final
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 database = null;
-                blrCache.clear();
+                fieldCodec = null;
+                parameterCodec = null;
             }
         }
     }
 
+    @Override
+    public FbWireTransaction getTransaction() {
+        return (FbWireTransaction) super.getTransaction();
+    }
+
     @Override
     protected boolean isValidTransactionClass(Class<? extends FbTransaction> transactionClass) {
         return FbWireTransaction.class.isAssignableFrom(transactionClass);
@@ -23,8 +23,12 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.IConnectionProperties;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.gds.ng.wire.auth.ClientAuthBlock;
 import org.firebirdsql.logging.Logger;
 import org.firebirdsql.logging.LoggerFactory;
@@ -46,13 +50,20 @@ public abstract class AbstractWireOperations implements FbWireOperations {
 
     private final WireConnection<?, ?> connection;
     private final WarningMessageCallback defaultWarningMessageCallback;
-    private final Object syncObject;
+    private final DriverLock lock;
+    /**
+     * Pipeline of requests, {@code null} if request pipelining is disabled.
+     */
+    private final RequestPipeline requestPipeline;
 
     protected AbstractWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
         this.connection = connection;
         this.defaultWarningMessageCallback = defaultWarningMessageCallback;
-        this.syncObject = syncObject;
+        this.lock = lock;
+        final Object attachProperties = connection.getAttachProperties();
+        requestPipeline = attachProperties instanceof IConnectionProperties
+                && ((IConnectionProperties) attachProperties).isRequestPipelining() ? new RequestPipeline() : null;
     }
 
     @Override
@@ -160,24 +171,77 @@ public abstract class AbstractWireOperations implements FbWireOperations {
 
     @Override
     public final Response readSingleResponse(WarningMessageCallback warningCallback) throws SQLException, IOException {
+        final MetricsListener metricsListener = connection.getMetricsListener();
+        final long startTime = metricsListener != null ? System.nanoTime() : 0;
         Response response = processOperation(readNextOperation());
+        if (metricsListener != null) {
+            metricsListener.responseReceived(System.nanoTime() - startTime);
+        }
         processResponseWarnings(response, warningCallback);
         return response;
     }
 
     /**
      * Reads the next operation. Forwards call to {@link WireConnection#readNextOperation()}.
+     * <p>
+     * Unless the current thread is reading the responses of a pipelined request, this first waits for the responses
+     * of outstanding pipelined requests to be read, and processes the deferred actions.
+     * </p>
      *
      * @return next operation
      * @throws java.io.IOException
      */
+    @Override
     public final int readNextOperation() throws IOException {
-        synchronized (syncObject) {
+        if (requestPipeline != null && requestPipeline.isTurnOwner()) {
+            return connection.readNextOperation();
+        }
+        try (LockCloseable ignored = lock.withLock()) {
+            awaitPipelineDrained();
             processDeferredActions();
             return connection.readNextOperation();
         }
     }
 
+    @Override
+    public final LockCloseable awaitResponses(LockCloseable attachmentLock) {
+        // Only pipeline if releasing attachmentLock releases the lock, and no earlier responses are pending as deferred
+        // actions: their responses precede the responses of this request
+        if (requestPipeline == null || lock.getHoldCount() != 1 || hasDeferredActions()) {
+            return attachmentLock;
+        }
+        final long ticket = requestPipeline.register();
+        attachmentLock.close();
+        return requestPipeline.awaitTurn(ticket);
+    }
+
+    @Override
+    public final LockCloseable withResponseLock() {
+        if (requestPipeline != null && requestPipeline.isTurnOwner()) {
+            return LockCloseable.NO_LOCK;
+        }
+        return lock.withLock();
+    }
+
+    /**
+     * Waits until the responses of all outstanding pipelined requests have been read.
+     * <p>
+     * Must be called while holding the lock of the attachment.
+     * </p>
+     */
+    protected final void awaitPipelineDrained() {
+        if (requestPipeline != null) {
+            requestPipeline.awaitDrained();
+        }
+    }
+
+    /**
+     * @return {@code true} if there are deferred actions waiting for their response
+     */
+    protected boolean hasDeferredActions() {
+        return false;
+    }
+
     /**
      * Reads the response based on the specified operation.
      *
@@ -273,8 +337,8 @@ public abstract class AbstractWireOperations implements FbWireOperations {
         connection.writeDirect(data);
     }
 
-    protected final Object getSynchronizationObject() {
-        return syncObject;
+    protected final LockCloseable withLock() {
+        return lock.withLock();
     }
 
     protected final void addServerKeys(byte[] serverKeys) throws SQLException {
@@ -284,4 +348,14 @@ public abstract class AbstractWireOperations implements FbWireOperations {
     protected final ClientAuthBlock getClientAuthBlock() {
         return connection.getClientAuthBlock();
     }
+
+    /**
+     * @return {@code true} if this is a database connection with fast connect enabled
+     * @see IConnectionProperties#isFastConnect()
+     */
+    protected final boolean isFastConnect() {
+        final Object attachProperties = connection.getAttachProperties();
+        return attachProperties instanceof IConnectionProperties
+                && ((IConnectionProperties) attachProperties).isFastConnect();
+    }
 }
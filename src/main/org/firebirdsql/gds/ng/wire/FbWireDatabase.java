@@ -25,6 +25,7 @@
 package org.firebirdsql.gds.ng.wire;
 
 import org.firebirdsql.gds.ng.FbDatabase;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.fields.BlrCalculator;
 
@@ -103,4 +104,22 @@ public interface FbWireDatabase extends FbDatabase, FbWireAttachment {
      * @param warningCallback Callback for warnings
      */
     void consumePackets(int numberOfResponses, WarningMessageCallback warningCallback);
+
+    /**
+     * Switches from sending a request to reading its responses.
+     *
+     * @param attachmentLock
+     *         Closeable of the lock of this database
+     * @return Closeable to close after the responses have been read (also on failure)
+     * @see FbWireOperations#awaitResponses(LockCloseable)
+     */
+    LockCloseable awaitResponses(LockCloseable attachmentLock);
+
+    /**
+     * Acquires the lock of this database for reading responses.
+     *
+     * @return Closeable that releases the lock (if acquired)
+     * @see FbWireOperations#withResponseLock()
+     */
+    LockCloseable withResponseLock();
 }
@@ -18,6 +18,7 @@
  */
 package org.firebirdsql.gds.ng.wire;
 
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 
 import java.io.IOException;
@@ -64,6 +65,19 @@ public interface FbWireOperations {
      */
     Response readResponse(WarningMessageCallback callback) throws SQLException, IOException;
 
+    /**
+     * Reads the next operation code, after processing any deferred actions.
+     * <p>
+     * Allows callers to handle operations that are not decoded by {@link #readOperationResponse(int,
+     * WarningMessageCallback)} (eg {@code op_slice}).
+     * </p>
+     *
+     * @return Operation code
+     * @throws IOException
+     *         For errors reading the operation from the connection.
+     */
+    int readNextOperation() throws IOException;
+
     /**
      * Reads the response from the server when the operation code has already been read.
      *
@@ -139,6 +153,38 @@ public interface FbWireOperations {
      */
     void processDeferredActions();
 
+    /**
+     * Switches from sending a request to reading its responses.
+     * <p>
+     * Without request pipelining this returns {@code attachmentLock}: the lock of the attachment stays held until the
+     * responses have been read. With request pipelining (see
+     * {@link org.firebirdsql.gds.ng.IConnectionProperties#isRequestPipelining()}), the request is registered, the lock
+     * of the attachment is released and this method waits until the responses of all earlier requests have been read.
+     * Other threads can then send requests while the current thread reads its responses.
+     * </p>
+     * <p>
+     * Must be called after the request has been flushed, by the thread holding the lock of the attachment through
+     * {@code attachmentLock}. While reading the responses, the current thread must not acquire the lock of the
+     * attachment (use {@link #withResponseLock()} instead), nor send other requests.
+     * </p>
+     *
+     * @param attachmentLock
+     *         Closeable of the lock of the attachment
+     * @return Closeable to close after the responses have been read (also on failure)
+     */
+    LockCloseable awaitResponses(LockCloseable attachmentLock);
+
+    /**
+     * Acquires the lock of the attachment for reading responses.
+     * <p>
+     * If the current thread is reading the responses of a pipelined request (see
+     * {@link #awaitResponses(LockCloseable)}), no lock is needed and none is acquired.
+     * </p>
+     *
+     * @return Closeable that releases the lock (if acquired)
+     */
+    LockCloseable withResponseLock();
+
     /**
      * Reads the response from the server.
      *
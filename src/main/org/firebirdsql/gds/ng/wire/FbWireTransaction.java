@@ -28,6 +28,8 @@ package org.firebirdsql.gds.ng.wire;
 
 import org.firebirdsql.gds.ng.FbTransaction;
 
+import java.sql.SQLException;
+
 /**
  * Interface for transactions created for the wire protocol implementation.
  *
@@ -35,4 +37,18 @@ import org.firebirdsql.gds.ng.FbTransaction;
  * @since 2.3
  */
 public interface FbWireTransaction extends FbTransaction {
+
+    /**
+     * Returns the handle of this transaction to write in an operation.
+     * <p>
+     * Contrary to {@link #getHandle()}, this reports it if the transaction has no valid handle (eg because a pipelined
+     * start of the transaction failed). As it may need to receive a pending response, it must be called before the
+     * operation is written.
+     * </p>
+     *
+     * @return The transaction handle
+     * @throws SQLException
+     *         If this transaction has no valid handle
+     */
+    int getOperationHandle() throws SQLException;
 }
@@ -0,0 +1,258 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.JaybirdErrorCodes;
+import org.firebirdsql.gds.ng.FbExceptionBuilder;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Determines the order in which the servers of a multi-host server name are tried (see connection property
+ * {@code hostSelection}).
+ * <p>
+ * The selector keeps (JVM-wide) statistics per server: the connect latency of recent connects, and whether the last
+ * connect failed. A server whose last connect failed is blacklisted for {@link #BLACKLIST_MILLIS} milliseconds:
+ * it is tried after all other servers, so an unreachable server does not delay new connections.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class HostSelector {
+
+    /**
+     * Time (in milliseconds) a server is tried last after a failed connect.
+     */
+    public static final long BLACKLIST_MILLIS = 30000;
+    private static final long BLACKLIST_NANOS = TimeUnit.MILLISECONDS.toNanos(BLACKLIST_MILLIS);
+    private static final long UNKNOWN_LATENCY = -1;
+
+    /**
+     * Initialize on demand holder
+     */
+    private static class SelectorHolder {
+        private static final HostSelector INSTANCE = new HostSelector();
+    }
+
+    private final ConcurrentMap<ServerAddress, HostStatistics> statistics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<ServerAddress>, AtomicInteger> roundRobinCounters = new ConcurrentHashMap<>();
+
+    HostSelector() {
+    }
+
+    /**
+     * @return Singleton instance
+     */
+    public static HostSelector getInstance() {
+        return SelectorHolder.INSTANCE;
+    }
+
+    /**
+     * Policy for the order in which servers are tried.
+     */
+    public enum Policy {
+        /**
+         * Servers are tried in the listed order (default).
+         */
+        FAILOVER("failover"),
+        /**
+         * Each connect starts with the next server of the list.
+         */
+        ROUND_ROBIN("roundRobin"),
+        /**
+         * Servers are tried in order of their recent connect latency; servers without statistics first.
+         */
+        LEAST_LATENCY("leastLatency");
+
+        private final String propertyValue;
+
+        Policy(String propertyValue) {
+            this.propertyValue = propertyValue;
+        }
+
+        /**
+         * @return Value for connection property {@code hostSelection}
+         */
+        public String getPropertyValue() {
+            return propertyValue;
+        }
+
+        /**
+         * Gets the policy for a value of connection property {@code hostSelection}.
+         *
+         * @param propertyValue
+         *         Property value (case insensitive), {@code null} for the default
+         * @return Policy
+         * @throws SQLException
+         *         For an unknown value
+         */
+        public static Policy forPropertyValue(String propertyValue) throws SQLException {
+            if (propertyValue == null || propertyValue.isEmpty()) {
+                return FAILOVER;
+            }
+            for (Policy policy : values()) {
+                if (policy.propertyValue.equalsIgnoreCase(propertyValue)) {
+                    return policy;
+                }
+            }
+            throw new FbExceptionBuilder()
+                    .nonTransientConnectionException(JaybirdErrorCodes.jb_invalidConnectionString)
+                    .messageParameter(propertyValue)
+                    .messageParameter("Unknown hostSelection, expected one of: failover, roundRobin, leastLatency")
+                    .toFlatSQLException();
+        }
+    }
+
+    /**
+     * Orders servers for a connect attempt.
+     *
+     * @param servers
+     *         Servers in the listed order
+     * @param policy
+     *         Selection policy
+     * @return New list with the servers in the order they should be tried
+     */
+    public List<ServerAddress> order(List<ServerAddress> servers, Policy policy) {
+        final List<ServerAddress> ordered = new ArrayList<>(servers);
+        switch (policy) {
+        case ROUND_ROBIN:
+            AtomicInteger counter = roundRobinCounters.get(servers);
+            if (counter == null) {
+                final AtomicInteger newCounter = new AtomicInteger();
+                counter = roundRobinCounters.putIfAbsent(servers, newCounter);
+                if (counter == null) {
+                    counter = newCounter;
+                }
+            }
+            Collections.rotate(ordered, -((counter.getAndIncrement() & Integer.MAX_VALUE) % ordered.size()));
+            break;
+        case LEAST_LATENCY:
+            final Map<ServerAddress, Long> latencies = new HashMap<>();
+            for (ServerAddress server : ordered) {
+                latencies.put(server, getLatencyNanos(server));
+            }
+            Collections.sort(ordered, new Comparator<ServerAddress>() {
+                @Override
+                public int compare(ServerAddress o1, ServerAddress o2) {
+                    // Unknown latency (-1) sorts first, so new servers are tried
+                    return Long.compare(latencies.get(o1), latencies.get(o2));
+                }
+            });
+            break;
+        case FAILOVER:
+        default:
+            break;
+        }
+        // Stable sort: blacklisted servers last, otherwise keep order
+        final long now = System.nanoTime();
+        final List<ServerAddress> blacklisted = new ArrayList<>();
+        for (Iterator<ServerAddress> iterator = ordered.iterator(); iterator.hasNext(); ) {
+            final ServerAddress server = iterator.next();
+            if (isBlacklisted(server, now)) {
+                iterator.remove();
+                blacklisted.add(server);
+            }
+        }
+        ordered.addAll(blacklisted);
+        return ordered;
+    }
+
+    /**
+     * Records a successful connect.
+     *
+     * @param server
+     *         Server
+     * @param connectNanos
+     *         Time taken to connect (in nanoseconds)
+     */
+    public void connectSucceeded(ServerAddress server, long connectNanos) {
+        getStatistics(server).succeeded(connectNanos);
+    }
+
+    /**
+     * Records a failed connect, the server is blacklisted for {@link #BLACKLIST_MILLIS}.
+     *
+     * @param server
+     *         Server
+     */
+    public void connectFailed(ServerAddress server) {
+        getStatistics(server).failed(System.nanoTime() + BLACKLIST_NANOS);
+    }
+
+    /**
+     * @param server
+     *         Server
+     * @return {@code true} if the server is currently blacklisted
+     */
+    public boolean isBlacklisted(ServerAddress server) {
+        return isBlacklisted(server, System.nanoTime());
+    }
+
+    private boolean isBlacklisted(ServerAddress server, long now) {
+        final HostStatistics hostStatistics = statistics.get(server);
+        return hostStatistics != null && hostStatistics.isBlacklisted(now);
+    }
+
+    private long getLatencyNanos(ServerAddress server) {
+        final HostStatistics hostStatistics = statistics.get(server);
+        return hostStatistics != null ? hostStatistics.latencyNanos : UNKNOWN_LATENCY;
+    }
+
+    private HostStatistics getStatistics(ServerAddress server) {
+        HostStatistics hostStatistics = statistics.get(server);
+        if (hostStatistics == null) {
+            final HostStatistics newStatistics = new HostStatistics();
+            hostStatistics = statistics.putIfAbsent(server, newStatistics);
+            if (hostStatistics == null) {
+                hostStatistics = newStatistics;
+            }
+        }
+        return hostStatistics;
+    }
+
+    private static final class HostStatistics {
+
+        private volatile long latencyNanos = UNKNOWN_LATENCY;
+        private volatile boolean blacklisted;
+        private volatile long blacklistedUntilNanos;
+
+        void succeeded(long connectNanos) {
+            final long previous = latencyNanos;
+            // Exponentially weighted moving average, new value weighs 1/4
+            latencyNanos = previous == UNKNOWN_LATENCY
+                    ? connectNanos
+                    : previous - (previous >> 2) + (connectNanos >> 2);
+            blacklisted = false;
+        }
+
+        void failed(long blacklistUntilNanos) {
+            blacklistedUntilNanos = blacklistUntilNanos;
+            blacklisted = true;
+        }
+
+        boolean isBlacklisted(long now) {
+            return blacklisted && now - blacklistedUntilNanos < 0;
+        }
+    }
+}
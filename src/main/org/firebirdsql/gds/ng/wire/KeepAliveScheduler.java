@@ -0,0 +1,201 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends keep-alive pings on idle connections (see connection property {@code keepAliveInterval}).
+ * <p>
+ * A single timer thread checks the registered connections. A ping is executed on a separate (cached) thread, as it
+ * needs to wait for the lock of the connection if the connection turns out to be in use. The scheduler only holds a
+ * weak reference to the connections, so a connection that is no longer referenced is not kept alive.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class KeepAliveScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(KeepAliveScheduler.class);
+
+    /**
+     * Initialize on demand holder
+     */
+    private static class SchedulerHolder {
+        private static final KeepAliveScheduler INSTANCE = new KeepAliveScheduler();
+    }
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService pingExecutor;
+
+    private KeepAliveScheduler() {
+        timer = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("Jaybird keep-alive timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        pingExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new DaemonThreadFactory("Jaybird keep-alive ping"));
+    }
+
+    /**
+     * @return Singleton instance
+     */
+    public static KeepAliveScheduler getInstance() {
+        return SchedulerHolder.INSTANCE;
+    }
+
+    /**
+     * Schedules keep-alive pings for a connection.
+     * <p>
+     * The connection is checked every half interval, and pinged if it has been idle for at least half the interval,
+     * so an idle connection has activity at least once per interval. The ping uses the interval as its timeout.
+     * Keep-alive ends when the returned future is cancelled, or when the connection is no longer attached.
+     * </p>
+     *
+     * @param target
+     *         Connection to keep alive (only weakly referenced)
+     * @param intervalMillis
+     *         Keep-alive interval in milliseconds
+     * @return Future to cancel the keep-alive
+     */
+    public ScheduledFuture<?> schedule(Target target, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis should be > 0, was " + intervalMillis);
+        }
+        final KeepAliveTask task = new KeepAliveTask(target, intervalMillis);
+        final long checkPeriod = Math.max(intervalMillis / 2, 1);
+        final ScheduledFuture<?> future =
+                timer.scheduleWithFixedDelay(task, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS);
+        task.future = future;
+        return future;
+    }
+
+    /**
+     * Connection that can be kept alive.
+     */
+    public interface Target {
+
+        /**
+         * @return {@code true} if the connection is attached
+         */
+        boolean isAttached();
+
+        /**
+         * @return Time (in nanoseconds) since the last operation on the connection
+         */
+        long getIdleNanos();
+
+        /**
+         * Pings the server.
+         *
+         * @param timeout
+         *         Timeout in milliseconds
+         * @throws SQLException
+         *         If the ping failed
+         */
+        void ping(int timeout) throws SQLException;
+    }
+
+    private final class KeepAliveTask implements Runnable {
+
+        private final WeakReference<Target> targetRef;
+        private final long idleThresholdNanos;
+        private final int pingTimeout;
+        private final AtomicBoolean pingPending = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+
+        private KeepAliveTask(Target target, long intervalMillis) {
+            targetRef = new WeakReference<>(target);
+            idleThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(intervalMillis / 2, 1));
+            pingTimeout = (int) Math.min(intervalMillis, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void run() {
+            final Target target = targetRef.get();
+            if (target == null || !target.isAttached()) {
+                cancel();
+                return;
+            }
+            if (target.getIdleNanos() < idleThresholdNanos || !pingPending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                pingExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            ping();
+                        } finally {
+                            pingPending.set(false);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pingPending.set(false);
+                log.debug("Keep-alive ping rejected", e);
+            }
+        }
+
+        private void ping() {
+            final Target target = targetRef.get();
+            if (target == null || !target.isAttached()) {
+                cancel();
+                return;
+            }
+            try {
+                target.ping(pingTimeout);
+            } catch (SQLException e) {
+                log.debug("Keep-alive ping failed", e);
+                if (!target.isAttached()) {
+                    cancel();
+                }
+            }
+        }
+
+        private void cancel() {
+            final ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, namePrefix + " " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
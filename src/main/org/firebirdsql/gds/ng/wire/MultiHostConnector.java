@@ -0,0 +1,208 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connects to the first reachable server of a list of servers.
+ * <p>
+ * Connect attempts are staggered ("happy eyeballs"): the first server is tried, and if it has not connected within
+ * {@link #STAGGER_MILLIS} milliseconds, the next server is tried in parallel, and so on. A failed attempt
+ * immediately starts the next server. The first successful connection is used, other attempts are closed. The
+ * outcome of each attempt is recorded in the {@link HostSelector}.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class MultiHostConnector {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiHostConnector.class);
+
+    /**
+     * Delay (in milliseconds) before starting an attempt to the next server while the previous attempts are pending.
+     */
+    static final long STAGGER_MILLIS = 250;
+    /**
+     * Marks the end of a connect, so attempts that connect later close their connection.
+     */
+    private static final Socket NO_WINNER = new Socket();
+
+    /**
+     * Initialize on demand holder
+     */
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L,
+                TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread =
+                        new Thread(runnable, "Jaybird multi-host connect " + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Creates unconnected sockets with the configured options.
+     */
+    interface SocketFactory {
+        Socket createSocket() throws IOException;
+    }
+
+    private final HostSelector hostSelector;
+    private final SocketFactory socketFactory;
+    private final int connectTimeoutMillis;
+
+    /**
+     * @param hostSelector
+     *         Host selector to record the outcome of attempts
+     * @param socketFactory
+     *         Factory for sockets
+     * @param connectTimeoutMillis
+     *         Connect timeout per server in milliseconds ({@code 0} for no timeout)
+     */
+    MultiHostConnector(HostSelector hostSelector, SocketFactory socketFactory, int connectTimeoutMillis) {
+        this.hostSelector = hostSelector;
+        this.socketFactory = socketFactory;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * Connects to the first reachable server.
+     *
+     * @param servers
+     *         Servers in the order they should be tried (at least one)
+     * @return Connected socket
+     * @throws IOException
+     *         If no server could be connected, the exception of the last failed attempt
+     */
+    Socket connect(List<ServerAddress> servers) throws IOException {
+        final AtomicReference<Socket> winner = new AtomicReference<>();
+        final List<Socket> sockets = new CopyOnWriteArrayList<>();
+        final CompletionService<Socket> completionService =
+                new ExecutorCompletionService<>(ExecutorHolder.EXECUTOR);
+        final List<Future<Socket>> futures = new ArrayList<>();
+        IOException lastFailure = null;
+        int next = 0;
+        int pending = 0;
+        try {
+            while (true) {
+                if (next < servers.size()) {
+                    futures.add(completionService.submit(
+                            new ConnectAttempt(servers.get(next++), winner, sockets)));
+                    pending++;
+                } else if (pending == 0) {
+                    break;
+                }
+                final Future<Socket> completed = next < servers.size()
+                        ? completionService.poll(STAGGER_MILLIS, TimeUnit.MILLISECONDS)
+                        : completionService.take();
+                if (completed == null) {
+                    // Not connected within the stagger delay: start next server in parallel
+                    continue;
+                }
+                pending--;
+                try {
+                    return completed.get();
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    lastFailure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastFailure = new IOException("Interrupted while connecting", e);
+        } finally {
+            for (Future<Socket> future : futures) {
+                future.cancel(false);
+            }
+            // Abort pending attempts and close connections that lost the race
+            winner.compareAndSet(null, NO_WINNER);
+            final Socket winningSocket = winner.get();
+            for (Socket socket : sockets) {
+                if (socket != winningSocket) {
+                    closeQuietly(socket);
+                }
+            }
+        }
+        throw lastFailure;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Ignoring exception closing socket of multi-host connect attempt", e);
+        }
+    }
+
+    private final class ConnectAttempt implements Callable<Socket> {
+
+        private final ServerAddress server;
+        private final AtomicReference<Socket> winner;
+        private final List<Socket> sockets;
+
+        private ConnectAttempt(ServerAddress server, AtomicReference<Socket> winner, List<Socket> sockets) {
+            this.server = server;
+            this.winner = winner;
+            this.sockets = sockets;
+        }
+
+        @Override
+        public Socket call() throws IOException {
+            if (winner.get() != null) {
+                throw new IOException("Connect to " + server + " not needed, another server was connected");
+            }
+            final Socket socket = socketFactory.createSocket();
+            sockets.add(socket);
+            final long start = System.nanoTime();
+            try {
+                socket.connect(new InetSocketAddress(server.getHost(), server.getPort()), connectTimeoutMillis);
+            } catch (IOException e) {
+                closeQuietly(socket);
+                if (winner.get() == null) {
+                    // Only a failure if not aborted because another server was connected
+                    hostSelector.connectFailed(server);
+                }
+                log.debug("Connect to " + server + " failed", e);
+                throw e;
+            }
+            hostSelector.connectSucceeded(server, System.nanoTime() - start);
+            if (!winner.compareAndSet(null, socket)) {
+                closeQuietly(socket);
+                throw new IOException("Connection to " + server + " not used, another server was connected first");
+            }
+            return socket;
+        }
+    }
+}
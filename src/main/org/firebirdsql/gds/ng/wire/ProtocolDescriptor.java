@@ -28,6 +28,7 @@ import org.firebirdsql.gds.BlobParameterBuffer;
 import org.firebirdsql.gds.DatabaseParameterBuffer;
 import org.firebirdsql.gds.ServiceParameterBuffer;
 import org.firebirdsql.gds.ServiceRequestBuffer;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbTransaction;
 import org.firebirdsql.gds.ng.TransactionState;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
@@ -212,10 +213,10 @@ public interface ProtocolDescriptor {
      *         WireConnection instance
      * @param defaultWarningMessageCallback
      *         Default warning message callback
-     * @param syncObject
-     *         Object to use for synchronization
+     * @param lock
+     *         Lock of the attachment, to serialize operations on the connection
      * @return Wire operations implementation
      */
     FbWireOperations createWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock);
 }
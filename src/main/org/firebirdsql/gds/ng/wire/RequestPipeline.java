@@ -0,0 +1,120 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.ng.DriverLock;
+import org.firebirdsql.gds.ng.LockCloseable;
+
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Orders the reading of responses of pipelined requests on a connection.
+ * <p>
+ * The wire protocol does not tag requests: the server answers requests in the order they were received. A pipelined
+ * request registers a ticket after it has been sent (while holding the lock of the attachment), and releases the lock
+ * of the attachment. The responses of a ticket can be read when the responses of all earlier tickets have been read;
+ * the thread holding that turn reads from the connection without the lock of the attachment.
+ * </p>
+ * <p>
+ * Non-pipelined operations keep holding the lock of the attachment and must wait until the pipeline is drained before
+ * reading their responses (see {@link #awaitDrained()}).
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class RequestPipeline {
+
+    private final DriverLock lock = new DriverLock();
+    private final Condition turnCompleted = lock.newCondition();
+    /**
+     * Next ticket to issue.
+     */
+    private long nextTicket;
+    /**
+     * Ticket whose responses are to be read next.
+     */
+    private long currentTicket;
+    private volatile Thread turnOwner;
+
+    /**
+     * Registers a request that has been sent (and flushed).
+     * <p>
+     * Must be called while holding the lock of the attachment, so tickets are issued in the order the requests were
+     * sent.
+     * </p>
+     *
+     * @return Ticket for {@link #awaitTurn(long)}
+     */
+    public long register() {
+        try (LockCloseable ignored = lock.withLock()) {
+            return nextTicket++;
+        }
+    }
+
+    /**
+     * Waits until the responses of all earlier tickets have been read.
+     * <p>
+     * The returned closeable ends the turn and must always be closed, even if reading the responses failed. Waiting
+     * is not interruptible: skipping a turn would desynchronize the responses of all later tickets.
+     * </p>
+     *
+     * @param ticket
+     *         Ticket obtained from {@link #register()}
+     * @return Closeable that ends the turn
+     */
+    public LockCloseable awaitTurn(final long ticket) {
+        try (LockCloseable ignored = lock.withLock()) {
+            while (currentTicket != ticket) {
+                turnCompleted.awaitUninterruptibly();
+            }
+            turnOwner = Thread.currentThread();
+        }
+        return new LockCloseable() {
+            @Override
+            public void close() {
+                try (LockCloseable ignored = lock.withLock()) {
+                    turnOwner = null;
+                    currentTicket++;
+                    turnCompleted.signalAll();
+                }
+            }
+        };
+    }
+
+    /**
+     * Waits until the responses of all registered tickets have been read.
+     * <p>
+     * Must be called while holding the lock of the attachment, so no new tickets are registered while waiting.
+     * </p>
+     */
+    public void awaitDrained() {
+        try (LockCloseable ignored = lock.withLock()) {
+            while (currentTicket != nextTicket) {
+                turnCompleted.awaitUninterruptibly();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the current thread is reading the responses of a ticket
+     */
+    public boolean isTurnOwner() {
+        return turnOwner == Thread.currentThread();
+    }
+}
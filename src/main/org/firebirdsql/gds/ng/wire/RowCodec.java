@@ -0,0 +1,182 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.fields.BlrCalculator;
+import org.firebirdsql.gds.ng.fields.FieldDescriptor;
+import org.firebirdsql.gds.ng.fields.FieldValue;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+
+import java.sql.SQLException;
+
+/**
+ * Precalculated wire protocol information for a {@link RowDescriptor}: the blr and the io length of each field.
+ * <p>
+ * This allows fetching rows and executing statements without interpreting the row descriptor for each call. The blr
+ * for a row value (see {@link BlrCalculator#calculateBlr(RowDescriptor, RowValue)}) is cached as long as the data
+ * lengths of the fields do not change.
+ * </p>
+ * <p>
+ * This class is not thread-safe; it is intended to be used by a single statement, under the lock of its database.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class RowCodec {
+
+    private final RowDescriptor rowDescriptor;
+    private final BlrCalculator blrCalculator;
+    private final byte[] blr;
+    private final int[] ioLengths;
+    private final int[] fieldTypes;
+    private final boolean[] valueDependentIoLength;
+    private int[] rowValueDataLengths;
+    private byte[] rowValueBlr;
+
+    private RowCodec(RowDescriptor rowDescriptor, BlrCalculator blrCalculator) throws SQLException {
+        this.rowDescriptor = rowDescriptor;
+        this.blrCalculator = blrCalculator;
+        blr = blrCalculator.calculateBlr(rowDescriptor);
+        final int count = rowDescriptor.getCount();
+        ioLengths = new int[count];
+        fieldTypes = new int[count];
+        valueDependentIoLength = new boolean[count];
+        for (int idx = 0; idx < count; idx++) {
+            final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
+            ioLengths[idx] = blrCalculator.calculateIoLength(fieldDescriptor);
+            fieldTypes[idx] = fieldDescriptor.getType();
+            valueDependentIoLength[idx] = (fieldDescriptor.getType() & ~1) == ISCConstants.SQL_TEXT;
+        }
+    }
+
+    /**
+     * Creates the row codec for a row descriptor.
+     *
+     * @param rowDescriptor
+     *         Row descriptor
+     * @param blrCalculator
+     *         Blr calculator of the database
+     * @return Row codec
+     * @throws SQLException
+     *         When the {@link RowDescriptor} contains an unsupported field type.
+     */
+    public static RowCodec create(RowDescriptor rowDescriptor, BlrCalculator blrCalculator) throws SQLException {
+        return new RowCodec(rowDescriptor, blrCalculator);
+    }
+
+    /**
+     * @return The row descriptor of this codec
+     */
+    public RowDescriptor getRowDescriptor() {
+        return rowDescriptor;
+    }
+
+    /**
+     * @return Number of fields
+     */
+    public int getCount() {
+        return ioLengths.length;
+    }
+
+    /**
+     * @return The blr of the row descriptor (the array should not be modified)
+     */
+    public byte[] getBlr() {
+        return blr;
+    }
+
+    /**
+     * Returns the blr for a row value.
+     * <p>
+     * The blr is reused from the previous call if the data lengths of all fields are the same.
+     * </p>
+     *
+     * @param rowValue
+     *         Row value
+     * @return The blr for the row value (the array should not be modified)
+     * @throws SQLException
+     *         When the {@link RowValue} contains an unsupported field type.
+     * @see BlrCalculator#calculateBlr(RowDescriptor, RowValue)
+     */
+    public byte[] getBlr(RowValue rowValue) throws SQLException {
+        final int count = rowValue.getCount();
+        int[] dataLengths = rowValueDataLengths;
+        boolean lengthsChanged = dataLengths == null || dataLengths.length != count;
+        if (lengthsChanged) {
+            dataLengths = new int[count];
+        }
+        for (int idx = 0; idx < count; idx++) {
+            final byte[] fieldData = rowValue.getFieldValue(idx).getFieldData();
+            final int dataLength = fieldData != null ? fieldData.length : 0;
+            if (dataLengths[idx] != dataLength) {
+                dataLengths[idx] = dataLength;
+                lengthsChanged = true;
+            }
+        }
+        if (lengthsChanged || rowValueBlr == null) {
+            // Clear first, in case the calculation fails after lengths were updated
+            rowValueBlr = null;
+            rowValueDataLengths = dataLengths;
+            rowValueBlr = blrCalculator.calculateBlr(rowDescriptor, rowValue);
+        }
+        return rowValueBlr;
+    }
+
+    /**
+     * Returns the io length of a field for reading.
+     *
+     * @param index
+     *         Index of the field
+     * @return The io length
+     * @see BlrCalculator#calculateIoLength(FieldDescriptor)
+     */
+    public int getIoLength(int index) {
+        return ioLengths[index];
+    }
+
+    /**
+     * Returns the io length of a field for writing a field value.
+     *
+     * @param index
+     *         Index of the field
+     * @param fieldValue
+     *         Field value
+     * @return The io length
+     * @throws SQLException
+     *         When the field has an unsupported type
+     * @see BlrCalculator#calculateIoLength(FieldDescriptor, FieldValue)
+     */
+    public int getIoLength(int index, FieldValue fieldValue) throws SQLException {
+        if (valueDependentIoLength[index]) {
+            return blrCalculator.calculateIoLength(rowDescriptor.getFieldDescriptor(index), fieldValue);
+        }
+        return ioLengths[index];
+    }
+
+    /**
+     * @param index
+     *         Index of the field
+     * @return The type of the field (including the nullable bit)
+     */
+    public int getFieldType(int index) {
+        return fieldTypes[index];
+    }
+}
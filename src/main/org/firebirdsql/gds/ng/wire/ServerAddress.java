@@ -0,0 +1,141 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.JaybirdErrorCodes;
+import org.firebirdsql.gds.ng.FbExceptionBuilder;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Host and port of a Firebird server.
+ * <p>
+ * A server name can contain a list of servers separated by a comma, each optionally followed by {@code /port} (eg
+ * {@code host1/3050,host2/3051}), see {@link #parseList(String, int)}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class ServerAddress {
+
+    private static final char HOST_SEPARATOR = ',';
+    private static final char PORT_SEPARATOR = '/';
+
+    private final String host;
+    private final int port;
+
+    public ServerAddress(String host, int port) {
+        if (host == null || host.isEmpty()) {
+            throw new IllegalArgumentException("host should be non-null and non-empty");
+        }
+        this.host = host;
+        this.port = port;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @param serverName
+     *         Server name
+     * @return {@code true} if {@code serverName} contains more than one server
+     */
+    public static boolean isList(String serverName) {
+        return serverName != null && serverName.indexOf(HOST_SEPARATOR) != -1;
+    }
+
+    /**
+     * Parses a server name with one or more servers.
+     *
+     * @param serverName
+     *         Server name: a comma separated list of {@code host} or {@code host/port}
+     * @param defaultPort
+     *         Port to use for servers without a port
+     * @return List of server addresses (unmodifiable)
+     * @throws SQLException
+     *         If the server name is empty, contains an empty server, or has an invalid port
+     */
+    public static List<ServerAddress> parseList(String serverName, int defaultPort) throws SQLException {
+        if (serverName == null || serverName.trim().isEmpty()) {
+            throw invalidServerName(serverName, "Server name is missing");
+        }
+        final List<ServerAddress> addresses = new ArrayList<>();
+        int start = 0;
+        while (start <= serverName.length()) {
+            int end = serverName.indexOf(HOST_SEPARATOR, start);
+            if (end == -1) {
+                end = serverName.length();
+            }
+            addresses.add(parse(serverName, serverName.substring(start, end).trim(), defaultPort));
+            start = end + 1;
+        }
+        return Collections.unmodifiableList(addresses);
+    }
+
+    private static ServerAddress parse(String serverName, String server, int defaultPort) throws SQLException {
+        final int portSep = server.indexOf(PORT_SEPARATOR);
+        if (server.isEmpty() || portSep == 0 || portSep == server.length() - 1) {
+            throw invalidServerName(serverName, "Empty host or port in: '" + server + "'");
+        }
+        if (portSep == -1) {
+            return new ServerAddress(server, defaultPort);
+        }
+        final String portString = server.substring(portSep + 1);
+        try {
+            return new ServerAddress(server.substring(0, portSep), Integer.parseInt(portString));
+        } catch (NumberFormatException e) {
+            throw invalidServerName(serverName, "Bad port: '" + portString + "' is not a number");
+        }
+    }
+
+    private static SQLException invalidServerName(String serverName, String reason) {
+        return new FbExceptionBuilder()
+                .nonTransientConnectionException(JaybirdErrorCodes.jb_invalidConnectionString)
+                .messageParameter(serverName != null ? serverName : "(null)")
+                .messageParameter(reason)
+                .toFlatSQLException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ServerAddress)) return false;
+        ServerAddress other = (ServerAddress) o;
+        return port == other.port && host.equalsIgnoreCase(other.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * host.toLowerCase(Locale.ROOT).hashCode() + port;
+    }
+
+    @Override
+    public String toString() {
+        return host + PORT_SEPARATOR + port;
+    }
+}
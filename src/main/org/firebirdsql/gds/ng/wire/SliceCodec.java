@@ -0,0 +1,162 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.impl.wire.XdrInputStream;
+import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+
+/**
+ * Encodes and decodes the elements of an array slice ({@code op_get_slice}, {@code op_put_slice} and
+ * {@code op_slice}) in the XDR format of the wire protocol.
+ * <p>
+ * Each element is sent as an XDR datum: {@code SMALLINT} and {@code INTEGER} as a 4 byte integer,
+ * {@code BIGINT} as an 8 byte integer, {@code FLOAT} and {@code DOUBLE PRECISION} as IEEE 754 single and double.
+ * The elements are transferred in chunks between the stream and the flat primitive array (see
+ * {@link ArrayDescriptor}) using bulk operations of {@link ByteBuffer}, without boxing or a read per element.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class SliceCodec {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private SliceCodec() {
+        // no instances
+    }
+
+    /**
+     * Reads the elements of a slice.
+     * <p>
+     * If the slice contains more elements than the array descriptor, the surplus elements are skipped. If it
+     * contains less, the remaining elements of the returned array are {@code 0}.
+     * </p>
+     *
+     * @param xdrIn
+     *         Xdr input stream positioned at the first element
+     * @param arrayDescriptor
+     *         Descriptor of the array
+     * @param sliceLength
+     *         Length of the slice in the native (client) representation, as sent by the server
+     * @return Flat array with the elements
+     * @throws IOException
+     *         For errors reading from the stream
+     */
+    public static Object readSlice(XdrInputStream xdrIn, ArrayDescriptor arrayDescriptor, int sliceLength)
+            throws IOException {
+        final Object flatArray = arrayDescriptor.newFlatArray();
+        final int wireLength = getWireElementLength(arrayDescriptor);
+        final int count = sliceLength / arrayDescriptor.getElementLength();
+        final int stored = Math.min(count, arrayDescriptor.getElementCount());
+        final byte[] buffer = new byte[Math.min(stored * wireLength, CHUNK_SIZE)];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        int index = 0;
+        while (index < stored) {
+            final int chunk = Math.min(stored - index, buffer.length / wireLength);
+            xdrIn.readFully(buffer, 0, chunk * wireLength);
+            switch (arrayDescriptor.getBlrType()) {
+            case blr_short: {
+                final short[] values = (short[]) flatArray;
+                final IntBuffer intBuffer = byteBuffer.asIntBuffer();
+                for (int idx = 0; idx < chunk; idx++) {
+                    values[index + idx] = (short) intBuffer.get(idx);
+                }
+                break;
+            }
+            case blr_long:
+                byteBuffer.asIntBuffer().get((int[]) flatArray, index, chunk);
+                break;
+            case blr_int64:
+                byteBuffer.asLongBuffer().get((long[]) flatArray, index, chunk);
+                break;
+            case blr_float:
+                byteBuffer.asFloatBuffer().get((float[]) flatArray, index, chunk);
+                break;
+            default:
+                byteBuffer.asDoubleBuffer().get((double[]) flatArray, index, chunk);
+                break;
+            }
+            index += chunk;
+        }
+        if (count > stored) {
+            xdrIn.skipFully((count - stored) * wireLength);
+        }
+        return flatArray;
+    }
+
+    /**
+     * Writes the elements of a slice.
+     *
+     * @param xdrOut
+     *         Xdr output stream
+     * @param arrayDescriptor
+     *         Descriptor of the array
+     * @param flatArray
+     *         Flat array with the elements (must be valid for {@code arrayDescriptor})
+     * @throws IOException
+     *         For errors writing to the stream
+     */
+    public static void writeSlice(XdrOutputStream xdrOut, ArrayDescriptor arrayDescriptor, Object flatArray)
+            throws IOException {
+        final int wireLength = getWireElementLength(arrayDescriptor);
+        final int count = arrayDescriptor.getElementCount();
+        final byte[] buffer = new byte[Math.min(count * wireLength, CHUNK_SIZE)];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        int index = 0;
+        while (index < count) {
+            final int chunk = Math.min(count - index, buffer.length / wireLength);
+            switch (arrayDescriptor.getBlrType()) {
+            case blr_short: {
+                final short[] values = (short[]) flatArray;
+                final IntBuffer intBuffer = byteBuffer.asIntBuffer();
+                for (int idx = 0; idx < chunk; idx++) {
+                    intBuffer.put(idx, values[index + idx]);
+                }
+                break;
+            }
+            case blr_long:
+                byteBuffer.asIntBuffer().put((int[]) flatArray, index, chunk);
+                break;
+            case blr_int64:
+                byteBuffer.asLongBuffer().put((long[]) flatArray, index, chunk);
+                break;
+            case blr_float:
+                byteBuffer.asFloatBuffer().put((float[]) flatArray, index, chunk);
+                break;
+            default:
+                byteBuffer.asDoubleBuffer().put((double[]) flatArray, index, chunk);
+                break;
+            }
+            xdrOut.write(buffer, 0, chunk * wireLength);
+            index += chunk;
+        }
+    }
+
+    private static int getWireElementLength(ArrayDescriptor arrayDescriptor) {
+        // SMALLINT is sent as a 4 byte integer
+        return Math.max(arrayDescriptor.getElementLength(), 4);
+    }
+}
@@ -22,14 +22,17 @@ import org.firebirdsql.encodings.EncodingFactory;
 import org.firebirdsql.encodings.IEncodingFactory;
 import org.firebirdsql.gds.ClumpletReader;
 import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.VaxEncoding;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.AbstractConnection;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
 import org.firebirdsql.gds.ng.IAttachProperties;
 import org.firebirdsql.gds.ng.IConnectionProperties;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.gds.ng.wire.auth.ClientAuthBlock;
 import org.firebirdsql.gds.ng.wire.crypt.KnownServerKey;
 import org.firebirdsql.logging.Logger;
@@ -37,7 +40,10 @@ import org.firebirdsql.logging.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
@@ -78,6 +84,7 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
 
     private XdrOutputStream xdrOut;
     private XdrInputStream xdrIn;
+    private volatile long lastActivityNanos = System.nanoTime();
     private final XdrStreamAccess streamAccess = new XdrStreamAccess() {
         @Override
         public XdrInputStream getXdrIn() throws SQLException {
@@ -91,6 +98,7 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         @Override
         public XdrOutputStream getXdrOut() throws SQLException {
             if (isConnected() && xdrOut != null) {
+                lastActivityNanos = System.nanoTime();
                 return xdrOut;
             } else {
                 throw new SQLException("Connection closed or no connection available");
@@ -163,6 +171,32 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         resetSocketTimeout();
     }
 
+    /**
+     * Sets the socket blocking timeout (SO_TIMEOUT) of the socket until the next call to
+     * {@link #resetSocketTimeout()}, without changing the configured timeout.
+     * <p>
+     * If the configured timeout is shorter than {@code socketTimeout}, the configured timeout is kept. Does nothing
+     * if currently not connected.
+     * </p>
+     *
+     * @param socketTimeout
+     *         Value of the socket timeout (in milliseconds), {@code 0} to keep the configured timeout
+     * @throws SQLException
+     *         If the timeout value cannot be changed
+     */
+    public final void setTemporarySoTimeout(int socketTimeout) throws SQLException {
+        if (socketTimeout <= 0 || !isConnected()) return;
+        final int soTimeout = attachProperties.getSoTimeout();
+        if (soTimeout > 0 && soTimeout <= socketTimeout) return;
+        try {
+            socket.setSoTimeout(socketTimeout);
+        } catch (SocketException e) {
+            throw new FbExceptionBuilder()
+                    .nonTransientConnectionException(JaybirdErrorCodes.jb_unableToChangeSocketTimeout)
+                    .cause(e).toSQLException();
+        }
+    }
+
     /**
      * Resets the socket timeout to the configured socketTimeout. Does nothing
      * if currently not connected.
@@ -179,8 +213,9 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
                     socket.setSoTimeout(desiredTimeout);
                 }
             } catch (SocketException e) {
-                // TODO Add SQLState
-                throw new SQLException("Unable to change socket timeout (SO_TIMEOUT)", e);
+                throw new FbExceptionBuilder()
+                        .nonTransientConnectionException(JaybirdErrorCodes.jb_unableToChangeSocketTimeout)
+                        .cause(e).toSQLException();
             }
         }
     }
@@ -188,6 +223,11 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
     /**
      * Establishes the TCP/IP connection to serverName and portNumber of this
      * Connection
+     * <p>
+     * If serverName is a list of servers (eg {@code host1/3050,host2/3051}), the servers are tried in the order
+     * determined by connection property {@code hostSelection}, see {@link HostSelector} and
+     * {@link MultiHostConnector}.
+     * </p>
      *
      * @throws SQLTimeoutException
      *         If the connection cannot be established within the connect
@@ -198,29 +238,27 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
      */
     public final void socketConnect() throws SQLException {
         try {
-            socket = new Socket();
-            socket.setTcpNoDelay(true);
             final int connectTimeout = attachProperties.getConnectTimeout();
-            final int socketConnectTimeout;
-            if (connectTimeout != -1) {
-                // connectTimeout is in seconds, need milliseconds
-                socketConnectTimeout = (int) TimeUnit.SECONDS.toMillis(connectTimeout);
-                // Blocking timeout initially identical to connect timeout
-                socket.setSoTimeout(socketConnectTimeout);
+            // connectTimeout is in seconds, need milliseconds; if not set, socket connect timeout is indefinite (0)
+            final int socketConnectTimeout =
+                    connectTimeout != -1 ? (int) TimeUnit.SECONDS.toMillis(connectTimeout) : 0;
+            final String serverName = getServerName();
+            if (ServerAddress.isList(serverName)) {
+                final HostSelector hostSelector = HostSelector.getInstance();
+                final List<ServerAddress> servers = hostSelector.order(
+                        ServerAddress.parseList(serverName, getPortNumber()), getHostSelectionPolicy());
+                final MultiHostConnector connector = new MultiHostConnector(hostSelector,
+                        new MultiHostConnector.SocketFactory() {
+                            @Override
+                            public Socket createSocket() throws IOException {
+                                return WireConnection.this.createSocket();
+                            }
+                        }, socketConnectTimeout);
+                socket = connector.connect(servers);
             } else {
-                // socket connect timeout is not set, so indefinite (0)
-                socketConnectTimeout = 0;
-                // Blocking timeout to normal socket timeout, 0 if not set
-                socket.setSoTimeout(Math.max(attachProperties.getSoTimeout(), 0));
-            }
-
-            final int socketBufferSize = attachProperties.getSocketBufferSize();
-            if (socketBufferSize != IConnectionProperties.DEFAULT_SOCKET_BUFFER_SIZE) {
-                socket.setReceiveBufferSize(socketBufferSize);
-                socket.setSendBufferSize(socketBufferSize);
+                socket = createSocket();
+                socket.connect(new InetSocketAddress(serverName, getPortNumber()), socketConnectTimeout);
             }
-
-            socket.connect(new InetSocketAddress(getServerName(), getPortNumber()), socketConnectTimeout);
         } catch (SocketTimeoutException ste) {
             throw new FbExceptionBuilder().timeoutException(ISCConstants.isc_network_error).messageParameter(getServerName()).cause(ste).toSQLException();
         } catch (IOException ioex) {
@@ -228,6 +266,39 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         }
     }
 
+    /**
+     * Creates an unconnected socket configured with the connection properties.
+     *
+     * @return Socket
+     * @throws IOException
+     *         For errors setting socket options
+     */
+    private Socket createSocket() throws IOException {
+        final Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        final int connectTimeout = attachProperties.getConnectTimeout();
+        if (connectTimeout != -1) {
+            // Blocking timeout initially identical to connect timeout
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout));
+        } else {
+            // Blocking timeout to normal socket timeout, 0 if not set
+            socket.setSoTimeout(Math.max(attachProperties.getSoTimeout(), 0));
+        }
+
+        final int socketBufferSize = attachProperties.getSocketBufferSize();
+        if (socketBufferSize != IConnectionProperties.DEFAULT_SOCKET_BUFFER_SIZE) {
+            socket.setReceiveBufferSize(socketBufferSize);
+            socket.setSendBufferSize(socketBufferSize);
+        }
+        return socket;
+    }
+
+    private HostSelector.Policy getHostSelectionPolicy() throws SQLException {
+        return HostSelector.Policy.forPropertyValue(attachProperties instanceof IConnectionProperties
+                ? ((IConnectionProperties) attachProperties).getHostSelection()
+                : null);
+    }
+
     public final XdrStreamAccess getXdrStreamAccess() {
         return streamAccess;
     }
@@ -243,8 +314,8 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
     @Override
     public final C identify() throws SQLException {
         try {
-            xdrIn = new XdrInputStream(socket.getInputStream());
-            xdrOut = new XdrOutputStream(socket.getOutputStream());
+            xdrIn = new XdrInputStream(new MeteredInputStream(socket.getInputStream()));
+            xdrOut = new XdrOutputStream(new MeteredOutputStream(socket.getOutputStream()));
 
             xdrOut.writeInt(op_connect);
             xdrOut.writeInt(op_attach);
@@ -387,7 +458,7 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         ProtocolDescriptor protocolDescriptor = protocols
                 .getProtocolDescriptor(WireProtocolConstants.PROTOCOL_VERSION10);
         return (AbstractWireOperations) protocolDescriptor
-                .createWireOperations(this, null, this);
+                .createWireOperations(this, null, new DriverLock());
     }
 
     /**
@@ -411,9 +482,17 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         do {
             op = xdrIn.readInt();
         } while (op == op_dummy);
+        lastActivityNanos = System.nanoTime();
         return op;
     }
 
+    /**
+     * @return Time (in nanoseconds) since an operation was last written to or read from this connection
+     */
+    public final long getIdleNanos() {
+        return System.nanoTime() - lastActivityNanos;
+    }
+
     /**
      * Closes the TCP/IP connection. This is not a normal detach operation.
      *
@@ -505,4 +584,84 @@ public abstract class WireConnection<T extends IAttachProperties<T>, C extends F
         outputStream.flush();
     }
 
+    /**
+     * Input stream of the socket reporting the bytes received to the metrics listener (if any).
+     * <p>
+     * Wraps the socket stream below the buffering of {@link XdrInputStream}, so it is only called once per read from
+     * the socket.
+     * </p>
+     */
+    private final class MeteredInputStream extends FilterInputStream {
+
+        private MeteredInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                bytesReceived(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int count = in.read(b, off, len);
+            if (count > 0) {
+                bytesReceived(count);
+            }
+            return count;
+        }
+
+        private void bytesReceived(int count) {
+            final MetricsListener metricsListener = getMetricsListener();
+            if (metricsListener != null) {
+                metricsListener.bytesReceived(count);
+            }
+        }
+    }
+
+    /**
+     * Output stream of the socket reporting the bytes and packets sent to the metrics listener (if any).
+     * <p>
+     * Wraps the socket stream below the buffering of {@link XdrOutputStream}, so it is only called when the buffer is
+     * written to the socket; each flush of the {@link XdrOutputStream} is reported as a packet.
+     * </p>
+     */
+    private final class MeteredOutputStream extends FilterOutputStream {
+
+        private MeteredOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesSent(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesSent(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            final MetricsListener metricsListener = getMetricsListener();
+            if (metricsListener != null) {
+                metricsListener.packetSent();
+            }
+        }
+
+        private void bytesSent(int count) {
+            final MetricsListener metricsListener = getMetricsListener();
+            if (metricsListener != null) {
+                metricsListener.bytesSent(count);
+            }
+        }
+    }
 }
@@ -52,6 +52,9 @@ public final class SrpClient {
 
     private static final SecureRandom random = new SecureRandom();
     private static final byte[] SEPARATOR_BYTES = ":".getBytes(StandardCharsets.UTF_8);
+    /* (H(N) ^ H(g)) mod N, constant part of the client proof */
+    private static final byte[] N_G_HASH = toBigByteArray(
+            fromBigByteArray(sha1(toBigByteArray(N))).modPow(fromBigByteArray(sha1(toBigByteArray(g))), N));
 
     private BigInteger publicKey;   /* A */
     private BigInteger privateKey;  /* a */
@@ -157,9 +160,23 @@ public final class SrpClient {
         return sha1(toBigByteArray(sessionSecret));
     }
 
+    /**
+     * Creates an SRP client with a new key pair (precomputed if enabled, see {@link SrpKeyPool}).
+     */
     public SrpClient() {
-        privateKey = getSecret();
-        publicKey = g.modPow(privateKey, N);
+        final KeyPair keyPair = SrpKeyPool.nextKeyPair();
+        privateKey = keyPair.getPrivateKey();
+        publicKey = keyPair.getPublicKey();
+    }
+
+    /**
+     * Generates a new client key pair.
+     *
+     * @return Key pair with private key {@code a} and public key {@code A}
+     */
+    static KeyPair generateKeyPair() {
+        final BigInteger a = getSecret();
+        return new KeyPair(g.modPow(a, N), a);
     }
 
     public BigInteger getPublicKey() {
@@ -188,9 +205,7 @@ public final class SrpClient {
 
     byte[] clientProof(String user, String password, byte[] salt, BigInteger serverPublicKey) {
         final byte[] K = getClientSessionKey(user, password, salt, serverPublicKey);
-        final BigInteger n1 = fromBigByteArray(sha1(toBigByteArray(N)));
-        final BigInteger n2 = fromBigByteArray(sha1(toBigByteArray(g)));
-        final byte[] M = sha1(toBigByteArray(n1.modPow(n2, N)),
+        final byte[] M = sha1(N_G_HASH,
                 sha1(user.toUpperCase().getBytes(StandardCharsets.UTF_8)), salt,
                 toBigByteArray(publicKey), toBigByteArray(serverPublicKey), K);
 
@@ -0,0 +1,156 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire.auth;
+
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded pool of precomputed SRP client key pairs (private key {@code a} and public key {@code A = g^a mod N}).
+ * <p>
+ * Computing the public key is the most expensive part of SRP authentication on the client. When enabled with system
+ * property {@value #POOL_SIZE_PROPERTY} (a size greater than {@code 0}; default disabled), key pairs are computed by
+ * a low priority background thread, which refills the pool as key pairs are taken. Each key pair is removed from the
+ * pool when taken, so it is used for a single authentication only, exactly like a key pair computed on demand. If the
+ * pool is empty, a key pair is computed on the calling thread.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class SrpKeyPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SrpKeyPool.class);
+
+    static final String POOL_SIZE_PROPERTY = "org.firebirdsql.jdbc.srpKeyPoolSize";
+    private static final int MAX_POOL_SIZE = 1024;
+
+    /**
+     * Initialize on demand holder
+     */
+    private static class PoolHolder {
+        private static final SrpKeyPool INSTANCE = createDefaultInstance();
+    }
+
+    private final BlockingQueue<SrpClient.KeyPair> keyPairs;
+    private final AtomicBoolean refillStarted = new AtomicBoolean();
+    private volatile Thread refillThread;
+
+    /**
+     * Creates a key pool.
+     *
+     * @param size
+     *         Maximum number of precomputed key pairs (must be greater than {@code 0})
+     */
+    SrpKeyPool(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size should be > 0, was " + size);
+        }
+        keyPairs = new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * Returns a key pair for a single authentication, from the default pool if enabled.
+     *
+     * @return Key pair
+     */
+    static SrpClient.KeyPair nextKeyPair() {
+        final SrpKeyPool pool = PoolHolder.INSTANCE;
+        return pool != null ? pool.take() : SrpClient.generateKeyPair();
+    }
+
+    /**
+     * Takes a precomputed key pair from this pool, or computes one if the pool is empty.
+     * <p>
+     * The first call starts the background thread to fill the pool.
+     * </p>
+     *
+     * @return Key pair (removed from the pool)
+     */
+    SrpClient.KeyPair take() {
+        startRefill();
+        final SrpClient.KeyPair keyPair = keyPairs.poll();
+        return keyPair != null ? keyPair : SrpClient.generateKeyPair();
+    }
+
+    /**
+     * @return Current number of precomputed key pairs
+     */
+    int size() {
+        return keyPairs.size();
+    }
+
+    /**
+     * Stops the background thread (for testing).
+     */
+    void stop() {
+        final Thread thread = refillThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void startRefill() {
+        if (!refillStarted.compareAndSet(false, true)) {
+            return;
+        }
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        keyPairs.put(SrpClient.generateKeyPair());
+                    }
+                } catch (InterruptedException e) {
+                    // Stop refill
+                }
+            }
+        }, "Jaybird SRP key precompute");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        refillThread = thread;
+        thread.start();
+    }
+
+    private static SrpKeyPool createDefaultInstance() {
+        final String sizeString = AccessController.doPrivileged(new PrivilegedAction<String>() {
+            public String run() {
+                return System.getProperty(POOL_SIZE_PROPERTY);
+            }
+        });
+        if (sizeString == null) {
+            return null;
+        }
+        try {
+            final int size = Integer.parseInt(sizeString.trim());
+            if (size <= 0) {
+                return null;
+            }
+            return new SrpKeyPool(Math.min(size, MAX_POOL_SIZE));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid value for system property " + POOL_SIZE_PROPERTY + ": " + sizeString);
+            return null;
+        }
+    }
+}
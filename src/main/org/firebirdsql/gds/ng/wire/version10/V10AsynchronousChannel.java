@@ -24,6 +24,7 @@ import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbDatabase;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.listeners.DefaultDatabaseListener;
 import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.logging.Logger;
@@ -196,7 +197,7 @@ public class V10AsynchronousChannel implements FbWireAsynchronousChannel {
         wireEventHandle.assignNewLocalId();
         addChannelListener(wireEventHandle);
 
-        synchronized (database.getSynchronizationObject()) {
+        try (LockCloseable ignored = database.withLock()) {
             try {
                 final XdrOutputStream dbXdrOut = database.getXdrStreamAccess().getXdrOut();
                 dbXdrOut.writeInt(op_que_events);
@@ -224,7 +225,7 @@ public class V10AsynchronousChannel implements FbWireAsynchronousChannel {
         final WireEventHandle wireEventHandle = (WireEventHandle) eventHandle;
         removeChannelListener(wireEventHandle);
 
-        synchronized (database.getSynchronizationObject()) {
+        try (LockCloseable ignored = database.withLock()) {
             try {
                 final XdrOutputStream dbXdrOut = database.getXdrStreamAccess().getXdrOut();
                 dbXdrOut.writeInt(op_cancel_events);
@@ -24,23 +24,32 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.TransactionParameterBuffer;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
+import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
 import org.firebirdsql.gds.ng.FbStatement;
 import org.firebirdsql.gds.ng.FbTransaction;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.TransactionState;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
 import org.firebirdsql.gds.ng.fields.BlrCalculator;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.jdbc.SQLStateConstants;
 import org.firebirdsql.logging.Logger;
 import org.firebirdsql.logging.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLNonTransientConnectionException;
 
+import static org.firebirdsql.gds.VaxEncoding.iscVaxInteger2;
 import static org.firebirdsql.gds.impl.wire.WireProtocolConstants.*;
 import static org.firebirdsql.gds.ng.TransactionHelper.checkTransactionActive;
 
@@ -53,9 +62,15 @@ import static org.firebirdsql.gds.ng.TransactionHelper.checkTransactionActive;
 public class V10Database extends AbstractFbWireDatabase implements FbWireDatabase {
 
     private static final Logger log = LoggerFactory.getLogger(V10Database.class);
+    private static final int DESCRIBE_DATABASE_INFO_BUFFER_LENGTH = 1024;
+    // Maximum segment size of a blob (see AbstractFbBlob.getMaximumSegmentSize())
+    private static final int MAX_BLOB_READ_LENGTH = Short.MAX_VALUE - 2;
+    // Maximum number of blobs opened and read with one roundtrip by readBlobs
+    private static final int MAX_BLOBS_PER_ROUNDTRIP = 128;
 
     private int handle;
     private BlrCalculator blrCalculator;
+    private V10Statement messageCodec;
 
     /**
      * Creates a V10Database instance.
@@ -100,10 +115,15 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
         if (isAttached()) {
             throw new SQLException("Already attached to a database");
         }
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
+            final boolean pipelineDatabaseInfo = !create && isPipelineDatabaseInfo();
             try {
                 try {
                     sendAttachOrCreateToBuffer(dpb, create);
+                    if (pipelineDatabaseInfo) {
+                        // Database handle is not known yet, the server uses the attachment of the connection
+                        sendDatabaseInfo(getDescribeDatabaseInfoBlock(), DESCRIBE_DATABASE_INFO_BUFFER_LENGTH);
+                    }
                     getXdrOut().flush();
                 } catch (IOException e) {
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(e).toSQLException();
@@ -114,14 +134,53 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(e).toSQLException();
                 }
             } catch (SQLException e) {
+                // NOTE: a pipelined database info response is not read, the connection is closed without reading
                 safelyDetach();
                 throw e;
             }
             setAttached();
-            afterAttachActions();
+            if (pipelineDatabaseInfo) {
+                processPipelinedDatabaseInfo();
+            } else {
+                afterAttachActions();
+            }
         }
     }
 
+    /**
+     * Determines if the database info request of {@link #afterAttachActions()} can be sent together with the
+     * {@code op_attach}.
+     * <p>
+     * This is only done in fast connect mode (connection property {@code fastConnect}), and only if the server will
+     * respond to the {@code op_attach} without further authentication exchanges: for protocol versions before 13, or
+     * if authentication was completed in the connect phase.
+     * </p>
+     *
+     * @return {@code true} if the database info request can be pipelined with the attach
+     */
+    private boolean isPipelineDatabaseInfo() {
+        return connection.getAttachProperties().isFastConnect()
+                && (protocolDescriptor.getVersion() < PROTOCOL_VERSION13
+                || connection.getClientAuthBlock().isAuthComplete());
+    }
+
+    /**
+     * Reads and processes the response to the database info request sent together with the {@code op_attach}.
+     *
+     * @throws SQLException
+     *         For errors reading or processing the database information.
+     */
+    private void processPipelinedDatabaseInfo() throws SQLException {
+        final byte[] databaseInfo;
+        try {
+            databaseInfo = readGenericResponse(null).getData();
+        } catch (IOException e) {
+            throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(e).toSQLException();
+        }
+        getDatabaseInformationProcessor().process(databaseInfo);
+        afterDatabaseInfo();
+    }
+
     /**
      * Sends the buffer for op_attach or op_create
      *
@@ -186,15 +245,21 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
      *         For errors reading or writing database information.
      */
     protected final void afterAttachActions() throws SQLException {
-        getDatabaseInfo(getDescribeDatabaseInfoBlock(), 1024, getDatabaseInformationProcessor());
+        getDatabaseInfo(getDescribeDatabaseInfoBlock(), DESCRIBE_DATABASE_INFO_BUFFER_LENGTH,
+                getDatabaseInformationProcessor());
+        afterDatabaseInfo();
+    }
+
+    private void afterDatabaseInfo() throws SQLException {
         // During connect and attach the socketTimeout might be set to the connectTimeout, now reset to 'normal' socketTimeout
         connection.resetSocketTimeout();
+        startKeepAlive();
     }
 
     @Override
     protected final void internalDetach() throws SQLException {
         // TODO Move to wire operations as it is almost identical to service detach?
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
@@ -248,7 +313,7 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
     public final void dropDatabase() throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     try {
                         final XdrOutputStream xdrOut = getXdrOut();
@@ -280,10 +345,10 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
     }
 
     @Override
-    public final FbWireTransaction startTransaction(TransactionParameterBuffer tpb) throws SQLException {
+    public FbWireTransaction startTransaction(TransactionParameterBuffer tpb) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
                     xdrOut.writeInt(op_transaction);
@@ -315,7 +380,7 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
     public final FbTransaction reconnectTransaction(long transactionId) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
                     xdrOut.writeInt(op_reconnect);
@@ -392,16 +457,10 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
         // TODO Write common info request implementation shared for db, sql, transaction and blob?
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
-                    final XdrOutputStream xdrOut = getXdrOut();
-                    xdrOut.writeInt(op_info_database);
-                    xdrOut.writeInt(getHandle());
-                    xdrOut.writeInt(0); // incarnation
-                    xdrOut.writeBuffer(requestItems);
-                    xdrOut.writeInt(maxBufferLength);
-
-                    xdrOut.flush();
+                    sendDatabaseInfo(requestItems, maxBufferLength);
+                    getXdrOut().flush();
                 } catch (IOException ex) {
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
                 }
@@ -418,9 +477,95 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
         }
     }
 
+    /**
+     * Writes an {@code op_info_database} request to the output stream (without flushing).
+     *
+     * @param requestItems
+     *         Information items to request
+     * @param maxBufferLength
+     *         Maximum response buffer length to use
+     * @throws SQLException
+     *         If the connection is not open
+     * @throws IOException
+     *         For errors writing to the connection
+     */
+    private void sendDatabaseInfo(byte[] requestItems, int maxBufferLength) throws SQLException, IOException {
+        final XdrOutputStream xdrOut = getXdrOut();
+        xdrOut.writeInt(op_info_database);
+        xdrOut.writeInt(getHandle());
+        xdrOut.writeInt(0); // incarnation
+        xdrOut.writeBuffer(requestItems);
+        xdrOut.writeInt(maxBufferLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The timeout is applied by temporarily changing the socket timeout.
+     * </p>
+     */
+    @Override
+    public final void ping(int timeout) throws SQLException {
+        try {
+            checkAttached();
+            try (LockCloseable ignored = withLock()) {
+                connection.setTemporarySoTimeout(timeout);
+                try {
+                    try {
+                        final XdrOutputStream xdrOut = getXdrOut();
+                        sendPing(xdrOut);
+                        xdrOut.flush();
+                    } catch (IOException ex) {
+                        throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex)
+                                .toSQLException();
+                    }
+                    try {
+                        readGenericResponse(null);
+                    } catch (SocketTimeoutException ex) {
+                        // The response might still arrive, which would be read as the response of the next operation
+                        try {
+                            closeConnection();
+                        } catch (IOException ex2) {
+                            log.debug("Exception closing connection after ping timeout", ex2);
+                        }
+                        throw new FbExceptionBuilder().timeoutException(ISCConstants.isc_net_read_err).cause(ex)
+                                .toSQLException();
+                    } catch (IOException ex) {
+                        throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex)
+                                .toSQLException();
+                    }
+                } finally {
+                    connection.resetSocketTimeout();
+                }
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the operation for {@link #ping(int)}; the server must reply with a generic response.
+     * <p>
+     * Protocol version 10 has no ping operation, this implementation sends a database info request for
+     * {@link #PING_INFO_BLOCK}.
+     * </p>
+     *
+     * @param xdrOut
+     *         Xdr output stream
+     * @throws IOException
+     *         For errors writing the operation
+     */
+    protected void sendPing(XdrOutputStream xdrOut) throws IOException {
+        xdrOut.writeInt(op_info_database);
+        xdrOut.writeInt(getHandle());
+        xdrOut.writeInt(0); // incarnation
+        xdrOut.writeBuffer(PING_INFO_BLOCK);
+        xdrOut.writeInt(PING_INFO_BUFFER_LENGTH);
+    }
+
     @Override
     public final void executeImmediate(String statementText, FbTransaction transaction) throws SQLException {
-        // TODO also implement op_exec_immediate2
         try {
             if (isAttached()) {
                 if (transaction == null) {
@@ -434,12 +579,13 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
                         .forException(JaybirdErrorCodes.jb_executeImmediateRequiresNoTransactionDetached)
                         .toFlatSQLException();
             }
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
+                final int transactionHandle = transaction != null ? getOperationHandle(transaction) : 0;
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
                     xdrOut.writeInt(op_exec_immediate);
 
-                    xdrOut.writeInt(transaction != null ? transaction.getHandle() : 0);
+                    xdrOut.writeInt(transactionHandle);
                     xdrOut.writeInt(getHandle());
                     xdrOut.writeInt(getConnectionDialect());
                     xdrOut.writeString(statementText, getEncoding());
@@ -466,10 +612,388 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code op_exec_immediate2}.
+     * </p>
+     */
+    @Override
+    public final RowValue executeImmediate(String statementText, FbTransaction transaction,
+            RowDescriptor parameterDescriptor, RowValue parameters, RowDescriptor outputDescriptor)
+            throws SQLException {
+        final boolean hasParameters = parameters != null && parameters.getCount() > 0;
+        final boolean hasOutput = outputDescriptor != null && outputDescriptor.getCount() > 0;
+        try {
+            validateExecuteImmediate(transaction, parameterDescriptor, parameters);
+            if (!hasParameters && !hasOutput) {
+                executeImmediate(statementText, transaction);
+                return null;
+            }
+            try (LockCloseable ignored = withLock()) {
+                final V10Statement messageCodec = getMessageCodec();
+                final int transactionHandle = getOperationHandle(transaction);
+                try {
+                    final XdrOutputStream xdrOut = getXdrOut();
+                    xdrOut.writeInt(op_exec_immediate2);
+
+                    if (hasParameters) {
+                        xdrOut.writeBuffer(getBlrCalculator().calculateBlr(parameterDescriptor, parameters));
+                        xdrOut.writeInt(0); // message number = in_message_type
+                        xdrOut.writeInt(1); // Number of messages
+                        messageCodec.writeSqlData(parameterDescriptor, parameters);
+                    } else {
+                        xdrOut.writeBuffer(null);
+                        xdrOut.writeInt(0); // message number = in_message_type
+                        xdrOut.writeInt(0); // Number of messages
+                    }
+                    xdrOut.writeBuffer(hasOutput ? getBlrCalculator().calculateBlr(outputDescriptor) : null);
+                    xdrOut.writeInt(0); // out_message_number = out_message_type
+
+                    xdrOut.writeInt(transactionHandle);
+                    xdrOut.writeInt(getHandle());
+                    xdrOut.writeInt(getConnectionDialect());
+                    xdrOut.writeString(statementText, getEncoding());
+
+                    // information request items
+                    xdrOut.writeBuffer(null);
+                    xdrOut.writeInt(0);
+                    xdrOut.flush();
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+                }
+                int expectedResponseCount = 2;
+                try {
+                    try {
+                        // The server always sends an op_sql_response, with a message if there is an output row
+                        expectedResponseCount--;
+                        final SqlResponse sqlResponse = readSqlResponse(null);
+                        final RowValue result = hasOutput && sqlResponse.getCount() > 0
+                                ? messageCodec.readSqlData(outputDescriptor)
+                                : null;
+                        expectedResponseCount--;
+                        readGenericResponse(null);
+                        return result;
+                    } finally {
+                        consumePackets(expectedResponseCount, null);
+                    }
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+                }
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Statement instance (without server handle) used to write and read the messages of
+     * {@link #executeImmediate(String, FbTransaction, RowDescriptor, RowValue, RowDescriptor)} in the format of the
+     * protocol version.
+     * <p>
+     * Must be called while holding the lock of {@link #withLock()}.
+     * </p>
+     */
+    private V10Statement getMessageCodec() {
+        if (messageCodec == null) {
+            messageCodec = (V10Statement) protocolDescriptor.createStatement(this);
+        }
+        return messageCodec;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code op_get_slice}; the elements are decoded from the {@code op_slice} response by
+     * {@link SliceCodec}.
+     * </p>
+     */
+    @Override
+    public final Object getArraySlice(FbTransaction transaction, long arrayId, ArrayDescriptor arrayDescriptor)
+            throws SQLException {
+        try {
+            checkAttached();
+            checkTransactionActive(transaction);
+            try (LockCloseable ignored = withLock()) {
+                final int transactionHandle = getOperationHandle(transaction);
+                try {
+                    final XdrOutputStream xdrOut = getXdrOut();
+                    xdrOut.writeInt(op_get_slice);
+                    xdrOut.writeInt(transactionHandle);
+                    xdrOut.writeLong(arrayId);
+                    xdrOut.writeInt(arrayDescriptor.getSliceLength());
+                    xdrOut.writeBuffer(arrayDescriptor.getSdl());
+                    xdrOut.writeInt(0); // parameters
+                    xdrOut.writeInt(0); // slice
+                    xdrOut.flush();
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+                }
+                try {
+                    final int operation = wireOperations.readNextOperation();
+                    if (operation != op_slice) {
+                        // Errors are sent as op_response
+                        wireOperations.readOperationResponse(operation, null);
+                        throw new FbExceptionBuilder()
+                                .nonTransientException(JaybirdErrorCodes.jb_unexpectedOperationCode)
+                                .messageParameter(operation)
+                                .messageParameter("getArraySlice")
+                                .toFlatSQLException();
+                    }
+                    final XdrInputStream xdrIn = getXdrIn();
+                    xdrIn.readInt(); // slice length
+                    return SliceCodec.readSlice(xdrIn, arrayDescriptor, xdrIn.readInt());
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+                }
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implemented with {@code op_put_slice}; the elements are encoded by {@link SliceCodec}.
+     * </p>
+     */
+    @Override
+    public final long putArraySlice(FbTransaction transaction, ArrayDescriptor arrayDescriptor, Object flatArray)
+            throws SQLException {
+        try {
+            checkAttached();
+            checkTransactionActive(transaction);
+            arrayDescriptor.checkFlatArray(flatArray);
+            try (LockCloseable ignored = withLock()) {
+                final int transactionHandle = getOperationHandle(transaction);
+                try {
+                    final XdrOutputStream xdrOut = getXdrOut();
+                    xdrOut.writeInt(op_put_slice);
+                    xdrOut.writeInt(transactionHandle);
+                    xdrOut.writeLong(0); // new array
+                    xdrOut.writeInt(arrayDescriptor.getSliceLength());
+                    xdrOut.writeBuffer(arrayDescriptor.getSdl());
+                    xdrOut.writeInt(0); // parameters
+                    xdrOut.writeInt(arrayDescriptor.getSliceLength());
+                    SliceCodec.writeSlice(xdrOut, arrayDescriptor, flatArray);
+                    xdrOut.flush();
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+                }
+                try {
+                    return readGenericResponse(null).getBlobId();
+                } catch (IOException ex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+                }
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads the blobs in chunks of at most 128 blobs. For each chunk, it sends the
+     * {@code op_open_blob} of all blobs in one roundtrip, and a single {@code op_get_segment} for all opened blobs in
+     * a second roundtrip. Only blobs that are completely returned by that {@code op_get_segment} are read, so at most
+     * 32765 bytes per blob. The blobs are closed with {@link #closeBlobs(int[], int)}.
+     * </p>
+     */
+    @Override
+    public byte[][] readBlobs(FbTransaction transaction, long[] blobIds, int maxLength) throws SQLException {
+        try {
+            checkAttached();
+            checkTransactionActive(transaction);
+            final byte[][] content = new byte[blobIds.length][];
+            try (LockCloseable ignored = withLock()) {
+                for (int offset = 0; offset < blobIds.length; offset += MAX_BLOBS_PER_ROUNDTRIP) {
+                    readBlobs((FbWireTransaction) transaction, blobIds, offset,
+                            Math.min(blobIds.length - offset, MAX_BLOBS_PER_ROUNDTRIP), maxLength, content);
+                }
+            }
+            return content;
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a chunk of blobs, see {@link #readBlobs(FbTransaction, long[], int)}.
+     *
+     * @param transaction
+     *         Transaction
+     * @param blobIds
+     *         Ids of the blobs
+     * @param offset
+     *         Index of the first blob of the chunk in {@code blobIds}
+     * @param count
+     *         Number of blobs in the chunk
+     * @param maxLength
+     *         Maximum length in bytes of a blob to read
+     * @param content
+     *         Array receiving the content of the blobs, at the same index as in {@code blobIds}
+     * @throws SQLException
+     *         For errors communicating with the server
+     */
+    private void readBlobs(FbWireTransaction transaction, long[] blobIds, int offset, int count, int maxLength,
+            byte[][] content) throws SQLException {
+        final int segmentRequestSize = 2 + Math.min(maxLength, MAX_BLOB_READ_LENGTH);
+        final int transactionHandle = transaction.getOperationHandle();
+        final XdrOutputStream xdrOut = getXdrOut();
+        try {
+            for (int idx = offset; idx < offset + count; idx++) {
+                xdrOut.writeInt(op_open_blob);
+                xdrOut.writeInt(transactionHandle);
+                xdrOut.writeLong(blobIds[idx]);
+            }
+            xdrOut.flush();
+        } catch (IOException ex) {
+            throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+        }
+        final int[] handles = new int[count];
+        final int[] indices = new int[count];
+        int openCount = 0;
+        try {
+            for (int idx = offset; idx < offset + count; idx++) {
+                try {
+                    handles[openCount] = readGenericResponse(null).getObjectHandle();
+                    indices[openCount++] = idx;
+                } catch (SQLException e) {
+                    log.debug("Exception opening blob " + blobIds[idx], e);
+                }
+            }
+        } catch (IOException ex) {
+            throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+        }
+        if (openCount == 0) {
+            return;
+        }
+
+        try {
+            try {
+                for (int idx = 0; idx < openCount; idx++) {
+                    xdrOut.writeInt(op_get_segment);
+                    xdrOut.writeInt(handles[idx]);
+                    xdrOut.writeInt(segmentRequestSize);
+                    xdrOut.writeInt(0); // length of segment send buffer (always 0 in get)
+                }
+                xdrOut.flush();
+            } catch (IOException ex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+            }
+            int blobBytes = 0;
+            try {
+                for (int idx = 0; idx < openCount; idx++) {
+                    try {
+                        final byte[] blobContent = decodeBlobContent(readGenericResponse(null), maxLength);
+                        if (blobContent != null) {
+                            content[indices[idx]] = blobContent;
+                            blobBytes += blobContent.length;
+                        }
+                    } catch (SQLException e) {
+                        log.debug("Exception reading blob " + blobIds[indices[idx]], e);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+            }
+            final MetricsListener metricsListener = getMetricsListener();
+            if (metricsListener != null && blobBytes > 0) {
+                metricsListener.blobBytes(blobBytes);
+            }
+        } finally {
+            closeBlobs(handles, openCount);
+        }
+    }
+
+    /**
+     * Obtains the handle of a transaction to write in an operation, see {@link FbWireTransaction#getOperationHandle()}.
+     *
+     * @param transaction
+     *         Transaction
+     * @return Handle of the transaction
+     * @throws SQLException
+     *         If the transaction has no valid handle
+     */
+    private static int getOperationHandle(FbTransaction transaction) throws SQLException {
+        return ((FbWireTransaction) transaction).getOperationHandle();
+    }
+
+    /**
+     * Decodes the response to the {@code op_get_segment} of a blob read by
+     * {@link #readBlobs(FbTransaction, long[], int)}.
+     *
+     * @param response
+     *         Response to the {@code op_get_segment}
+     * @param maxLength
+     *         Maximum length in bytes of the blob
+     * @return Content of the blob, or {@code null} if the response does not contain the end of the blob, or if the
+     * blob is longer than {@code maxLength}
+     */
+    static byte[] decodeBlobContent(GenericResponse response, int maxLength) {
+        // Object handle 2: end of blob reached (see V10InputBlob.getSegment)
+        if (response.getObjectHandle() != 2) {
+            return null;
+        }
+        final byte[] segments = response.getData();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(segments.length);
+        int position = 0;
+        while (position < segments.length) {
+            final int segmentLength = iscVaxInteger2(segments, position);
+            position += 2;
+            bos.write(segments, position, segmentLength);
+            position += segmentLength;
+        }
+        return bos.size() <= maxLength ? bos.toByteArray() : null;
+    }
+
+    /**
+     * Closes the blobs opened by {@link #readBlobs(FbTransaction, long[], int)}.
+     * <p>
+     * This implementation closes all blobs with one roundtrip.
+     * </p>
+     *
+     * @param handles
+     *         Blob handles
+     * @param count
+     *         Number of handles in {@code handles} to close
+     * @throws SQLException
+     *         For errors communicating with the server
+     */
+    protected void closeBlobs(int[] handles, int count) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            try {
+                for (int idx = 0; idx < count; idx++) {
+                    doReleaseObjectPacket(op_close_blob, handles[idx]);
+                }
+                getXdrOut().flush();
+            } catch (IOException ex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+            }
+            try {
+                for (int idx = 0; idx < count; idx++) {
+                    try {
+                        processReleaseObjectResponse(readResponse(null));
+                    } catch (SQLException e) {
+                        log.debug("Exception closing blob " + handles[idx], e);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
+            }
+        }
+    }
+
     @Override
     public void releaseObject(int operation, int objectId) throws SQLException {
         checkAttached();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 doReleaseObjectPacket(operation, objectId);
                 getXdrOut().flush();
@@ -489,7 +1013,7 @@ public class V10Database extends AbstractFbWireDatabase implements FbWireDatabas
         checkAttached();
         final int auxHandle;
         final int port;
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 final XdrOutputStream xdrOut = getXdrOut();
                 xdrOut.writeInt(op_connect_request);
@@ -22,6 +22,7 @@ import org.firebirdsql.gds.BlobParameterBuffer;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.gds.ng.wire.*;
 
@@ -51,13 +52,14 @@ public class V10InputBlob extends AbstractFbWireInputBlob implements FbWireBlob,
     @Override
     public void open() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobClosed();
 
                 final FbWireDatabase database = getDatabase();
-                synchronized (database.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = database.withLock()) {
+                    final int transactionHandle = getTransaction().getOperationHandle();
                     try {
                         final XdrOutputStream xdrOut = database.getXdrStreamAccess().getXdrOut();
                         final BlobParameterBuffer blobParameterBuffer = getBlobParameterBuffer();
@@ -67,7 +69,7 @@ public class V10InputBlob extends AbstractFbWireInputBlob implements FbWireBlob,
                             xdrOut.writeInt(op_open_blob2);
                             xdrOut.writeTyped(blobParameterBuffer);
                         }
-                        xdrOut.writeInt(getTransaction().getHandle());
+                        xdrOut.writeInt(transactionHandle);
                         xdrOut.writeLong(getBlobId());
                         xdrOut.flush();
                     } catch (IOException e) {
@@ -100,14 +102,14 @@ public class V10InputBlob extends AbstractFbWireInputBlob implements FbWireBlob,
             }
             // TODO Is this actually a real limitation, or are larger sizes possible?
             int actualSize = 2 + Math.min(sizeRequested, getMaximumSegmentSize());
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobOpen();
 
                 final GenericResponse response;
                 final FbWireDatabase database = getDatabase();
-                synchronized (database.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = database.withLock()) {
                     try {
                         final XdrOutputStream xdrOut = database.getXdrStreamAccess().getXdrOut();
                         xdrOut.writeInt(op_get_segment);
@@ -143,6 +145,7 @@ public class V10InputBlob extends AbstractFbWireInputBlob implements FbWireBlob,
                     bos.write(responseBuffer, position, segmentLength);
                     position += segmentLength;
                 }
+                recordBlobBytes(bos.size());
                 return bos.toByteArray();
             }
         } catch (SQLException e) {
@@ -154,12 +157,12 @@ public class V10InputBlob extends AbstractFbWireInputBlob implements FbWireBlob,
     @Override
     public void seek(int offset, SeekMode seekMode) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
 
                 final FbWireDatabase database = getDatabase();
-                synchronized (database.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = database.withLock()) {
                     try {
                         final XdrOutputStream xdrOut = database.getXdrStreamAccess().getXdrOut();
                         xdrOut.writeInt(op_seek_blob);
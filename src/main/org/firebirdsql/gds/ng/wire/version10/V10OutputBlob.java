@@ -23,6 +23,7 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbBlob;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.listeners.DatabaseListener;
 import org.firebirdsql.gds.ng.wire.*;
 
@@ -50,7 +51,7 @@ public class V10OutputBlob extends AbstractFbWireOutputBlob implements FbWireBlo
     @Override
     public void open() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobClosed();
@@ -60,7 +61,8 @@ public class V10OutputBlob extends AbstractFbWireOutputBlob implements FbWireBlo
                 }
 
                 final FbWireDatabase database = getDatabase();
-                synchronized (database.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = database.withLock()) {
+                    final int transactionHandle = getTransaction().getOperationHandle();
                     try {
                         final XdrOutputStream xdrOut = database.getXdrStreamAccess().getXdrOut();
                         final BlobParameterBuffer blobParameterBuffer = getBlobParameterBuffer();
@@ -70,7 +72,7 @@ public class V10OutputBlob extends AbstractFbWireOutputBlob implements FbWireBlo
                             xdrOut.writeInt(op_create_blob2);
                             xdrOut.writeTyped(blobParameterBuffer);
                         }
-                        xdrOut.writeInt(getTransaction().getHandle());
+                        xdrOut.writeInt(transactionHandle);
                         xdrOut.writeLong(FbBlob.NO_BLOB_ID);
                         xdrOut.flush();
                     } catch (IOException e) {
@@ -100,13 +102,13 @@ public class V10OutputBlob extends AbstractFbWireOutputBlob implements FbWireBlo
             if (segment.length == 0) {
                 throw new FbExceptionBuilder().exception(jb_blobPutSegmentEmpty).toSQLException();
             }
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkDatabaseAttached();
                 checkTransactionActive();
                 checkBlobOpen();
 
                 final FbWireDatabase database = getDatabase();
-                synchronized (database.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = database.withLock()) {
                     try {
                         final XdrOutputStream xdrOut = database.getXdrStreamAccess().getXdrOut();
                         // TODO Using op_batch_segments over op_put_segment doesn't seem to provide a real benefit in current implementation (see XdrOutputStream)
@@ -124,6 +126,7 @@ public class V10OutputBlob extends AbstractFbWireOutputBlob implements FbWireBlo
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(e).toSQLException();
                     }
                 }
+                recordBlobBytes(segment.length);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -23,6 +23,7 @@ import org.firebirdsql.gds.ServiceParameterBuffer;
 import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.wire.*;
 
 import java.io.IOException;
@@ -57,7 +58,7 @@ public class V10Service extends AbstractFbWireService implements FbWireService {
                 throw new SQLException("Already attached to a service");
             }
             final ServiceParameterBuffer spb = protocolDescriptor.createAttachServiceParameterBuffer(connection);
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     try {
                         sendAttachToBuffer(spb);
@@ -121,7 +122,7 @@ public class V10Service extends AbstractFbWireService implements FbWireService {
 
     @Override
     protected void internalDetach() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
@@ -165,7 +166,7 @@ public class V10Service extends AbstractFbWireService implements FbWireService {
             ServiceRequestBuffer serviceRequestBuffer, int maxBufferLength) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
                     xdrOut.writeInt(op_service_info);
@@ -196,7 +197,7 @@ public class V10Service extends AbstractFbWireService implements FbWireService {
     public void startServiceAction(ServiceRequestBuffer serviceRequestBuffer) throws SQLException {
         try {
             checkAttached();
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 try {
                     final XdrOutputStream xdrOut = getXdrOut();
                     xdrOut.writeInt(op_service_start);
@@ -228,7 +229,7 @@ public class V10Service extends AbstractFbWireService implements FbWireService {
      */
     protected final void closeConnection() throws IOException {
         if (!connection.isConnected()) return;
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 connection.close();
             } finally {
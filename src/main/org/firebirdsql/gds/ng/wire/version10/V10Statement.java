@@ -23,7 +23,9 @@ import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.*;
+import org.firebirdsql.gds.ng.monitor.StatementOperation;
 import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.util.SQLExceptionChainBuilder;
 
@@ -58,9 +60,9 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
     @Override
     public byte[] getSqlInfo(final byte[] requestItems, final int bufferLength) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
-                synchronized (getDatabase().getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
                     try {
                         sendInfoSql(requestItems, bufferLength);
                         getXdrOut().flush();
@@ -93,7 +95,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws SQLException
      */
     protected void sendInfoSql(final byte[] requestItems, final int bufferLength) throws IOException, SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(WireProtocolConstants.op_info_sql);
             xdrOut.writeInt(getHandle());
@@ -116,8 +118,8 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
 
     @Override
     protected void free(final int option) throws SQLException {
-        synchronized (getSynchronizationObject()) {
-            synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
+            try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
                 try {
                     doFreePacket(option);
                     getXdrOut().flush();
@@ -143,7 +145,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws SQLException
      */
     protected void doFreePacket(int option) throws SQLException, IOException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             sendFree(option);
 
             // Reset statement information
@@ -160,7 +162,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws SQLException
      */
     protected void sendFree(int option) throws IOException, SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(WireProtocolConstants.op_free_statement);
             xdrOut.writeInt(getHandle());
@@ -181,15 +183,16 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
     @Override
     public void prepare(final String statementText) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkTransactionActive(getTransaction());
                 final StatementState currentState = getState();
                 if (!isPrepareAllowed(currentState)) {
                     throw new SQLNonTransientException(String.format("Current statement state (%s) does not allow call to prepare", currentState));
                 }
                 resetAll();
+                final long startTime = startOperation();
                 final FbWireDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     if (currentState == StatementState.NEW) {
                         try {
                             sendAllocate();
@@ -222,6 +225,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
                     }
                 }
+                recordOperation(StatementOperation.PREPARE, startTime);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -238,10 +242,11 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws IOException
      */
     protected void sendPrepare(final String statementText) throws SQLException, IOException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            final int transactionHandle = getTransaction().getOperationHandle();
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(WireProtocolConstants.op_prepare_statement);
-            xdrOut.writeInt(getTransaction().getHandle());
+            xdrOut.writeInt(transactionHandle);
             xdrOut.writeInt(getHandle());
             xdrOut.writeInt(getDatabase().getConnectionDialect());
             xdrOut.writeString(statementText, getDatabase().getEncoding());
@@ -258,7 +263,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws SQLException
      */
     protected void processPrepareResponse(final GenericResponse genericResponse) throws SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             parseStatementInfo(genericResponse.getData());
             switchState(StatementState.PREPARED);
         }
@@ -266,11 +271,11 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
 
     public void setCursorName(String cursorName) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 // TODO Check other statement states?
 
-                synchronized (getDatabase().getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
                     try {
                         final XdrOutputStream xdrOut = getXdrOut();
                         xdrOut.writeInt(WireProtocolConstants.op_set_cursor);
@@ -302,14 +307,15 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
     public void execute(final RowValue parameters) throws SQLException {
         final StatementState initialState = getState();
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 checkTransactionActive(getTransaction());
                 validateParameters(parameters);
                 reset(false);
 
                 final FbWireDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                LockCloseable responseLock = db.withLock();
+                try {
                     switchState(StatementState.EXECUTING);
 
                     final StatementType statementType = getType();
@@ -334,6 +340,8 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
                     }
 
+                    responseLock = db.awaitResponses(responseLock);
+
                     final SQLExceptionChainBuilder<SQLException> chain = new SQLExceptionChainBuilder<>();
                     try {
                         final boolean hasFields = getFieldDescriptor() != null && getFieldDescriptor().getCount() > 0;
@@ -384,6 +392,8 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
                         switchState(StatementState.ERROR);
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
                     }
+                } finally {
+                    responseLock.close();
                 }
             }
         } catch (SQLException e) {
@@ -395,6 +405,17 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
         }
     }
 
+    /**
+     * Returns the handle of the transaction to send in the execute; must be called before the execute is written.
+     *
+     * @return Handle of the transaction to send in the execute
+     * @throws SQLException
+     *         If the transaction has no valid handle
+     */
+    protected int getExecuteTransactionHandle() throws SQLException {
+        return getTransaction().getOperationHandle();
+    }
+
     /**
      * Sends the execute (for <code>op_execute</code> or <code>op_execute2</code>) to the database.
      *
@@ -407,11 +428,12 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      */
     protected void sendExecute(final int operation, final RowValue parameters) throws IOException, SQLException {
         assert operation == WireProtocolConstants.op_execute || operation == WireProtocolConstants.op_execute2 : "Needs to be called with operation op_execute or op_execute2";
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            final int transactionHandle = getExecuteTransactionHandle();
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(operation);
             xdrOut.writeInt(getHandle());
-            xdrOut.writeInt(getTransaction().getHandle());
+            xdrOut.writeInt(transactionHandle);
 
             if (parameters != null && parameters.getCount() > 0) {
                 final RowDescriptor parameterDescriptor = getParameterDescriptor();
@@ -460,14 +482,17 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
     @Override
     public void fetchRows(int fetchSize) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 if (!getState().isCursorOpen()) {
                     throw new FbExceptionBuilder().exception(ISCConstants.isc_cursor_not_open).toSQLException();
                 }
                 if (isAllRowsFetched()) return;
 
-                synchronized (getDatabase().getSynchronizationObject()) {
+                final long startTime = startOperation();
+                final FbWireDatabase db = getDatabase();
+                LockCloseable responseLock = db.withLock();
+                try {
                     try {
                         sendFetch(fetchSize);
                         getXdrOut().flush();
@@ -475,13 +500,21 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
                         switchState(StatementState.ERROR);
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
                     }
+                    responseLock = db.awaitResponses(responseLock);
                     try {
                         processFetchResponse();
                     } catch (IOException ex) {
                         switchState(StatementState.ERROR);
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
                     }
+                } finally {
+                    responseLock.close();
+                }
+                if (isAllRowsFetched()) {
+                    getSqlCounts();
+                    // Note: we are not explicitly 'closing' the cursor here
                 }
+                recordOperation(StatementOperation.FETCH, startTime);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -491,12 +524,16 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
 
     /**
      * Process the fetch response by reading the returned rows and queuing them.
+     * <p>
+     * Only reads the responses of the fetch: when the end of the cursor is reached, the caller is responsible for
+     * retrieving the update counts.
+     * </p>
      *
      * @throws IOException
      * @throws SQLException
      */
     protected void processFetchResponse() throws IOException, SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withResponseLock()) {
             Response response;
             while (!isAllRowsFetched() && (response = getDatabase().readResponse(getStatementWarningCallback())) instanceof FetchResponse) {
                 final FetchResponse fetchResponse = (FetchResponse) response;
@@ -504,8 +541,6 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
                     queueRowData(readSqlData());
                 } else if (fetchResponse.getStatus() == ISCConstants.FETCH_NO_MORE_ROWS) {
                     setAllRowsFetched(true);
-                    getSqlCounts();
-                    // Note: we are not explicitly 'closing' the cursor here
                 } else {
                     // TODO Log, raise exception, or simply 'not possible'?
                     break;
@@ -523,7 +558,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws IOException
      */
     protected void sendFetch(int fetchSize) throws SQLException, IOException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(WireProtocolConstants.op_fetch);
             xdrOut.writeInt(getHandle());
@@ -540,19 +575,30 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws SQLException
      * @throws IOException
      */
-    protected RowValue readSqlData() throws SQLException, IOException {
-        final RowDescriptor rowDescriptor = getFieldDescriptor();
+    protected final RowValue readSqlData() throws SQLException, IOException {
+        return readSqlData(getFieldDescriptor());
+    }
+
+    /**
+     * Reads a single row (or output message) from the database.
+     *
+     * @param rowDescriptor
+     *         The row descriptor of the message
+     * @return Row as a list of {@link FieldValue} instances
+     * @throws SQLException
+     * @throws IOException
+     */
+    protected RowValue readSqlData(final RowDescriptor rowDescriptor) throws SQLException, IOException {
         final RowValue rowValue = rowDescriptor.createDefaultFieldValues();
-        final BlrCalculator blrCalculator = getDatabase().getBlrCalculator();
+        final RowCodec rowCodec = getRowCodec(rowDescriptor);
 
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withResponseLock()) {
             final XdrInputStream xdrIn = getXdrIn();
 
-            for (int idx = 0; idx < rowDescriptor.getCount(); idx++) {
-                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
+            final int count = rowCodec.getCount();
+            for (int idx = 0; idx < count; idx++) {
                 final FieldValue fieldValue = rowValue.getFieldValue(idx);
-                final int len = blrCalculator.calculateIoLength(fieldDescriptor);
-                byte[] buffer = readColumnData(xdrIn, len);
+                byte[] buffer = readColumnData(xdrIn, rowCodec.getIoLength(idx));
                 if (xdrIn.readInt() == NULL_INDICATOR_NULL)
                     buffer = null;
                 fieldValue.setFieldData(buffer);
@@ -594,16 +640,14 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      *         if an error occurs while writing to the underlying output stream
      */
     protected void writeSqlData(final RowDescriptor rowDescriptor, final RowValue fieldValues) throws IOException, SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
-            final BlrCalculator blrCalculator = getDatabase().getBlrCalculator();
+            final RowCodec rowCodec = getRowCodec(rowDescriptor);
             for (int idx = 0; idx < fieldValues.getCount(); idx++) {
                 final FieldValue fieldValue = fieldValues.getFieldValue(idx);
-                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
-                final int len = blrCalculator.calculateIoLength(fieldDescriptor, fieldValue);
+                final int len = rowCodec.getIoLength(idx, fieldValue);
                 final byte[] buffer = fieldValue.getFieldData();
-                final int fieldType = fieldDescriptor.getType();
-                writeColumnData(xdrOut, len, buffer, fieldType);
+                writeColumnData(xdrOut, len, buffer, rowCodec.getFieldType(idx));
                 // sqlind (null indicator)
                 xdrOut.writeInt(buffer != null ? NULL_INDICATOR_NOT_NULL : NULL_INDICATOR_NULL);
             }
@@ -655,7 +699,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      * @throws IOException
      */
     protected void sendAllocate() throws SQLException, IOException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
             xdrOut.writeInt(WireProtocolConstants.op_allocate_statement);
             xdrOut.writeInt(getDatabase().getHandle());
@@ -669,7 +713,7 @@ public class V10Statement extends AbstractFbWireStatement implements FbWireState
      *         GenericResponse
      */
     protected void processAllocateResponse(GenericResponse response) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             setHandle(response.getObjectHandle());
             setAllRowsFetched(false);
             switchState(StatementState.ALLOCATED);
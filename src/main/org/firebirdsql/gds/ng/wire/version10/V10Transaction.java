@@ -21,6 +21,7 @@ package org.firebirdsql.gds.ng.wire.version10;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.wire.FbWireDatabase;
 import org.firebirdsql.gds.ng.wire.FbWireTransaction;
 import org.firebirdsql.gds.ng.wire.GenericResponse;
@@ -77,10 +78,15 @@ public class V10Transaction extends AbstractFbTransaction implements FbWireTrans
         return handle;
     }
 
+    @Override
+    public int getOperationHandle() throws SQLException {
+        return getHandle();
+    }
+
     @Override
     public void commit() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 switchState(TransactionState.COMMITTING);
                 finishTransaction(op_commit);
                 switchState(TransactionState.COMMITTED);
@@ -100,7 +106,7 @@ public class V10Transaction extends AbstractFbTransaction implements FbWireTrans
     @Override
     public void rollback() throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 switchState(TransactionState.ROLLING_BACK);
                 finishTransaction(op_rollback);
                 switchState(TransactionState.ROLLED_BACK);
@@ -120,11 +126,12 @@ public class V10Transaction extends AbstractFbTransaction implements FbWireTrans
     private void finishTransaction(final int commitOrRollback) throws SQLException {
         assert commitOrRollback == op_commit || commitOrRollback == op_rollback
                 : "Unsupported operation code " + commitOrRollback;
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            final int transactionHandle = getOperationHandle();
             try {
                 final XdrOutputStream xdrOut = getXdrOut();
                 xdrOut.writeInt(commitOrRollback);
-                xdrOut.writeInt(handle);
+                xdrOut.writeInt(transactionHandle);
                 xdrOut.flush();
             } catch (IOException ioex) {
                 throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ioex).toSQLException();
@@ -140,18 +147,19 @@ public class V10Transaction extends AbstractFbTransaction implements FbWireTrans
     @Override
     public void prepare(byte[] recoveryInformation) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 switchState(TransactionState.PREPARING);
-                synchronized (getDatabase().getSynchronizationObject()) {
+                try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
+                    final int transactionHandle = getOperationHandle();
                     try {
                         final XdrOutputStream xdrOut = getXdrOut();
                         if (recoveryInformation != null) {
                             xdrOut.writeInt(op_prepare2);
-                            xdrOut.writeInt(handle);
+                            xdrOut.writeInt(transactionHandle);
                             xdrOut.writeBuffer(recoveryInformation);
                         } else {
                             xdrOut.writeInt(op_prepare);
-                            xdrOut.writeInt(handle);
+                            xdrOut.writeInt(transactionHandle);
                         }
                         xdrOut.flush();
                     } catch (IOException ioex) {
@@ -178,12 +186,13 @@ public class V10Transaction extends AbstractFbTransaction implements FbWireTrans
     @Override
     public byte[] getTransactionInfo(byte[] requestItems, int maxBufferLength) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
-                synchronized (getDatabase().getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
+                try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
+                    final int transactionHandle = getOperationHandle();
                     try {
                         final XdrOutputStream xdrOut = getXdrOut();
                         xdrOut.writeInt(op_info_transaction);
-                        xdrOut.writeInt(getHandle());
+                        xdrOut.writeInt(transactionHandle);
                         xdrOut.writeInt(0); // incarnation(?)
                         xdrOut.writeBuffer(requestItems);
                         xdrOut.writeInt(maxBufferLength);
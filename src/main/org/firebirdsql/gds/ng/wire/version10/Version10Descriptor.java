@@ -25,6 +25,7 @@ import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.ServiceParameterBufferImp;
 import org.firebirdsql.gds.impl.ServiceRequestBufferImp;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.wire.DefaultBlrCalculator;
 import org.firebirdsql.gds.ng.ParameterConverter;
@@ -107,8 +108,8 @@ public final class Version10Descriptor extends AbstractProtocolDescriptor implem
 
     @Override
     public FbWireOperations createWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        return new V10WireOperations(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        return new V10WireOperations(connection, defaultWarningMessageCallback, lock);
     }
 
     @Override
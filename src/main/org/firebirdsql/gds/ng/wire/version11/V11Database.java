@@ -19,12 +19,12 @@
 package org.firebirdsql.gds.ng.wire.version11;
 
 import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.TransactionParameterBuffer;
+import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
-import org.firebirdsql.gds.ng.wire.DeferredAction;
-import org.firebirdsql.gds.ng.wire.ProtocolDescriptor;
-import org.firebirdsql.gds.ng.wire.Response;
-import org.firebirdsql.gds.ng.wire.WireDatabaseConnection;
+import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.gds.ng.wire.version10.V10Database;
 
 import java.io.IOException;
@@ -40,6 +40,9 @@ import static org.firebirdsql.gds.impl.wire.WireProtocolConstants.*;
  */
 public class V11Database extends V10Database {
 
+    // Transaction of a pipelined op_transaction whose response has not been received yet; guarded by lock
+    private V11Transaction pendingTransaction;
+
     /**
      * Creates a V11Database instance.
      *
@@ -57,10 +60,150 @@ public class V11Database extends V10Database {
         wireOperations.enqueueDeferredAction(deferredAction);
     }
 
+    /**
+     * Flushes the output and processes the responses of all deferred actions.
+     *
+     * @throws SQLException
+     *         For errors writing to the connection
+     */
+    final void processDeferredActions() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            try {
+                getXdrOut().flush();
+            } catch (IOException ex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
+            }
+            wireOperations.processDeferredActions();
+        }
+    }
+
+    /**
+     * @return {@code true} if transaction start and commit are sent with the next operation (connection property
+     * {@code pipelineTransactions})
+     */
+    public final boolean isPipelineTransactions() {
+        return connection.getAttachProperties().isPipelineTransactions();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If transaction pipelining is enabled, the {@code op_transaction} is not flushed, but sent with the next
+     * operation, and its response is processed as a deferred action. Only the first execute of a statement or the
+     * commit of the transaction is sent with the {@code op_transaction} (see
+     * {@link #getPipelinedTransactionHandle(FbWireTransaction)}); any other use of the transaction first receives the
+     * response. Errors starting the transaction are reported by the next operation on the transaction.
+     * </p>
+     */
+    @Override
+    public FbWireTransaction startTransaction(TransactionParameterBuffer tpb) throws SQLException {
+        if (!isPipelineTransactions()) {
+            return super.startTransaction(tpb);
+        }
+        try {
+            checkAttached();
+            try (LockCloseable ignored = withLock()) {
+                // The op_transaction creates an object
+                resolvePendingTransaction();
+                final V11Transaction transaction = V11Transaction.createPending(this);
+                try {
+                    final XdrOutputStream xdrOut = getXdrOut();
+                    xdrOut.writeInt(op_transaction);
+                    xdrOut.writeInt(getHandle());
+                    xdrOut.writeTyped(tpb);
+                    // NOTE: Intentionally no flush!
+                    enqueueDeferredAction(new DeferredAction() {
+                        @Override
+                        public void processResponse(Response response) {
+                            if (pendingTransaction == transaction) {
+                                pendingTransaction = null;
+                            }
+                            transaction.processStartResponse(response);
+                        }
+
+                        @Override
+                        public WarningMessageCallback getWarningMessageCallback() {
+                            return null;
+                        }
+                    });
+                } catch (IOException ioex) {
+                    throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ioex)
+                            .toSQLException();
+                }
+                pendingTransaction = transaction;
+                transactionAdded(transaction);
+                return transaction;
+            }
+        } catch (SQLException ex) {
+            exceptionListenerDispatcher.errorOccurred(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Receives the response of a pipelined {@code op_transaction} (if any).
+     * <p>
+     * Needs to be called before writing an operation that creates an object on the server without receiving its
+     * response (eg a deferred {@code op_allocate_statement}): the pending transaction can only be referenced with
+     * {@code INVALID_OBJECT} as long as it is the last object created on the server.
+     * </p>
+     *
+     * @throws SQLException
+     *         For errors writing to the connection
+     */
+    final void resolvePendingTransaction() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (pendingTransaction != null) {
+                processDeferredActions();
+                // No response received, the connection is probably broken: next operation will fail
+                pendingTransaction = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the handle to write for a transaction in an operation that is sent together with the pipelined
+     * {@code op_transaction} of that transaction.
+     * <p>
+     * For the pending transaction this is {@code INVALID_OBJECT}, which the server resolves to the last object it
+     * created: the transaction (see {@link #resolvePendingTransaction()}). The caller must receive the response of
+     * the operation, which first receives the response of the {@code op_transaction}, and report a failed start
+     * (see {@link V11Transaction#getStartFailure()}) instead of the result of the operation. For any other
+     * transaction this is {@link FbWireTransaction#getOperationHandle()}.
+     * </p>
+     *
+     * @param transaction
+     *         Transaction
+     * @return Handle to write for the transaction
+     * @throws SQLException
+     *         If the transaction has no valid handle (eg because its pipelined start failed)
+     */
+    final int getPipelinedTransactionHandle(FbWireTransaction transaction) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (transaction == pendingTransaction) {
+                return INVALID_OBJECT;
+            }
+            return transaction.getOperationHandle();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation does not flush: the close responses are processed as deferred actions.
+     * </p>
+     */
+    @Override
+    protected void closeBlobs(int[] handles, int count) throws SQLException {
+        for (int idx = 0; idx < count; idx++) {
+            releaseObject(op_close_blob, handles[idx]);
+        }
+    }
+
     @Override
     public void releaseObject(int operation, int objectId) throws SQLException {
         checkAttached();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 doReleaseObjectPacket(operation, objectId);
                 // NOTE: Intentionally no flush!
@@ -20,12 +20,18 @@ package org.firebirdsql.gds.ng.wire.version11;
 
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.StatementState;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.monitor.StatementOperation;
 import org.firebirdsql.gds.ng.wire.DeferredAction;
 import org.firebirdsql.gds.ng.wire.FbWireDatabase;
+import org.firebirdsql.gds.ng.wire.FbWireTransaction;
 import org.firebirdsql.gds.ng.wire.Response;
 import org.firebirdsql.gds.ng.wire.version10.V10Statement;
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -40,6 +46,9 @@ import static org.firebirdsql.gds.ng.TransactionHelper.checkTransactionActive;
  * @since 3.0
  */
 public class V11Statement extends V10Statement {
+
+    private static final Logger log = LoggerFactory.getLogger(V11Statement.class);
+
     /**
      * Creates a new instance of V11Statement for the specified database.
      *
@@ -53,15 +62,21 @@ public class V11Statement extends V10Statement {
     @Override
     public void prepare(final String statementText) throws SQLException {
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
+                final FbWireDatabase db = getDatabase();
+                // Receive a pipelined transaction start first: a failed start ends the transaction, and the allocated
+                // statement becomes the last object created on the server
+                if (db instanceof V11Database) {
+                    ((V11Database) db).resolvePendingTransaction();
+                }
                 checkTransactionActive(getTransaction());
                 final StatementState currentState = getState();
                 if (!isPrepareAllowed(currentState)) {
                     throw new SQLNonTransientException(String.format("Current statement state (%s) does not allow call to prepare", currentState));
                 }
                 resetAll();
-                final FbWireDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                final long startTime = startOperation();
+                try (LockCloseable ignoredDbLock = db.withLock()) {
                     int expectedResponseCount = 0;
                     try {
                         if (currentState == StatementState.NEW) {
@@ -94,6 +109,7 @@ public class V11Statement extends V10Statement {
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
                     }
                 }
+                recordOperation(StatementOperation.PREPARE, startTime);
             }
         } catch (SQLException e) {
             exceptionListenerDispatcher.errorOccurred(e);
@@ -101,10 +117,67 @@ public class V11Statement extends V10Statement {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the execute was sent together with the pipelined {@code op_transaction} of its transaction, and the start of
+     * the transaction failed, the exception of the start is thrown instead of the result of the execute.
+     * </p>
+     */
+    @Override
+    public void execute(final RowValue parameters) throws SQLException {
+        final FbWireTransaction transaction = getTransaction();
+        try {
+            super.execute(parameters);
+        } catch (SQLException e) {
+            checkTransactionStart(transaction);
+            throw e;
+        }
+        checkTransactionStart(transaction);
+    }
+
+    /**
+     * Reports the failed pipelined start of the transaction of an execute.
+     *
+     * @param transaction
+     *         Transaction of the execute
+     * @throws SQLException
+     *         Exception of the failed start of the transaction
+     */
+    private void checkTransactionStart(FbWireTransaction transaction) throws SQLException {
+        if (!(transaction instanceof V11Transaction)) return;
+        final SQLException startFailure = ((V11Transaction) transaction).getStartFailure();
+        if (startFailure == null) return;
+        try (LockCloseable ignored = withLock()) {
+            // The execute did not run in the transaction; close a cursor it may have opened
+            closeCursor();
+        } catch (SQLException e) {
+            log.debug("Exception closing cursor after failed transaction start", e);
+        }
+        exceptionListenerDispatcher.errorOccurred(startFailure);
+        throw startFailure;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation sends the execute together with a pipelined {@code op_transaction} of the transaction
+     * (see {@link V11Database#getPipelinedTransactionHandle(FbWireTransaction)}).
+     * </p>
+     */
+    @Override
+    protected int getExecuteTransactionHandle() throws SQLException {
+        final FbWireDatabase db = getDatabase();
+        if (db instanceof V11Database) {
+            return ((V11Database) db).getPipelinedTransactionHandle(getTransaction());
+        }
+        return super.getExecuteTransactionHandle();
+    }
+
     @Override
     protected void free(final int option) throws SQLException {
-        synchronized (getSynchronizationObject()) {
-            synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
+            try (LockCloseable ignoredDbLock = getDatabase().withLock()) {
                 try {
                     doFreePacket(option);
                     // intentionally no flush
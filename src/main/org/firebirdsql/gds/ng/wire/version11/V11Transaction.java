@@ -0,0 +1,279 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire.version11;
+
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.LockCloseable;
+import org.firebirdsql.gds.ng.TransactionState;
+import org.firebirdsql.gds.ng.wire.FbWireDatabase;
+import org.firebirdsql.gds.ng.wire.GenericResponse;
+import org.firebirdsql.gds.ng.wire.Response;
+import org.firebirdsql.gds.ng.wire.version10.V10Transaction;
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+
+import static org.firebirdsql.gds.impl.wire.WireProtocolConstants.*;
+
+/**
+ * {@link org.firebirdsql.gds.ng.wire.FbWireTransaction} implementation for the version 11 wire protocol.
+ * <p>
+ * When transaction pipelining is enabled (connection property {@code pipelineTransactions}), the
+ * {@code op_transaction} that started this transaction is not sent immediately, but with the first execute of a
+ * statement or the commit; its response is processed as a deferred action (see
+ * {@link V11Database#startTransaction(org.firebirdsql.gds.TransactionParameterBuffer)}). Any other use of the handle
+ * while it is still unknown first receives the response of the {@code op_transaction}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public class V11Transaction extends V10Transaction {
+
+    private static final Logger log = LoggerFactory.getLogger(V11Transaction.class);
+
+    // Guarded by the lock of the database
+    private int handle;
+    private boolean handlePending;
+    private SQLException startFailure;
+
+    /**
+     * Creates a new instance of V11Transaction for the specified database.
+     *
+     * @param database
+     *         FbWireDatabase implementation
+     * @param transactionHandle
+     *         Transaction handle
+     * @param initialState
+     *         The initial state of the transaction (only <code>ACTIVE</code> or <code>PREPARED</code> allowed).
+     * @see V10Transaction#V10Transaction(FbWireDatabase, int, TransactionState)
+     */
+    public V11Transaction(FbWireDatabase database, int transactionHandle, TransactionState initialState) {
+        super(database, transactionHandle, initialState);
+        handle = transactionHandle;
+    }
+
+    /**
+     * Creates an active transaction for which the {@code op_transaction} has been written, but the response has not
+     * been received yet.
+     *
+     * @param database
+     *         V11Database implementation
+     * @return Transaction with a pending handle
+     */
+    static V11Transaction createPending(V11Database database) {
+        final V11Transaction transaction = new V11Transaction(database, INVALID_OBJECT, TransactionState.ACTIVE);
+        transaction.handlePending = true;
+        return transaction;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the response of the pipelined {@code op_transaction} has not been received yet, it is received first. If
+     * the start failed, the handle is not valid; operations must use {@link #getOperationHandle()}.
+     * </p>
+     */
+    @Override
+    public int getHandle() {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            if (handlePending) {
+                try {
+                    getDatabase().resolvePendingTransaction();
+                } catch (SQLException e) {
+                    log.debug("Exception receiving response of pipelined transaction start", e);
+                }
+                // No response received, the connection is probably broken: next operation will fail
+                handlePending = false;
+            }
+            return handle;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the pipelined start of this transaction failed, the exception of the start is thrown.
+     * </p>
+     */
+    @Override
+    public int getOperationHandle() throws SQLException {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            final int transactionHandle = getHandle();
+            checkStartFailure();
+            return transactionHandle;
+        }
+    }
+
+    @Override
+    protected V11Database getDatabase() {
+        return (V11Database) super.getDatabase();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the {@code op_transaction} of this transaction has not been sent yet, it is sent together with the
+     * {@code op_commit}.
+     * </p>
+     */
+    @Override
+    public void commit() throws SQLException {
+        final boolean pipelined;
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            checkStartFailure();
+            pipelined = handlePending;
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+        if (!pipelined) {
+            super.commit();
+            return;
+        }
+        try {
+            try (LockCloseable ignored = withLock()) {
+                switchState(TransactionState.COMMITTING);
+                commitWithStart();
+                switchState(TransactionState.COMMITTED);
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        if (hasStartFailed()) {
+            // Transaction was never started on the server, and is already rolled back by processStartResponse
+            return;
+        }
+        super.rollback();
+    }
+
+    @Override
+    public void prepare(byte[] recoveryInformation) throws SQLException {
+        try {
+            if (hasStartFailed()) {
+                throw startFailure;
+            }
+        } catch (SQLException e) {
+            exceptionListenerDispatcher.errorOccurred(e);
+            throw e;
+        }
+        super.prepare(recoveryInformation);
+    }
+
+    /**
+     * Processes the deferred response of the {@code op_transaction} that started this transaction.
+     *
+     * @param response
+     *         Response
+     */
+    void processStartResponse(Response response) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            handlePending = false;
+            final SQLException exception = getResponseException(response);
+            if (exception != null) {
+                log.debug("Pipelined transaction start failed", exception);
+                startFailure = exception;
+                exceptionListenerDispatcher.errorOccurred(exception);
+                // The transaction does not exist on the server, so it must no longer be used
+                try {
+                    switchState(TransactionState.ROLLING_BACK);
+                    switchState(TransactionState.ROLLED_BACK);
+                } catch (SQLException e) {
+                    log.debug("Unable to end transaction after failed start", e);
+                }
+            } else if (response instanceof GenericResponse) {
+                handle = ((GenericResponse) response).getObjectHandle();
+            }
+        }
+    }
+
+    /**
+     * Sends the {@code op_commit} in the same flush as the pending {@code op_transaction}, and receives both
+     * responses.
+     *
+     * @throws SQLException
+     *         If starting or committing the transaction failed
+     */
+    private void commitWithStart() throws SQLException {
+        final V11Database database = getDatabase();
+        try (LockCloseable ignored = database.withLock()) {
+            try {
+                final XdrOutputStream xdrOut = getXdrOut();
+                xdrOut.writeInt(op_commit);
+                xdrOut.writeInt(database.getPipelinedTransactionHandle(this));
+                xdrOut.flush();
+            } catch (IOException ioex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ioex).toSQLException();
+            }
+            try {
+                // Processes the response of the op_transaction before reading the response of the op_commit
+                database.readResponse(null);
+            } catch (SQLException e) {
+                checkStartFailure();
+                throw e;
+            } catch (IOException ioex) {
+                throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ioex).toSQLException();
+            }
+            checkStartFailure();
+        }
+    }
+
+    /**
+     * @return Exception of the failed pipelined start of this transaction, or {@code null} if the start has not
+     * failed (or its response has not been received yet)
+     */
+    SQLException getStartFailure() {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            return startFailure;
+        }
+    }
+
+    private boolean hasStartFailed() {
+        try (LockCloseable ignored = getDatabase().withLock()) {
+            // Make sure the response of the pipelined start has been received
+            getHandle();
+            return startFailure != null;
+        }
+    }
+
+    private void checkStartFailure() throws SQLException {
+        if (startFailure != null) {
+            throw startFailure;
+        }
+    }
+
+    private static SQLException getResponseException(Response response) {
+        if (response instanceof GenericResponse) {
+            final SQLException exception = ((GenericResponse) response).getException();
+            if (exception != null && !(exception instanceof SQLWarning)) {
+                return exception;
+            }
+        }
+        return null;
+    }
+}
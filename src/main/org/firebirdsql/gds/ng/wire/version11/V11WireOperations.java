@@ -18,6 +18,8 @@
  */
 package org.firebirdsql.gds.ng.wire.version11;
 
+import org.firebirdsql.gds.ng.DriverLock;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.wire.DeferredAction;
 import org.firebirdsql.gds.ng.wire.WireConnection;
@@ -37,26 +39,34 @@ public class V11WireOperations extends V10WireOperations {
     private static final Logger log = LoggerFactory.getLogger(V11WireOperations.class);
 
     /**
-     * Actions on this object need to be synchronized on {@link #getSynchronizationObject()}.
+     * Actions on this object need to hold the lock of {@link #withLock()}.
      */
     private final List<DeferredAction> deferredActions = new ArrayList<>();
 
     public V11WireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        super(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        super(connection, defaultWarningMessageCallback, lock);
     }
 
     @Override
     public final void enqueueDeferredAction(DeferredAction deferredAction) {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             deferredActions.add(deferredAction);
         }
     }
 
+    @Override
+    protected final boolean hasDeferredActions() {
+        try (LockCloseable ignored = withLock()) {
+            return !deferredActions.isEmpty();
+        }
+    }
+
     @Override
     public final void processDeferredActions() {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (deferredActions.size() == 0) return;
+            awaitPipelineDrained();
 
             final DeferredAction[] actions = deferredActions.toArray(new DeferredAction[0]);
             deferredActions.clear();
@@ -25,6 +25,7 @@ import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.ServiceParameterBufferImp;
 import org.firebirdsql.gds.impl.ServiceRequestBufferImp;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.wire.DefaultBlrCalculator;
 import org.firebirdsql.gds.ng.ParameterConverter;
@@ -75,7 +76,7 @@ public final class Version11Descriptor extends AbstractProtocolDescriptor implem
     @Override
     public FbWireTransaction createTransaction(final FbWireDatabase database, final int transactionHandle,
             final TransactionState initialState) {
-        return new V10Transaction(database, transactionHandle, initialState);
+        return new V11Transaction(database, transactionHandle, initialState);
     }
 
     @Override
@@ -111,7 +112,7 @@ public final class Version11Descriptor extends AbstractProtocolDescriptor implem
 
     @Override
     public FbWireOperations createWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        return new V11WireOperations(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        return new V11WireOperations(connection, defaultWarningMessageCallback, lock);
     }
 }
@@ -21,6 +21,7 @@ package org.firebirdsql.gds.ng.wire.version12;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.wire.FbWireDatabase;
 import org.firebirdsql.gds.ng.wire.version11.V11Statement;
@@ -49,17 +50,18 @@ public class V12Statement extends V11Statement {
     public void execute(final RowValue parameters) throws SQLException {
         final StatementState initialState = getState();
         try {
-            synchronized (getSynchronizationObject()) {
+            try (LockCloseable ignored = withLock()) {
                 checkStatementValid();
                 checkTransactionActive(getTransaction());
                 validateParameters(parameters);
                 reset(false);
 
                 final FbWireDatabase db = getDatabase();
-                synchronized (db.getSynchronizationObject()) {
+                final StatementType statementType = getType();
+                LockCloseable responseLock = db.withLock();
+                try {
                     switchState(StatementState.EXECUTING);
 
-                    final StatementType statementType = getType();
                     int expectedResponseCount = 0;
                     try {
                         if (statementType.isTypeWithSingletonResult()) {
@@ -73,6 +75,8 @@ public class V12Statement extends V11Statement {
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_write_err).cause(ex).toSQLException();
                     }
 
+                    responseLock = db.awaitResponses(responseLock);
+
                     final WarningMessageCallback statementWarningCallback = getStatementWarningCallback();
                     try {
                         final boolean hasFields = getFieldDescriptor() != null && getFieldDescriptor().getCount() > 0;
@@ -105,13 +109,15 @@ public class V12Statement extends V11Statement {
                         switchState(StatementState.ERROR);
                         throw new FbExceptionBuilder().exception(ISCConstants.isc_net_read_err).cause(ex).toSQLException();
                     }
+                } finally {
+                    responseLock.close();
+                }
 
-                    /* Note contrary to V10 (and V11) we need to split retrieving update counts from the actual execute
-                     * otherwise a cancel will not work.
-                     */
-                    if (!statementType.isTypeWithCursor() && statementType.isTypeWithUpdateCounts()) {
-                        getSqlCounts();
-                    }
+                /* Note contrary to V10 (and V11) we need to split retrieving update counts from the actual execute
+                 * otherwise a cancel will not work.
+                 */
+                if (!statementType.isTypeWithCursor() && statementType.isTypeWithUpdateCounts()) {
+                    getSqlCounts();
                 }
             }
         } catch (SQLException e) {
@@ -25,6 +25,7 @@ import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.ServiceParameterBufferImp;
 import org.firebirdsql.gds.impl.ServiceRequestBufferImp;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.ParameterConverter;
 import org.firebirdsql.gds.ng.TransactionState;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
@@ -32,6 +33,7 @@ import org.firebirdsql.gds.ng.fields.BlrCalculator;
 import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.gds.ng.wire.DefaultBlrCalculator;
 import org.firebirdsql.gds.ng.wire.version10.*;
+import org.firebirdsql.gds.ng.wire.version11.V11Transaction;
 import org.firebirdsql.gds.ng.wire.version11.V11WireOperations;
 
 /**
@@ -76,7 +78,7 @@ public final class Version12Descriptor extends AbstractProtocolDescriptor implem
     @Override
     public FbWireTransaction createTransaction(final FbWireDatabase database, final int transactionHandle,
             final TransactionState initialState) {
-        return new V10Transaction(database, transactionHandle, initialState);
+        return new V11Transaction(database, transactionHandle, initialState);
     }
 
     @Override
@@ -112,7 +114,7 @@ public final class Version12Descriptor extends AbstractProtocolDescriptor implem
 
     @Override
     public FbWireOperations createWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        return new V11WireOperations(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        return new V11WireOperations(connection, defaultWarningMessageCallback, lock);
     }
 }
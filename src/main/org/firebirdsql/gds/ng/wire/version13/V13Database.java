@@ -18,10 +18,15 @@
  */
 package org.firebirdsql.gds.ng.wire.version13;
 
+import org.firebirdsql.gds.impl.wire.XdrOutputStream;
 import org.firebirdsql.gds.ng.wire.ProtocolDescriptor;
 import org.firebirdsql.gds.ng.wire.WireDatabaseConnection;
 import org.firebirdsql.gds.ng.wire.version12.V12Database;
 
+import java.io.IOException;
+
+import static org.firebirdsql.gds.impl.wire.WireProtocolConstants.op_ping;
+
 /**
  * {@link org.firebirdsql.gds.ng.wire.FbWireDatabase} implementation for the version 13 wire protocol.
  *
@@ -43,4 +48,15 @@ public class V13Database extends V12Database {
         super(connection, descriptor);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sends {@code op_ping}.
+     * </p>
+     */
+    @Override
+    protected void sendPing(XdrOutputStream xdrOut) throws IOException {
+        xdrOut.writeInt(op_ping);
+    }
+
 }
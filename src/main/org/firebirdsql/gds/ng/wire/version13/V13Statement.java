@@ -20,8 +20,10 @@ package org.firebirdsql.gds.ng.wire.version13;
 
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.*;
 import org.firebirdsql.gds.ng.wire.FbWireDatabase;
+import org.firebirdsql.gds.ng.wire.RowCodec;
 import org.firebirdsql.gds.ng.wire.version12.V12Statement;
 
 import java.io.IOException;
@@ -44,33 +46,34 @@ public class V13Statement extends V12Statement {
     }
 
     /**
-     * Reads a single row from the database.
+     * Reads a single row (or output message) from the database.
      *
+     * @param rowDescriptor
+     *         The row descriptor of the message
      * @return Row as a list of {@link FieldValue} instances
      * @throws SQLException
      * @throws IOException
      */
-    protected RowValue readSqlData() throws SQLException, IOException {
-        final RowDescriptor rowDescriptor = getFieldDescriptor();
+    @Override
+    protected RowValue readSqlData(final RowDescriptor rowDescriptor) throws SQLException, IOException {
         final RowValue rowValue = rowDescriptor.createDefaultFieldValues();
-        final BlrCalculator blrCalculator = getDatabase().getBlrCalculator();
+        final RowCodec rowCodec = getRowCodec(rowDescriptor);
 
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withResponseLock()) {
             final XdrInputStream xdrIn = getXdrIn();
             final int nullBitsLen = (rowDescriptor.getCount() + 7) / 8;
             final byte[] nullBitsBytes = xdrIn.readRawBuffer(nullBitsLen);
             xdrIn.skipPadding(nullBitsLen);
             final BitSet nullBits = BitSet.valueOf(nullBitsBytes);
 
-            for (int idx = 0; idx < rowDescriptor.getCount(); idx++) {
-                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
+            final int count = rowCodec.getCount();
+            for (int idx = 0; idx < count; idx++) {
                 final FieldValue fieldValue = rowValue.getFieldValue(idx);
                 if (nullBits.get(idx)) {
                     fieldValue.setFieldData(null);
                     continue;
                 }
-                final int len = blrCalculator.calculateIoLength(fieldDescriptor);
-                final byte[] buffer = readColumnData(xdrIn, len);
+                final byte[] buffer = readColumnData(xdrIn, rowCodec.getIoLength(idx));
                 fieldValue.setFieldData(buffer);
             }
         }
@@ -88,9 +91,9 @@ public class V13Statement extends V12Statement {
      *         if an error occurs while writing to the underlying output stream
      */
     protected void writeSqlData(final RowDescriptor rowDescriptor, final RowValue fieldValues) throws IOException, SQLException {
-        synchronized (getDatabase().getSynchronizationObject()) {
+        try (LockCloseable ignored = getDatabase().withLock()) {
             final XdrOutputStream xdrOut = getXdrOut();
-            final BlrCalculator blrCalculator = getDatabase().getBlrCalculator();
+            final RowCodec rowCodec = getRowCodec(rowDescriptor);
             // null indicator bitmap
             final BitSet nullBits = new BitSet(fieldValues.getCount());
             for (int idx = 0; idx < fieldValues.getCount(); idx++) {
@@ -111,11 +114,9 @@ public class V13Statement extends V12Statement {
                     continue;
                 }
                 final FieldValue fieldValue = fieldValues.getFieldValue(idx);
-                final FieldDescriptor fieldDescriptor = rowDescriptor.getFieldDescriptor(idx);
-                final int len = blrCalculator.calculateIoLength(fieldDescriptor, fieldValue);
+                final int len = rowCodec.getIoLength(idx, fieldValue);
                 final byte[] buffer = fieldValue.getFieldData();
-                final int fieldType = fieldDescriptor.getType();
-                writeColumnData(xdrOut, len, buffer, fieldType);
+                writeColumnData(xdrOut, len, buffer, rowCodec.getFieldType(idx));
             }
         }
     }
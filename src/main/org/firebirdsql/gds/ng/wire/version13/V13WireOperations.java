@@ -22,12 +22,14 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.wire.XdrInputStream;
 import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.wire.FbWireAttachment;
 import org.firebirdsql.gds.ng.wire.FbWireOperations;
 import org.firebirdsql.gds.ng.wire.GenericResponse;
 import org.firebirdsql.gds.ng.wire.WireConnection;
+import org.firebirdsql.gds.ng.wire.auth.AuthenticationPlugin;
 import org.firebirdsql.gds.ng.wire.auth.ClientAuthBlock;
 import org.firebirdsql.gds.ng.wire.version11.V11WireOperations;
 import org.firebirdsql.logging.Logger;
@@ -47,9 +49,11 @@ public class V13WireOperations extends V11WireOperations {
 
     private static final Logger log = LoggerFactory.getLogger(V13WireOperations.class);
 
+    private boolean authResponsePending;
+
     public V13WireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        super(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        super(connection, defaultWarningMessageCallback, lock);
     }
 
     @Override
@@ -60,6 +64,7 @@ public class V13WireOperations extends V11WireOperations {
         final XdrInputStream xdrIn = getXdrIn();
         final XdrOutputStream xdrOut = getXdrOut();
         final ClientAuthBlock clientAuthBlock = getClientAuthBlock();
+        final boolean connectPhase = acceptPacket != null;
         while (true) {
             String pluginName;
             byte[] data;
@@ -103,6 +108,11 @@ public class V13WireOperations extends V11WireOperations {
 
                 case op_response:
                     GenericResponse response = (GenericResponse) readOperationResponse(operation, null);
+                    if (authResponsePending) {
+                        // Response to the op_cont_auth of the connect phase, next is the response to the attach
+                        authResponsePending = false;
+                        continue;
+                    }
                     clientAuthBlock.setAuthComplete(true);
                     processAttachCallback.processAttachResponse(response);
 
@@ -130,7 +140,7 @@ public class V13WireOperations extends V11WireOperations {
 
             clientAuthBlock.setServerData(data);
             log.debug(String.format("receiveResponse: authenticate(%s)", clientAuthBlock.getCurrentPluginName()));
-            clientAuthBlock.authenticate();
+            final AuthenticationPlugin.AuthStatus authStatus = clientAuthBlock.authenticate();
 
             xdrOut.writeInt(op_cont_auth);
             // TODO Move to ClientAuthBlock?
@@ -143,6 +153,13 @@ public class V13WireOperations extends V11WireOperations {
                 xdrOut.writeBuffer(null); // p_list
             }
             xdrOut.writeBuffer(null); // p_keys
+            if (connectPhase && authStatus == AuthenticationPlugin.AuthStatus.AUTH_SUCCESS && isFastConnect()) {
+                // Fast connect: the plugin needs no further exchanges, so the op_attach can be sent together with
+                // this op_cont_auth; its response is read before the response to the attach
+                authResponsePending = true;
+                clientAuthBlock.setAuthComplete(true);
+                return;
+            }
             xdrOut.flush();
         }
 
@@ -26,12 +26,14 @@ import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.ServiceParameterBufferImp;
 import org.firebirdsql.gds.impl.ServiceRequestBufferImp;
 import org.firebirdsql.gds.impl.wire.WireProtocolConstants;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.ParameterConverter;
 import org.firebirdsql.gds.ng.TransactionState;
 import org.firebirdsql.gds.ng.WarningMessageCallback;
 import org.firebirdsql.gds.ng.fields.BlrCalculator;
 import org.firebirdsql.gds.ng.wire.*;
 import org.firebirdsql.gds.ng.wire.version10.*;
+import org.firebirdsql.gds.ng.wire.version11.V11Transaction;
 
 /**
  * The {@link org.firebirdsql.gds.ng.wire.ProtocolDescriptor} for the Firebird version 13 protocol. This version
@@ -79,7 +81,7 @@ public final class Version13Descriptor extends AbstractProtocolDescriptor implem
     @Override
     public FbWireTransaction createTransaction(final FbWireDatabase database, final int transactionHandle,
             final TransactionState initialState) {
-        return new V10Transaction(database, transactionHandle, initialState);
+        return new V11Transaction(database, transactionHandle, initialState);
     }
 
     @Override
@@ -115,7 +117,7 @@ public final class Version13Descriptor extends AbstractProtocolDescriptor implem
 
     @Override
     public FbWireOperations createWireOperations(WireConnection<?, ?> connection,
-            WarningMessageCallback defaultWarningMessageCallback, Object syncObject) {
-        return new V13WireOperations(connection, defaultWarningMessageCallback, syncObject);
+            WarningMessageCallback defaultWarningMessageCallback, DriverLock lock) {
+        return new V13WireOperations(connection, defaultWarningMessageCallback, lock);
     }
 }
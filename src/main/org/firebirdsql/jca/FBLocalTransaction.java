@@ -18,6 +18,7 @@
  */
 package org.firebirdsql.jca;
 
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.jdbc.FBConnection;
 import org.firebirdsql.jdbc.SQLStateConstants;
 
@@ -187,7 +188,7 @@ public class FBLocalTransaction implements FirebirdLocalTransaction,
         // transaction
         if (xid == null) return;
 
-        synchronized (mc) {
+        try (LockCloseable ignored = mc.withLock()) {
             try {
                 mc.internalEnd(xid, XAResource.TMSUCCESS);
                 mc.internalCommit(xid, true);
@@ -242,7 +243,7 @@ public class FBLocalTransaction implements FirebirdLocalTransaction,
         // transaction
         if (xid == null) return;
 
-        synchronized (mc) {
+        try (LockCloseable ignored = mc.withLock()) {
             try {
                 mc.internalEnd(xid, XAResource.TMSUCCESS); // ??? on flags
                                                            // --FBManagedConnection is its own XAResource
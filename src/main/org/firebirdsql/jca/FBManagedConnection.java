@@ -18,7 +18,6 @@
  */
 package org.firebirdsql.jca;
 
-import java.io.ByteArrayInputStream;
 import java.io.PrintWriter;
 import java.sql.*;
 import java.util.*;
@@ -41,6 +40,8 @@ import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.DefaultDatabaseListener;
 import org.firebirdsql.gds.ng.listeners.DefaultStatementListener;
 import org.firebirdsql.gds.ng.listeners.ExceptionListener;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
+import org.firebirdsql.gds.ng.monitor.RoundTripCounter;
 import org.firebirdsql.jdbc.*;
 import org.firebirdsql.jdbc.field.FBField;
 import org.firebirdsql.jdbc.field.FieldDataProvider;
@@ -85,6 +86,10 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
     private volatile boolean connectionSharing = true;
     private final Set<Xid> preparedXid = Collections.synchronizedSet(new HashSet<Xid>());
     private volatile boolean inDistributedTransaction = false;
+    // Guarded by lock
+    private boolean recoveryScanOpen;
+    private RetryPolicy retryPolicy;
+    private final DriverLock lock = new DriverLock();
 
     FBManagedConnection(Subject subject, ConnectionRequestInfo cri, FBManagedConnectionFactory mcf)
             throws ResourceException {
@@ -124,7 +129,14 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
                 connectionProperties.setDatabaseName(mcf.getDatabase());
             }
 
+            retryPolicy = RetryPolicy.forPropertyValue(connectionProperties.getRetryPolicy());
             database = mcf.getDatabaseFactory().connect(connectionProperties);
+            MetricsListener metricsListener = connectionProperties.isEnableMetrics() ? mcf.getDriverMetrics() : null;
+            if (connectionProperties.getSlowStatementThreshold() > 0) {
+                // Round-trips are reported in the slow statement log
+                metricsListener = new RoundTripCounter(metricsListener);
+            }
+            database.setMetricsListener(metricsListener);
             database.addDatabaseListener(new MCDatabaseListener());
             database.addExceptionListener(this);
             database.attach();
@@ -178,6 +190,15 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
         }
     }
     
+    /**
+     * Acquires the lock used to serialize local transaction boundaries and recovery scans of this managed connection.
+     *
+     * @return Closeable that releases the lock
+     */
+    LockCloseable withLock() {
+        return lock.withLock();
+    }
+
     /**
      * Get instance of {@link GDSHelper} connected with this managed connection.
      * 
@@ -191,6 +212,16 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
 
         return gdsHelper;
     }
+
+    /**
+     * Get the retry policy for failed statement executions of this connection.
+     *
+     * @return Retry policy, or {@code null} if executions are not retried
+     * @see org.firebirdsql.gds.ng.IConnectionProperties#setRetryPolicy(String)
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
     
     public String getDatabase() {
         return mcf.getDatabase();
@@ -722,6 +753,8 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
     
     private final static String FORGET_FIND_QUERY = "SELECT RDB$TRANSACTION_ID, RDB$TRANSACTION_DESCRIPTION "
                                                   + "FROM RDB$TRANSACTIONS WHERE RDB$TRANSACTION_STATE IN (2, 3)";
+    private final static String FORGET_FIND_QUERY_PARAMETRIZED = FORGET_FIND_QUERY
+            + " AND RDB$TRANSACTION_DESCRIPTION = CAST(? AS VARCHAR(32764) CHARACTER SET OCTETS)";
     private final static String FORGET_DELETE_QUERY = "DELETE FROM RDB$TRANSACTIONS WHERE RDB$TRANSACTION_ID = ";
 
     /**
@@ -738,55 +771,23 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
 
         try {
             // find XID
-            // TODO: Is there a reason why this piece of code can't use the JDBC Statement class?
-            FbTransaction trHandle2 = database.startTransaction(tpb.getTransactionParameterBuffer());
-            FbStatement stmtHandle2 = database.createStatement(trHandle2);
-
-            GDSHelper gdsHelper2 = new GDSHelper(database);
-            gdsHelper2.setCurrentTransaction(trHandle2);
-
-            stmtHandle2.prepare(FORGET_FIND_QUERY);
+            final List<FBXid> xids;
+            if (getGDSHelper().compareToVersion(2, 0) < 0) {
+                xids = queryInLimboXids(FORGET_FIND_QUERY, null);
+            } else {
+                xids = queryInLimboXids(FORGET_FIND_QUERY_PARAMETRIZED, id);
+            }
 
-            DataProvider dataProvider0 = new DataProvider(0);
-            stmtHandle2.addStatementListener(dataProvider0);
-            DataProvider dataProvider1 = new DataProvider(1);
-            stmtHandle2.addStatementListener(dataProvider1);
+            for (FBXid xid : xids) {
+                boolean gtridEquals = Arrays.equals(xid.getGlobalTransactionId(), id.getGlobalTransactionId());
+                boolean bqualEquals = Arrays.equals(xid.getBranchQualifier(), id.getBranchQualifier());
 
-            stmtHandle2.execute(RowValue.EMPTY_ROW_VALUE);
-            stmtHandle2.fetchRows(10);
-
-            FBField field0 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(0), dataProvider0, gdsHelper2, false);
-            FBField field1 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(1), dataProvider1, gdsHelper2, false);
-
-            int row = 0;
-            while(row < dataProvider0.getRowCount()) {
-                dataProvider0.setRow(row);
-                dataProvider1.setRow(row);
-                
-                long inLimboTxId = field0.getLong();
-                byte[] inLimboMessage = field1.getBytes();
-            
-                try {
-                    FBXid xid = new FBXid(new ByteArrayInputStream(inLimboMessage), inLimboTxId);
-                    
-                    boolean gtridEquals = Arrays.equals(xid.getGlobalTransactionId(), id.getGlobalTransactionId());
-                    boolean bqualEquals = Arrays.equals(xid.getBranchQualifier(), id.getBranchQualifier());
-                    
-                    if (gtridEquals && bqualEquals) {
-                        inLimboId = inLimboTxId;
-                        break;
-                    }
-                } catch(FBIncorrectXidException ex) {
-                    if (log != null)
-                        log.warn("incorrect XID format in RDB$TRANSACTIONS where RDB$TRANSACTION_ID=" + inLimboTxId, ex);
+                if (gtridEquals && bqualEquals) {
+                    inLimboId = xid.getFirebirdTransactionId();
+                    break;
                 }
-
-                row++;
             }
-
-            stmtHandle2.close();
-            trHandle2.commit();
-        } catch (SQLException | ResourceException ex) {
+        } catch (SQLException ex) {
             if (log != null)
                 log.debug("can't perform query to fetch xids", ex);
             throw new FBXAException(XAException.XAER_RMFAIL, ex);
@@ -802,9 +803,6 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
 
             FbStatement stmtHandle2 = database.createStatement(trHandle2);
 
-            GDSHelper gdsHelper2 = new GDSHelper(database);
-            gdsHelper2.setCurrentTransaction(trHandle2);
-
             stmtHandle2.prepare(FORGET_DELETE_QUERY + inLimboId);
             stmtHandle2.execute(RowValue.EMPTY_ROW_VALUE);
 
@@ -813,6 +811,7 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
         } catch (SQLException ex) {
             throw new FBXAException("can't perform query to fetch xids", XAException.XAER_RMFAIL, ex);
         }
+        mcf.forgetInLimboXid(id);
     }
 
     /**
@@ -894,7 +893,21 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
         return XA_OK;
     }
 
+    /**
+     * Number of rows fetched per round-trip when querying RDB$TRANSACTIONS.
+     */
+    private static final int RECOVERY_FETCH_SIZE = 400;
+
+    /**
+     * Selects transactions in limbo (1) and heuristically committed (2) or rolled back (3) with a description. Casting
+     * the description to VARCHAR avoids opening and reading a blob per transaction (requires Firebird 2.1 or higher).
+     */
     private static final String RECOVERY_QUERY =
+            "SELECT RDB$TRANSACTION_ID, CAST(RDB$TRANSACTION_DESCRIPTION AS VARCHAR(32764) CHARACTER SET OCTETS) "
+            + "FROM RDB$TRANSACTIONS "
+            + "WHERE RDB$TRANSACTION_STATE IN (1, 2, 3) AND RDB$TRANSACTION_DESCRIPTION IS NOT NULL";
+
+    private static final String RECOVERY_QUERY_LEGACY =
             "SELECT RDB$TRANSACTION_ID, RDB$TRANSACTION_DESCRIPTION "
             + "FROM RDB$TRANSACTIONS";
 
@@ -903,6 +916,11 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
      * The transaction manager calls this method during recovery to obtain the
      * list of transaction branches that are currently in prepared or
      * heuristically completed states.
+     * <p>
+     * All branches are returned by the call that starts the scan (TMSTARTRSCAN, or the first call without an open
+     * scan); subsequent calls of the same scan return an empty array. The recovered Xids are registered with the
+     * managed connection factory, so a following commit or rollback does not need to query for the Xid again.
+     * </p>
      *
      * @param flags
      *            One of TMSTARTRSCAN, TMENDRSCAN, TMNOFLAGS. TMNOFLAGS must be
@@ -920,58 +938,26 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
         if (flags != XAResource.TMSTARTRSCAN && flags != XAResource.TMENDRSCAN && flags != XAResource.TMNOFLAGS && flags != (XAResource.TMSTARTRSCAN|XAResource.TMENDRSCAN))
             throw new FBXAException("flag not allowed in this context: " + flags + ", valid flags are TMSTARTRSCAN, TMENDRSCAN, TMNOFLAGS, TMSTARTRSCAN|TMENDRSCAN", XAException.XAER_PROTO);
 
-        try {
-            // if (!((flags & XAResource.TMSTARTRSCAN) == 0))
-//            if ((flags & XAResource.TMENDRSCAN) == 0 && (flags & XAResource.TMNOFLAGS) == 0)
-//                return new Xid[0];
-
-            List<FBXid> xids = new ArrayList<>();
-
-            FbTransaction trHandle2 = database.startTransaction(tpb.getTransactionParameterBuffer());
-
-            FbStatement stmtHandle2 = database.createStatement(trHandle2);
-
-            GDSHelper gdsHelper2 = new GDSHelper(database);
-            gdsHelper2.setCurrentTransaction(trHandle2);
-
-            stmtHandle2.prepare(RECOVERY_QUERY);
-
-            DataProvider dataProvider0 = new DataProvider(0);
-            stmtHandle2.addStatementListener(dataProvider0);
-            DataProvider dataProvider1 = new DataProvider(1);
-            stmtHandle2.addStatementListener(dataProvider1);
-
-            stmtHandle2.execute(RowValue.EMPTY_ROW_VALUE);
-            stmtHandle2.fetchRows(10);
-
-            FBField field0 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(0), dataProvider0, gdsHelper2, false);
-            FBField field1 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(1), dataProvider1, gdsHelper2, false);
-
-            int row = 0;
-            while(row < dataProvider0.getRowCount()) {
-                dataProvider0.setRow(row);
-                dataProvider1.setRow(row);
-
-                long inLimboTxId = field0.getLong();
-                byte[] inLimboMessage = field1.getBytes();
+        try (LockCloseable ignored = withLock()) {
+            final boolean startScan = (flags & XAResource.TMSTARTRSCAN) != 0 || !recoveryScanOpen;
+            recoveryScanOpen = (flags & XAResource.TMENDRSCAN) == 0;
+            if (!startScan) {
+                // All Xids were returned when the scan was started
+                return new FBXid[0];
+            }
 
-                try {
-                    FBXid xid = new FBXid(new ByteArrayInputStream(inLimboMessage), inLimboTxId);
-                    xids.add(xid);
-                } catch(FBIncorrectXidException ex) {
-                    if (log != null)
-                        log.warn("ignoring XID stored with invalid format in RDB$TRANSACTIONS for RDB$TRANSACTION_ID=" + inLimboTxId);
+            try {
+                mcf.startRecoveryScan();
+                final List<FBXid> xids = queryInLimboXids(
+                        getGDSHelper().compareToVersion(2, 1) < 0 ? RECOVERY_QUERY_LEGACY : RECOVERY_QUERY, null);
+                for (FBXid xid : xids) {
+                    mcf.recover(this, xid);
                 }
-
-                row++;
+                return xids.toArray(new FBXid[0]);
+            } catch (SQLException e) {
+                recoveryScanOpen = false;
+                throw new FBXAException("can't perform query to fetch xids", XAException.XAER_RMFAIL, e);
             }
-
-            stmtHandle2.close();
-            trHandle2.commit();
-
-            return xids.toArray(new FBXid[0]);
-        } catch (SQLException | ResourceException e) {
-            throw new FBXAException("can't perform query to fetch xids", XAException.XAER_RMFAIL, e);
         }
     }
 
@@ -992,58 +978,82 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
      */
     protected Xid findSingleXid(Xid externalXid) throws javax.transaction.xa.XAException {
         try {
-            FbTransaction trHandle2 = database.startTransaction(tpb.getTransactionParameterBuffer());
-
-            FbStatement stmtHandle2 = database.createStatement(trHandle2);
+            final List<FBXid> xids = queryInLimboXids(RECOVERY_QUERY_PARAMETRIZED, externalXid);
+            return xids.isEmpty() ? null : xids.get(0);
+        } catch (SQLException e) {
+            throw new FBXAException("can't perform query to fetch xids", XAException.XAER_RMFAIL, e);
+        }
+    }
 
-            GDSHelper gdsHelper2 = new GDSHelper(database);
-            gdsHelper2.setCurrentTransaction(trHandle2);
+    /**
+     * Executes a query selecting the transaction id and transaction description from RDB$TRANSACTIONS, fetching all
+     * rows in batches of {@link #RECOVERY_FETCH_SIZE}.
+     *
+     * @param query
+     *            Query selecting RDB$TRANSACTION_ID and RDB$TRANSACTION_DESCRIPTION (as blob or varchar)
+     * @param parameterXid
+     *            Xid to use as the (only) parameter of the query, or {@code null} if the query has no parameters
+     * @return Xids decoded from the transaction descriptions; descriptions with an invalid format are skipped
+     * @throws SQLException
+     *            For errors executing the query
+     */
+    private List<FBXid> queryInLimboXids(String query, Xid parameterXid) throws SQLException {
+        final List<FBXid> xids = new ArrayList<>();
+        final FbTransaction trHandle2 = database.startTransaction(tpb.getTransactionParameterBuffer());
+        try {
+            final FbStatement stmtHandle2 = database.createStatement(trHandle2);
+            try {
+                GDSHelper gdsHelper2 = new GDSHelper(database);
+                gdsHelper2.setCurrentTransaction(trHandle2);
 
-            stmtHandle2.prepare(RECOVERY_QUERY_PARAMETRIZED);
+                stmtHandle2.prepare(query);
 
-            DataProvider dataProvider0 = new DataProvider(0);
-            stmtHandle2.addStatementListener(dataProvider0);
-            DataProvider dataProvider1 = new DataProvider(1);
-            stmtHandle2.addStatementListener(dataProvider1);
+                DataProvider dataProvider0 = new DataProvider(0);
+                stmtHandle2.addStatementListener(dataProvider0);
+                DataProvider dataProvider1 = new DataProvider(1);
+                stmtHandle2.addStatementListener(dataProvider1);
 
-            final RowValue parameters = stmtHandle2.getParameterDescriptor().createDefaultFieldValues();
-            FBXid tempXid = new FBXid(externalXid);
-            parameters.getFieldValue(0).setFieldData(tempXid.toBytes());
-            stmtHandle2.execute(parameters);
-            stmtHandle2.fetchRows(1);
+                RowValue parameters = RowValue.EMPTY_ROW_VALUE;
+                if (parameterXid != null) {
+                    parameters = stmtHandle2.getParameterDescriptor().createDefaultFieldValues();
+                    parameters.getFieldValue(0).setFieldData(new FBXid(parameterXid).toBytes());
+                }
+                stmtHandle2.execute(parameters);
+                while (!dataProvider0.isAllRowsFetched()) {
+                    stmtHandle2.fetchRows(RECOVERY_FETCH_SIZE);
+                }
 
-            FBField field0 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(0), dataProvider0, gdsHelper2, false);
-            FBField field1 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(1), dataProvider1, gdsHelper2, false);
+                FBField field0 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(0), dataProvider0, gdsHelper2, false);
+                FBField field1 = FBField.createField(stmtHandle2.getFieldDescriptor().getFieldDescriptor(1), dataProvider1, gdsHelper2, false);
 
-            FBXid xid = null;
-            if (dataProvider0.getRowCount() > 0) {
-                dataProvider0.setRow(0);
-                dataProvider1.setRow(0);
+                for (int row = 0; row < dataProvider0.getRowCount(); row++) {
+                    dataProvider0.setRow(row);
+                    dataProvider1.setRow(row);
 
-                long inLimboTxId = field0.getLong();
-                byte[] inLimboMessage = field1.getBytes();
+                    long inLimboTxId = field0.getLong();
+                    byte[] inLimboMessage = field1.getBytes();
 
-                try {
-                    xid = new FBXid(new ByteArrayInputStream(inLimboMessage), inLimboTxId);
-                } catch(FBIncorrectXidException ex) {
-                    if (log != null)
-                        log.warn("ignoring XID stored with invalid format in RDB$TRANSACTIONS for RDB$TRANSACTION_ID=" + inLimboTxId);
+                    try {
+                        xids.add(new FBXid(inLimboMessage, inLimboTxId));
+                    } catch (FBIncorrectXidException ex) {
+                        if (log != null)
+                            log.warn("ignoring XID stored with invalid format in RDB$TRANSACTIONS for RDB$TRANSACTION_ID=" + inLimboTxId);
+                    }
                 }
+            } finally {
+                stmtHandle2.close();
             }
-
-            stmtHandle2.close();
+        } finally {
             trHandle2.commit();
-
-            return xid;
-        } catch (SQLException | ResourceException e) {
-            throw new FBXAException("can't perform query to fetch xids", XAException.XAER_RMFAIL, e);
         }
+        return xids;
     }
 
     private static class DataProvider extends DefaultStatementListener implements FieldDataProvider {
         private final List<RowValue> rows = new ArrayList<>();
         private final int fieldPos;
         private int row;
+        private boolean allRowsFetched;
         
         private DataProvider(int fieldPos) {
             this.fieldPos = fieldPos;
@@ -1065,10 +1075,19 @@ public class FBManagedConnection implements ManagedConnection, XAResource, Excep
             return rows.size();
         }
 
+        public boolean isAllRowsFetched() {
+            return allRowsFetched;
+        }
+
         @Override
         public void receivedRow(FbStatement sender, RowValue rowValue) {
             rows.add(rowValue);
         }
+
+        @Override
+        public void allRowsFetched(FbStatement sender) {
+            allRowsFetched = true;
+        }
     }
     
     /**
@@ -30,10 +30,13 @@ import org.firebirdsql.gds.ng.FbDatabaseFactory;
 import org.firebirdsql.gds.ng.FbStatement;
 import org.firebirdsql.gds.ng.FbTransaction;
 import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.monitor.DriverMetrics;
+import org.firebirdsql.gds.ng.monitor.SharedDriverMetrics;
 import org.firebirdsql.jdbc.FBConnection;
 import org.firebirdsql.jdbc.FBConnectionProperties;
 import org.firebirdsql.jdbc.FBDataSource;
 import org.firebirdsql.jdbc.FirebirdConnectionProperties;
+import org.firebirdsql.jdbc.MetaDataCache;
 
 import javax.resource.NotSupportedException;
 import javax.resource.ResourceException;
@@ -93,8 +96,14 @@ public class FBManagedConnectionFactory implements ManagedConnectionFactory, Fir
 
     // Maps supplied XID to internal transaction handle.
     private transient final Map<Xid, FBManagedConnection> xidMap = new ConcurrentHashMap<>();
+    /**
+     * Index of Xids found by recovery (normalized to {@link FBXid}) to the Firebird id of the in limbo transaction.
+     */
+    private transient final Map<FBXid, Long> inLimboXids = new ConcurrentHashMap<>();
 
     private transient final Object startLock = new Object();
+    private transient final MetaDataCache metaDataCache = new MetaDataCache();
+    private transient volatile DriverMetrics driverMetrics;
     private transient boolean started = false;
 
     private FBConnectionProperties connectionProperties;
@@ -126,6 +135,41 @@ public class FBManagedConnectionFactory implements ManagedConnectionFactory, Fir
         return GDSFactory.getDatabaseFactoryForType(getGDSType());
     }
 
+    /**
+     * Gets the cache for {@link java.sql.DatabaseMetaData} results shared by the connections of this factory.
+     * <p>
+     * The cache is only used by connections with connection property {@code metaDataCacheTtl} set.
+     * </p>
+     *
+     * @return Metadata cache
+     */
+    public MetaDataCache getMetaDataCache() {
+        return metaDataCache;
+    }
+
+    /**
+     * Gets the driver metrics shared by the connections of this factory.
+     * <p>
+     * The metrics are acquired on first use, and shared with the other factories of the same database (see
+     * {@link SharedDriverMetrics}). They are only collected by connections with connection property
+     * {@code enableMetrics} set.
+     * </p>
+     *
+     * @return Driver metrics
+     */
+    public DriverMetrics getDriverMetrics() {
+        DriverMetrics currentMetrics = driverMetrics;
+        if (currentMetrics != null) {
+            return currentMetrics;
+        }
+        synchronized (startLock) {
+            if (driverMetrics == null) {
+                driverMetrics = SharedDriverMetrics.acquire(getDatabase(), this);
+            }
+            return driverMetrics;
+        }
+    }
+
     /**
      * Get the GDS implementation type around which this factory is based.
      * 
@@ -709,8 +753,40 @@ public class FBManagedConnectionFactory implements ManagedConnectionFactory, Fir
         xidMap.remove(xid);
     }
 
-    public void recover(FBManagedConnection mc, Xid xid) throws GDSException {
+    /**
+     * Discards the Xids registered by earlier recovery scans, as they may have been completed elsewhere since.
+     * <p>
+     * Called at the start of a recovery scan. Xids that are no longer registered are looked up in the database
+     * when they are completed.
+     * </p>
+     */
+    void startRecoveryScan() {
+        inLimboXids.clear();
+    }
+
+    /**
+     * Registers a Xid found by recovery, so completing it does not need to query the database for it again.
+     *
+     * @param mc
+     *            Managed connection that recovered the Xid
+     * @param xid
+     *            Recovered Xid
+     */
+    public void recover(FBManagedConnection mc, Xid xid) {
+        if (xid instanceof FBXid) {
+            FBXid fbXid = (FBXid) xid;
+            inLimboXids.put(fbXid, fbXid.getFirebirdTransactionId());
+        }
+    }
 
+    /**
+     * Removes a recovered Xid after its heuristic information has been removed.
+     *
+     * @param xid
+     *            Xid
+     */
+    void forgetInLimboXid(Xid xid) {
+        inLimboXids.remove(new FBXid(xid));
     }
 
     /**
@@ -740,7 +816,12 @@ public class FBManagedConnectionFactory implements ManagedConnectionFactory, Fir
                 long fbTransactionId = 0;
                 boolean found = false;
 
-                if (tempMc.getGDSHelper().compareToVersion(2, 0) < 0) {
+                Long recoveredTransactionId = inLimboXids.get(new FBXid(xid));
+                if (recoveredTransactionId != null) {
+                    // Xid was found by an earlier recovery scan
+                    found = true;
+                    fbTransactionId = recoveredTransactionId;
+                } else if (tempMc.getGDSHelper().compareToVersion(2, 0) < 0) {
                     // Find Xid by scanning
                     FBXid[] inLimboIds = (FBXid[]) tempMc.recover(XAResource.TMSTARTRSCAN);
                     for (FBXid inLimboId : inLimboIds) {
@@ -772,6 +853,7 @@ public class FBManagedConnectionFactory implements ManagedConnectionFactory, Fir
                 } else {
                     trHandle.rollback();
                 }
+                inLimboXids.remove(new FBXid(xid));
 
                 if (tempMc.getGDSHelper().compareToVersion(3, 0) < 0) {
                     // remove heuristic data from rdb$transactions (only possible in versions before Firebird 3)
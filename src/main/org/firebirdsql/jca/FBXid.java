@@ -125,6 +125,42 @@ class FBXid implements Xid {
         }
     }
 
+    /**
+     * Creates a new <code>FBXid</code> instance from the byte representation
+     * supplied, without the overhead of an <code>InputStream</code>.
+     *
+     * @param raw
+     *         Xid serialized in format of {@link #toBytes()}
+     * @param firebirdTransactionId
+     *         The Firebird transactionId of the recovered Xid.
+     * @throws FBIncorrectXidException
+     *         if <code>raw</code> is not a valid Xid representation
+     */
+    FBXid(byte[] raw, long firebirdTransactionId) throws FBIncorrectXidException {
+        this.firebirdTransactionId = firebirdTransactionId;
+        if (raw == null) {
+            throw new FBIncorrectXidException("No data for xid");
+        }
+        int pos = 0;
+        if (raw.length < 6 || raw[pos++] != TDR_VERSION) {
+            throw new FBIncorrectXidException("Wrong TDR_VERSION for xid");
+        }
+        if (raw[pos++] != TDR_XID_FORMAT_ID) {
+            throw new FBIncorrectXidException("Wrong TDR_XID_FORMAT_ID for xid");
+        }
+        formatId = readInt(raw, pos);
+        pos += 4;
+        if (pos >= raw.length || raw[pos++] != TDR_XID_GLOBAL_ID) {
+            throw new FBIncorrectXidException("Wrong TDR_XID_GLOBAL_ID for xid");
+        }
+        globalId = readBuffer(raw, pos);
+        pos += 4 + globalId.length;
+        if (pos >= raw.length || raw[pos++] != TDR_XID_BRANCH_ID) {
+            throw new FBIncorrectXidException("Wrong TDR_XID_BRANCH_ID for xid");
+        }
+        branchId = readBuffer(raw, pos);
+    }
+
     /**
      * @return the global transaction id of this transaction.
      */
@@ -228,6 +264,22 @@ class FBXid implements Xid {
         return b;
     }
 
+    private static int readInt(byte[] raw, int pos) throws FBIncorrectXidException {
+        if (pos + 4 > raw.length) {
+            throw new FBIncorrectXidException("Unexpected end of xid");
+        }
+        return ((raw[pos] & 0xff) << 24) | ((raw[pos + 1] & 0xff) << 16) | ((raw[pos + 2] & 0xff) << 8)
+                | (raw[pos + 3] & 0xff);
+    }
+
+    private static byte[] readBuffer(byte[] raw, int pos) throws FBIncorrectXidException {
+        final int len = readInt(raw, pos);
+        if (len < 0 || pos + 4 + len > raw.length) {
+            throw new FBIncorrectXidException("Unexpected end of xid");
+        }
+        return Arrays.copyOfRange(raw, pos + 4, pos + 4 + len);
+    }
+
     private int read(InputStream in) throws IOException {
         return in.read();
     }
@@ -29,6 +29,7 @@ import java.util.*;
 import org.firebirdsql.gds.DatabaseParameterBuffer;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
 import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.jdbc.escape.FBEscapedCallParser;
 import org.firebirdsql.jdbc.escape.FBEscapedParser.EscapeParserMode;
 import org.firebirdsql.jdbc.field.FBField;
@@ -113,7 +114,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
     }
 
     public ParameterMetaData getParameterMetaData() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             // TODO See http://tracker.firebirdsql.org/browse/JDBC-352
             notifyStatementStarted(false);
             prepareFixedStatement(procedureCall.getSQL(isSelectableProcedure()));
@@ -128,7 +129,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
     }
 
     public int[] executeBatch() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             boolean success = false;
             try {
                 notifyStatementStarted();
@@ -220,7 +221,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
      */
     public ResultSetMetaData getMetaData() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             // TODO See http://tracker.firebirdsql.org/browse/JDBC-352
             notifyStatementStarted(false);
             prepareFixedStatement(procedureCall.getSQL(isSelectableProcedure()));
@@ -242,7 +243,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
     public boolean execute() throws SQLException {
         procedureCall.checkParameters();
         boolean hasResultSet = false;
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             notifyStatementStarted();
 
             try {
@@ -267,7 +268,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
      */
     public ResultSet executeQuery() throws SQLException {
         procedureCall.checkParameters();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             notifyStatementStarted();
             prepareFixedStatement(procedureCall.getSQL(isSelectableProcedure()));
 
@@ -287,7 +288,7 @@ public abstract class AbstractCallableStatement extends FBPreparedStatement impl
      */
     public int executeUpdate() throws SQLException {
         procedureCall.checkParameters();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             try {
                 notifyStatementStarted();
                 prepareFixedStatement(procedureCall.getSQL(isSelectableProcedure()));
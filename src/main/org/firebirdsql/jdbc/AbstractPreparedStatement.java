@@ -25,12 +25,15 @@ import java.sql.*;
 import java.sql.Date;
 import java.util.*;
 
+import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.StatementType;
 import org.firebirdsql.gds.ng.fields.FieldDescriptor;
 import org.firebirdsql.gds.ng.fields.FieldValue;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
 import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.fields.RowValueBatch;
 import org.firebirdsql.jdbc.field.*;
 import org.firebirdsql.jdbc.field.FBFlushableField.CachedObject;
 
@@ -176,13 +179,23 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
     @Override
     public ResultSet executeQuery() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
-            notifyStatementStarted();
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
 
-            if (!internalExecute(isExecuteProcedureStatement))  
-                throw new FBSQLException("No resultset for sql", SQLStateConstants.SQL_STATE_NO_RESULT_SET);
+                final boolean hasResultSet;
+                try {
+                    hasResultSet = internalExecute(isExecuteProcedureStatement);
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
+                    continue;
+                }
+                if (!hasResultSet)
+                    throw new FBSQLException("No resultset for sql", SQLStateConstants.SQL_STATE_NO_RESULT_SET);
 
-            return getResultSet();
+                return getResultSet();
+            }
         }
     }
 
@@ -198,15 +211,22 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      */
     public int executeUpdate() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
-            notifyStatementStarted();
-            try {
-                if (internalExecute(isExecuteProcedureStatement) && !generatedKeys) {
-                    throw new FBSQLException("Update statement returned results.");
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
+                try {
+                    try {
+                        if (internalExecute(isExecuteProcedureStatement) && !generatedKeys) {
+                            throw new FBSQLException("Update statement returned results.");
+                        }
+                        return getUpdateCount();
+                    } finally {
+                        notifyStatementCompleted();
+                    }
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
                 }
-                return getUpdateCount();
-            } finally {
-                notifyStatementCompleted();
             }
         }
     }
@@ -728,15 +748,24 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      */
     public boolean execute() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
-            notifyStatementStarted();
-            
-            boolean hasResultSet = internalExecute(isExecuteProcedureStatement);
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
+
+                final boolean hasResultSet;
+                try {
+                    hasResultSet = internalExecute(isExecuteProcedureStatement);
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
+                    continue;
+                }
 
-            if (!hasResultSet) 
-                notifyStatementCompleted();
+                if (!hasResultSet)
+                    notifyStatementCompleted();
 
-            return hasResultSet;
+                return hasResultSet;
+            }
         }
     }
 
@@ -753,7 +782,7 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      */
     ResultSet executeMetaDataQuery() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             notifyStatementStarted();
 
             boolean hasResultSet = internalExecute(isExecuteProcedureStatement);
@@ -785,7 +814,7 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
         if (!canExecute)
             throw new FBMissingParameterException("Not all parameters were set.", isParamSet);
 
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             flushFields();
 
             try {
@@ -821,6 +850,10 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
 
     // TODO: AbstractCallableStatement adds FBProcedureCall, while AbstractPreparedStatement adds XSQLVAR[]: separate?
     protected final List<Object> batchList = new LinkedList<>();
+    /**
+     * Parameter values of the batch, stored columnar instead of a {@link RowValue} copy per row.
+     */
+    private RowValueBatch batchedRows;
 
     /**
      * Adds a set of parameters to this <code>PreparedStatement</code>
@@ -843,14 +876,15 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
 
         if (!allParamsSet) throw new FBSQLException("Not all parameters set.");
 
-        final RowValue batchedValues = fieldValues.deepCopy();
-        for (int i = 0; i < batchedValues.getCount(); i++) {
+        if (batchedRows == null || batchedRows.getFieldCount() != fieldValues.getCount()) {
+            batchedRows = new RowValueBatch(fieldValues.getCount());
+        }
+        final int row = batchedRows.addRow(fieldValues);
+        for (int i = 0; i < fieldValues.getCount(); i++) {
             FBField field = getField(i + 1);
             if (field instanceof FBFlushableField)
-                batchedValues.getFieldValue(i).setCachedObject(((FBFlushableField) field).getCachedObject());
+                batchedRows.setCachedObject(row, i, ((FBFlushableField) field).getCachedObject());
         }
-
-        batchList.add(batchedValues);
     }
 
     /**
@@ -866,6 +900,9 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      */
     public void clearBatch() throws SQLException {
         batchList.clear();
+        if (batchedRows != null) {
+            batchedRows.clear();
+        }
     }
 
     /**
@@ -921,30 +958,26 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      */
     public int[] executeBatch() throws SQLException {
         checkValidity();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
 
             boolean commit = false;
             try {
                 notifyStatementStarted();
 
-                List<Integer> results = new ArrayList<>(batchList.size());
-                Iterator<Object> iter = batchList.iterator();
+                final int batchSize = batchedRows != null ? batchedRows.size() : 0;
+                List<Integer> results = new ArrayList<>(batchSize);
 
                 try {
-                    while (iter.hasNext()) {
-                        RowValue data = (RowValue) iter.next();
+                    for (int row = 0; row < batchSize; row++) {
+                        batchedRows.readRow(row, fieldValues);
 
                         for (int i = 0; i < fieldValues.getCount(); i++) {
-                            FieldValue fieldValue = fieldValues.getFieldValue(i);
-                            fieldValue.reset();
-
                             FBField field = getField(i + 1);
                             if (field instanceof FBFlushableField) {
                                 // Explicitly set to null to ensure initialized property set to true
-                                fieldValue.setFieldData(null);
-                                ((FBFlushableField) field).setCachedObject((CachedObject) data.getFieldValue(i).getCachedObject());
-                            } else {
-                                fieldValue.setFieldData(data.getFieldValue(i).getFieldData());
+                                fieldValues.getFieldValue(i).setFieldData(null);
+                                ((FBFlushableField) field).setCachedObject(
+                                        (CachedObject) batchedRows.getCachedObject(row, i));
                             }
                             isParamSet[i] = true;
                         }
@@ -1125,7 +1158,7 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
      *      </a>
      */
     public void setArray(int i, Array x) throws SQLException {
-        throw new FBDriverNotCapableException("Type ARRAY not yet supported");
+        setObject(i, x);
     }
 
     /**
@@ -1302,6 +1335,43 @@ public abstract class AbstractPreparedStatement extends FBStatement implements F
         this.isExecuteProcedureStatement = fbStatement.getType() == StatementType.STORED_PROCEDURE;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Values of string, binary, blob and array parameters are redacted.
+     * </p>
+     */
+    @Override
+    protected List<String> getParameterValuesForLog() {
+        if (fields == null || fields.length == 0) {
+            return Collections.emptyList();
+        }
+        final List<String> values = new ArrayList<>(fields.length);
+        for (int idx = 0; idx < fields.length; idx++) {
+            values.add(getParameterValueForLog(idx));
+        }
+        return values;
+    }
+
+    private String getParameterValueForLog(int index) {
+        if (fieldValues.getFieldValue(index).getFieldData() == null) {
+            return "NULL";
+        }
+        switch (getParameterDescriptor(index + 1).getType() & ~1) {
+        case ISCConstants.SQL_TEXT:
+        case ISCConstants.SQL_VARYING:
+        case ISCConstants.SQL_BLOB:
+        case ISCConstants.SQL_ARRAY:
+            return "<redacted>";
+        default:
+            try {
+                return fields[index].getString();
+            } catch (SQLException e) {
+                return "?";
+            }
+        }
+    }
+
     /**
      * Get the execution plan of this PreparedStatement
      *
@@ -29,6 +29,7 @@ import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.impl.GDSHelper;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
 import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
 import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.jdbc.field.*;
@@ -250,6 +251,9 @@ public abstract class AbstractResultSet implements ResultSet, FirebirdResultSet,
             };
 
             fields[i] = FBField.createField(rowDescriptor.getFieldDescriptor(i), dataProvider, gdsHelper, cached);
+            if (fbStatement != null && fbStatement.isDeduplicateStrings()) {
+                fields[i].setDeduplicateStrings(true);
+            }
         }
     }
 
@@ -308,8 +312,8 @@ public abstract class AbstractResultSet implements ResultSet, FirebirdResultSet,
     }
 
     @Override
-    public Object getSynchronizationObject() throws SQLException {
-        return fbStatement.getSynchronizationObject();
+    public LockCloseable withLock() throws SQLException {
+        return fbStatement.withLock();
     }
 
     /**
@@ -3202,12 +3206,12 @@ public abstract class AbstractResultSet implements ResultSet, FirebirdResultSet,
         throw new FBDriverNotCapableException();
     }
 
-    public void updateArray(int param1, Array param2) throws SQLException {
-        throw new FBDriverNotCapableException("Type ARRAY not yet supported");
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        updateObject(columnIndex, x);
     }
 
-    public void updateArray(String param1, Array param2) throws SQLException {
-        throw new FBDriverNotCapableException("Type ARRAY not yet supported");
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        updateObject(columnLabel, x);
     }
 
     /**
@@ -16,321 +16,242 @@
  *
  * All rights reserved.
  */
-
 package org.firebirdsql.jdbc;
 
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
 
+import java.math.BigDecimal;
 import java.sql.*;
-
 import java.util.Map;
 
+import static org.firebirdsql.gds.BlrConstants.*;
+
 /**
  * A Firebird-specific implementation of the mapping of a java.sql.Array.
+ * <p>
+ * The elements of the array are read in a single slice when the array column is retrieved, and held as a flat
+ * primitive array (see {@link ArrayDescriptor}). {@link #getArray()} returns a (multi-dimensional) primitive array,
+ * eg {@code int[]} for a one-dimensional {@code INTEGER} array, or {@code double[][]} for a two-dimensional
+ * {@code DOUBLE PRECISION} array. Arrays of {@code NUMERIC} or {@code DECIMAL} are returned as {@code BigDecimal}
+ * arrays.
+ * </p>
+ * <p>
+ * Index {@code 1} of {@link #getArray(long, int)} is the first element of the first dimension, independent of the
+ * lower bound declared for the column.
+ * </p>
  *
  * @author <a href="mailto:d_jencks@users.sourceforge.net">David Jencks</a>
  * @see java.sql.Array
- * @version 1.0
  */
 public class FBArray implements Array {
 
-  /**
-   * Returns the SQL type name of the elements in
-   * the array designated by this <code>Array</code> object.
-   * If the elements are a built-in type, it returns
-   * the database-specific type name of the elements.
-   * If the elements are a user-defined type (UDT),
-   * this method returns the fully-qualified SQL type name.
-   * @return a <code>String</code> that is the database-specific
-   * name for a built-in base type or the fully-qualified SQL type
-   * name for a base type that is a UDT
-   * @exception SQLException if an error occurs while attempting
-   * to access the type name
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public String getBaseTypeName() throws SQLException {
-       return null;
+    private final ArrayDescriptor arrayDescriptor;
+    private Object flatArray;
+
+    /**
+     * Creates an array.
+     *
+     * @param arrayDescriptor
+     *         Descriptor of the array
+     * @param flatArray
+     *         Flat array with the elements (not copied)
+     * @throws SQLException
+     *         If {@code flatArray} does not match {@code arrayDescriptor}
+     */
+    public FBArray(ArrayDescriptor arrayDescriptor, Object flatArray) throws SQLException {
+        arrayDescriptor.checkFlatArray(flatArray);
+        this.arrayDescriptor = arrayDescriptor;
+        this.flatArray = flatArray;
     }
 
+    /**
+     * @return Descriptor of the array
+     */
+    public ArrayDescriptor getArrayDescriptor() {
+        return arrayDescriptor;
+    }
 
-  /**
-   * Returns the JDBC type of the elements in the array designated
-   * by this <code>Array</code> object.
-   * @return a constant from the class {@link java.sql.Types} that is
-   * the type code for the elements in the array designated by this
-   * <code>Array</code> object.
-   * @exception SQLException if an error occurs while attempting
-   * to access the base type
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public int getBaseType() throws SQLException {
-        throw new FBDriverNotCapableException();
+    /**
+     * Returns the elements as a flat array in row-major order, without conversion.
+     * <p>
+     * The returned array is not a copy: changes are visible to this object. For {@code NUMERIC} and
+     * {@code DECIMAL} arrays, the flat array contains the unscaled values.
+     * </p>
+     *
+     * @return Flat primitive array (see {@link ArrayDescriptor})
+     * @throws SQLException
+     *         If this array has been freed
+     */
+    public Object getFlatArray() throws SQLException {
+        checkNotFreed();
+        return flatArray;
     }
 
+    public String getBaseTypeName() throws SQLException {
+        checkNotFreed();
+        if (isScaled()) {
+            return "NUMERIC";
+        }
+        switch (arrayDescriptor.getBlrType()) {
+        case blr_short:
+            return "SMALLINT";
+        case blr_long:
+            return "INTEGER";
+        case blr_int64:
+            return "BIGINT";
+        case blr_float:
+            return "FLOAT";
+        default:
+            return "DOUBLE PRECISION";
+        }
+    }
 
-  /**
-   * Retrieves the contents of the SQL <code>ARRAY</code> value designated
-   * by this
-   * <code>Array</code> object in the form of an array in the Java
-   * programming language. This version of the method <code>getArray</code>
-   * uses the type map associated with the connection for customizations of
-   * the type mappings.
-   * @return an array in the Java programming language that contains
-   * the ordered elements of the SQL <code>ARRAY</code> value
-   * designated by this object
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-   public Object getArray() throws SQLException {
-       return null;
-   }
+    public int getBaseType() throws SQLException {
+        checkNotFreed();
+        if (isScaled()) {
+            return Types.NUMERIC;
+        }
+        switch (arrayDescriptor.getBlrType()) {
+        case blr_short:
+            return Types.SMALLINT;
+        case blr_long:
+            return Types.INTEGER;
+        case blr_int64:
+            return Types.BIGINT;
+        case blr_float:
+            return Types.FLOAT;
+        default:
+            return Types.DOUBLE;
+        }
+    }
 
-  /**
-   * Retrieves the contents of the SQL array designated by this
-   * <code>Array</code> object.
-   * This method uses
-   * the specified <code>map</code> for type map customizations
-   * unless the base type of the array does not match a user-defined
-   * type in <code>map</code>, in which case it
-   * uses the standard mapping. This version of the method
-   * <code>getArray</code> uses either the given type map or the standard mapping;
-   * it never uses the type map associated with the connection.
-   *
-   * @param map a <code>java.util.Map</code> object that contains mappings
-   *            of SQL type names to classes in the Java programming language
-   * @return an array in the Java programming language that contains the ordered
-   *         elements of the SQL array designated by this object
-   * @exception SQLException if an error occurs while attempting to
-   *                         access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public Object getArray(Map<String, Class<?>> map) throws SQLException {
-        return null;
+    public Object getArray() throws SQLException {
+        checkNotFreed();
+        return toJavaArray(0, arrayDescriptor.getDimensionLength(0));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements of a Firebird array are never user-defined types, so {@code map} is ignored.
+     * </p>
+     */
+    public Object getArray(Map<String, Class<?>> map) throws SQLException {
+        return getArray();
+    }
 
-  /**
-   * Returns an array containing a slice of the SQL <code>ARRAY</code>
-   * value designated by this <code>Array</code> object, beginning with the
-   * specified <code>index</code> and containing up to <code>count</code>
-   * successive elements of the SQL array.  This method uses the type map
-   * associated with the connection for customizations of the type mappings.
-   * @param index the array index of the first element to retrieve;
-   *              the first element is at index 1
-   * @param count the number of successive SQL array elements to retrieve
-   * @return an array containing up to <code>count</code> consecutive elements
-   * of the SQL array, beginning with element <code>index</code>
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * For a multi-dimensional array, {@code index} and {@code count} apply to the first dimension.
+     * </p>
+     */
     public Object getArray(long index, int count) throws SQLException {
-       return null;
-   }
-
-
-  /**
-   * Returns an array containing a slice of the SQL array object
-   * designated by this <code>Array</code> object, beginning with the specified
-   * <code>index</code> and containing up to <code>count</code>
-   * successive elements of the SQL array.
-   * <P>
-   * This method uses
-   * the specified <code>map</code> for type map customizations
-   * unless the base type of the array does not match a user-defined
-   * type in <code>map</code>, in which case it
-   * uses the standard mapping. This version of the method
-   * <code>getArray</code> uses either the given type map or the standard mapping;
-   * it never uses the type map associated with the connection.
-   *
-   * @param index the array index of the first element to retrieve;
-   *              the first element is at index 1
-   * @param count the number of successive SQL array elements to
-   * retrieve
-   * @param map a <code>java.util.Map</code> object
-   * that contains SQL type names and the classes in
-   * the Java programming language to which they are mapped
-   * @return an array containing up to <code>count</code>
-   * consecutive elements of the SQL array designated by this
-   * <code>Array</code> object, beginning with element
-   * <code>index</code>.
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public Object getArray(long index, int count, Map<String, Class<?>> map)
-       throws SQLException {
-       return null;
-   }
-
-
-  /**
-   * Returns a result set that contains the elements of the SQL
-   * <code>ARRAY</code> value
-   * designated by this <code>Array</code> object.  If appropriate,
-   * the elements of the array are mapped using the connection's type
-   * map; otherwise, the standard mapping is used.
-   * <p>
-   * The result set contains one row for each array element, with
-   * two columns in each row.  The second column stores the element
-   * value; the first column stores the index into the array for
-   * that element (with the first array element being at index 1).
-   * The rows are in ascending order corresponding to
-   * the order of the indices.
-   * @return a {@link ResultSet} object containing one row for each
-   * of the elements in the array designated by this <code>Array</code>
-   * object, with the rows in ascending order based on the indices.
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public ResultSet getResultSet () throws SQLException {
-       return null;
+        checkNotFreed();
+        final int length = arrayDescriptor.getDimensionLength(0);
+        if (index < 1 || index > length + 1L || count < 0) {
+            throw new SQLException(String.format("Invalid index %d or count %d for array of length %d",
+                    index, count, length), SQLStateConstants.SQL_STATE_INVALID_ARG_VALUE);
+        }
+        final int firstIndex = (int) index - 1;
+        return toJavaArray(firstIndex, Math.min(count, length - firstIndex));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements of a Firebird array are never user-defined types, so {@code map} is ignored.
+     * </p>
+     */
+    public Object getArray(long index, int count, Map<String, Class<?>> map) throws SQLException {
+        return getArray(index, count);
+    }
 
-  /**
-   * Returns a result set that contains the elements of the SQL
-   * <code>ARRAY</code> value
-   * designated by this <code>Array</code> object.
-   * This method uses
-   * the specified <code>map</code> for type map customizations
-   * unless the base type of the array does not match a user-defined
-   * type in <code>map</code>, in which case it
-   * uses the standard mapping. This version of the method
-   * <code>getResultSet</code> uses either the given type map or the standard mapping;
-   * it never uses the type map associated with the connection.
-   * <p>
-   * The result set contains one row for each array element, with
-   * two columns in each row.  The second column stores the element
-   * value; the first column stores the index into the array for
-   * that element (with the first array element being at index 1).
-   * The rows are in ascending order corresponding to
-   * the order of the indices.
-   * @param map contains the mapping of SQL user-defined types to
-   * classes in the Java programming language
-   * @return a <code>ResultSet</code> object containing one row for each
-   * of the elements in the array designated by this <code>Array</code>
-   * object, with the rows in ascending order based on the indices.
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
-    public ResultSet getResultSet (Map<String, Class<?>> map) throws SQLException {
-        return null;
+    public ResultSet getResultSet() throws SQLException {
+        throw new FBDriverNotCapableException("Array.getResultSet not supported");
     }
 
+    public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException {
+        throw new FBDriverNotCapableException("Array.getResultSet not supported");
+    }
 
-  /**
-   * Returns a result set holding the elements of the subarray that
-   * starts at index <code>index</code> and contains up to
-   * <code>count</code> successive elements.  This method uses
-   * the connection's type map to map the elements of the array if
-   * the map contains an entry for the base type. Otherwise, the
-   * standard mapping is used.
-   * <P>
-   * The result set has one row for each element of the SQL array
-   * designated by this object, with the first row containing the
-   * element at index <code>index</code>.  The result set has
-   * up to <code>count</code> rows in ascending order based on the
-   * indices.  Each row has two columns:  The second column stores
-   * the element value; the first column stores the index into the
-   * array for that element.
-   * @param index the array index of the first element to retrieve;
-   *              the first element is at index 1
-   * @param count the number of successive SQL array elements to retrieve
-   * @return a <code>ResultSet</code> object containing up to
-   * <code>count</code> consecutive elements of the SQL array
-   * designated by this <code>Array</code> object, starting at
-   * index <code>index</code>.
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   */
     public ResultSet getResultSet(long index, int count) throws SQLException {
-       return null;
+        throw new FBDriverNotCapableException("Array.getResultSet not supported");
+    }
+
+    public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException {
+        throw new FBDriverNotCapableException("Array.getResultSet not supported");
     }
 
+    public void free() throws SQLException {
+        flatArray = null;
+    }
 
-  /**
-   * Returns a result set holding the elements of the subarray that
-   * starts at index <code>index</code> and contains up to
-   * <code>count</code> successive elements.
-   * This method uses
-   * the specified <code>map</code> for type map customizations
-   * unless the base type of the array does not match a user-defined
-   * type in <code>map</code>, in which case it
-   * uses the standard mapping. This version of the method
-   * <code>getResultSet</code> uses either the given type map or the standard mapping;
-   * it never uses the type map associated with the connection.
-   * <P>
-   * The result set has one row for each element of the SQL array
-   * designated by this object, with the first row containing the
-   * element at index <code>index</code>.  The result set has
-   * up to <code>count</code> rows in ascending order based on the
-   * indices.  Each row has two columns:  The second column stores
-   * the element value; the first column stroes the index into the
-   * array for that element.
-   * @param index the array index of the first element to retrieve;
-   *              the first element is at index 1
-   * @param count the number of successive SQL array elements to retrieve
-   * @param map the <code>Map</code> object that contains the mapping
-   * of SQL type names to classes in the Java(tm) programming language
-   * @return a <code>ResultSet</code> object containing up to
-   * <code>count</code> consecutive elements of the SQL array
-   * designated by this <code>Array</code> object, starting at
-   * index <code>index</code>.
-   * @exception SQLException if an error occurs while attempting to
-   * access the array
-   * @since 1.2
-   * @see <a href="package-summary.html#2.0 API">What Is in the JDBC
-   *      2.0 API</a>
-   *
-   */
-    public ResultSet getResultSet (long index, int count, Map<String, Class<?>> map)
-       throws SQLException {
-       return null;
+    private boolean isScaled() {
+        final int blrType = arrayDescriptor.getBlrType();
+        return arrayDescriptor.getScale() != 0 && blrType != blr_float && blrType != blr_double;
     }
 
+    /**
+     * Creates the Java array for {@code count} entries of the first dimension, starting at {@code firstIndex}
+     * (0-based).
+     */
+    private Object toJavaArray(int firstIndex, int count) {
+        final int dimensions = arrayDescriptor.getDimensions();
+        final int[] lengths = new int[dimensions];
+        lengths[0] = count;
+        int stride = 1;
+        for (int dimension = 1; dimension < dimensions; dimension++) {
+            lengths[dimension] = arrayDescriptor.getDimensionLength(dimension);
+            stride *= lengths[dimension];
+        }
+        final Class<?> elementClass = isScaled()
+                ? BigDecimal.class
+                : flatArray.getClass().getComponentType();
+        final Object result = java.lang.reflect.Array.newInstance(elementClass, lengths);
+        fill(result, dimensions - 1, firstIndex * stride);
+        return result;
+    }
 
     /**
-     * This method frees the <code>Array</code> object and releases the resources that 
-     * it holds. The object is invalid once the <code>free</code>
-     * method is called.
-     *<p>
-     * After <code>free</code> has been called, any attempt to invoke a
-     * method other than <code>free</code> will result in a <code>SQLException</code> 
-     * being thrown.  If <code>free</code> is called multiple times, the subsequent
-     * calls to <code>free</code> are treated as a no-op.
-     *<p>
-     * 
-     * @throws SQLException if an error occurs releasing
-     * the Array's resources
-     * @exception SQLFeatureNotSupportedException if the JDBC driver does not support
-     * this method
-     * @since 1.6
+     * Fills the innermost arrays of {@code array} with the elements from the flat array, in row-major order.
+     *
+     * @return Offset in the flat array after the elements copied
      */
-    public void free() throws SQLException {
-        
+    private int fill(Object array, int depth, int flatOffset) {
+        if (depth > 0) {
+            for (Object subArray : (Object[]) array) {
+                flatOffset = fill(subArray, depth - 1, flatOffset);
+            }
+            return flatOffset;
+        }
+        final int length = java.lang.reflect.Array.getLength(array);
+        if (isScaled()) {
+            final BigDecimal[] values = (BigDecimal[]) array;
+            final int scale = -arrayDescriptor.getScale();
+            for (int idx = 0; idx < length; idx++) {
+                values[idx] = BigDecimal.valueOf(getUnscaledValue(flatOffset + idx), scale);
+            }
+        } else {
+            System.arraycopy(flatArray, flatOffset, array, 0, length);
+        }
+        return flatOffset + length;
     }
-}
 
+    private long getUnscaledValue(int flatIndex) {
+        switch (arrayDescriptor.getBlrType()) {
+        case blr_short:
+            return ((short[]) flatArray)[flatIndex];
+        case blr_long:
+            return ((int[]) flatArray)[flatIndex];
+        default:
+            return ((long[]) flatArray)[flatIndex];
+        }
+    }
 
+    private void checkNotFreed() throws SQLException {
+        if (flatArray == null) {
+            throw new SQLException("Array has been freed", SQLStateConstants.SQL_STATE_GENERAL_ERROR);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.VaxEncoding;
 import org.firebirdsql.gds.impl.GDSHelper;
 import org.firebirdsql.gds.ng.FbBlob;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.util.SQLExceptionChainBuilder;
 
 import java.io.*;
@@ -103,8 +104,8 @@ public class FBBlob implements FirebirdBlob, Synchronizable {
         this(c, blob_id, null);
     }
 
-    public Object getSynchronizationObject() {
-        return gdsHelper;
+    public LockCloseable withLock() {
+        return gdsHelper.withLock();
     }
 
     /**
@@ -125,7 +126,7 @@ public class FBBlob implements FirebirdBlob, Synchronizable {
      * @since 1.6
      */
     public void free() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             SQLExceptionChainBuilder<SQLException> chain = new SQLExceptionChainBuilder<>();
 
             for (FBBlobInputStream blobIS : new ArrayList<>(inputStreams)) {
@@ -175,7 +176,7 @@ public class FBBlob implements FirebirdBlob, Synchronizable {
      * @throws SQLException if something went wrong.
      */
     public byte[] getInfo(byte[] items, int buffer_length) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             blobListener.executionStarted(this);
             try {
                 FbBlob blob = gdsHelper.openBlob(blob_id, SEGMENTED);
@@ -297,7 +298,7 @@ public class FBBlob implements FirebirdBlob, Synchronizable {
                     "due to isc_seek_blob limitations.",
                     SQLStateConstants.SQL_STATE_INVALID_ARG_VALUE);
 
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             blobListener.executionStarted(this);
             try {
                 FirebirdBlob.BlobInputStream in = (FirebirdBlob.BlobInputStream) getBinaryStream();
@@ -320,7 +321,7 @@ public class FBBlob implements FirebirdBlob, Synchronizable {
     }
 
     public InputStream getBinaryStream() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             FBBlobInputStream blobstream = new FBBlobInputStream(this);
             inputStreams.add(blobstream);
             return blobstream;
@@ -21,6 +21,7 @@
 package org.firebirdsql.jdbc;
 
 import org.firebirdsql.gds.ng.FbBlob;
+import org.firebirdsql.gds.ng.LockCloseable;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -53,7 +54,7 @@ public final class FBBlobInputStream extends InputStream implements FirebirdBlob
         this.owner = owner;
         closed = false;
 
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             blobHandle = owner.getGdsHelper().openBlob(owner.getBlobId(), FBBlob.SEGMENTED);
         }
     }
@@ -71,7 +72,7 @@ public final class FBBlobInputStream extends InputStream implements FirebirdBlob
     }
 
     public void seek(int position, FbBlob.SeekMode seekMode) throws IOException {
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             checkClosed();
             try {
                 blobHandle.seek(position, seekMode);
@@ -82,7 +83,7 @@ public final class FBBlobInputStream extends InputStream implements FirebirdBlob
     }
 
     public long length() throws IOException {
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             checkClosed();
             try {
                 return blobHandle.length();
@@ -105,7 +106,7 @@ public final class FBBlobInputStream extends InputStream implements FirebirdBlob
      */
     private int checkBuffer() throws IOException {
         assert buffer != null : "Buffer should never be null";
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             checkClosed();
             if (pos < buffer.length) {
                 return buffer.length - pos;
@@ -179,7 +180,7 @@ public final class FBBlobInputStream extends InputStream implements FirebirdBlob
     }
 
     public void close() throws IOException {
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             if (blobHandle != null) {
                 try {
                     blobHandle.close();
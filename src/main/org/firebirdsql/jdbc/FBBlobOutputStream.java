@@ -23,6 +23,7 @@ package org.firebirdsql.jdbc;
 import org.firebirdsql.gds.DatabaseParameterBuffer;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
 import org.firebirdsql.gds.ng.FbBlob;
+import org.firebirdsql.gds.ng.LockCloseable;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -44,7 +45,7 @@ public final class FBBlobOutputStream extends OutputStream implements FirebirdBl
         this.owner = owner;
         buf = new byte[owner.getBufferLength()];
 
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             DatabaseParameterBuffer dpb = owner.getGdsHelper().getDatabaseParameterBuffer();
             boolean useStreamBlobs = dpb.hasArgument(DatabaseParameterBufferExtension.USE_STREAM_BLOBS);
             blobHandle = owner.getGdsHelper().createBlob(!useStreamBlobs);
@@ -62,7 +63,7 @@ public final class FBBlobOutputStream extends OutputStream implements FirebirdBl
 
     @Override
     public long length() throws IOException {
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             checkClosed();
             try {
                 return blobHandle.length();
@@ -98,7 +99,7 @@ public final class FBBlobOutputStream extends OutputStream implements FirebirdBl
      *         For errors writing to the blob
      */
     private void writeSegment(byte[] buf) throws SQLException {
-        synchronized (owner.getSynchronizationObject()) {
+        try (LockCloseable ignored = owner.withLock()) {
             blobHandle.putSegment(buf);
         }
     }
@@ -194,7 +195,7 @@ public final class FBBlobOutputStream extends OutputStream implements FirebirdBl
         flush();
 
         try {
-            synchronized (owner.getSynchronizationObject()) {
+            try (LockCloseable ignored = owner.withLock()) {
                 blobHandle.close();
             }
             owner.setBlobId(blobHandle.getBlobId());
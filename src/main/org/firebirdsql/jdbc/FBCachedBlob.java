@@ -20,6 +20,9 @@
  */
 package org.firebirdsql.jdbc;
 
+import org.firebirdsql.gds.ng.DriverLock;
+import org.firebirdsql.gds.ng.LockCloseable;
+
 import java.sql.SQLException;
 import java.sql.Blob;
 import java.io.*;
@@ -33,7 +36,7 @@ public final class FBCachedBlob implements FirebirdBlob, Synchronizable {
     private static final InputStream STREAM_NULL_VALUE = null;
     static final String BLOB_READ_ONLY = "Cached blob is read-only";
 
-    private final Object syncObject = new Object();
+    private final DriverLock lock = new DriverLock();
 
     private byte[] blobData;
 
@@ -172,8 +175,8 @@ public final class FBCachedBlob implements FirebirdBlob, Synchronizable {
         throw new FBDriverNotCapableException();
     }
 
-    public Object getSynchronizationObject() throws SQLException {
-        return syncObject;
+    public LockCloseable withLock() throws SQLException {
+        return lock.withLock();
     }
 
     public void free() throws SQLException {
@@ -19,6 +19,7 @@
 package org.firebirdsql.jdbc;
 
 import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.DatatypeCoder;
 import org.firebirdsql.gds.ng.FbStatement;
 import org.firebirdsql.gds.ng.fields.FieldDescriptor;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
@@ -31,6 +32,7 @@ import org.firebirdsql.jdbc.field.FieldDataProvider;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -75,9 +77,7 @@ class FBCachedFetcher implements FBFetcher {
         }
 
         if (hasBlobs) {
-            for (RowValue row : rows) {
-                cacheBlobsInRow(gdsHelper, rowDescriptor, isBlob, row);
-            }
+            cacheBlobs(gdsHelper, rowDescriptor, isBlob, rows);
         }
         stmt_handle.closeCursor();
     }
@@ -109,9 +109,7 @@ class FBCachedFetcher implements FBFetcher {
             final boolean[] isBlob = new boolean[rowDescriptor.getCount()];
             final boolean hasBlobs = determineBlobs(rowDescriptor, isBlob);
             if (hasBlobs){
-                for (RowValue row : rows) {
-                    cacheBlobsInRow(gdsHelper, rowDescriptor, isBlob, row);
-                }
+                cacheBlobs(gdsHelper, rowDescriptor, isBlob, this.rows);
             }
         }
     }
@@ -123,7 +121,7 @@ class FBCachedFetcher implements FBFetcher {
      * @param isBlob Boolean array with length equal to {@code rowDescriptor}, modified by this method
      * @return {@code true} if there are one or more blob columns.
      */
-    private static boolean determineBlobs(final RowDescriptor rowDescriptor, final boolean[] isBlob) {
+    static boolean determineBlobs(final RowDescriptor rowDescriptor, final boolean[] isBlob) {
         assert rowDescriptor.getCount() == isBlob.length : "length of isBlob should be equal to length of rowDescriptor";
         boolean hasBlobs = false;
         for (int i = 0; i < rowDescriptor.getCount(); i++) {
@@ -137,6 +135,58 @@ class FBCachedFetcher implements FBFetcher {
         return hasBlobs;
     }
 
+    /**
+     * Collects the ids of the blobs in a range of rows.
+     *
+     * @param rowDescriptor The row descriptor
+     * @param isBlob Boolean array with the blob columns, see {@link #determineBlobs(RowDescriptor, boolean[])}
+     * @param rows The rows
+     * @param fromIndex Index of the first row (inclusive)
+     * @param toIndex Index of the last row (exclusive)
+     * @return Ids of the blobs that are not {@code NULL}
+     */
+    static long[] collectBlobIds(final RowDescriptor rowDescriptor, final boolean[] isBlob,
+            final List<RowValue> rows, final int fromIndex, final int toIndex) {
+        final DatatypeCoder datatypeCoder = rowDescriptor.getDatatypeCoder();
+        long[] blobIds = new long[(toIndex - fromIndex) * isBlob.length];
+        int count = 0;
+        for (int rowIdx = fromIndex; rowIdx < toIndex; rowIdx++) {
+            final RowValue row = rows.get(rowIdx);
+            for (int j = 0; j < isBlob.length; j++) {
+                final byte[] fieldData = row.getFieldValue(j).getFieldData();
+                if (isBlob[j] && fieldData != null) {
+                    blobIds[count++] = datatypeCoder.decodeLong(fieldData);
+                }
+            }
+        }
+        return count == blobIds.length ? blobIds : Arrays.copyOf(blobIds, count);
+    }
+
+    /**
+     * Replaces the blob ids in the rows with the blob content, prefetching the blobs of a number of rows at a time
+     * if blob prefetch is enabled.
+     */
+    private static void cacheBlobs(final GDSHelper gdsHelper, final RowDescriptor rowDescriptor,
+            final boolean[] isBlob, final List<RowValue> rows) throws SQLException {
+        final int prefetchBatchSize = gdsHelper.getBlobPrefetchBatchSize();
+        int blobColumnCount = 0;
+        for (boolean blobColumn : isBlob) {
+            if (blobColumn) blobColumnCount++;
+        }
+        final int rowsPerBatch = prefetchBatchSize > 0
+                ? Math.max(1, prefetchBatchSize / blobColumnCount)
+                : rows.size();
+        for (int fromIndex = 0; fromIndex < rows.size(); fromIndex += rowsPerBatch) {
+            final int toIndex = Math.min(rows.size(), fromIndex + rowsPerBatch);
+            if (prefetchBatchSize > 0) {
+                gdsHelper.prefetchBlobs(collectBlobIds(rowDescriptor, isBlob, rows, fromIndex, toIndex));
+            }
+            for (int rowIdx = fromIndex; rowIdx < toIndex; rowIdx++) {
+                cacheBlobsInRow(gdsHelper, rowDescriptor, isBlob, rows.get(rowIdx));
+            }
+        }
+    }
+
     private static void cacheBlobsInRow(final GDSHelper gdsHelper, final RowDescriptor rowDescriptor,
             final boolean[] isBlob, final RowValue localRow) throws SQLException {
         //ugly blob caching workaround.
@@ -24,11 +24,17 @@ import org.firebirdsql.gds.JaybirdErrorCodes;
 import org.firebirdsql.gds.TransactionParameterBuffer;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
 import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbDatabase;
 import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.FbTransaction;
+import org.firebirdsql.gds.ng.LockCloseable;
+import org.firebirdsql.gds.ng.TransactionState;
+import org.firebirdsql.gds.ng.listeners.TransactionListener;
 import org.firebirdsql.jca.FBConnectionRequestInfo;
 import org.firebirdsql.jca.FBLocalTransaction;
 import org.firebirdsql.jca.FBManagedConnection;
+import org.firebirdsql.jca.FBManagedConnectionFactory;
 import org.firebirdsql.jca.FirebirdLocalTransaction;
 import org.firebirdsql.jdbc.escape.FBEscapedParser;
 import org.firebirdsql.jdbc.escape.FBEscapedParser.EscapeParserMode;
@@ -38,6 +44,7 @@ import javax.resource.ResourceException;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.firebirdsql.gds.impl.DatabaseParameterBufferExtension.USE_FIREBIRD_AUTOCOMMIT;
@@ -67,6 +74,8 @@ public class FBConnection implements FirebirdConnection {
     
     protected final InternalTransactionCoordinator txCoordinator;
 
+    private final DriverLock lock = new DriverLock();
+
     private SQLWarning firstWarning;
      
     // This set contains all allocated but not closed statements
@@ -77,6 +86,7 @@ public class FBConnection implements FirebirdConnection {
 
     private StoredProcedureMetaData storedProcedureMetaData;
     private FBEscapedParser escapedParser;
+    private volatile FbTransaction ddlTransaction;
 	 
     /**
      * Create a new AbstractConnection instance based on a
@@ -253,8 +263,10 @@ public class FBConnection implements FirebirdConnection {
      * @return a new Statement object
      * @exception SQLException if a database access error occurs
      */
-    public synchronized Statement createStatement() throws SQLException {
-        return createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, resultSetHoldability);
+    public Statement createStatement() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, resultSetHoldability);
+        }
     }
 
     /**
@@ -286,8 +298,10 @@ public class FBConnection implements FirebirdConnection {
      * pre-compiled statement
      * @exception SQLException if a database access error occurs
      */
-    public synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
-        return prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        }
     }
 
     /**
@@ -316,12 +330,16 @@ public class FBConnection implements FirebirdConnection {
      * pre-compiled SQL statement
      * @exception SQLException if a database access error occurs
      */
-    public synchronized CallableStatement prepareCall(String sql) throws SQLException {
-        return prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        }
     }
     
-    public synchronized Blob createBlob() throws SQLException {
-        return new FBBlob(getGDSHelper(), txCoordinator);
+    public Blob createBlob() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return new FBBlob(getGDSHelper(), txCoordinator);
+        }
     }
     
     public Clob createClob() throws SQLException {
@@ -391,23 +409,29 @@ public class FBConnection implements FirebirdConnection {
      * auto-commit.
      * @exception SQLException if a database access error occurs
      */
-    public synchronized void setAutoCommit(boolean autoCommit) throws SQLException {
-        checkValidity();
-        if (getAutoCommit() == autoCommit) {
-            return;
-        }
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            checkValidity();
+            if (getAutoCommit() == autoCommit) {
+                return;
+            }
 
-        // FIXME : Behavior in switch might be wrong, see also setSavePoint
-        txCoordinator.switchTransactionCoordinator(autoCommit);
+            // FIXME : Behavior in switch might be wrong, see also setSavePoint
+            txCoordinator.switchTransactionCoordinator(autoCommit);
+        }
     }
 
-    protected synchronized void setTransactionCoordinator(boolean managedConnection, boolean autoCommit) throws SQLException {
-        checkValidity();
-        txCoordinator.setTransactionCoordinator(managedConnection, autoCommit);
+    protected void setTransactionCoordinator(boolean managedConnection, boolean autoCommit) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            checkValidity();
+            txCoordinator.setTransactionCoordinator(managedConnection, autoCommit);
+        }
     }
 
-    public synchronized void setManagedEnvironment(boolean managedConnection) throws SQLException {
-        setTransactionCoordinator(managedConnection, true);
+    public void setManagedEnvironment(boolean managedConnection) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            setTransactionCoordinator(managedConnection, true);
+        }
     }
 
     /**
@@ -417,11 +441,13 @@ public class FBConnection implements FirebirdConnection {
      * @exception SQLException if a database access error occurs
      * @see #setAutoCommit
      */
-    public synchronized boolean getAutoCommit() throws SQLException {
-        if (isClosed()) {
-            throw new FBSQLException("You cannot getAutomcommit on an unassociated closed connection.");
+    public boolean getAutoCommit() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (isClosed()) {
+                throw new FBSQLException("You cannot getAutomcommit on an unassociated closed connection.");
+            }
+            return txCoordinator.getAutoCommit();
         }
-        return txCoordinator.getAutoCommit();
     }
 
     /**
@@ -433,19 +459,21 @@ public class FBConnection implements FirebirdConnection {
      * @exception SQLException if a database access error occurs
      * @see #setAutoCommit
      */
-    public synchronized void commit() throws SQLException {
-        if (isClosed()) {
-            throw new FBSQLException(
-                "You cannot commit a closed connection.",
-                SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
-        }
+    public void commit() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (isClosed()) {
+                throw new FBSQLException(
+                    "You cannot commit a closed connection.",
+                    SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
+            }
         
-        if (mc.inDistributedTransaction()) {
-            throw new FBSQLException("Connection enlisted in distributed transaction", SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+            if (mc.inDistributedTransaction()) {
+                throw new FBSQLException("Connection enlisted in distributed transaction", SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
 
-        txCoordinator.commit();
-        invalidateTransactionLifetimeObjects();
+            txCoordinator.commit();
+            invalidateTransactionLifetimeObjects();
+        }
     }
 
     /**
@@ -457,19 +485,21 @@ public class FBConnection implements FirebirdConnection {
      * @exception SQLException if a database access error occurs
      * @see #setAutoCommit
      */
-    public synchronized void rollback() throws SQLException {
-        if (isClosed()) {
-            throw new FBSQLException(
-                "You cannot rollback closed connection.",
-                SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
-        }
+    public void rollback() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (isClosed()) {
+                throw new FBSQLException(
+                    "You cannot rollback closed connection.",
+                    SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
+            }
         
-        if (mc.inDistributedTransaction()) {
-            throw new FBSQLException("Connection enlisted in distributed transaction", SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+            if (mc.inDistributedTransaction()) {
+                throw new FBSQLException("Connection enlisted in distributed transaction", SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
 
-        txCoordinator.rollback();
-        invalidateTransactionLifetimeObjects();
+            txCoordinator.rollback();
+            invalidateTransactionLifetimeObjects();
+        }
     }
     
     /**
@@ -491,23 +521,25 @@ public class FBConnection implements FirebirdConnection {
      *
      * @exception SQLException if a database access error occurs
      */
-    public synchronized void close() throws SQLException {
-        try {
-            freeStatements();
-        } finally {
-            if (mc != null) {
-                // leave managed transactions alone, they are normally
-                // committed after the Connection handle is closed.
-                if (!mc.inDistributedTransaction()) {
-                    try {
-                        txCoordinator.handleConnectionClose();
-                    } finally {
-                        setAutoCommit(true);
+    public void close() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            try {
+                freeStatements();
+            } finally {
+                if (mc != null) {
+                    // leave managed transactions alone, they are normally
+                    // committed after the Connection handle is closed.
+                    if (!mc.inDistributedTransaction()) {
+                        try {
+                            txCoordinator.handleConnectionClose();
+                        } finally {
+                            setAutoCommit(true);
+                        }
                     }
-                }
 
-                mc.close(this);
-                mc = null;
+                    mc.close(this);
+                    mc = null;
+                }
             }
         }
     }
@@ -525,16 +557,8 @@ public class FBConnection implements FirebirdConnection {
         if (timeout < 0) {
             throw new SQLException("Timeout should be >= 0", SQLStateConstants.SQL_STATE_INVALID_ARG_VALUE);
         }
-        // TODO Check if we can set the connection timeout temporarily for this call
-        if (timeout != 0) {
-            addWarning(new SQLWarning(
-                    String.format("Connection.isValid does not support non-zero timeouts, timeout value %d has been ignored",
-                            timeout)));
-        }
         try {
-            // TODO Is isc_info_user_names a good info item to use?
-            getFbDatabase().getDatabaseInfo(new byte[] { ISCConstants.isc_info_user_names, ISCConstants.isc_info_end },
-                    1024);
+            getFbDatabase().ping((int) Math.min(TimeUnit.SECONDS.toMillis(timeout), Integer.MAX_VALUE));
             return true;
         } catch(SQLException ex) {
             return false;
@@ -555,10 +579,12 @@ public class FBConnection implements FirebirdConnection {
      * @return a DatabaseMetaData object for this Connection
      * @exception SQLException if a database access error occurs
      */
-    public synchronized DatabaseMetaData getMetaData() throws SQLException {
-        if (metaData == null)
-            metaData = new FBDatabaseMetaData(this);
-        return metaData;
+    public DatabaseMetaData getMetaData() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (metaData == null)
+                metaData = new FBDatabaseMetaData(this);
+            return metaData;
+        }
     }
 
 
@@ -573,15 +599,17 @@ public class FBConnection implements FirebirdConnection {
      * read-only mode.
      * @exception SQLException if a database access error occurs
      */
-    public synchronized void setReadOnly(boolean readOnly) throws SQLException {
-        try {
-            if (getLocalTransaction().inTransaction() && !mc.isManagedEnvironment())
-                throw new FBSQLException("Calling setReadOnly(boolean) method " +
-                        "is not allowed when transaction is already started.");
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            try {
+                if (getLocalTransaction().inTransaction() && !mc.isManagedEnvironment())
+                    throw new FBSQLException("Calling setReadOnly(boolean) method " +
+                            "is not allowed when transaction is already started.");
             
-            mc.setReadOnly(readOnly);
-        } catch(ResourceException ex) {
-            throw new FBSQLException(ex);
+                mc.setReadOnly(readOnly);
+            } catch(ResourceException ex) {
+                throw new FBSQLException(ex);
+            }
         }
     }
 
@@ -637,24 +665,26 @@ public class FBConnection implements FirebirdConnection {
      * @exception SQLException if a database access error occurs
      * @see DatabaseMetaData#supportsTransactionIsolationLevel
      */
-    public synchronized void setTransactionIsolation(int level) 
+    public void setTransactionIsolation(int level) 
         throws SQLException 
     {
-        if (isClosed())
-            throw new FBSQLException(
-                    "Connection has being closed.",
-                    SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
+        try (LockCloseable ignored = withLock()) {
+            if (isClosed())
+                throw new FBSQLException(
+                        "Connection has being closed.",
+                        SQLStateConstants.SQL_STATE_CONNECTION_CLOSED);
         
-        try {
+            try {
 
-            if (!getAutoCommit() && !mc.isManagedEnvironment())
-                txCoordinator.commit();
+                if (!getAutoCommit() && !mc.isManagedEnvironment())
+                    txCoordinator.commit();
 
-            mc.setTransactionIsolation(level);
+                mc.setTransactionIsolation(level);
 
-        } catch (ResourceException re) {
-            throw new FBSQLException(re);
-        } 
+            } catch (ResourceException re) {
+                throw new FBSQLException(re);
+            } 
+        }
     }
 
     /**
@@ -663,11 +693,13 @@ public class FBConnection implements FirebirdConnection {
      * @return the current TRANSACTION_* mode value
      * @exception SQLException if a database access error occurs
      */
-    public synchronized int getTransactionIsolation() throws SQLException {
-        try {
-            return mc.getTransactionIsolation();
-        } catch (ResourceException e) {
-            throw new FBSQLException(e);
+    public int getTransactionIsolation() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            try {
+                return mc.getTransactionIsolation();
+            } catch (ResourceException e) {
+                throw new FBSQLException(e);
+            }
         }
     }
 
@@ -681,8 +713,10 @@ public class FBConnection implements FirebirdConnection {
      * @return the first SQLWarning or null
      * @exception SQLException if a database access error occurs
      */
-    public synchronized SQLWarning getWarnings() throws SQLException {
-        return firstWarning;
+    public SQLWarning getWarnings() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return firstWarning;
+        }
     }
 
 
@@ -694,8 +728,10 @@ public class FBConnection implements FirebirdConnection {
      *
      * @exception SQLException if a database access error occurs
      */
-    public synchronized void clearWarnings() throws SQLException {
-		 firstWarning = null;
+    public void clearWarnings() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+    		 firstWarning = null;
+        }
     }
 
     /**
@@ -714,9 +750,11 @@ public class FBConnection implements FirebirdConnection {
      * @see <a href="package-summary.html#2.0 API">What Is in the JDBC 2.0 API</a>
      */
     
-    public synchronized Statement createStatement(int resultSetType, 
+    public Statement createStatement(int resultSetType, 
             int resultSetConcurrency) throws SQLException {
-        return createStatement(resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        try (LockCloseable ignored = withLock()) {
+            return createStatement(resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        }
     }
     
     /**
@@ -749,32 +787,34 @@ public class FBConnection implements FirebirdConnection {
      * @see ResultSet
      * @since 1.4
      */
-    public synchronized Statement createStatement(int resultSetType, 
+    public Statement createStatement(int resultSetType, 
         int resultSetConcurrency, int resultSetHoldability) throws SQLException 
     {
-        if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT && 
-                resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
-
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        }
+        try (LockCloseable ignored = withLock()) {
+            if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT && 
+                    resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
+
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            }
         
-        if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        }			  
+            if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            }			  
           
-        checkHoldability(resultSetType, resultSetHoldability);
+            checkHoldability(resultSetType, resultSetHoldability);
 
-        Statement stmt = new FBStatement(getGDSHelper(), resultSetType, resultSetConcurrency, resultSetHoldability,
-                txCoordinator);
+            Statement stmt = new FBStatement(getGDSHelper(), resultSetType, resultSetConcurrency, resultSetHoldability,
+                    txCoordinator);
 
-        activeStatements.add(stmt);
-        return stmt;
+            activeStatements.add(stmt);
+            return stmt;
+        }
     }
 
     /**
@@ -815,9 +855,11 @@ public class FBConnection implements FirebirdConnection {
      * @since 1.2
      * @see <a href="package-summary.html#2.0 API">What Is in the JDBC 2.0 API</a>
      */
-    public synchronized PreparedStatement prepareStatement(String sql, 
+    public PreparedStatement prepareStatement(String sql, 
             int resultSetType, int resultSetConcurrency) throws SQLException {
-        return prepareStatement(sql, resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        try (LockCloseable ignored = withLock()) {
+            return prepareStatement(sql, resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        }
     }
 
     /**
@@ -859,19 +901,23 @@ public class FBConnection implements FirebirdConnection {
      * @see ResultSet
      * @since 1.4
      */
-    public synchronized PreparedStatement prepareStatement(String sql,
+    public PreparedStatement prepareStatement(String sql,
             int resultSetType, int resultSetConcurrency,
             int resultSetHoldability) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
         
-        return prepareStatement(sql, resultSetType, resultSetConcurrency,
-            resultSetHoldability, false, false);
+            return prepareStatement(sql, resultSetType, resultSetConcurrency,
+                resultSetHoldability, false, false);
+        }
     }
     
-    protected synchronized PreparedStatement prepareMetaDataStatement(String sql,
+    protected PreparedStatement prepareMetaDataStatement(String sql,
             int resultSetType, int resultSetConcurrency) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
         
-        return prepareStatement(sql, resultSetType, resultSetConcurrency,
-            resultSetHoldability, true, false);
+            return prepareStatement(sql, resultSetType, resultSetConcurrency,
+                resultSetHoldability, true, false);
+        }
     }
     
     /**
@@ -1068,34 +1114,36 @@ public class FBConnection implements FirebirdConnection {
         }
     }
 
-    protected synchronized PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+    protected PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
             int resultSetHoldability, boolean metaData, boolean generatedKeys) throws SQLException {
-        if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT
-                && resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        } else if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        }
+        try (LockCloseable ignored = withLock()) {
+            if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT
+                    && resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            } else if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            }
 
-        checkHoldability(resultSetType, resultSetHoldability);
+            checkHoldability(resultSetType, resultSetHoldability);
 
-        FBObjectListener.StatementListener coordinator = txCoordinator;
-        if (metaData)
-            coordinator = new InternalTransactionCoordinator.MetaDataTransactionCoordinator(txCoordinator);
+            FBObjectListener.StatementListener coordinator = txCoordinator;
+            if (metaData)
+                coordinator = new InternalTransactionCoordinator.MetaDataTransactionCoordinator(txCoordinator);
 
-        FBObjectListener.BlobListener blobCoordinator = metaData ? null : txCoordinator;
+            FBObjectListener.BlobListener blobCoordinator = metaData ? null : txCoordinator;
 
-        PreparedStatement stmt = new FBPreparedStatement(getGDSHelper(), sql, resultSetType, resultSetConcurrency, resultSetHoldability,
-                coordinator, blobCoordinator, metaData, false, generatedKeys);
+            PreparedStatement stmt = new FBPreparedStatement(getGDSHelper(), sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                    coordinator, blobCoordinator, metaData, false, generatedKeys);
 
-        activeStatements.add(stmt);
-        return stmt;
+            activeStatements.add(stmt);
+            return stmt;
+        }
     }
 
     /**
@@ -1114,44 +1162,48 @@ public class FBConnection implements FirebirdConnection {
      * @since 1.2
      * @see <a href="package-summary.html#2.0 API">What Is in the JDBC 2.0 API</a>
      */
-    public synchronized CallableStatement prepareCall(String sql, 
+    public CallableStatement prepareCall(String sql, 
             int resultSetType, int resultSetConcurrency) throws SQLException {
-        return prepareCall(sql, resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        try (LockCloseable ignored = withLock()) {
+            return prepareCall(sql, resultSetType, resultSetConcurrency, this.resultSetHoldability);
+        }
     }
 
-    public synchronized CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
             int resultSetHoldability) throws SQLException {
-        if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT
-                && resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        } else if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
-                    .toFlatSQLException(SQLWarning.class));
-            resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
-        }
+        try (LockCloseable ignored = withLock()) {
+            if (resultSetHoldability == ResultSet.HOLD_CURSORS_OVER_COMMIT
+                    && resultSetType == ResultSet.TYPE_FORWARD_ONLY) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeUpgradeReasonHoldability)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            } else if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_resultSetTypeDowngradeReasonScrollSensitive)
+                        .toFlatSQLException(SQLWarning.class));
+                resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+            }
 
-        if (resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
-            addWarning(FbExceptionBuilder
-                    .forWarning(JaybirdErrorCodes.jb_concurrencyResetReadOnlyReasonStoredProcedure)
-                    .toSQLException(SQLWarning.class));
-            resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
-        }
+            if (resultSetConcurrency != ResultSet.CONCUR_READ_ONLY) {
+                addWarning(FbExceptionBuilder
+                        .forWarning(JaybirdErrorCodes.jb_concurrencyResetReadOnlyReasonStoredProcedure)
+                        .toSQLException(SQLWarning.class));
+                resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
+            }
 
-        checkHoldability(resultSetType, resultSetHoldability);
+            checkHoldability(resultSetType, resultSetHoldability);
 
-        if (storedProcedureMetaData == null) {
-            storedProcedureMetaData = StoredProcedureMetaDataFactory.getInstance(this);
-        }
+            if (storedProcedureMetaData == null) {
+                storedProcedureMetaData = StoredProcedureMetaDataFactory.getInstance(this);
+            }
 
-        FBCallableStatement stmt = new FBCallableStatement(getGDSHelper(), sql, resultSetType, resultSetConcurrency, resultSetHoldability,
-                storedProcedureMetaData, txCoordinator, txCoordinator);
-        activeStatements.add(stmt);
+            FBCallableStatement stmt = new FBCallableStatement(getGDSHelper(), sql, resultSetType, resultSetConcurrency, resultSetHoldability,
+                    storedProcedureMetaData, txCoordinator, txCoordinator);
+            activeStatements.add(stmt);
 
-        return stmt;
+            return stmt;
+        }
     }
 
     /**
@@ -1200,21 +1252,23 @@ public class FBConnection implements FirebirdConnection {
      * 
      * @throws SQLException if something went wrong.
      */
-    private synchronized void setSavepoint(FBSavepoint savepoint) throws SQLException {
-        if (getAutoCommit()) {
-            throw new SQLException("Connection.setSavepoint() method cannot be used in auto-commit mode.",
-                    SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+    private void setSavepoint(FBSavepoint savepoint) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (getAutoCommit()) {
+                throw new SQLException("Connection.setSavepoint() method cannot be used in auto-commit mode.",
+                        SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
         
-        if (mc.inDistributedTransaction()) {
-            throw new SQLException("Connection enlisted in distributed transaction",
-                    SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+            if (mc.inDistributedTransaction()) {
+                throw new SQLException("Connection enlisted in distributed transaction",
+                        SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
 
-        txCoordinator.ensureTransaction();
+            txCoordinator.ensureTransaction();
 
-        getGDSHelper().executeImmediate("SAVEPOINT " + savepoint.getServerSavepointId());
-        savepoints.add(savepoint);
+            getGDSHelper().executeImmediate("SAVEPOINT " + savepoint.getServerSavepointId());
+            savepoints.add(savepoint);
+        }
     }
 
     public Savepoint setSavepoint(String name) throws SQLException {
@@ -1224,63 +1278,69 @@ public class FBConnection implements FirebirdConnection {
         return savepoint;
     }
     
-    public synchronized void rollback(Savepoint savepoint) throws SQLException {
-        if (getAutoCommit()) {
-            throw new SQLException("Connection.rollback(Savepoint) method cannot be used in auto-commit mode.",
-                    SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+    public void rollback(Savepoint savepoint) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (getAutoCommit()) {
+                throw new SQLException("Connection.rollback(Savepoint) method cannot be used in auto-commit mode.",
+                        SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
         
-        // TODO The error message and actual condition do not match
-        if (!(savepoint instanceof FBSavepoint)) {
-            throw new SQLException("Specified savepoint was not obtained from this connection.");
-        }
+            // TODO The error message and actual condition do not match
+            if (!(savepoint instanceof FBSavepoint)) {
+                throw new SQLException("Specified savepoint was not obtained from this connection.");
+            }
         
-        if (mc.inDistributedTransaction()) {
-            throw new SQLException("Connection enlisted in distributed transaction",
-                    SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+            if (mc.inDistributedTransaction()) {
+                throw new SQLException("Connection enlisted in distributed transaction",
+                        SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
         
-        FBSavepoint fbSavepoint = (FBSavepoint)savepoint;
+            FBSavepoint fbSavepoint = (FBSavepoint)savepoint;
         
-        if (!fbSavepoint.isValid())
-            throw new SQLException("Savepoint is no longer valid.");
+            if (!fbSavepoint.isValid())
+                throw new SQLException("Savepoint is no longer valid.");
 
-        getGDSHelper().executeImmediate("ROLLBACK TO " + fbSavepoint.getServerSavepointId());
+            getGDSHelper().executeImmediate("ROLLBACK TO " + fbSavepoint.getServerSavepointId());
+        }
     }
 
-    public synchronized void releaseSavepoint(Savepoint savepoint) throws SQLException {
-        if (getAutoCommit()) {
-            throw new SQLException("Connection.releaseSavepoint() method cannot be used in auto-commit mode.",
-                    SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
-        }
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (getAutoCommit()) {
+                throw new SQLException("Connection.releaseSavepoint() method cannot be used in auto-commit mode.",
+                        SQLStateConstants.SQL_STATE_INVALID_TX_STATE);
+            }
         
-        // TODO The error message and actual condition do not match
-        if (!(savepoint instanceof FBSavepoint)) {
-            throw new SQLException("Specified savepoint was not obtained from this connection.");
-        }
+            // TODO The error message and actual condition do not match
+            if (!(savepoint instanceof FBSavepoint)) {
+                throw new SQLException("Specified savepoint was not obtained from this connection.");
+            }
         
-        FBSavepoint fbSavepoint = (FBSavepoint)savepoint;
+            FBSavepoint fbSavepoint = (FBSavepoint)savepoint;
         
-        if (!fbSavepoint.isValid()) {
-            throw new SQLException("Savepoint is no longer valid.");
-        }
+            if (!fbSavepoint.isValid()) {
+                throw new SQLException("Savepoint is no longer valid.");
+            }
 
-        getGDSHelper().executeImmediate("RELEASE SAVEPOINT " + fbSavepoint.getServerSavepointId() + " ONLY");
+            getGDSHelper().executeImmediate("RELEASE SAVEPOINT " + fbSavepoint.getServerSavepointId() + " ONLY");
 
-        fbSavepoint.invalidate();
+            fbSavepoint.invalidate();
         
-        savepoints.remove(fbSavepoint);
+            savepoints.remove(fbSavepoint);
+        }
     }
 
     /**
      * Invalidate all savepoints.
      */
-    protected synchronized void invalidateSavepoints() {
-    	for (FBSavepoint savepoint : savepoints) {
-    		savepoint.invalidate();
-    	}
+    protected void invalidateSavepoints() {
+        try (LockCloseable ignored = withLock()) {
+        	for (FBSavepoint savepoint : savepoints) {
+        		savepoint.invalidate();
+        	}
         
-        savepoints.clear();
+            savepoints.clear();
+        }
     }    
 
     //-------------------------------------------
@@ -1290,11 +1350,13 @@ public class FBConnection implements FirebirdConnection {
      * Returns a FBLocalTransaction instance that enables a component to 
      * demarcate resource manager local transactions on this connection.
      */
-    public synchronized FirebirdLocalTransaction getLocalTransaction() {
-        if (localTransaction == null)
-            localTransaction = new FBLocalTransaction(mc, this);
+    public FirebirdLocalTransaction getLocalTransaction() {
+        try (LockCloseable ignored = withLock()) {
+            if (localTransaction == null)
+                localTransaction = new FBLocalTransaction(mc, this);
 
-        return localTransaction;
+            return localTransaction;
+        }
     }
 
     // java.sql.Wrapper interface
@@ -1338,13 +1400,15 @@ public class FBConnection implements FirebirdConnection {
         return getGDSHelper().getIscEncoding();
     }
 
-	 public synchronized void addWarning(SQLWarning warning){
-         // TODO: Find way so this method can be protected (or less visible) again.
-		 if (firstWarning == null)
-			 firstWarning = warning;
-		 else{
-			 firstWarning.setNextWarning(warning);
-		 }
+	 public void addWarning(SQLWarning warning){
+	     try (LockCloseable ignored = withLock()) {
+             // TODO: Find way so this method can be protected (or less visible) again.
+    		 if (firstWarning == null)
+    			 firstWarning = warning;
+    		 else{
+    			 firstWarning.setNextWarning(warning);
+    		 }
+	     }
 	 }
 
     /**
@@ -1361,6 +1425,18 @@ public class FBConnection implements FirebirdConnection {
         throw new FBDriverNotCapableException("Type SQLXML not supported");
     }
 
+    /**
+     * Acquires the lock of this connection.
+     * <p>
+     * The lock guards the connection state and, in auto-commit mode, the execution of its statements.
+     * </p>
+     *
+     * @return Closeable that releases the lock
+     */
+    protected final LockCloseable withLock() {
+        return lock.withLock();
+    }
+
     public GDSHelper getGDSHelper() throws SQLException {
         if (mc == null)
             // TODO Right error code?
@@ -1369,6 +1445,58 @@ public class FBConnection implements FirebirdConnection {
         return mc.getGDSHelper();
     }
 
+    /**
+     * Gets the cache for metadata results shared with the other connections of the managed connection factory.
+     *
+     * @return Metadata cache, or {@code null} if the cache is disabled (connection property {@code metaDataCacheTtl}
+     *         not set), or if DDL has been executed in the active transaction: its changes are not visible to
+     *         other connections yet
+     * @throws SQLException
+     *         If the connection is closed
+     */
+    MetaDataCache getMetaDataCache() throws SQLException {
+        if (getGDSHelper().getConnectionProperties().getMetaDataCacheTtl() <= 0) {
+            return null;
+        }
+        final FbTransaction transaction = ddlTransaction;
+        if (transaction != null && transaction.getState() == TransactionState.ACTIVE) {
+            return null;
+        }
+        return ((FBManagedConnectionFactory) mc.getManagedConnectionFactory()).getMetaDataCache();
+    }
+
+    /**
+     * Notifies this connection that DDL has been executed.
+     * <p>
+     * Invalidates the metadata cache, and invalidates it again when {@code transaction} ends.
+     * </p>
+     *
+     * @param transaction
+     *         Transaction in which the DDL was executed (can be {@code null})
+     */
+    void ddlExecuted(FbTransaction transaction) {
+        if (mc == null) {
+            return;
+        }
+        final MetaDataCache metaDataCache =
+                ((FBManagedConnectionFactory) mc.getManagedConnectionFactory()).getMetaDataCache();
+        metaDataCache.invalidate();
+        if (transaction == null || transaction == ddlTransaction) {
+            return;
+        }
+        ddlTransaction = transaction;
+        transaction.addTransactionListener(new TransactionListener() {
+            @Override
+            public void transactionStateChanged(FbTransaction transaction, TransactionState newState,
+                    TransactionState previousState) {
+                if (newState == TransactionState.COMMITTED || newState == TransactionState.ROLLED_BACK) {
+                    metaDataCache.invalidate();
+                    transaction.removeTransactionListener(this);
+                }
+            }
+        });
+    }
+
     @Override
     public boolean isUseFirebirdAutoCommit() {
         return getDatabaseParameterBuffer().hasArgument(USE_FIREBIRD_AUTOCOMMIT);
@@ -40,6 +40,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.firebirdsql.gds.ISCConstants.*;
 import static org.firebirdsql.util.FirebirdSupportInfo.supportInfoFor;
@@ -5145,7 +5146,36 @@ public class FBDatabaseMetaData implements FirebirdDatabaseMetaData {
      */
     protected ResultSet doQuery(String sql, List<String> params)
             throws SQLException {
+        final MetaDataCache metaDataCache = connection != null ? connection.getMetaDataCache() : null;
+        if (metaDataCache == null) {
+            return executeQuery(sql, params);
+        }
+
+        final List<String> key = new ArrayList<>(params.size() + 3);
+        key.add(gdsHelper.getUserName());
+        key.add(gdsHelper.getConnectionProperties().getRoleName());
+        key.add(sql);
+        key.addAll(params);
+        final long ttlMillis = TimeUnit.SECONDS.toMillis(gdsHelper.getConnectionProperties().getMetaDataCacheTtl());
+        final MetaDataCache.CachedResult cachedResult = metaDataCache.get(key, ttlMillis);
+        if (cachedResult != null) {
+            return new FBResultSet(cachedResult.getRowDescriptor(), cachedResult.getRows());
+        }
+
+        final long generation = metaDataCache.getGeneration();
+        final List<RowValue> rows = new ArrayList<>();
+        final RowDescriptor rowDescriptor;
+        try (AbstractResultSet rs = (AbstractResultSet) executeQuery(sql, params)) {
+            rowDescriptor = rs.rowDescriptor;
+            while (rs.next()) {
+                rows.add(rs.row);
+            }
+        }
+        metaDataCache.put(key, generation, rowDescriptor, rows);
+        return new FBResultSet(rowDescriptor, rows);
+    }
 
+    private ResultSet executeQuery(String sql, List<String> params) throws SQLException {
         FBPreparedStatement s = getStatement(sql);
 
         for (int i = 0; i < params.size(); i++)
@@ -23,6 +23,7 @@ package org.firebirdsql.jdbc;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.gds.impl.GDSHelper;
 import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.FieldDescriptor;
 import org.firebirdsql.gds.ng.fields.FieldValue;
 import org.firebirdsql.gds.ng.fields.RowDescriptor;
@@ -419,7 +420,7 @@ public class FBRowUpdater implements FirebirdRowUpdater {
     public void updateRow() throws SQLException {
         boolean success = false;
 
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             try {
                 notifyExecutionStarted();
 
@@ -442,7 +443,7 @@ public class FBRowUpdater implements FirebirdRowUpdater {
     public void deleteRow() throws SQLException {
         boolean success = false;
 
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             try {
                 notifyExecutionStarted();
 
@@ -465,7 +466,7 @@ public class FBRowUpdater implements FirebirdRowUpdater {
     public void insertRow() throws SQLException {
         boolean success = false;
 
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             try {
                 notifyExecutionStarted();
 
@@ -488,7 +489,7 @@ public class FBRowUpdater implements FirebirdRowUpdater {
     public void refreshRow() throws SQLException {
         boolean success = false;
 
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             try {
                 notifyExecutionStarted();
 
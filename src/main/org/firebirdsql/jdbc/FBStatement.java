@@ -21,7 +21,9 @@ package org.firebirdsql.jdbc;
 import org.firebirdsql.gds.DatabaseParameterBuffer;
 import org.firebirdsql.gds.impl.DatabaseParameterBufferExtension;
 import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.DriverLock;
 import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.SqlCountHolder;
 import org.firebirdsql.gds.ng.StatementState;
 import org.firebirdsql.gds.ng.StatementType;
@@ -72,7 +74,10 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     protected boolean completed = true;
     private boolean escapedProcessing = true;
     private volatile boolean closeOnCompletion;
+    private boolean deduplicateStrings;
     private boolean currentStatementGeneratedKeys;
+    private final SlowStatementLog slowStatementLog;
+    private String statementSql;
 
 	protected SQLWarning firstWarning;
 
@@ -94,6 +99,7 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     
     private final FBObjectListener.ResultSetListener resultSetListener = new RSListener();
     private final FBConnection connection;
+    private final DriverLock lock = new DriverLock();
 
     /**
      * Listener for the result sets.
@@ -161,6 +167,8 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
         // TODO Find out if connection is actually ever null, because some parts of the code expect it not to be null
         this.connection = statementListener != null ?
                 statementListener.getConnection() : null;
+        deduplicateStrings = c != null && c.getConnectionProperties().isDeduplicateStrings();
+        slowStatementLog = c != null ? SlowStatementLog.create(c) : null;
         
         closed = false;
     }
@@ -177,21 +185,24 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     }
     
     /**
-     * Get synchronization object for this statement object.
+     * Acquire the lock for this statement object.
+     * <p>
+     * In auto-commit mode this is the lock of the connection, otherwise the lock of this statement.
+     * </p>
      * 
-     * @return object that will be used for synchronization.
+     * @return closeable that releases the lock.
      * 
      * @throws SQLException if something went wrong.
      */
-    public Object getSynchronizationObject() throws SQLException {
+    public LockCloseable withLock() throws SQLException {
         // TODO: Has potential race condition
         if (connection == null)
-            return this;
+            return lock.withLock();
         
         if (connection.getAutoCommit()) 
-            return connection;
+            return connection.withLock();
         else
-            return this;
+            return lock.withLock();
     }
 
     @Override
@@ -228,14 +239,24 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     public ResultSet executeQuery(String sql) throws  SQLException {
         checkValidity();
         currentStatementGeneratedKeys = false;
-        synchronized(getSynchronizationObject()) {
-            notifyStatementStarted();
-            if (!internalExecute(sql)) {
-                throw new FBSQLException("Query did not return a result set.",
-                        SQLStateConstants.SQL_STATE_NO_RESULT_SET);
-            }
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
+                final boolean hasResultSet;
+                try {
+                    hasResultSet = internalExecute(sql);
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
+                    continue;
+                }
+                if (!hasResultSet) {
+                    throw new FBSQLException("Query did not return a result set.",
+                            SQLStateConstants.SQL_STATE_NO_RESULT_SET);
+                }
 
-            return getResultSet();
+                return getResultSet();
+            }
         }
     }
 
@@ -250,6 +271,10 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
         // notify listener that statement execution is about to start
         statementListener.executionStarted(this);
 
+        if (slowStatementLog != null) {
+            slowStatementLog.statementStarted(gdsHelper.getCurrentDatabase(), fbStatement);
+        }
+
         if (fbStatement != null) {
             fbStatement.setTransaction(gdsHelper.getCurrentTransaction());
         }
@@ -262,8 +287,85 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     
     protected void notifyStatementCompleted(boolean success) throws SQLException {
         completed = true;
+        if (slowStatementLog != null) {
+            slowStatementLog.statementCompleted(gdsHelper.getCurrentDatabase(), fbStatement, statementSql,
+                    new SlowStatementLog.ParameterValues() {
+                        @Override
+                        public List<String> getParameterValues() {
+                            return getParameterValuesForLog();
+                        }
+                    });
+        }
         statementListener.statementCompleted(this, success);
     }
+
+    /**
+     * Gets the parameter values of the current execution for the slow statement log.
+     * <p>
+     * Implementations must redact values that may contain sensitive information.
+     * </p>
+     *
+     * @return Parameter values as text (empty for statements without parameters)
+     */
+    protected List<String> getParameterValuesForLog() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Decides if a failed execution of this statement is retried (see {@link RetryPolicy}).
+     *
+     * @param execution
+     *         Retry state of the execution, or {@code null} for the first failure
+     * @param failure
+     *         Exception of the failed execution
+     * @return Retry state of the execution, to pass on a next failure
+     * @throws SQLException
+     *         {@code failure} if the execution must not be retried
+     */
+    RetryPolicy.Execution retryOrThrow(RetryPolicy.Execution execution, SQLException failure) throws SQLException {
+        if (statementListener instanceof InternalTransactionCoordinator) {
+            final StatementType statementType = fbStatement != null ? fbStatement.getType() : StatementType.NONE;
+            execution = ((InternalTransactionCoordinator) statementListener)
+                    .retryExecution(this, statementType, execution, failure);
+            if (execution != null) {
+                return execution;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Acquires the lock (see {@link #withLock()}) for an attempt to execute this statement.
+     * <p>
+     * For a retry, this first waits for the backoff without holding the lock, and then checks if this statement is
+     * still valid and the execution can still be retried (eg the connection was not switched out of auto-commit).
+     * </p>
+     *
+     * @param retry
+     *         Retry state of the execution, or {@code null} for the first attempt
+     * @return closeable that releases the lock
+     * @throws SQLException
+     *         if this statement was closed, or the failure of the last attempt if the execution can no longer be
+     *         retried
+     */
+    LockCloseable withLockForAttempt(RetryPolicy.Execution retry) throws SQLException {
+        if (retry == null) {
+            return withLock();
+        }
+        retry.awaitBackoff();
+        checkValidity();
+        final LockCloseable lock = withLock();
+        try {
+            if (((InternalTransactionCoordinator) statementListener).isRetryAllowed()) {
+                return lock;
+            }
+        } catch (SQLException | RuntimeException e) {
+            lock.close();
+            throw e;
+        }
+        lock.close();
+        throw retry.getFailure();
+    }
     
     /**
      * Executes an SQL <code>INSERT</code>, <code>UPDATE</code> or
@@ -280,14 +382,21 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     public int executeUpdate(String sql) throws SQLException {
         checkValidity();
         currentStatementGeneratedKeys = false;
-        synchronized (getSynchronizationObject()) {
-            notifyStatementStarted();
-            try {
-                if (internalExecute(sql)) { throw new FBSQLException(
-                        "Update statement returned results."); }
-                return getUpdateCount();
-            } finally {
-                notifyStatementCompleted();
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
+                try {
+                    try {
+                        if (internalExecute(sql)) { throw new FBSQLException(
+                                "Update statement returned results."); }
+                        return getUpdateCount();
+                    } finally {
+                        notifyStatementCompleted();
+                    }
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
+                }
             }
         }
     }
@@ -591,7 +700,7 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
             throw new FBSQLException("This statement is already closed.");
         }
 
-        synchronized(getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (fbStatement != null) {
                 try {
                     try {
@@ -839,17 +948,25 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
      * @see #execute(String)
      */
     protected boolean executeImpl(String sql) throws SQLException {
-        synchronized (getSynchronizationObject()) {
-            notifyStatementStarted();
-            boolean hasResultSet = false;
-            try {
-                hasResultSet = internalExecute(sql);
-            } finally {
-                if (!hasResultSet) {
-                    notifyStatementCompleted();
+        RetryPolicy.Execution retry = null;
+        while (true) {
+            try (LockCloseable ignored = withLockForAttempt(retry)) {
+                notifyStatementStarted();
+                boolean hasResultSet = false;
+                try {
+                    try {
+                        hasResultSet = internalExecute(sql);
+                    } finally {
+                        if (!hasResultSet) {
+                            notifyStatementCompleted();
+                        }
+                    }
+                } catch (SQLException e) {
+                    retry = retryOrThrow(retry, e);
+                    continue;
                 }
+                return hasResultSet;
             }
-            return hasResultSet;
         }
     }
 
@@ -1223,7 +1340,7 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
             addWarning(new SQLWarning("Batch updates should be run with auto-commit disabled.", "01000"));
 
         notifyStatementStarted();
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
 
             boolean success = false;
             try {
@@ -1346,6 +1463,14 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
     public boolean isCloseOnCompletion() {
         return closeOnCompletion;
     }
+
+    public void setDeduplicateStrings(boolean deduplicateStrings) {
+        this.deduplicateStrings = deduplicateStrings;
+    }
+
+    public boolean isDeduplicateStrings() {
+        return deduplicateStrings;
+    }
      
     /**
      * This method checks if supplied statement is executing procedure or
@@ -1382,7 +1507,8 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
         } else {
             fbStatement.setTransaction(gdsHelper.getCurrentTransaction());
         }
-        fbStatement.prepare(escapedProcessing ? nativeSQL(sql) : sql);
+        statementSql = escapedProcessing ? nativeSQL(sql) : sql;
+        fbStatement.prepare(statementSql);
     }
 
     protected void addWarning(SQLWarning warning) {
@@ -1621,6 +1747,9 @@ public class FBStatement implements FirebirdStatement, Synchronizable {
                     ? StatementResult.RESULT_SET
                     : StatementResult.UPDATE_COUNT;
             isSingletonResult = hasSingletonResult;
+            if (connection != null && sender.getType() == StatementType.DDL) {
+                connection.ddlExecuted(sender.getTransaction());
+            }
         }
 
         @Override
@@ -20,6 +20,8 @@ package org.firebirdsql.jdbc;
 
 import org.firebirdsql.gds.impl.GDSHelper;
 import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.LockCloseable;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
 import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.listeners.DefaultStatementListener;
 
@@ -46,6 +48,8 @@ class FBStatementFetcher implements FBFetcher {
 
     protected final Synchronizable syncProvider;
     protected final FbStatement stmt;
+    // Blob columns if blob prefetch is enabled and the result set has blob columns, otherwise null
+    private final boolean[] prefetchBlobColumns;
 
     private List<RowValue> rows = new ArrayList<RowValue>();
     private final RowListener rowListener = new RowListener();
@@ -73,8 +77,9 @@ class FBStatementFetcher implements FBFetcher {
         this.fetcherListener = fetcherListener;
         this.maxRows = maxRows;
         this.fetchSize = fetchSize;
+        prefetchBlobColumns = determinePrefetchBlobColumns();
 
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             isEmpty = false;
             isBeforeFirst = false;
             isFirst = false;
@@ -174,7 +179,7 @@ class FBStatementFetcher implements FBFetcher {
     }
 
     public void fetch() throws SQLException {
-        synchronized (syncProvider.getSynchronizationObject()) {
+        try (LockCloseable ignored = syncProvider.withLock()) {
             checkClosed();
             int maxRows = 0;
 
@@ -189,6 +194,7 @@ class FBStatementFetcher implements FBFetcher {
                 rows.clear();
                 stmt.fetchRows(fetchSize);
                 rowPosition = 0;
+                prefetchBlobs();
             }
 
             if (rows.size() > rowPosition) {
@@ -202,6 +208,22 @@ class FBStatementFetcher implements FBFetcher {
         }
     }
 
+    private boolean[] determinePrefetchBlobColumns() {
+        if (gdsHelper == null || gdsHelper.getBlobPrefetchSize() == 0) return null;
+        final RowDescriptor rowDescriptor = stmt.getFieldDescriptor();
+        final boolean[] isBlob = new boolean[rowDescriptor.getCount()];
+        return FBCachedFetcher.determineBlobs(rowDescriptor, isBlob) ? isBlob : null;
+    }
+
+    /**
+     * Prefetches the blobs of the rows of the last fetch.
+     */
+    private void prefetchBlobs() throws SQLException {
+        if (prefetchBlobColumns == null || rows.isEmpty()) return;
+        gdsHelper.prefetchBlobs(FBCachedFetcher.collectBlobIds(stmt.getFieldDescriptor(), prefetchBlobColumns, rows,
+                0, rows.size()));
+    }
+
     @Override
     public void close() throws SQLException {
         close(CompletionReason.OTHER);
@@ -124,4 +124,24 @@ public interface FirebirdStatement extends Statement {
      * @throws SQLException if a database access error occurs
      */
     boolean isClosed() throws SQLException;
+
+    /**
+     * Sets if string values of result sets created by this statement are deduplicated.
+     * <p>
+     * When enabled, each {@code CHAR} and {@code VARCHAR} column returns the same {@code String} instance for
+     * repeated values. The default is the value of the connection property {@code deduplicateStrings}. The setting
+     * applies to result sets created after this call.
+     * </p>
+     *
+     * @param deduplicateStrings
+     *         <code>true</code> to deduplicate string values
+     * @see org.firebirdsql.gds.ng.IConnectionProperties#setDeduplicateStrings(boolean)
+     */
+    void setDeduplicateStrings(boolean deduplicateStrings);
+
+    /**
+     * @return <code>true</code> if string values of result sets created by this statement are deduplicated
+     * @see #setDeduplicateStrings(boolean)
+     */
+    boolean isDeduplicateStrings();
 }
@@ -19,9 +19,13 @@
 package org.firebirdsql.jdbc;
 
 import org.firebirdsql.gds.TransactionParameterBuffer;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.StatementType;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
 import org.firebirdsql.jca.FBManagedConnection;
 import org.firebirdsql.jca.FirebirdLocalTransaction;
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
 import org.firebirdsql.util.SQLExceptionChainBuilder;
 
 import javax.resource.ResourceException;
@@ -36,6 +40,8 @@ import static org.firebirdsql.gds.ISCConstants.isc_tpb_autocommit;
 public final class InternalTransactionCoordinator implements FBObjectListener.StatementListener,
         FBObjectListener.BlobListener, Synchronizable {
 
+    private static final Logger log = LoggerFactory.getLogger(InternalTransactionCoordinator.class);
+
     private final FBConnection connection;
     private AbstractTransactionCoordinator coordinator;
 
@@ -44,12 +50,11 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
     }
 
     @Override
-    public Object getSynchronizationObject() throws SQLException {
+    public LockCloseable withLock() throws SQLException {
         if (coordinator instanceof AutoCommitCoordinator || coordinator instanceof FirebirdAutoCommitCoordinator) {
-            return getConnection();
+            return getConnection().withLock();
         }
-        // TODO Suspicious: using new sync-object every time
-        return new Object();
+        return LockCloseable.NO_LOCK;
     }
 
     /**
@@ -105,14 +110,14 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
     }
 
     public boolean getAutoCommit() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             return coordinator != null && coordinator.isAutoCommit();
         }
     }
 
     @Override
     public void executionStarted(FBStatement stmt) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.executionStarted(stmt);
         }
     }
@@ -134,39 +139,39 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
 
     @Override
     public void statementCompleted(FBStatement stmt, boolean success) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.statementCompleted(stmt, success);
         }
     }
 
     @Override
     public void executionCompleted(FirebirdBlob blob) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.executionCompleted(blob);
         }
     }
 
     @Override
     public void executionStarted(FirebirdBlob blob) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.executionStarted(blob);
         }
     }
 
     public void ensureTransaction() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.ensureTransaction();
         }
     }
 
     public void commit() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.commit();
         }
     }
 
     public void rollback() throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             coordinator.rollback();
         }
     }
@@ -175,8 +180,76 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
         coordinator.handleConnectionClose();
     }
 
+    /**
+     * Decides if a failed execution of a statement is retried according to the {@link RetryPolicy} of the connection.
+     * <p>
+     * Executions are only retried in auto-commit mode, where the failed statement is the only work of its
+     * transaction. If the execution is retried, the statement is completed (rolling back its transaction) if needed.
+     * This method does not wait for the backoff: the caller needs to release the lock of the statement (in
+     * auto-commit the lock of the connection) first, and then use {@link RetryPolicy.Execution#awaitBackoff()}.
+     * </p>
+     *
+     * @param stmt
+     *         Statement of the failed execution
+     * @param statementType
+     *         Type of the statement
+     * @param execution
+     *         Retry state of the execution, or {@code null} for the first failure
+     * @param failure
+     *         Exception of the failed execution
+     * @return Retry state to pass on the next failure of the same execution, or {@code null} if the execution must not
+     * be retried
+     */
+    RetryPolicy.Execution retryExecution(FBStatement stmt, StatementType statementType,
+            RetryPolicy.Execution execution, SQLException failure) throws SQLException {
+        final int errorCode;
+        final long backoff;
+        try (LockCloseable ignored = withLock()) {
+            final RetryPolicy retryPolicy = connection.getManagedConnection().getRetryPolicy();
+            if (retryPolicy == null || coordinator == null || !coordinator.isRetryAllowed()) {
+                return null;
+            }
+            if (execution == null) {
+                execution = retryPolicy.newExecution();
+            }
+            errorCode = retryPolicy.getRetryErrorCode(failure);
+            backoff = execution.nextRetry(statementType, failure);
+            if (backoff == -1) {
+                return null;
+            }
+            if (!stmt.completed) {
+                try {
+                    stmt.notifyStatementCompleted(false);
+                } catch (SQLException e) {
+                    failure.setNextException(e);
+                    return null;
+                }
+            }
+            final MetricsListener metricsListener = connection.getGDSHelper().getCurrentDatabase().getMetricsListener();
+            if (metricsListener != null) {
+                metricsListener.statementRetried(errorCode);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Retry %d of statement after error code %d, backoff %d ms",
+                    execution.getRetryCount(), errorCode, backoff));
+        }
+        return execution;
+    }
+
+    /**
+     * Checks if a failed execution can (still) be retried; retries are only allowed in auto-commit mode.
+     *
+     * @return {@code true} if a failed execution can be retried
+     */
+    boolean isRetryAllowed() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            return coordinator != null && coordinator.isRetryAllowed();
+        }
+    }
+
     private void setCoordinator(AbstractTransactionCoordinator coordinator) throws SQLException {
-        synchronized (getSynchronizationObject()) {
+        try (LockCloseable ignored = withLock()) {
             if (this.coordinator != null) {
                 SQLExceptionChainBuilder<SQLException> chain = new SQLExceptionChainBuilder<>();
                 try {
@@ -311,6 +384,13 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
         boolean isAutoCommit() throws SQLException {
             return false;
         }
+
+        /**
+         * @return {@code true} if a failed statement execution can be executed again in a new transaction
+         */
+        boolean isRetryAllowed() {
+            return false;
+        }
     }
 
     static class AutoCommitCoordinator extends AbstractTransactionCoordinator {
@@ -429,6 +509,11 @@ public final class InternalTransactionCoordinator implements FBObjectListener.St
         boolean isAutoCommit() {
             return true;
         }
+
+        @Override
+        boolean isRetryAllowed() {
+            return true;
+        }
     }
 
     static class LocalTransactionCoordinator extends AbstractTransactionCoordinator {
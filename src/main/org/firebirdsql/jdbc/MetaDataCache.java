@@ -0,0 +1,147 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache for the results of the system table queries of {@link FBDatabaseMetaData}.
+ * <p>
+ * One instance is shared by all connections of a {@link org.firebirdsql.jca.FBManagedConnectionFactory}, and is
+ * only used when the connection property {@code metaDataCacheTtl} is set. Results are stored as the decoded rows
+ * with their row descriptor; callers must not modify the cached rows. The cache holds at most
+ * {@link #MAX_ENTRIES} results, least recently used results are discarded first.
+ * </p>
+ * <p>
+ * All results are discarded by {@link #invalidate()}, which is called when DDL is executed through the driver.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class MetaDataCache {
+
+    static final int MAX_ENTRIES = 512;
+
+    private final Map<List<String>, CachedResult> entries =
+            new LinkedHashMap<List<String>, CachedResult>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, CachedResult> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private long generation;
+
+    /**
+     * Gets a cached result.
+     *
+     * @param key
+     *         Key of the result (eg user, role, query and parameters)
+     * @param ttlMillis
+     *         Time-to-live in milliseconds; an older result is discarded
+     * @return Cached result, or {@code null} if there is no (valid) result for {@code key}
+     */
+    synchronized CachedResult get(List<String> key, long ttlMillis) {
+        final CachedResult result = entries.get(key);
+        if (result == null) {
+            return null;
+        }
+        if (System.nanoTime() - result.created >= TimeUnit.MILLISECONDS.toNanos(ttlMillis)) {
+            entries.remove(key);
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current generation, to be passed to {@link #put(List, long, RowDescriptor, List)}.
+     *
+     * @return Current generation, incremented on each invalidation
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores a result.
+     * <p>
+     * The result is not stored if the cache was invalidated after {@code generation} was obtained, as the result
+     * might have been queried before the DDL that caused the invalidation.
+     * </p>
+     *
+     * @param key
+     *         Key of the result
+     * @param generation
+     *         Generation obtained with {@link #getGeneration()} before executing the query
+     * @param rowDescriptor
+     *         Row descriptor of the result
+     * @param rows
+     *         Rows of the result
+     */
+    synchronized void put(List<String> key, long generation, RowDescriptor rowDescriptor, List<RowValue> rows) {
+        if (generation != this.generation) {
+            return;
+        }
+        entries.put(key, new CachedResult(rowDescriptor, rows));
+    }
+
+    /**
+     * Discards all cached results.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * @return Number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cached result of a metadata query.
+     */
+    static final class CachedResult {
+
+        private final RowDescriptor rowDescriptor;
+        private final List<RowValue> rows;
+        private final long created = System.nanoTime();
+
+        private CachedResult(RowDescriptor rowDescriptor, List<RowValue> rows) {
+            this.rowDescriptor = rowDescriptor;
+            this.rows = Collections.unmodifiableList(rows);
+        }
+
+        RowDescriptor getRowDescriptor() {
+            return rowDescriptor;
+        }
+
+        List<RowValue> getRows() {
+            return rows;
+        }
+    }
+}
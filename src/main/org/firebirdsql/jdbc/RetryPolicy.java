@@ -0,0 +1,412 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.JaybirdErrorCodes;
+import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.StatementType;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.firebirdsql.gds.ISCConstants.*;
+
+/**
+ * Policy for retrying statement executions that failed with a lock conflict, deadlock or update conflict.
+ * <p>
+ * The policy is configured with connection property {@code retryPolicy} (see
+ * {@link org.firebirdsql.gds.ng.IConnectionProperties#setRetryPolicy(String)}), and applied by the
+ * {@link InternalTransactionCoordinator} in auto-commit mode only: the failed statement is then the only work of its
+ * transaction, so it can be executed again in a new transaction. Each error code has its own budget of retries per
+ * execution, and the backoff between retries grows exponentially with random (full) jitter, so concurrent
+ * executions contending for the same rows do not retry in lockstep.
+ * </p>
+ * <p>
+ * Budgets are matched against all error codes of the status vector, not just the error code of the exception: for
+ * example, Firebird reports an update conflict as {@code isc_deadlock} followed by {@code isc_update_conflict}. The
+ * most specific (last) error code with a budget applies.
+ * </p>
+ * <p>
+ * This class is immutable; the state of the retries of one execution is kept in an {@link Execution}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class RetryPolicy {
+
+    static final int DEFAULT_RETRIES = 3;
+    static final long DEFAULT_BACKOFF = 10;
+    static final long DEFAULT_MAX_BACKOFF = 1000;
+
+    private static final Map<String, Integer> ERROR_CODE_NAMES = new LinkedHashMap<>();
+    static {
+        ERROR_CODE_NAMES.put("deadlock", isc_deadlock);
+        ERROR_CODE_NAMES.put("lock_conflict", isc_lock_conflict);
+        ERROR_CODE_NAMES.put("update_conflict", isc_update_conflict);
+        ERROR_CODE_NAMES.put("lock_timeout", isc_lock_timeout);
+    }
+
+    /**
+     * Statements that are considered idempotent, and can be retried.
+     */
+    public enum RetryableStatements {
+        /**
+         * Only selects (including select for update).
+         */
+        SELECT,
+        /**
+         * Selects, inserts, updates and deletes.
+         */
+        DML,
+        /**
+         * All statements, except DDL and transaction control; includes procedures and execute block, which may have
+         * non-transactional side effects (eg generators or external tables).
+         */
+        ALL;
+
+        boolean isRetryable(StatementType statementType) {
+            switch (statementType) {
+            case SELECT:
+            case SELECT_FOR_UPDATE:
+                return true;
+            case INSERT:
+            case UPDATE:
+            case DELETE:
+                return this != SELECT;
+            case STORED_PROCEDURE:
+                return this == ALL;
+            default:
+                return false;
+            }
+        }
+    }
+
+    private final int[] errorCodes;
+    private final int[] maxRetries;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final RetryableStatements retryableStatements;
+
+    /**
+     * Creates a retry policy.
+     *
+     * @param retryBudgets
+     *         Maximum number of retries per execution by error code
+     * @param backoffMillis
+     *         Initial backoff in milliseconds
+     * @param maxBackoffMillis
+     *         Maximum backoff in milliseconds
+     * @param retryableStatements
+     *         Statements that can be retried
+     */
+    public RetryPolicy(Map<Integer, Integer> retryBudgets, long backoffMillis, long maxBackoffMillis,
+            RetryableStatements retryableStatements) {
+        if (backoffMillis < 0 || maxBackoffMillis < backoffMillis) {
+            throw new IllegalArgumentException("Requires 0 <= backoffMillis <= maxBackoffMillis");
+        }
+        if (retryableStatements == null) {
+            throw new IllegalArgumentException("retryableStatements must not be null");
+        }
+        errorCodes = new int[retryBudgets.size()];
+        maxRetries = new int[retryBudgets.size()];
+        int idx = 0;
+        for (Map.Entry<Integer, Integer> entry : retryBudgets.entrySet()) {
+            errorCodes[idx] = entry.getKey();
+            maxRetries[idx] = entry.getValue();
+            idx++;
+        }
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retryableStatements = retryableStatements;
+    }
+
+    /**
+     * Gets the retry policy for a value of connection property {@code retryPolicy}.
+     *
+     * @param propertyValue
+     *         Property value
+     * @return Retry policy, or {@code null} if {@code propertyValue} is {@code null} or empty (no retries)
+     * @throws SQLException
+     *         For an invalid value
+     */
+    public static RetryPolicy forPropertyValue(String propertyValue) throws SQLException {
+        if (propertyValue == null || propertyValue.trim().isEmpty()) {
+            return null;
+        }
+        final Map<Integer, Integer> retryBudgets = new LinkedHashMap<>();
+        long backoff = DEFAULT_BACKOFF;
+        long maxBackoff = DEFAULT_MAX_BACKOFF;
+        RetryableStatements retryableStatements = RetryableStatements.SELECT;
+        try {
+            for (String entry : propertyValue.split(",")) {
+                entry = entry.trim();
+                if (entry.isEmpty() || "default".equalsIgnoreCase(entry)) {
+                    continue;
+                }
+                final int separator = entry.indexOf(':');
+                if (separator == -1) {
+                    throw invalidRetryPolicy(propertyValue, "Expected key:value, was " + entry);
+                }
+                final String key = entry.substring(0, separator).trim();
+                final String value = entry.substring(separator + 1).trim();
+                if ("backoff".equalsIgnoreCase(key)) {
+                    backoff = Long.parseLong(value);
+                } else if ("maxBackoff".equalsIgnoreCase(key)) {
+                    maxBackoff = Long.parseLong(value);
+                } else if ("statements".equalsIgnoreCase(key)) {
+                    retryableStatements = RetryableStatements.valueOf(value.toUpperCase(Locale.ROOT));
+                } else {
+                    final int retries = Integer.parseInt(value);
+                    if (retries < 0) {
+                        throw invalidRetryPolicy(propertyValue, "Negative number of retries for " + key);
+                    }
+                    retryBudgets.put(toErrorCode(propertyValue, key), retries);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Includes NumberFormatException
+            throw invalidRetryPolicy(propertyValue, e.toString());
+        }
+        if (retryBudgets.isEmpty()) {
+            retryBudgets.put(isc_deadlock, DEFAULT_RETRIES);
+            retryBudgets.put(isc_lock_conflict, DEFAULT_RETRIES);
+            retryBudgets.put(isc_update_conflict, DEFAULT_RETRIES);
+        }
+        if (backoff < 0 || maxBackoff < backoff) {
+            throw invalidRetryPolicy(propertyValue, "Requires 0 <= backoff <= maxBackoff");
+        }
+        return new RetryPolicy(retryBudgets, backoff, maxBackoff, retryableStatements);
+    }
+
+    private static int toErrorCode(String propertyValue, String key) throws SQLException {
+        final String name = key.toLowerCase(Locale.ROOT);
+        final Integer errorCode = ERROR_CODE_NAMES.get(name.startsWith("isc_") ? name.substring(4) : name);
+        if (errorCode != null) {
+            return errorCode;
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw invalidRetryPolicy(propertyValue, "Unknown key " + key + ", expected one of: "
+                    + ERROR_CODE_NAMES.keySet() + ", an error code, backoff, maxBackoff or statements");
+        }
+    }
+
+    private static SQLException invalidRetryPolicy(String propertyValue, String reason) {
+        return new FbExceptionBuilder()
+                .nonTransientConnectionException(JaybirdErrorCodes.jb_invalidConnectionString)
+                .messageParameter(propertyValue)
+                .messageParameter("Invalid retryPolicy: " + reason)
+                .toFlatSQLException();
+    }
+
+    /**
+     * @return Statements that can be retried
+     */
+    public RetryableStatements getRetryableStatements() {
+        return retryableStatements;
+    }
+
+    /**
+     * Maximum number of retries of an execution for an error code.
+     *
+     * @param errorCode
+     *         Firebird error code
+     * @return Maximum number of retries ({@code 0} if the error code is not retried)
+     */
+    public int getMaxRetries(int errorCode) {
+        final int idx = indexOf(errorCode);
+        return idx != -1 ? maxRetries[idx] : 0;
+    }
+
+    /**
+     * @return Initial backoff in milliseconds
+     */
+    public long getBackoffMillis() {
+        return backoffMillis;
+    }
+
+    /**
+     * @return Maximum backoff in milliseconds
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * Gets the error code of a failure whose retry budget applies.
+     *
+     * @param failure
+     *         Exception of a failed execution
+     * @return Last error code in the status vector of {@code failure} with a retry budget, or the error code of
+     * {@code failure} if none has a budget
+     */
+    int getRetryErrorCode(SQLException failure) {
+        int retryErrorCode = failure.getErrorCode();
+        final Throwable cause = failure.getCause();
+        if (cause instanceof FBSQLExceptionInfo) {
+            for (SQLException info = (SQLException) cause; info != null; info = info.getNextException()) {
+                if (indexOf(info.getErrorCode()) != -1) {
+                    retryErrorCode = info.getErrorCode();
+                }
+            }
+        }
+        return retryErrorCode;
+    }
+
+    /**
+     * @return New state for the retries of one execution
+     */
+    Execution newExecution() {
+        return new Execution();
+    }
+
+    private int indexOf(int errorCode) {
+        for (int idx = 0; idx < errorCodes.length; idx++) {
+            if (errorCodes[idx] == errorCode) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Upper bound of the backoff for a retry: the initial backoff doubled for each previous retry, limited to the
+     * maximum backoff.
+     *
+     * @param retry
+     *         Number of the retry ({@code 1} for the first retry)
+     * @return Upper bound of the backoff in milliseconds
+     */
+    long backoffCeiling(int retry) {
+        final int shift = Math.min(retry - 1, 30);
+        return Math.min(maxBackoffMillis, backoffMillis << shift);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryPolicy{");
+        for (int idx = 0; idx < errorCodes.length; idx++) {
+            sb.append(errorCodes[idx]).append(':').append(maxRetries[idx]).append(',');
+        }
+        return sb.append("backoff:").append(backoffMillis)
+                .append(",maxBackoff:").append(maxBackoffMillis)
+                .append(",statements:").append(retryableStatements.name().toLowerCase(Locale.ROOT))
+                .append('}')
+                .toString();
+    }
+
+    /**
+     * State of the retries of one execution of a statement.
+     * <p>
+     * This class is not thread-safe.
+     * </p>
+     */
+    final class Execution {
+
+        private final int[] retries = new int[errorCodes.length];
+        private int retryCount;
+        private long backoff;
+        private SQLException failure;
+
+        private Execution() {
+        }
+
+        /**
+         * Decides if the execution can be retried after a failure, and if so, counts the retry against the budget of
+         * the error code (see {@link #getRetryErrorCode(SQLException)}) and records the backoff for
+         * {@link #awaitBackoff()}.
+         *
+         * @param statementType
+         *         Type of the statement
+         * @param failure
+         *         Exception of the failed execution
+         * @return Backoff in milliseconds before retrying, or {@code -1} if the execution must not be retried
+         */
+        long nextRetry(StatementType statementType, SQLException failure) {
+            final long nextBackoff = nextRetry(statementType, getRetryErrorCode(failure));
+            if (nextBackoff != -1) {
+                backoff = nextBackoff;
+                this.failure = failure;
+            }
+            return nextBackoff;
+        }
+
+        /**
+         * Decides if the execution can be retried after a failure, and if so, counts the retry against the budget of
+         * the error code.
+         *
+         * @param statementType
+         *         Type of the statement
+         * @param errorCode
+         *         Firebird error code of the failure
+         * @return Backoff in milliseconds before retrying, or {@code -1} if the execution must not be retried
+         */
+        long nextRetry(StatementType statementType, int errorCode) {
+            if (!retryableStatements.isRetryable(statementType)) {
+                return -1;
+            }
+            final int idx = indexOf(errorCode);
+            if (idx == -1 || retries[idx] >= maxRetries[idx]) {
+                return -1;
+            }
+            retries[idx]++;
+            final long ceiling = backoffCeiling(++retryCount);
+            return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        }
+
+        /**
+         * Waits for the backoff of the last retry.
+         * <p>
+         * Callers must not hold the lock of the statement or connection, so the connection can be used, closed or
+         * aborted by other threads during the backoff.
+         * </p>
+         *
+         * @throws SQLException
+         *         The failure of the last retry, if the current thread is interrupted while waiting
+         */
+        void awaitBackoff() throws SQLException {
+            if (backoff > 0) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw failure;
+                }
+            }
+        }
+
+        /**
+         * @return Failure of the last retry, {@code null} if not retried
+         */
+        SQLException getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return Number of retries of this execution
+         */
+        int getRetryCount() {
+            return retryCount;
+        }
+    }
+}
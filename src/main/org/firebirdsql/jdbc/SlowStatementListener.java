@@ -0,0 +1,41 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+/**
+ * Callback for statements exceeding the slow statement threshold (connection property
+ * {@code slowStatementThreshold}).
+ * <p>
+ * Implementations are registered as service provider in
+ * {@code META-INF/services/org.firebirdsql.jdbc.SlowStatementListener}. They are called on the thread completing the
+ * statement, after the slow statement has been logged, so they must be thread-safe and should return quickly.
+ * </p>
+ *
+ * @since 3.0
+ */
+public interface SlowStatementListener {
+
+    /**
+     * Called for a statement exceeding the slow statement threshold.
+     *
+     * @param slowStatement
+     *         Details of the statement execution
+     */
+    void slowStatement(SlowStatementRecord slowStatement);
+}
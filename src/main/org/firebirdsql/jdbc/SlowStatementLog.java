@@ -0,0 +1,292 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.impl.GDSHelper;
+import org.firebirdsql.gds.ng.FbDatabase;
+import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.InfoProcessor;
+import org.firebirdsql.gds.ng.SqlCountHolder;
+import org.firebirdsql.gds.ng.monitor.MetricsListener;
+import org.firebirdsql.gds.ng.monitor.RoundTripCounter;
+import org.firebirdsql.logging.Logger;
+import org.firebirdsql.logging.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import static org.firebirdsql.gds.VaxEncoding.iscVaxInteger2;
+import static org.firebirdsql.gds.VaxEncoding.iscVaxLong;
+
+/**
+ * Measures the executions of a single statement, and logs executions exceeding the threshold of connection property
+ * {@code slowStatementThreshold}.
+ * <p>
+ * The time of an execution is the sum of the driver-side prepare, execute and fetch operations of the statement (see
+ * {@link FbStatement#getOperationNanos()}), so time spent by the application between fetches is not included. The
+ * details of a slow statement (parameters, row counts and execution plan) are only obtained for executions exceeding
+ * the threshold. Page counters need a request at the start of the execution, so they are only measured for
+ * executions following a slow execution of the statement; for other executions they are reported as unknown.
+ * </p>
+ * <p>
+ * This class is not thread-safe, it should be used under the lock of its statement.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class SlowStatementLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowStatementLog.class);
+
+    private static final byte[] PAGE_COUNTER_ITEMS = {
+            ISCConstants.isc_info_reads,
+            ISCConstants.isc_info_writes,
+            ISCConstants.isc_info_fetches,
+            ISCConstants.isc_info_marks,
+            ISCConstants.isc_info_end
+    };
+    private static final int PAGE_COUNTER_BUFFER_LENGTH = 64;
+    private static final long[] UNKNOWN_COUNTERS = { -1, -1, -1, -1 };
+
+    private final long thresholdNanos;
+    private boolean running;
+    private boolean lastExecutionSlow;
+    private FbStatement startStatement;
+    private long startOperationNanos;
+    private long startRoundTrips;
+    private long[] startPageCounters;
+
+    /**
+     * Initialize on demand holder
+     */
+    private static class ListenerHolder {
+        private static final List<SlowStatementListener> LISTENERS = loadListeners();
+    }
+
+    SlowStatementLog(long thresholdMillis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Creates a slow statement log for a statement of a connection.
+     *
+     * @param gdsHelper
+     *         GDS helper of the connection
+     * @return Slow statement log, or {@code null} if disabled for the connection
+     */
+    static SlowStatementLog create(GDSHelper gdsHelper) {
+        final int thresholdMillis = gdsHelper.getConnectionProperties().getSlowStatementThreshold();
+        return thresholdMillis > 0 ? new SlowStatementLog(thresholdMillis) : null;
+    }
+
+    /**
+     * Marks the start of an execution.
+     *
+     * @param database
+     *         Database of the statement
+     * @param statement
+     *         Statement handle (can be {@code null} if not yet allocated)
+     */
+    void statementStarted(FbDatabase database, FbStatement statement) {
+        startPageCounters = lastExecutionSlow ? getPageCounters(database) : null;
+        // After the page counters, so their database info request is not counted as a round trip of the statement
+        startRoundTrips = getRoundTrips(database);
+        startStatement = statement;
+        startOperationNanos = statement != null ? statement.getOperationNanos() : 0;
+        running = true;
+    }
+
+    /**
+     * Marks the completion of an execution, and logs it if it exceeded the threshold.
+     *
+     * @param database
+     *         Database of the statement
+     * @param statement
+     *         Statement handle (can be {@code null})
+     * @param sql
+     *         SQL of the statement
+     * @param parameters
+     *         Parameter values, only obtained if the execution exceeded the threshold
+     * @return Details of the execution if it exceeded the threshold, otherwise {@code null}
+     */
+    SlowStatementRecord statementCompleted(FbDatabase database, FbStatement statement, String sql,
+            ParameterValues parameters) {
+        if (!running) {
+            return null;
+        }
+        running = false;
+        final long operationNanos = getOperationNanos(statement);
+        startStatement = null;
+        lastExecutionSlow = operationNanos >= thresholdNanos;
+        if (!lastExecutionSlow) {
+            return null;
+        }
+        final long endRoundTrips = getRoundTrips(database);
+        final long[] endPageCounters = startPageCounters != null ? getPageCounters(database) : null;
+        final SlowStatementRecord slowStatement = new SlowStatementRecord(sql != null ? sql : "",
+                parameters.getParameterValues(), operationNanos,
+                endRoundTrips != -1 && startRoundTrips != -1 ? endRoundTrips - startRoundTrips : -1,
+                getRowCounts(statement), getExecutionPlan(statement), delta(startPageCounters, endPageCounters));
+        report(slowStatement);
+        return slowStatement;
+    }
+
+    private long getOperationNanos(FbStatement statement) {
+        if (statement == null) {
+            return 0;
+        }
+        // A statement allocated during the execution started at zero
+        return statement == startStatement
+                ? statement.getOperationNanos() - startOperationNanos
+                : statement.getOperationNanos();
+    }
+
+    static void report(SlowStatementRecord slowStatement) {
+        log.warn(slowStatement);
+        for (SlowStatementListener listener : ListenerHolder.LISTENERS) {
+            try {
+                listener.slowStatement(slowStatement);
+            } catch (RuntimeException e) {
+                log.warn("Exception in SlowStatementListener " + listener.getClass().getName(), e);
+            }
+        }
+    }
+
+    static long[] delta(long[] start, long[] end) {
+        if (start == null || end == null) {
+            return UNKNOWN_COUNTERS;
+        }
+        final long[] delta = new long[start.length];
+        for (int idx = 0; idx < start.length; idx++) {
+            delta[idx] = start[idx] != -1 && end[idx] != -1 ? end[idx] - start[idx] : -1;
+        }
+        return delta;
+    }
+
+    private static long getRoundTrips(FbDatabase database) {
+        final MetricsListener metricsListener = database.getMetricsListener();
+        return metricsListener instanceof RoundTripCounter ? ((RoundTripCounter) metricsListener).getRoundTrips() : -1;
+    }
+
+    private static long[] getPageCounters(FbDatabase database) {
+        try {
+            return database.getDatabaseInfo(PAGE_COUNTER_ITEMS, PAGE_COUNTER_BUFFER_LENGTH, new PageCounterProcessor());
+        } catch (SQLException e) {
+            log.debug("Unable to retrieve page counters for slow statement log", e);
+            return null;
+        }
+    }
+
+    private static long[] getRowCounts(FbStatement statement) {
+        if (statement != null) {
+            try {
+                final SqlCountHolder sqlCounts = statement.getSqlCounts();
+                if (sqlCounts != null) {
+                    return new long[] { sqlCounts.getLongSelectCount(), sqlCounts.getLongInsertCount(),
+                            sqlCounts.getLongUpdateCount(), sqlCounts.getLongDeleteCount() };
+                }
+            } catch (SQLException e) {
+                log.debug("Unable to retrieve row counts for slow statement log", e);
+            }
+        }
+        return UNKNOWN_COUNTERS;
+    }
+
+    private static String getExecutionPlan(FbStatement statement) {
+        if (statement != null) {
+            try {
+                return statement.getExecutionPlan();
+            } catch (SQLException e) {
+                log.debug("Unable to retrieve execution plan for slow statement log", e);
+            }
+        }
+        return null;
+    }
+
+    private static List<SlowStatementListener> loadListeners() {
+        final List<SlowStatementListener> listeners = new ArrayList<>();
+        final Iterator<SlowStatementListener> providers = ServiceLoader
+                .load(SlowStatementListener.class, SlowStatementLog.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    return listeners;
+                }
+                listeners.add(providers.next());
+            } catch (ServiceConfigurationError e) {
+                log.warn("Unable to load SlowStatementListener service provider; see debug level for stacktrace");
+                log.debug("Unable to load SlowStatementListener service provider", e);
+            }
+        }
+    }
+
+    /**
+     * Parameter values of an execution for the slow statement log.
+     */
+    interface ParameterValues {
+
+        /**
+         * @return Parameter values as text (already redacted)
+         */
+        List<String> getParameterValues();
+    }
+
+    /**
+     * Processes the response to {@link #PAGE_COUNTER_ITEMS} into an array of reads, writes, fetches and marks.
+     */
+    static final class PageCounterProcessor implements InfoProcessor<long[]> {
+
+        @Override
+        public long[] process(byte[] info) throws SQLException {
+            final long[] counters = Arrays.copyOf(UNKNOWN_COUNTERS, UNKNOWN_COUNTERS.length);
+            int pos = 0;
+            while (pos < info.length && info[pos] != ISCConstants.isc_info_end) {
+                final int item = info[pos++];
+                final int length = iscVaxInteger2(info, pos);
+                pos += 2;
+                final long value = iscVaxLong(info, pos, length);
+                pos += length;
+                switch (item) {
+                case ISCConstants.isc_info_reads:
+                    counters[0] = value;
+                    break;
+                case ISCConstants.isc_info_writes:
+                    counters[1] = value;
+                    break;
+                case ISCConstants.isc_info_fetches:
+                    counters[2] = value;
+                    break;
+                case ISCConstants.isc_info_marks:
+                    counters[3] = value;
+                    break;
+                default:
+                    throw new SQLException("Unexpected info item " + item + " in page counter response");
+                }
+            }
+            return counters;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Details of a statement execution exceeding the slow statement threshold.
+ * <p>
+ * Values that could not be obtained are reported as {@code -1} (counters) or {@code null} (execution plan).
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class SlowStatementRecord {
+
+    private final String sql;
+    private final List<String> parameters;
+    private final long elapsedNanos;
+    private final long roundTrips;
+    private final long selectCount;
+    private final long insertCount;
+    private final long updateCount;
+    private final long deleteCount;
+    private final String executionPlan;
+    private final long pageReads;
+    private final long pageWrites;
+    private final long pageFetches;
+    private final long pageMarks;
+
+    SlowStatementRecord(String sql, List<String> parameters, long elapsedNanos, long roundTrips, long[] rowCounts,
+            String executionPlan, long[] pageCounters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.elapsedNanos = elapsedNanos;
+        this.roundTrips = roundTrips;
+        selectCount = rowCounts[0];
+        insertCount = rowCounts[1];
+        updateCount = rowCounts[2];
+        deleteCount = rowCounts[3];
+        this.executionPlan = executionPlan;
+        pageReads = pageCounters[0];
+        pageWrites = pageCounters[1];
+        pageFetches = pageCounters[2];
+        pageMarks = pageCounters[3];
+    }
+
+    /**
+     * @return SQL of the statement (after escape processing)
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Parameter values as text, with string and binary values redacted (empty for statements without
+     * parameters)
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return Time of the prepare, execute and fetch operations of the execution in nanoseconds; time the application
+     * spent between fetches is not included
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Elapsed time in milliseconds
+     * @see #getElapsedNanos()
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return Number of round-trips to the server during the execution
+     */
+    public long getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * @return Number of rows selected
+     */
+    public long getSelectCount() {
+        return selectCount;
+    }
+
+    /**
+     * @return Number of rows inserted
+     */
+    public long getInsertCount() {
+        return insertCount;
+    }
+
+    /**
+     * @return Number of rows updated
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @return Number of rows deleted
+     */
+    public long getDeleteCount() {
+        return deleteCount;
+    }
+
+    /**
+     * @return Execution plan of the statement
+     */
+    public String getExecutionPlan() {
+        return executionPlan;
+    }
+
+    /**
+     * @return Page reads (from disk) of the connection during the execution, or {@code -1} if not
+     * measured (only measured if the previous execution of the statement was slow as well)
+     */
+    public long getPageReads() {
+        return pageReads;
+    }
+
+    /**
+     * @return Page writes (to disk) of the connection during the execution, or {@code -1} if not
+     * measured (only measured if the previous execution of the statement was slow as well)
+     */
+    public long getPageWrites() {
+        return pageWrites;
+    }
+
+    /**
+     * @return Page fetches (from the page cache) of the connection during the execution, or {@code -1} if not
+     * measured (only measured if the previous execution of the statement was slow as well)
+     */
+    public long getPageFetches() {
+        return pageFetches;
+    }
+
+    /**
+     * @return Page marks (changes in the page cache) of the connection during the execution, or {@code -1} if not
+     * measured (only measured if the previous execution of the statement was slow as well)
+     */
+    public long getPageMarks() {
+        return pageMarks;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(256 + sql.length())
+                .append("Slow statement (").append(getElapsedMillis()).append(" ms): ").append(sql);
+        if (!parameters.isEmpty()) {
+            sb.append("\n  parameters: ").append(parameters);
+        }
+        sb.append("\n  rows: select=").append(selectCount)
+                .append(", insert=").append(insertCount)
+                .append(", update=").append(updateCount)
+                .append(", delete=").append(deleteCount)
+                .append("; round-trips: ").append(roundTrips)
+                .append("\n  pages: reads=").append(pageReads)
+                .append(", writes=").append(pageWrites)
+                .append(", fetches=").append(pageFetches)
+                .append(", marks=").append(pageMarks);
+        if (executionPlan != null) {
+            sb.append("\n  plan: ").append(executionPlan.trim());
+        }
+        return sb.toString();
+    }
+}
@@ -19,14 +19,15 @@
 
 package org.firebirdsql.jdbc;
 
+import org.firebirdsql.gds.ng.LockCloseable;
+
 import java.sql.SQLException;
 
 /**
- * Provides synchronization object. Instances implementing this interface
- * provide objects that are later used in <code>synchronized</code> block:
+ * Provides a lock. Instances implementing this interface provide a lock that is acquired in a try-with-resources
+ * block and released at its end:
  * <pre>
- * Object syncObject = someSynchronizable.getSynchronizationObject();
- * synchronized(syncObject) {
+ * try (LockCloseable ignored = someSynchronizable.withLock()) {
  *     // do something...
  * }
  * </pre>
@@ -36,11 +37,11 @@ import java.sql.SQLException;
 public interface Synchronizable {
     
     /**
-     * Get synchronization object.
+     * Acquire the lock.
      * 
-     * @return object, cannot be <code>null</code>.
+     * @return closeable that releases the lock, cannot be <code>null</code>.
      * 
      * @throws SQLException if something went wrong.
      */
-    Object getSynchronizationObject() throws SQLException;
+    LockCloseable withLock() throws SQLException;
 }
\ No newline at end of file
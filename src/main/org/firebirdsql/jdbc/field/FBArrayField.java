@@ -0,0 +1,330 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc.field;
+
+import org.firebirdsql.gds.ng.DatatypeCoder;
+import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
+import org.firebirdsql.gds.ng.fields.FieldDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.firebirdsql.gds.ng.listeners.DefaultStatementListener;
+import org.firebirdsql.jdbc.FBArray;
+import org.firebirdsql.jdbc.SQLStateConstants;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+
+/**
+ * Field implementation for {@code ARRAY} columns.
+ * <p>
+ * The whole array is read and written as a single slice (see
+ * {@link org.firebirdsql.gds.ng.FbDatabase#getArraySlice(org.firebirdsql.gds.ng.FbTransaction, long, ArrayDescriptor)}).
+ * The element type and bounds are looked up in the system tables on first use and cached in this field.
+ * </p>
+ * <p>
+ * Values can be set as an {@link Array}, or as a Java array (primitive or {@code Number} elements) with the same
+ * number of dimensions as the column; dimensions shorter than declared are padded with {@code 0}. As with blobs,
+ * the value is converted and written to the database when the field is flushed, as a transaction is needed for
+ * both; a Java array is copied when set.
+ * </p>
+ *
+ * @since 3.0
+ */
+class FBArrayField extends FBField implements FBFlushableField {
+
+    private static final String ARRAY_DESCRIPTOR_QUERY =
+            "SELECT F.RDB$FIELD_TYPE, F.RDB$FIELD_SCALE, D.RDB$LOWER_BOUND, D.RDB$UPPER_BOUND "
+                    + "FROM RDB$RELATION_FIELDS RF "
+                    + "INNER JOIN RDB$FIELDS F ON F.RDB$FIELD_NAME = RF.RDB$FIELD_SOURCE "
+                    + "INNER JOIN RDB$FIELD_DIMENSIONS D ON D.RDB$FIELD_NAME = F.RDB$FIELD_NAME "
+                    + "WHERE RF.RDB$RELATION_NAME = ? AND RF.RDB$FIELD_NAME = ? "
+                    + "ORDER BY D.RDB$DIMENSION";
+    private static final int MAX_DIMENSIONS = 16;
+
+    private ArrayDescriptor arrayDescriptor;
+    private Object pendingValue;
+
+    FBArrayField(FieldDescriptor fieldDescriptor, FieldDataProvider dataProvider, int requiredType)
+            throws SQLException {
+        super(fieldDescriptor, dataProvider, requiredType);
+    }
+
+    @Override
+    public Array getArray() throws SQLException {
+        final byte[] arrayIdBuffer = getFieldData();
+        if (arrayIdBuffer == null) return null;
+
+        final ArrayDescriptor arrayDescriptor = getArrayDescriptor();
+        final long arrayId = getDatatypeCoder().decodeLong(arrayIdBuffer);
+        return new FBArray(arrayDescriptor, gdsHelper.getArraySlice(arrayId, arrayDescriptor));
+    }
+
+    @Override
+    public void setObject(Object value) throws SQLException {
+        if (value == null) {
+            setNull();
+        } else if (value instanceof Array) {
+            setPendingValue(value);
+        } else if (value.getClass().isArray()) {
+            // Copy, as the value is only converted and written when the field is flushed
+            setPendingValue(copyJavaArray(value));
+        } else {
+            super.setObject(value);
+        }
+    }
+
+    @Override
+    public void setNull() {
+        super.setNull();
+        pendingValue = null;
+    }
+
+    public void flushCachedData() throws SQLException {
+        if (pendingValue == null) return;
+        final ArrayDescriptor arrayDescriptor = getArrayDescriptor();
+        final Object flatArray;
+        if (pendingValue instanceof FBArray
+                && ((FBArray) pendingValue).getArrayDescriptor().equals(arrayDescriptor)) {
+            flatArray = ((FBArray) pendingValue).getFlatArray();
+        } else if (pendingValue instanceof Array) {
+            flatArray = toFlatArray(((Array) pendingValue).getArray());
+        } else {
+            flatArray = toFlatArray(pendingValue);
+        }
+        final long arrayId = gdsHelper.putArraySlice(arrayDescriptor, flatArray);
+        setFieldData(getDatatypeCoder().encodeLong(arrayId));
+        pendingValue = null;
+    }
+
+    public byte[] getCachedData() throws SQLException {
+        return getFieldData();
+    }
+
+    public FBFlushableField.CachedObject getCachedObject() throws SQLException {
+        return new CachedArray(getFieldData(), pendingValue);
+    }
+
+    public void setCachedObject(FBFlushableField.CachedObject cachedObject) throws SQLException {
+        // setNull() to reset field to empty state
+        setNull();
+        if (cachedObject instanceof CachedArray && ((CachedArray) cachedObject).value != null) {
+            pendingValue = ((CachedArray) cachedObject).value;
+        } else if (cachedObject.bytes != null) {
+            setFieldData(cachedObject.bytes);
+        }
+    }
+
+    private void setPendingValue(Object value) {
+        // setNull() to reset field to empty state
+        setNull();
+        pendingValue = value;
+    }
+
+    private ArrayDescriptor getArrayDescriptor() throws SQLException {
+        if (arrayDescriptor == null) {
+            arrayDescriptor = lookupArrayDescriptor();
+        }
+        return arrayDescriptor;
+    }
+
+    private ArrayDescriptor lookupArrayDescriptor() throws SQLException {
+        final String relationName = fieldDescriptor.getOriginalTableName();
+        final String fieldName = fieldDescriptor.getOriginalName();
+        if (relationName == null || relationName.isEmpty() || fieldName == null || fieldName.isEmpty()) {
+            throw new SQLNonTransientException(
+                    String.format("Array %s is not a column of a table, its type and bounds are unknown", getName()),
+                    SQLStateConstants.SQL_STATE_GENERAL_ERROR);
+        }
+        final FbStatement statement = gdsHelper.allocateStatement();
+        try {
+            statement.prepare(ARRAY_DESCRIPTOR_QUERY);
+            final RowDescriptor parameterDescriptor = statement.getParameterDescriptor();
+            final DatatypeCoder datatypeCoder = parameterDescriptor.getDatatypeCoder();
+            final RowValue parameters = RowValue.of(parameterDescriptor,
+                    datatypeCoder.encodeString(relationName,
+                            datatypeCoder.getEncodingFactory().getDefaultEncoding(), mappingPath),
+                    datatypeCoder.encodeString(fieldName,
+                            datatypeCoder.getEncodingFactory().getDefaultEncoding(), mappingPath));
+            final RowListener rowListener = new RowListener();
+            statement.addStatementListener(rowListener);
+            statement.execute(parameters);
+            statement.fetchRows(MAX_DIMENSIONS + 1);
+
+            final List<RowValue> rows = rowListener.rows;
+            if (rows.isEmpty()) {
+                throw new SQLNonTransientException(
+                        String.format("No array dimensions found for %s.%s", relationName, fieldName),
+                        SQLStateConstants.SQL_STATE_GENERAL_ERROR);
+            }
+            final int[] lowerBounds = new int[rows.size()];
+            final int[] upperBounds = new int[rows.size()];
+            for (int idx = 0; idx < rows.size(); idx++) {
+                final RowValue row = rows.get(idx);
+                lowerBounds[idx] = datatypeCoder.decodeInt(row.getFieldValue(2).getFieldData());
+                upperBounds[idx] = datatypeCoder.decodeInt(row.getFieldValue(3).getFieldData());
+            }
+            final RowValue firstRow = rows.get(0);
+            final byte[] scaleData = firstRow.getFieldValue(1).getFieldData();
+            return new ArrayDescriptor(relationName, fieldName,
+                    datatypeCoder.decodeShort(firstRow.getFieldValue(0).getFieldData()),
+                    scaleData != null ? datatypeCoder.decodeShort(scaleData) : 0,
+                    lowerBounds, upperBounds);
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Converts a (multi-dimensional) Java array to the flat array of the column.
+     */
+    private Object toFlatArray(Object javaArray) throws SQLException {
+        final ArrayDescriptor arrayDescriptor = getArrayDescriptor();
+        final Object flatArray = arrayDescriptor.newFlatArray();
+        copyToFlatArray(javaArray, 0, 0, flatArray);
+        return flatArray;
+    }
+
+    private void copyToFlatArray(Object javaArray, int dimension, int flatOffset, Object flatArray)
+            throws SQLException {
+        final int dimensions = arrayDescriptor.getDimensions();
+        final int declaredLength = arrayDescriptor.getDimensionLength(dimension);
+        final int length = java.lang.reflect.Array.getLength(javaArray);
+        if (length > declaredLength) {
+            throw new TypeConversionException(String.format(
+                    "Array dimension %d has %d elements, column allows %d", dimension + 1, length, declaredLength));
+        }
+        if (dimension < dimensions - 1) {
+            if (!(javaArray instanceof Object[])) {
+                throw new TypeConversionException(
+                        String.format("Expected array with %d dimensions for %s", dimensions, getName()));
+            }
+            int stride = 1;
+            for (int subDimension = dimension + 1; subDimension < dimensions; subDimension++) {
+                stride *= arrayDescriptor.getDimensionLength(subDimension);
+            }
+            final Object[] subArrays = (Object[]) javaArray;
+            for (int idx = 0; idx < length; idx++) {
+                if (subArrays[idx] == null || !subArrays[idx].getClass().isArray()) {
+                    throw new TypeConversionException(
+                            String.format("Expected array with %d dimensions for %s", dimensions, getName()));
+                }
+                copyToFlatArray(subArrays[idx], dimension + 1, flatOffset + idx * stride, flatArray);
+            }
+        } else if (javaArray.getClass() == flatArray.getClass() && arrayDescriptor.getScale() == 0) {
+            System.arraycopy(javaArray, 0, flatArray, flatOffset, length);
+        } else {
+            for (int idx = 0; idx < length; idx++) {
+                setElement(flatArray, flatOffset + idx, java.lang.reflect.Array.get(javaArray, idx));
+            }
+        }
+    }
+
+    private void setElement(Object flatArray, int index, Object element) throws SQLException {
+        if (!(element instanceof Number)) {
+            throw new TypeConversionException(String.format("Array element %s is not a number", element));
+        }
+        final Number number = (Number) element;
+        switch (arrayDescriptor.getBlrType()) {
+        case blr_float:
+            ((float[]) flatArray)[index] = number.floatValue();
+            return;
+        case blr_double:
+            ((double[]) flatArray)[index] = number.doubleValue();
+            return;
+        }
+        final long value = toUnscaledValue(number);
+        switch (arrayDescriptor.getBlrType()) {
+        case blr_short:
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new TypeConversionException(String.format("Array element %s out of range", element));
+            }
+            ((short[]) flatArray)[index] = (short) value;
+            break;
+        case blr_long:
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new TypeConversionException(String.format("Array element %s out of range", element));
+            }
+            ((int[]) flatArray)[index] = (int) value;
+            break;
+        default:
+            ((long[]) flatArray)[index] = value;
+            break;
+        }
+    }
+
+    private long toUnscaledValue(Number number) throws SQLException {
+        final int scale = arrayDescriptor.getScale();
+        if (scale == 0 && (number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte)) {
+            return number.longValue();
+        }
+        final BigDecimal decimal = number instanceof BigDecimal
+                ? (BigDecimal) number
+                : new BigDecimal(number.toString());
+        final BigInteger unscaled = decimal.setScale(-scale, BigDecimal.ROUND_HALF_UP).unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            throw new TypeConversionException(String.format("Array element %s out of range", number));
+        }
+        return unscaled.longValue();
+    }
+
+    private static Object copyJavaArray(Object javaArray) {
+        final int length = java.lang.reflect.Array.getLength(javaArray);
+        final Object copy = java.lang.reflect.Array.newInstance(javaArray.getClass().getComponentType(), length);
+        System.arraycopy(javaArray, 0, copy, 0, length);
+        if (copy instanceof Object[]) {
+            final Object[] elements = (Object[]) copy;
+            for (int idx = 0; idx < length; idx++) {
+                if (elements[idx] != null && elements[idx].getClass().isArray()) {
+                    elements[idx] = copyJavaArray(elements[idx]);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Cached value for batch execution: either the array id, or the value still to be written.
+     */
+    private static final class CachedArray extends FBFlushableField.CachedObject {
+        private final Object value;
+
+        private CachedArray(byte[] arrayId, Object value) {
+            super(arrayId, null, null, 0);
+            this.value = value;
+        }
+    }
+
+    private static final class RowListener extends DefaultStatementListener {
+        private final List<RowValue> rows = new ArrayList<>();
+
+        @Override
+        public void receivedRow(FbStatement sender, RowValue rowValue) {
+            rows.add(rowValue);
+        }
+    }
+}
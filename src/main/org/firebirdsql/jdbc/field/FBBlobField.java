@@ -19,11 +19,13 @@
 package org.firebirdsql.jdbc.field;
 
 import org.firebirdsql.gds.ng.FbBlob;
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.gds.ng.fields.FieldDescriptor;
 import org.firebirdsql.jdbc.FBBlob;
 import org.firebirdsql.jdbc.FBClob;
 import org.firebirdsql.jdbc.Synchronizable;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
 import java.sql.Blob;
@@ -87,6 +89,8 @@ class FBBlobField extends FBField implements FBFlushableField {
         // getBinaryStream() is not defined for BLOB types, only for BINARY
         if (fieldDescriptor.getSubType() < 0)
             throw new TypeConversionException(BINARY_STREAM_CONVERSION_ERROR);
+        final byte[] prefetched = takePrefetchedBlob();
+        if (prefetched != null) return new ByteArrayInputStream(prefetched);
 
         Blob blob = getBlob();
         if (blob == null) return null;
@@ -107,8 +111,10 @@ class FBBlobField extends FBField implements FBFlushableField {
         final byte[] blobIdBuffer = getFieldData();
         if (blobIdBuffer == null) return null;
 
+        final byte[] prefetched = takePrefetchedBlob();
+        if (prefetched != null) return prefetched;
         final long blobId = getDatatypeCoder().decodeLong(blobIdBuffer);
-        synchronized (((Synchronizable) getBlob()).getSynchronizationObject()) {
+        try (LockCloseable ignored = ((Synchronizable) getBlob()).withLock()) {
             final FbBlob blobHandle = gdsHelper.openBlob(blobId, FBBlob.SEGMENTED);
 
             try {
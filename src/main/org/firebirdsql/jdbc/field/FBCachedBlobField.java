@@ -55,4 +55,10 @@ final class FBCachedBlobField extends FBBlobField {
         return getFieldData();
     }
     
+
+    @Override
+    byte[] takePrefetchedBlob() {
+        // Field data is the blob content, not the blob id
+        return null;
+    }
 }
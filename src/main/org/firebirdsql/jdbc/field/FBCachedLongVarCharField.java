@@ -51,4 +51,10 @@ final class FBCachedLongVarCharField extends FBLongVarCharField {
     	if (isNull()) return null;
     	return new FBCachedClob((FBCachedBlob)getBlob(), gdsHelper.getJavaEncoding());
     }
-}
\ No newline at end of file
+
+    @Override
+    byte[] takePrefetchedBlob() {
+        // Field data is the blob content, not the blob id
+        return null;
+    }
+}
@@ -139,6 +139,19 @@ public abstract class FBField {
         setFieldData(null);
     }
 
+    /**
+     * Enables deduplication of decoded string values for this field.
+     * <p>
+     * Only has an effect for fields that decode to strings ({@code CHAR} and {@code VARCHAR}).
+     * </p>
+     *
+     * @param deduplicateStrings
+     *         <code>true</code> to deduplicate string values
+     */
+    public void setDeduplicateStrings(boolean deduplicateStrings) {
+        // Default: no string values to deduplicate
+    }
+
     public void setConnection(GDSHelper gdsHelper) {
         this.gdsHelper = gdsHelper;
 
@@ -301,7 +314,7 @@ public abstract class FBField {
         case Types.NULL:
             return new FBNullField(fieldDescriptor, dataProvider, jdbcType);
         case Types.ARRAY:
-            throw new FBDriverNotCapableException(FBField.SQL_ARRAY_NOT_SUPPORTED);
+            return new FBArrayField(fieldDescriptor, dataProvider, jdbcType);
         default:
             throw new FBDriverNotCapableException(FBField.SQL_TYPE_NOT_SUPPORTED);
         }
@@ -715,6 +728,18 @@ public abstract class FBField {
         throw new TypeConversionException(FBField.TIMESTAMP_CONVERSION_ERROR);
     }
 
+    /**
+     * Takes the content of the blob of this field if it was prefetched, see
+     * {@link GDSHelper#takePrefetchedBlob(long)}.
+     *
+     * @return Content of the blob, or {@code null} if this field is {@code NULL} or the blob was not prefetched
+     */
+    byte[] takePrefetchedBlob() {
+        final byte[] blobIdBuffer = getFieldData();
+        if (blobIdBuffer == null || gdsHelper == null) return null;
+        return gdsHelper.takePrefetchedBlob(getDatatypeCoder().decodeLong(blobIdBuffer));
+    }
+
     protected boolean isInvertTimeZone() {
         if (gdsHelper == null) return false;
 
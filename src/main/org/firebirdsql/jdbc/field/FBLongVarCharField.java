@@ -23,6 +23,7 @@ import org.firebirdsql.jdbc.FBBlob;
 import org.firebirdsql.jdbc.FBClob;
 import org.firebirdsql.jdbc.FBSQLException;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -95,6 +96,9 @@ public class FBLongVarCharField extends FBStringField implements FBFlushableFiel
     }
     
     public InputStream getBinaryStream() throws SQLException {
+        final byte[] prefetched = takePrefetchedBlob();
+        if (prefetched != null) return new ByteArrayInputStream(prefetched);
+
         Blob blob = getBlob();
 
         if (blob == null)
@@ -104,6 +108,8 @@ public class FBLongVarCharField extends FBStringField implements FBFlushableFiel
     }
     
     public byte[] getBytes() throws SQLException {
+        final byte[] prefetched = takePrefetchedBlob();
+        if (prefetched != null) return prefetched;
 
         Blob blob = getBlob();
 
@@ -61,6 +61,7 @@ class FBStringField extends FBField {
     
     protected final int possibleCharLength;
     protected final EncodingDefinition encodingDefinition;
+    private StringDeduplicationCache stringCache;
 
     FBStringField(FieldDescriptor fieldDescriptor, FieldDataProvider dataProvider, int requiredType)
             throws SQLException {
@@ -187,8 +188,45 @@ class FBStringField extends FBField {
     }
 
     public String getString() throws SQLException {
-        if (isNull()) return null;
-        return getDatatypeCoder().decodeString(getFieldData(), encodingDefinition.getEncoding(), mappingPath);
+        final byte[] fieldData = getFieldData();
+        if (fieldData == null) return null;
+        final StringDeduplicationCache stringCache = this.stringCache;
+        if (stringCache == null) {
+            return decodeString(fieldData);
+        }
+        String result = stringCache.get(fieldData);
+        if (result == null) {
+            result = decodeString(fieldData);
+            stringCache.put(fieldData, result);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the field data to the string value of this field.
+     *
+     * @param fieldData
+     *         Field data (not <code>null</code>)
+     * @return String value
+     * @throws SQLException
+     *         For errors decoding the value
+     */
+    protected String decodeString(byte[] fieldData) throws SQLException {
+        return getDatatypeCoder().decodeString(fieldData, encodingDefinition.getEncoding(), mappingPath);
+    }
+
+    @Override
+    public void setDeduplicateStrings(boolean deduplicateStrings) {
+        stringCache = deduplicateStrings ? new StringDeduplicationCache() : null;
+    }
+
+    /**
+     * Clears the cached string values, needs to be called when the result of {@link #decodeString(byte[])} changes.
+     */
+    protected final void clearStringCache() {
+        if (stringCache != null) {
+            stringCache = new StringDeduplicationCache();
+        }
     }
     
     //----- getXXXStream code
@@ -63,7 +63,10 @@ public final class FBWorkaroundStringField extends FBStringField {
     }
     
     public void setTrimString(boolean trimString) {
-        this.trimString = trimString;
+        if (this.trimString != trimString) {
+            this.trimString = trimString;
+            clearStringCache();
+        }
     }
 
     public void setString(String value) throws SQLException {
@@ -97,16 +100,13 @@ public final class FBWorkaroundStringField extends FBStringField {
     }   
     
     /**
-     * Get string value of this field.
+     * Decode the string value of this field.
      * 
-     * @return string value of this filed or <code>null</code> if the value is 
-     * NULL.
+     * @return string value of this field
      */
-    public String getString() throws SQLException {
-        String result = super.getString();
-        
-        if (result == null)
-            return null;
+    @Override
+    protected String decodeString(byte[] fieldData) throws SQLException {
+        String result = super.decodeString(fieldData);
         
         if (isType(fieldDescriptor, Types.VARCHAR))
             return result;
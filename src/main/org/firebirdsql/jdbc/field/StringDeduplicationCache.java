@@ -0,0 +1,116 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc.field;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache of decoded string values for a single column, keyed on the raw bytes.
+ * <p>
+ * This is a direct-mapped cache: each value maps to a single slot (based on a hash of the bytes), and a new value
+ * replaces the value in its slot. This is intended for columns with few distinct values; if - after a number of
+ * lookups - the fraction of hits is low, the cache disables itself to avoid the overhead of copying the keys.
+ * </p>
+ * <p>
+ * This class is not thread-safe for updates of the statistics, but concurrent use does not return incorrect values.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class StringDeduplicationCache {
+
+    private static final int CACHE_SIZE = 128;
+    /**
+     * Maximum length of values to cache; longer values are unlikely to be low-cardinality codes.
+     */
+    static final int MAX_VALUE_LENGTH = 256;
+    /**
+     * Number of lookups after which the hit ratio is evaluated.
+     */
+    static final int EVALUATION_LOOKUPS = 1024;
+
+    private final Entry[] entries = new Entry[CACHE_SIZE];
+    private int lookups;
+    private int hits;
+    private boolean disabled;
+
+    /**
+     * Returns the cached string value for the bytes.
+     *
+     * @param data
+     *         Raw bytes
+     * @return Cached string, or <code>null</code> if there is no cached value
+     */
+    String get(byte[] data) {
+        if (disabled || data.length > MAX_VALUE_LENGTH) return null;
+        final Entry entry = entries[slot(data)];
+        final boolean hit = entry != null && Arrays.equals(entry.data, data);
+        if (lookups < EVALUATION_LOOKUPS) {
+            lookups++;
+            if (hit) {
+                hits++;
+            }
+            if (lookups == EVALUATION_LOOKUPS && hits < EVALUATION_LOOKUPS / 2) {
+                disable();
+            }
+        }
+        return hit ? entry.value : null;
+    }
+
+    /**
+     * Caches the string value for the bytes.
+     *
+     * @param data
+     *         Raw bytes (a copy is stored)
+     * @param value
+     *         Decoded string value
+     */
+    void put(byte[] data, String value) {
+        if (disabled || data.length > MAX_VALUE_LENGTH) return;
+        entries[slot(data)] = new Entry(data.clone(), value);
+    }
+
+    boolean isDisabled() {
+        return disabled;
+    }
+
+    private void disable() {
+        disabled = true;
+        Arrays.fill(entries, null);
+    }
+
+    private static int slot(byte[] data) {
+        int hash = data.length;
+        for (byte b : data) {
+            hash = 31 * hash + b;
+        }
+        hash ^= (hash >>> 16);
+        return hash & (CACHE_SIZE - 1);
+    }
+
+    private static final class Entry {
+        private final byte[] data;
+        private final String value;
+
+        private Entry(byte[] data, String value) {
+            this.data = data;
+            this.value = value;
+        }
+    }
+}
@@ -29,6 +29,9 @@ import java.util.Arrays;
 import java.io.OutputStream;
 import java.io.InputStream;
 import java.io.BufferedInputStream;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 
 import static org.firebirdsql.gds.ISCConstants.*;
 import static org.firebirdsql.gds.VaxEncoding.iscVaxInteger2;
@@ -52,6 +55,9 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
     private final int DATA_NOT_READY = 0;
     private final int END_OF_STREAM = -1;
 
+    private int pipelineDepth = 0;
+    private Checksum checksum = null;
+
     /**
      * Set the local buffer size to be used when doing a backup. Default is
      * 30720
@@ -66,6 +72,62 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
         this.backupBufferSize = bufferSize;
     }
 
+    /**
+     * Set the number of data chunks that can be in transit between the service connection and the backup output
+     * stream or restore input stream. Default is 0 (pipelining disabled).
+     * <p>
+     * With a positive depth, a backup hands the data received from the service to a separate writer thread, so the
+     * next service info request is sent while the previous chunk is still being written. A restore reads the input
+     * stream ahead on a separate reader thread, so the data for the next {@code isc_info_svc_stdin} request is
+     * available without waiting on the input stream. A compressing stream (eg {@link java.util.zip.GZIPOutputStream})
+     * set as the backup output stream (or decompressing stream as the restore input stream) is then also processed
+     * on that separate thread.
+     * </p>
+     * <p>
+     * Memory use is bounded by roughly {@code pipelineDepth} times the backup buffer size (see
+     * {@link #setBackupBufferSize(int)}) for backups, and {@code pipelineDepth} times 65532 bytes for restores.
+     * </p>
+     *
+     * @param pipelineDepth
+     *        Number of chunks in transit, 0 to disable pipelining
+     */
+    public void setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth < 0) {
+            throw new IllegalArgumentException("Pipeline depth must be positive or 0");
+        }
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * @return Number of chunks in transit, 0 if pipelining is disabled
+     * @see #setPipelineDepth(int)
+     */
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    /**
+     * Set a checksum to be updated with all backup data written to the backup output stream, or all data read from
+     * the restore input stream. Default is {@code null} (no checksum).
+     * <p>
+     * The checksum is not reset by this class; the caller can reset it between operations.
+     * </p>
+     *
+     * @param checksum
+     *        Checksum (eg {@link java.util.zip.CRC32}), or {@code null} to disable
+     */
+    public void setChecksum(Checksum checksum) {
+        this.checksum = checksum;
+    }
+
+    /**
+     * @return Checksum updated by backup and restore operations, or {@code null}
+     * @see #setChecksum(Checksum)
+     */
+    public Checksum getChecksum() {
+        return checksum;
+    }
+
     /**
      * Create a new instance of <code>FBStreamingBackupManager</code> based on
      * the default GDSType.
@@ -123,7 +185,14 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
         }
 
         try (FbService service = attachServiceManager()) {
-            executeServiceBackupOperation(service, getBackupSRB(service, options));
+            if (pipelineDepth > 0) {
+                executePipelinedBackupOperation(service, getBackupSRB(service, options));
+            } else {
+                final OutputStream out = checksum != null
+                        ? new CheckedOutputStream(backupOutputStream, checksum)
+                        : backupOutputStream;
+                executeServiceBackupOperation(service, getBackupSRB(service, options), out);
+            }
         }
     }
 
@@ -132,7 +201,14 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
             throw new SQLException("No input stream specified for the restore.");
         }
         try (FbService service = attachServiceManager()) {
-            executeServiceRestoreOperation(service, getRestoreSRB(service, options));
+            if (pipelineDepth > 0) {
+                executePipelinedRestoreOperation(service, getRestoreSRB(service, options));
+            } else {
+                final BufferedInputStream in = checksum != null
+                        ? new BufferedInputStream(new CheckedInputStream(restoreInputStream, checksum), MAX_RESTORE_CHUNK)
+                        : restoreInputStream;
+                executeServiceRestoreOperation(service, getRestoreSRB(service, options), in);
+            }
         }
     }
 
@@ -183,7 +259,38 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
         restoreSPB.addArgument(isc_spb_bkp_file, "stdin");
     }
 
-    private void executeServiceBackupOperation(FbService service, ServiceRequestBuffer srb) throws SQLException {
+    private void executePipelinedBackupOperation(FbService service, ServiceRequestBuffer srb) throws SQLException {
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(backupOutputStream, checksum, pipelineDepth);
+        boolean success = false;
+        try {
+            executeServiceBackupOperation(service, srb, out);
+            out.close();
+            success = true;
+        } catch (IOException ioe) {
+            throw new SQLException(ioe);
+        } finally {
+            if (!success) {
+                out.abort();
+            }
+        }
+    }
+
+    private void executePipelinedRestoreOperation(FbService service, ServiceRequestBuffer srb) throws SQLException {
+        final ReadAheadInputStream in =
+                new ReadAheadInputStream(restoreInputStream, checksum, MAX_RESTORE_CHUNK, pipelineDepth);
+        try {
+            executeServiceRestoreOperation(service, srb, new BufferedInputStream(in, MAX_RESTORE_CHUNK));
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // ReadAheadInputStream.close does not throw
+            }
+        }
+    }
+
+    private void executeServiceBackupOperation(FbService service, ServiceRequestBuffer srb, OutputStream out)
+            throws SQLException {
         try {
             service.startServiceAction(srb);
 
@@ -199,7 +306,7 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
 
                 switch (buffer[0]) {
                 case isc_info_svc_to_eof:
-                    if (readOutput(buffer, 0, backupOutputStream) == END_OF_STREAM) {
+                    if (readOutput(buffer, 0, out) == END_OF_STREAM) {
                         processing = false;
                     }
                     break;
@@ -216,7 +323,8 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
         }
     }
 
-    private void executeServiceRestoreOperation(FbService service, ServiceRequestBuffer srb) throws SQLException {
+    private void executeServiceRestoreOperation(FbService service, ServiceRequestBuffer srb,
+            BufferedInputStream in) throws SQLException {
         try {
             service.startServiceAction(srb);
 
@@ -253,7 +361,7 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
                         int requestedBytes = Math.min(iscVaxInteger(buffer, ++codePos, 4), stdinBuffer.length);
                         codePos += 4;
                         if (requestedBytes > 0) {
-                            int actuallyReadBytes = restoreInputStream.read(stdinBuffer, 0, requestedBytes);
+                            int actuallyReadBytes = in.read(stdinBuffer, 0, requestedBytes);
                             if (actuallyReadBytes > 0) {
                                 infoSPB = service.createServiceParameterBuffer();
                                 if (stdinBuffer.length == actuallyReadBytes)
@@ -263,11 +371,11 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
                                             Arrays.copyOfRange(stdinBuffer, 0, actuallyReadBytes));
                             }
 
-                            restoreInputStream.mark(2);
-                            if (restoreInputStream.read() < 0)
+                            in.mark(2);
+                            if (in.read() < 0)
                                 sending = false;
                             else
-                                restoreInputStream.reset();
+                                in.reset();
                         }
                         break;
                     case isc_info_truncated:
@@ -314,7 +422,10 @@ public class FBStreamingBackupManager extends FBBackupManagerBase implements Bac
                 throw new SQLException("Unexpected end of stream reached.");
             }
         }
-        if (out != null) {
+        if (out instanceof WriteBehindOutputStream) {
+            // buffer is not reused, so no need to copy
+            ((WriteBehindOutputStream) out).writeOwned(buffer, offset + 3, dataLength);
+        } else if (out != null) {
             out.write(buffer, offset + 3, dataLength);
         }
         return dataLength;
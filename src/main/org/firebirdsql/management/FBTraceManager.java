@@ -18,11 +18,14 @@
  */
 package org.firebirdsql.management;
 
+import org.firebirdsql.encodings.EncodingDefinition;
+import org.firebirdsql.encodings.EncodingFactory;
 import org.firebirdsql.gds.ServiceRequestBuffer;
 import org.firebirdsql.gds.impl.GDSType;
 import org.firebirdsql.gds.ng.FbService;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,10 +46,12 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
 
         private final ServiceRequestBuffer srb;
         private final FbService service;
+        private final TraceLogParser parser;
 
-        public TraceTask(FbService service, ServiceRequestBuffer srb) {
+        public TraceTask(FbService service, ServiceRequestBuffer srb, TraceLogParser parser) {
             this.srb = srb;
             this.service = service;
+            this.parser = parser;
         }
 
         public void run() {
@@ -54,6 +59,10 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
                 System.out.println("Start trace");
                 try (FbService service = this.service) {
                     executeServicesOperation(service, srb);
+                } finally {
+                    if (parser != null) {
+                        parser.flush();
+                    }
                 }
                 System.out.println("Trace stopped");
             } catch (SQLException e) {
@@ -154,6 +163,28 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
      * @throws SQLException
      */
     public void startTraceSession(String traceSessionName, String configuration) throws SQLException {
+        startTraceSession(traceSessionName, configuration, null);
+    }
+
+    /**
+     * Starts a trace session with an optional trace session name and configuration, reporting the parsed trace
+     * events to a listener.
+     * <p>
+     * The trace output is still written to the logger (if any). The listener is called on the thread reading the
+     * trace session; see {@link TraceLogParser} for details.
+     * </p>
+     *
+     * @param traceSessionName
+     *         The trace session name (optional)
+     * @param configuration
+     *         The trace configuration. For an example, look into fbtrace.conf in the root directory of your
+     *         Firebird installation
+     * @param listener
+     *         Listener for trace events (optional)
+     * @throws SQLException
+     */
+    public void startTraceSession(String traceSessionName, String configuration, TraceEventListener listener)
+            throws SQLException {
         if (configuration == null || configuration.equals("")) {
             throw new SQLException("No configuration provided");
         }
@@ -166,13 +197,14 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
             if (currentLogger instanceof TraceStream) {
                 currentLogger = ((TraceStream) currentLogger).unwrap();
             }
-            setLogger(new TraceStream(currentLogger, traceSessionName));
+            TraceLogParser parser = listener != null ? new TraceLogParser(getTraceCharset(), listener) : null;
+            setLogger(new TraceStream(currentLogger, traceSessionName, parser));
 
             FbService service = attachServiceManager();
             ServiceRequestBuffer traceSPB = getTraceSPB(service, isc_action_svc_trace_start,
                     traceSessionName, configuration);
 
-            Thread t = new Thread(new TraceTask(service, traceSPB));
+            Thread t = new Thread(new TraceTask(service, traceSPB, parser));
             t.start();
         }
     }
@@ -274,15 +306,31 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
         return sb.toString();
     }
 
+    /**
+     * @return Character set of the trace output, based on the character set of the service connection
+     */
+    private Charset getTraceCharset() {
+        if (getCharSet() != null) {
+            EncodingDefinition encodingDefinition =
+                    EncodingFactory.getPlatformDefault().getEncodingDefinitionByFirebirdName(getCharSet());
+            if (encodingDefinition != null && encodingDefinition.getJavaCharset() != null) {
+                return encodingDefinition.getJavaCharset();
+            }
+        }
+        return Charset.defaultCharset();
+    }
+
     private class TraceStream extends FilterOutputStream {
         private static final String START_TEXT = "Trace session ID ";
 
         private final String sessionName;
+        private final TraceLogParser parser;
         private volatile boolean lookForSessionId = true;
 
-        public TraceStream(OutputStream out, String sessionName) {
+        public TraceStream(OutputStream out, String sessionName, TraceLogParser parser) {
             super(out);
             this.sessionName = sessionName;
+            this.parser = parser;
         }
 
         public void write(byte b[], int off, int len) throws IOException {
@@ -291,7 +339,13 @@ public class FBTraceManager extends FBServiceManager implements TraceManager {
                 lookForSessionId = false;
             }
 
-            super.write(b, off, len);
+            // Write the block at once instead of the byte-by-byte write of FilterOutputStream
+            if (out != null) {
+                out.write(b, off, len);
+            }
+            if (parser != null) {
+                parser.parse(b, off, len);
+            }
         }
 
         /**
@@ -0,0 +1,182 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Checksum;
+
+/**
+ * Input stream that reads ahead from a source stream on a separate reader thread.
+ * <p>
+ * Used by {@link FBStreamingBackupManager} so the restore can send {@code isc_info_svc_stdin} data without waiting
+ * for the (possibly slow, or decompressing) source stream. At most {@code depth} chunks are read ahead.
+ * </p>
+ * <p>
+ * Closing this stream stops the reader thread, but does not close the source stream.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    private static final Chunk END_OF_DATA = new Chunk(new byte[0], 0);
+
+    private final InputStream source;
+    private final Checksum checksum;
+    private final int chunkSize;
+    private final BlockingQueue<Chunk> queue;
+    private final Thread readerThread;
+    private volatile IOException failure;
+    private Chunk current;
+    private boolean closed;
+
+    /**
+     * Creates a read-ahead stream and starts its reader thread.
+     *
+     * @param source
+     *         Source input stream
+     * @param checksum
+     *         Checksum to update with all data read from source (may be {@code null})
+     * @param chunkSize
+     *         Size of the chunks read from source (must be positive)
+     * @param depth
+     *         Maximum number of chunks read ahead (must be positive)
+     */
+    ReadAheadInputStream(InputStream source, Checksum checksum, int chunkSize, int depth) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Pipeline depth must be positive");
+        }
+        this.source = source;
+        this.checksum = checksum;
+        this.chunkSize = chunkSize;
+        queue = new ArrayBlockingQueue<>(depth);
+        readerThread = new Thread(new Reader(), "Jaybird restore reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) return -1;
+        return current.data[current.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!ensureData()) return -1;
+        final int count = Math.min(len, current.remaining());
+        System.arraycopy(current.data, current.position, b, off, count);
+        current.position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current != null && current != END_OF_DATA ? current.remaining() : 0;
+    }
+
+    /**
+     * Stops the reader thread. Data already read ahead is discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        readerThread.interrupt();
+        queue.clear();
+    }
+
+    /**
+     * Makes sure {@code current} has remaining data, waiting for the reader thread if needed.
+     *
+     * @return {@code true} if data is available, {@code false} on end of stream
+     */
+    private boolean ensureData() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current == END_OF_DATA) return false;
+        if (current != null && current.remaining() > 0) return true;
+        try {
+            current = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for restore data");
+        }
+        if (current == END_OF_DATA) {
+            final IOException failure = this.failure;
+            if (failure != null) {
+                throw new IOException("Reading from restore stream failed", failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private final class Reader implements Runnable {
+        @Override
+        public void run() {
+            try {
+                try {
+                    int read;
+                    do {
+                        final byte[] buffer = new byte[chunkSize];
+                        read = source.read(buffer);
+                        if (read > 0) {
+                            if (checksum != null) {
+                                checksum.update(buffer, 0, read);
+                            }
+                            queue.put(new Chunk(buffer, read));
+                        }
+                    } while (read >= 0);
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                }
+                queue.put(END_OF_DATA);
+            } catch (InterruptedException e) {
+                // closed
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] data;
+        private final int length;
+        private int position;
+
+        private Chunk(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        private int remaining() {
+            return length - position;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single event of a Firebird trace session, as parsed by {@link TraceLogParser}.
+ * <p>
+ * Information not present in the trace output of the event (for example the plan if the trace configuration does
+ * not include {@code print_plan}) is reported as {@code null} or {@code -1}.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class TraceEvent {
+
+    /**
+     * Category of a trace event.
+     */
+    public enum Type {
+        ATTACH_DATABASE,
+        DETACH_DATABASE,
+        START_TRANSACTION,
+        COMMIT_TRANSACTION,
+        ROLLBACK_TRANSACTION,
+        COMMIT_RETAINING,
+        ROLLBACK_RETAINING,
+        PREPARE_STATEMENT,
+        EXECUTE_STATEMENT_START,
+        EXECUTE_STATEMENT_FINISH,
+        FREE_STATEMENT,
+        CLOSE_CURSOR,
+        EXECUTE_PROCEDURE_START,
+        EXECUTE_PROCEDURE_FINISH,
+        EXECUTE_TRIGGER_START,
+        EXECUTE_TRIGGER_FINISH,
+        SET_CONTEXT,
+        ERROR,
+        WARNING,
+        /**
+         * Any event not covered by the other types, see {@link TraceEvent#getEventName()} for the actual name.
+         */
+        OTHER;
+
+        static Type fromEventName(String eventName) {
+            try {
+                return valueOf(eventName);
+            } catch (IllegalArgumentException e) {
+                if (eventName.startsWith("ERROR")) return ERROR;
+                if (eventName.startsWith("WARNING")) return WARNING;
+                return OTHER;
+            }
+        }
+    }
+
+    private final String timestamp;
+    private final String processId;
+    private final String eventName;
+    private final Type type;
+    private final boolean failed;
+    private final boolean unauthorized;
+    private final long attachmentId;
+    private final long transactionId;
+    private final long statementId;
+    private final String sql;
+    private final List<String> parameters;
+    private final String plan;
+    private final long recordsFetched;
+    private final long elapsedMillis;
+    private final long reads;
+    private final long writes;
+    private final long fetches;
+    private final long marks;
+    private final String text;
+
+    private TraceEvent(Builder builder) {
+        timestamp = builder.timestamp;
+        processId = builder.processId;
+        eventName = builder.eventName;
+        type = Type.fromEventName(builder.eventName);
+        failed = builder.failed;
+        unauthorized = builder.unauthorized;
+        attachmentId = builder.attachmentId;
+        transactionId = builder.transactionId;
+        statementId = builder.statementId;
+        sql = builder.sql;
+        parameters = Collections.unmodifiableList(new ArrayList<>(builder.parameters));
+        plan = builder.plan;
+        recordsFetched = builder.recordsFetched;
+        elapsedMillis = builder.elapsedMillis;
+        reads = builder.reads;
+        writes = builder.writes;
+        fetches = builder.fetches;
+        marks = builder.marks;
+        text = builder.text;
+    }
+
+    /**
+     * @return Timestamp of the event as reported by the server (eg {@code 2016-02-10T10:12:34.5670})
+     */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Process and thread id of the server process that generated the event (eg {@code 3412:0x7f6d0c3e3700})
+     */
+    public String getProcessId() {
+        return processId;
+    }
+
+    /**
+     * @return Name of the event as reported by the server, without a {@code FAILED} or {@code UNAUTHORIZED} prefix
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * @return Type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if the server reported the event as {@code FAILED}
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return {@code true} if the server reported the event as {@code UNAUTHORIZED}
+     */
+    public boolean isUnauthorized() {
+        return unauthorized;
+    }
+
+    /**
+     * @return Attachment id ({@code ATT_n}), or {@code -1} if not reported
+     */
+    public long getAttachmentId() {
+        return attachmentId;
+    }
+
+    /**
+     * @return Transaction id ({@code TRA_n}), or {@code -1} if not reported
+     */
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * @return Statement id, or {@code -1} if not reported
+     */
+    public long getStatementId() {
+        return statementId;
+    }
+
+    /**
+     * @return SQL text of the statement, or {@code null} if not reported
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Parameter lines of the statement (eg {@code param0 = integer, "1"}), empty if not reported
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return Execution plan, or {@code null} if not reported
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return Number of records fetched, or {@code -1} if not reported
+     */
+    public long getRecordsFetched() {
+        return recordsFetched;
+    }
+
+    /**
+     * @return Elapsed time in milliseconds, or {@code -1} if not reported
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return Number of page reads, or {@code -1} if not reported
+     */
+    public long getReads() {
+        return reads;
+    }
+
+    /**
+     * @return Number of page writes, or {@code -1} if not reported
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * @return Number of page fetches, or {@code -1} if not reported
+     */
+    public long getFetches() {
+        return fetches;
+    }
+
+    /**
+     * @return Number of page marks, or {@code -1} if not reported
+     */
+    public long getMarks() {
+        return marks;
+    }
+
+    /**
+     * @return Full text of the event as reported by the server
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + " " + (failed ? "FAILED " : "") + (unauthorized ? "UNAUTHORIZED " : "") + eventName;
+    }
+
+    /**
+     * Mutable builder used by {@link TraceLogParser}.
+     */
+    static final class Builder {
+        String timestamp;
+        String processId;
+        String eventName;
+        boolean failed;
+        boolean unauthorized;
+        long attachmentId = -1;
+        long transactionId = -1;
+        long statementId = -1;
+        String sql;
+        final List<String> parameters = new ArrayList<>();
+        String plan;
+        long recordsFetched = -1;
+        long elapsedMillis = -1;
+        long reads = -1;
+        long writes = -1;
+        long fetches = -1;
+        long marks = -1;
+        String text;
+
+        TraceEvent build() {
+            return new TraceEvent(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+/**
+ * Listener for events of a trace session.
+ *
+ * @see TraceLogParser
+ * @see FBTraceManager#startTraceSession(String, String, TraceEventListener)
+ * @since 3.0
+ */
+public interface TraceEventListener {
+
+    /**
+     * Called for each complete trace event.
+     * <p>
+     * Implementations should not throw exceptions; a slow implementation delays processing of further trace output.
+     * </p>
+     *
+     * @param event
+     *         Trace event
+     */
+    void traceEvent(TraceEvent event);
+}
@@ -0,0 +1,96 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TraceEventListener} that queues events in a bounded queue for consumption by another thread.
+ * <p>
+ * When the queue is full, {@link #traceEvent(TraceEvent)} blocks until the consumer has taken an event. This
+ * stops reading the trace session until the consumer catches up, so the server buffers the trace output instead of
+ * the client.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class TraceEventQueue implements TraceEventListener {
+
+    private final BlockingQueue<TraceEvent> queue;
+
+    /**
+     * Creates a trace event queue.
+     *
+     * @param capacity
+     *         Maximum number of queued events
+     */
+    public TraceEventQueue(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queues the event, blocking while the queue is full.
+     * <p>
+     * If the producing thread is interrupted, the event is dropped and the interrupt status is preserved.
+     * </p>
+     */
+    @Override
+    public void traceEvent(TraceEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retrieves and removes the next event, waiting until an event is available.
+     *
+     * @return Next event
+     * @throws InterruptedException
+     *         If interrupted while waiting
+     */
+    public TraceEvent take() throws InterruptedException {
+        return queue.take();
+    }
+
+    /**
+     * Retrieves and removes the next event, waiting up to the specified time for an event to become available.
+     *
+     * @param timeout
+     *         Maximum time to wait
+     * @param unit
+     *         Time unit of {@code timeout}
+     * @return Next event, or {@code null} if no event was available within the timeout
+     * @throws InterruptedException
+     *         If interrupted while waiting
+     */
+    public TraceEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    /**
+     * @return Number of queued events
+     */
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental parser of Firebird trace session output (the text format of the {@code fbtrace} plugin).
+ * <p>
+ * Data can be fed in arbitrary chunks with {@link #parse(byte[], int, int)}; complete events are reported to the
+ * {@link TraceEventListener}. As the trace output has no explicit end-of-event marker, an event is reported when
+ * the header of the next event is received, or when {@link #flush()} is called.
+ * </p>
+ * <p>
+ * The listener is called on the thread calling {@code parse}. When used with {@link FBTraceManager}, a slow listener
+ * delays reading from the trace session, which provides backpressure to the server (which buffers the trace output
+ * up to its configured {@code MaxLogSize}). See {@link TraceEventQueue} to hand off events to another thread.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class TraceLogParser {
+
+    private static final Pattern HEADER_PATTERN = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d+) \\(([^)]*)\\) (.*)$");
+    private static final Pattern ATTACHMENT_PATTERN = Pattern.compile("\\(ATT_(\\d+)[,)]");
+    private static final Pattern TRANSACTION_PATTERN = Pattern.compile("\\(TRA_(\\d+)[,)]");
+    private static final Pattern STATEMENT_PATTERN = Pattern.compile("^Statement (\\d+):");
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("^param\\d+ = .*");
+    private static final Pattern RECORDS_PATTERN = Pattern.compile("^(\\d+) records? fetched");
+    private static final Pattern COUNTERS_PATTERN = Pattern.compile(
+            "^\\s*(\\d+) ms(?:, (\\d+) read\\(s\\))?(?:, (\\d+) write\\(s\\))?(?:, (\\d+) fetch\\(es\\))?"
+                    + "(?:, (\\d+) mark\\(s\\))?.*");
+    private static final String FAILED_PREFIX = "FAILED ";
+    private static final String UNAUTHORIZED_PREFIX = "UNAUTHORIZED ";
+    private static final int INITIAL_LINE_BUFFER_SIZE = 256;
+
+    private final Charset charset;
+    private final TraceEventListener listener;
+    private byte[] lineBuffer = new byte[INITIAL_LINE_BUFFER_SIZE];
+    private int lineLength;
+    private final List<String> eventLines = new ArrayList<>();
+
+    /**
+     * Creates a trace log parser.
+     *
+     * @param charset
+     *         Character set of the trace output
+     * @param listener
+     *         Listener to receive parsed events
+     */
+    public TraceLogParser(Charset charset, TraceEventListener listener) {
+        if (charset == null || listener == null) {
+            throw new NullPointerException("charset and listener are required");
+        }
+        this.charset = charset;
+        this.listener = listener;
+    }
+
+    /**
+     * Parses a chunk of trace output.
+     *
+     * @param b
+     *         Byte array with trace output
+     * @param off
+     *         Offset of the data
+     * @param len
+     *         Length of the data
+     */
+    public void parse(byte[] b, int off, int len) {
+        final int end = off + len;
+        int lineStart = off;
+        for (int idx = off; idx < end; idx++) {
+            if (b[idx] == '\n') {
+                appendToLine(b, lineStart, idx - lineStart);
+                completeLine();
+                lineStart = idx + 1;
+            }
+        }
+        appendToLine(b, lineStart, end - lineStart);
+    }
+
+    /**
+     * Reports the event currently being parsed (if any), including a final line without line terminator.
+     */
+    public void flush() {
+        if (lineLength > 0) {
+            completeLine();
+        }
+        completeEvent();
+    }
+
+    private void appendToLine(byte[] b, int off, int len) {
+        if (len == 0) return;
+        if (lineLength + len > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, lineLength + len));
+        }
+        System.arraycopy(b, off, lineBuffer, lineLength, len);
+        lineLength += len;
+    }
+
+    private void completeLine() {
+        int length = lineLength;
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        final String line = new String(lineBuffer, 0, length, charset);
+        lineLength = 0;
+        if (lineBuffer.length > 16 * INITIAL_LINE_BUFFER_SIZE) {
+            // Don't hold on to the buffer of an exceptionally long line
+            lineBuffer = new byte[INITIAL_LINE_BUFFER_SIZE];
+        }
+
+        if (HEADER_PATTERN.matcher(line).matches()) {
+            completeEvent();
+        } else if (eventLines.isEmpty()) {
+            // Output outside an event (eg "Trace session ID 1 started")
+            return;
+        }
+        eventLines.add(line);
+    }
+
+    private void completeEvent() {
+        if (eventLines.isEmpty()) return;
+        try {
+            listener.traceEvent(parseEvent(eventLines));
+        } finally {
+            eventLines.clear();
+        }
+    }
+
+    static TraceEvent parseEvent(List<String> lines) {
+        final TraceEvent.Builder builder = new TraceEvent.Builder();
+        final Matcher header = HEADER_PATTERN.matcher(lines.get(0));
+        if (!header.matches()) {
+            throw new IllegalArgumentException("First line is not an event header: " + lines.get(0));
+        }
+        builder.timestamp = header.group(1);
+        builder.processId = header.group(2);
+        String eventName = header.group(3).trim();
+        if (eventName.startsWith(FAILED_PREFIX)) {
+            builder.failed = true;
+            eventName = eventName.substring(FAILED_PREFIX.length());
+        } else if (eventName.startsWith(UNAUTHORIZED_PREFIX)) {
+            builder.unauthorized = true;
+            eventName = eventName.substring(UNAUTHORIZED_PREFIX.length());
+        }
+        builder.eventName = eventName;
+
+        final StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        builder.text = text.toString();
+
+        final int lineCount = lines.size();
+        for (int idx = 1; idx < lineCount; idx++) {
+            final String line = lines.get(idx);
+            Matcher matcher;
+            if (builder.attachmentId == -1 && (matcher = ATTACHMENT_PATTERN.matcher(line)).find()) {
+                builder.attachmentId = Long.parseLong(matcher.group(1));
+            }
+            if (builder.transactionId == -1 && (matcher = TRANSACTION_PATTERN.matcher(line)).find()) {
+                builder.transactionId = Long.parseLong(matcher.group(1));
+            }
+            if ((matcher = STATEMENT_PATTERN.matcher(line)).find()) {
+                builder.statementId = Long.parseLong(matcher.group(1));
+                if (idx + 1 < lineCount && isSeparator(lines.get(idx + 1), '-')) {
+                    idx = parseSql(lines, idx + 2, builder);
+                }
+            } else if (PARAMETER_PATTERN.matcher(line).matches()) {
+                builder.parameters.add(line);
+            } else if (builder.plan == null && isPlanStart(line)) {
+                idx = parsePlan(lines, idx, builder);
+            } else if ((matcher = RECORDS_PATTERN.matcher(line)).find()) {
+                builder.recordsFetched = Long.parseLong(matcher.group(1));
+            } else if (builder.elapsedMillis == -1 && (matcher = COUNTERS_PATTERN.matcher(line)).matches()) {
+                builder.elapsedMillis = Long.parseLong(matcher.group(1));
+                builder.reads = parseCounter(matcher.group(2));
+                builder.writes = parseCounter(matcher.group(3));
+                builder.fetches = parseCounter(matcher.group(4));
+                builder.marks = parseCounter(matcher.group(5));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parses the SQL text, which is terminated by a line of {@code ^} characters, or - if there is no such line - by
+     * an empty line.
+     *
+     * @return Index of the last line consumed
+     */
+    private static int parseSql(List<String> lines, int startIdx, TraceEvent.Builder builder) {
+        final int lineCount = lines.size();
+        int endIdx = startIdx;
+        while (endIdx < lineCount && !isSeparator(lines.get(endIdx), '^')) {
+            endIdx++;
+        }
+        int lastConsumed = endIdx;
+        if (endIdx == lineCount) {
+            endIdx = startIdx;
+            while (endIdx < lineCount && !lines.get(endIdx).isEmpty()) {
+                endIdx++;
+            }
+            lastConsumed = endIdx - 1;
+        }
+        builder.sql = join(lines, startIdx, endIdx);
+        return lastConsumed;
+    }
+
+    /**
+     * Parses the plan, which is terminated by an empty line or the records fetched or counters line.
+     *
+     * @return Index of the last line consumed
+     */
+    private static int parsePlan(List<String> lines, int startIdx, TraceEvent.Builder builder) {
+        final int lineCount = lines.size();
+        int endIdx = startIdx + 1;
+        while (endIdx < lineCount) {
+            final String line = lines.get(endIdx);
+            if (line.isEmpty() || RECORDS_PATTERN.matcher(line).find() || COUNTERS_PATTERN.matcher(line).matches()) {
+                break;
+            }
+            endIdx++;
+        }
+        builder.plan = join(lines, startIdx, endIdx);
+        return endIdx - 1;
+    }
+
+    private static boolean isPlanStart(String line) {
+        return line.startsWith("PLAN") || line.startsWith("Select Expression");
+    }
+
+    private static boolean isSeparator(String line, char separatorChar) {
+        if (line.length() < 10) return false;
+        for (int idx = 0; idx < line.length(); idx++) {
+            if (line.charAt(idx) != separatorChar) return false;
+        }
+        return true;
+    }
+
+    private static String join(List<String> lines, int startIdx, int endIdx) {
+        final StringBuilder sb = new StringBuilder();
+        for (int idx = startIdx; idx < endIdx; idx++) {
+            if (idx > startIdx) {
+                sb.append('\n');
+            }
+            sb.append(lines.get(idx));
+        }
+        return sb.toString();
+    }
+
+    private static long parseCounter(String value) {
+        return value != null ? Long.parseLong(value) : -1;
+    }
+}
@@ -57,6 +57,23 @@ public interface TraceManager extends ServiceManager {
      */
     void startTraceSession(String traceSessionName, String configuration) throws SQLException;
 
+    /**
+     * Starts a trace session with an optional trace session name and configuration, reporting the parsed trace
+     * events to a listener.
+     *
+     * @param traceSessionName
+     *         The trace session name (optional)
+     * @param configuration
+     *         The trace configuration. For an example, look into fbtrace.conf in the root directory of your Firebird
+     *         installation
+     * @param listener
+     *         Listener for trace events (optional)
+     * @throws SQLException
+     * @since 3.0
+     */
+    void startTraceSession(String traceSessionName, String configuration, TraceEventListener listener)
+            throws SQLException;
+
     /**
      * Stops a trace session with the given trace session ID
      *
@@ -0,0 +1,193 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Checksum;
+
+/**
+ * Output stream that hands data off to a separate writer thread, which writes it to the target stream.
+ * <p>
+ * Used by {@link FBStreamingBackupManager} to decouple the service info round-trips from the (possibly slow, or
+ * compressing) target stream. At most {@code depth} chunks are queued; a producer that outpaces the writer blocks.
+ * </p>
+ * <p>
+ * Closing this stream waits for all queued data to be written and flushes the target stream, but does not close
+ * the target stream.
+ * </p>
+ *
+ * @since 3.0
+ */
+final class WriteBehindOutputStream extends OutputStream {
+
+    private static final Chunk END_OF_DATA = new Chunk(new byte[0], 0, 0);
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final OutputStream target;
+    private final Checksum checksum;
+    private final BlockingQueue<Chunk> queue;
+    private final Thread writerThread;
+    private volatile IOException failure;
+    private boolean closed;
+
+    /**
+     * Creates a write-behind stream and starts its writer thread.
+     *
+     * @param target
+     *         Target output stream
+     * @param checksum
+     *         Checksum to update with all data written to target (may be {@code null})
+     * @param depth
+     *         Maximum number of chunks queued for the writer thread (must be positive)
+     */
+    WriteBehindOutputStream(OutputStream target, Checksum checksum, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Pipeline depth must be positive");
+        }
+        this.target = target;
+        this.checksum = checksum;
+        queue = new ArrayBlockingQueue<>(depth);
+        writerThread = new Thread(new Writer(), "Jaybird backup writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        writeOwned(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return;
+        writeOwned(Arrays.copyOfRange(b, off, off + len), 0, len);
+    }
+
+    /**
+     * Queues data without copying it.
+     * <p>
+     * The caller transfers ownership of {@code b}: it must not be modified after this call.
+     * </p>
+     *
+     * @param b
+     *         Data
+     * @param off
+     *         Offset of the data
+     * @param len
+     *         Length of the data
+     * @throws IOException
+     *         If this stream is closed, or a previous write to the target failed
+     */
+    void writeOwned(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) return;
+        enqueue(new Chunk(b, off, len));
+    }
+
+    /**
+     * Waits until all data is written to the target stream, flushes the target stream and stops the writer thread.
+     *
+     * @throws IOException
+     *         If writing to the target stream failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        enqueue(END_OF_DATA);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+            throw new InterruptedIOException("Interrupted waiting for backup writer to finish");
+        }
+        checkFailure();
+        target.flush();
+    }
+
+    /**
+     * Stops the writer thread without waiting for queued data to be written.
+     */
+    void abort() {
+        closed = true;
+        writerThread.interrupt();
+    }
+
+    private void enqueue(Chunk chunk) throws IOException {
+        try {
+            // Poll with a timeout so a failure of the writer thread does not block the producer indefinitely
+            while (!queue.offer(chunk, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted queueing backup data");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException failure = this.failure;
+        if (failure != null) {
+            throw new IOException("Writing to backup stream failed", failure);
+        }
+    }
+
+    private final class Writer implements Runnable {
+        @Override
+        public void run() {
+            try {
+                Chunk chunk;
+                while ((chunk = queue.take()) != END_OF_DATA) {
+                    target.write(chunk.data, chunk.offset, chunk.length);
+                    if (checksum != null) {
+                        checksum.update(chunk.data, chunk.offset, chunk.length);
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IOException(e);
+            } catch (InterruptedException e) {
+                // aborted
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        private Chunk(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Interns immutable objects: returns a single shared instance for equal objects, like {@link String#intern()}.
+ * <p>
+ * Instances are only weakly referenced: when an instance is no longer used elsewhere, it is removed from the
+ * interner. The objects must be immutable, at least with respect to {@code equals} and {@code hashCode}.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @param <T>
+ *         Type of object
+ * @since 3.0
+ */
+public final class WeakInterner<T> {
+
+    // The value is a weak reference to the key itself, a strong reference would prevent the entry from being removed
+    private final Map<T, WeakReference<T>> instances = new WeakHashMap<>();
+
+    /**
+     * Returns the shared instance equal to {@code value}.
+     *
+     * @param value
+     *         Value (not {@code null})
+     * @return The shared instance equal to {@code value}; {@code value} itself if there is no shared instance yet
+     */
+    public synchronized T intern(T value) {
+        final WeakReference<T> reference = instances.get(value);
+        if (reference != null) {
+            final T instance = reference.get();
+            if (instance != null) {
+                return instance;
+            }
+        }
+        instances.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    /**
+     * @return Number of instances (including instances that are no longer used, but not yet removed)
+     */
+    public synchronized int size() {
+        return instances.size();
+    }
+}
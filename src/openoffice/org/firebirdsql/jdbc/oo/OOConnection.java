@@ -20,6 +20,7 @@
  */
 package org.firebirdsql.jdbc.oo;
 
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.firebirdsql.jca.FBManagedConnection;
 import org.firebirdsql.jdbc.FBConnection;
 import org.firebirdsql.logging.Logger;
@@ -55,9 +56,11 @@ public class OOConnection extends FBConnection {
         addWarning(new SQLWarning(message));
     }
 
-    public synchronized DatabaseMetaData getMetaData() throws SQLException {
-        if (metaData == null) metaData = new OODatabaseMetaData(this);
-        return metaData;
+    public DatabaseMetaData getMetaData() throws SQLException {
+        try (LockCloseable ignored = withLock()) {
+            if (metaData == null) metaData = new OODatabaseMetaData(this);
+            return metaData;
+        }
     }
 
 }
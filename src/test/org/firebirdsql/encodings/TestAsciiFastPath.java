@@ -0,0 +1,81 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.encodings;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AsciiFastPath}.
+ *
+ * @since 3.0
+ */
+public class TestAsciiFastPath {
+
+    @Test
+    public void testIsAsciiCompatible_asciiSupersets() {
+        for (String charsetName : new String[] { "US-ASCII", "UTF-8", "ISO-8859-1", "windows-1252", "EUC-JP",
+                "GB18030" }) {
+            assertTrue(charsetName, AsciiFastPath.isAsciiCompatible(Charset.forName(charsetName)));
+        }
+    }
+
+    @Test
+    public void testIsAsciiCompatible_notCompatible() {
+        for (String charsetName : new String[] { "UTF-16", "UTF-16LE", "UTF-32", "Cp037", "ISO-2022-JP",
+                "ISO-2022-CN" }) {
+            if (Charset.isSupported(charsetName)) {
+                assertFalse(charsetName, AsciiFastPath.isAsciiCompatible(Charset.forName(charsetName)));
+            }
+        }
+    }
+
+    @Test
+    public void testIsAsciiCompatible_null() {
+        assertFalse(AsciiFastPath.isAsciiCompatible(null));
+    }
+
+    @Test
+    public void testIsAscii_bytes() {
+        final byte[] bytes = { 'a', 'b', 0x7F, (byte) 0x80, 'c' };
+        assertTrue(AsciiFastPath.isAscii(bytes, 0, 3));
+        assertFalse(AsciiFastPath.isAscii(bytes, 0, 5));
+        assertFalse(AsciiFastPath.isAscii(bytes, 3, 1));
+        assertTrue(AsciiFastPath.isAscii(bytes, 4, 1));
+        assertTrue("Empty range", AsciiFastPath.isAscii(bytes, 3, 0));
+    }
+
+    @Test
+    public void testIsAscii_string() {
+        assertTrue(AsciiFastPath.isAscii("abc\u007F"));
+        assertFalse(AsciiFastPath.isAscii("abc\u0080"));
+        assertFalse(AsciiFastPath.isAscii("\u0100"));
+        assertTrue(AsciiFastPath.isAscii(""));
+    }
+
+    @Test
+    public void testEncodeDecodeAscii() {
+        final byte[] bytes = AsciiFastPath.encodeAscii("Hello, World!");
+        assertArrayEquals("Hello, World!".getBytes(Charset.forName("US-ASCII")), bytes);
+        assertEquals("World", AsciiFastPath.decodeAscii(bytes, 7, 5));
+    }
+}
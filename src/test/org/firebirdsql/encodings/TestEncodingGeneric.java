@@ -0,0 +1,84 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.encodings;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link EncodingGeneric}.
+ *
+ * @since 3.0
+ */
+public class TestEncodingGeneric {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testUtf8_asciiAndNonAscii() {
+        final Encoding encoding = new EncodingGeneric(UTF_8);
+        for (String value : new String[] { "", "plain ascii", "caf\u00E9", "\u65E5\u672C\u8A9E",
+                "a\uD83D\uDE00b" }) {
+            final byte[] expectedBytes = value.getBytes(UTF_8);
+            assertArrayEquals(value, expectedBytes, encoding.encodeToCharset(value));
+            assertEquals(value, encoding.decodeFromCharset(expectedBytes));
+        }
+    }
+
+    @Test
+    public void testUtf8_decodeWithOffset() {
+        final Encoding encoding = new EncodingGeneric(UTF_8);
+        final byte[] bytes = "xxcaf\u00E9abcxx".getBytes(UTF_8);
+
+        assertEquals("caf\u00E9", encoding.decodeFromCharset(bytes, 2, 5));
+        assertEquals("abc", encoding.decodeFromCharset(bytes, 7, 3));
+    }
+
+    @Test
+    public void testUtf8_malformedInputReplaced() {
+        final Encoding encoding = new EncodingGeneric(UTF_8);
+        final byte[] malformed = { 'a', (byte) 0xC3, 'b' };
+
+        assertEquals(new String(malformed, UTF_8), encoding.decodeFromCharset(malformed));
+    }
+
+    @Test
+    public void testStatefulCharset_usesCharset() {
+        final Charset charset = Charset.forName("ISO-2022-JP");
+        final Encoding encoding = new EncodingGeneric(charset);
+        final String value = "ab\u65E5\u672C";
+        final byte[] escaped = "\u001B$B".getBytes(UTF_8);
+
+        assertArrayEquals(value.getBytes(charset), encoding.encodeToCharset(value));
+        assertEquals(new String(escaped, charset), encoding.decodeFromCharset(escaped));
+    }
+
+    @Test
+    public void testWithTranslation() throws Exception {
+        final Encoding encoding = new EncodingGeneric(UTF_8)
+                .withTranslation(CharacterTranslator.create("org.firebirdsql.encodings.testTranslation"));
+
+        assertEquals("bac", encoding.decodeFromCharset(new byte[] { 'a', 'b', 'c' }));
+        assertEquals("xyz", encoding.decodeFromCharset(new byte[] { 'x', 'y', 'z' }));
+        assertArrayEquals(new byte[] { 'a', 'b', 'c' }, encoding.encodeToCharset("bac"));
+    }
+}
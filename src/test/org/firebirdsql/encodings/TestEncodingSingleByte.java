@@ -0,0 +1,93 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.encodings;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link EncodingSingleByte}.
+ *
+ * @since 3.0
+ */
+public class TestEncodingSingleByte {
+
+    private static final String[] CHARSETS = { "ISO-8859-1", "ISO-8859-2", "windows-1251", "windows-1252", "Cp437",
+            "KOI8-R", "Cp037" };
+
+    @Test
+    public void testDecode_allBytes_matchesCharset() {
+        final byte[] allBytes = allBytes();
+        for (String charsetName : CHARSETS) {
+            final Charset charset = Charset.forName(charsetName);
+            final Encoding encoding = new EncodingSingleByte(charset);
+
+            assertEquals(charsetName, new String(allBytes, charset), encoding.decodeFromCharset(allBytes));
+            assertEquals(charsetName, new String(allBytes, 32, 64, charset),
+                    encoding.decodeFromCharset(allBytes, 32, 64));
+        }
+    }
+
+    @Test
+    public void testEncode_roundTrip() {
+        for (String charsetName : CHARSETS) {
+            final Charset charset = Charset.forName(charsetName);
+            final Encoding encoding = new EncodingSingleByte(charset);
+            final String ascii = "Simple ASCII text 123";
+            final String mixed = new String(allBytes(), charset);
+
+            assertEquals(charsetName, ascii, encoding.decodeFromCharset(encoding.encodeToCharset(ascii)));
+            assertArrayEquals(charsetName, ascii.getBytes(charset), encoding.encodeToCharset(ascii));
+            assertEquals(charsetName, new String(encoding.encodeToCharset(mixed), charset),
+                    encoding.decodeFromCharset(encoding.encodeToCharset(mixed)));
+        }
+    }
+
+    @Test
+    public void testEncode_unmappedCharacter_encodedAsZero() {
+        final Encoding encoding = new EncodingSingleByte(Charset.forName("ISO-8859-1"));
+
+        assertArrayEquals(new byte[] { 'a', 0, 'b', 0 }, encoding.encodeToCharset("a\u20ACb\uFFFF"));
+    }
+
+    @Test
+    public void testWithTranslation_cachedPerTranslator() throws Exception {
+        final Encoding encoding = new EncodingSingleByte(Charset.forName("ISO-8859-1"));
+        final CharacterTranslator translator =
+                CharacterTranslator.create("org.firebirdsql.encodings.testTranslation");
+
+        final Encoding translated = encoding.withTranslation(translator);
+
+        assertSame(translated, encoding.withTranslation(translator));
+        assertSame(encoding, encoding.withTranslation(null));
+        assertEquals("bac", translated.decodeFromCharset(new byte[] { 'a', 'b', 'c' }));
+        assertArrayEquals(new byte[] { 'a', 'b', 'c' }, translated.encodeToCharset("bac"));
+    }
+
+    private static byte[] allBytes() {
+        final byte[] allBytes = new byte[256];
+        for (int i = 0; i < allBytes.length; i++) {
+            allBytes[i] = (byte) i;
+        }
+        return allBytes;
+    }
+}
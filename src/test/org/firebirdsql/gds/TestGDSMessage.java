@@ -83,4 +83,24 @@ public class TestGDSMessage {
 
         assertThat(message.toString(), equalTo(expected));
     }
+
+    @Test
+    public void toString_placeholderInParameterValueNotReplaced() {
+        final String template = "Template with {0} placeholders in {1}";
+        final String expected = "Template with {1} placeholders in def";
+        GDSExceptionHelper.GDSMessage message = new GDSExceptionHelper.GDSMessage(template);
+        message.setParameters(Arrays.asList("{1}", "def"));
+
+        assertThat(message.toString(), equalTo(expected));
+    }
+
+    @Test
+    public void toString_placeholdersOutOfOrder_unknownAndRepeated() {
+        final String template = "{1} and {0} with {x} and {1} {5}";
+        final String expected = "def and abc with {x} and {1} {5}";
+        GDSExceptionHelper.GDSMessage message = new GDSExceptionHelper.GDSMessage(template);
+        message.setParameters(Arrays.asList("abc", "def"));
+
+        assertThat(message.toString(), equalTo(expected));
+    }
 }
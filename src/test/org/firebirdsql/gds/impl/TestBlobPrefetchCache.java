@@ -0,0 +1,84 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.impl;
+
+import org.firebirdsql.gds.ng.FbTransaction;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BlobPrefetchCache}.
+ *
+ * @since 3.0
+ */
+public class TestBlobPrefetchCache {
+
+    @Rule
+    public final JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private final FbTransaction transaction = context.mock(FbTransaction.class, "transaction");
+    private final BlobPrefetchCache cache = new BlobPrefetchCache(10);
+
+    @Test
+    public void testTakeRemovesContent() {
+        final byte[] data = { 1, 2, 3 };
+        cache.put(transaction, 1, data);
+
+        assertTrue(cache.contains(transaction, 1));
+        assertSame(data, cache.take(transaction, 1));
+        assertFalse(cache.contains(transaction, 1));
+        assertNull(cache.take(transaction, 1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsOldestWhenCapacityExceeded() {
+        cache.put(transaction, 1, new byte[4]);
+        cache.put(transaction, 2, new byte[4]);
+        cache.put(transaction, 3, new byte[4]);
+
+        assertFalse("Expected oldest content to be evicted", cache.contains(transaction, 1));
+        assertTrue(cache.contains(transaction, 2));
+        assertTrue(cache.contains(transaction, 3));
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    public void testContentLargerThanCapacityNotCached() {
+        cache.put(transaction, 1, new byte[4]);
+        cache.put(transaction, 2, new byte[11]);
+
+        assertTrue(cache.contains(transaction, 1));
+        assertFalse(cache.contains(transaction, 2));
+    }
+
+    @Test
+    public void testOtherTransactionClearsCache() {
+        final FbTransaction otherTransaction = context.mock(FbTransaction.class, "otherTransaction");
+        cache.put(transaction, 1, new byte[4]);
+
+        assertFalse(cache.contains(otherTransaction, 1));
+        assertNull(cache.take(otherTransaction, 1));
+        assertFalse(cache.contains(transaction, 1));
+        assertEquals(0, cache.size());
+    }
+}
@@ -87,6 +87,34 @@ public class TestDbAttachInfo {
         assertEquals("/path/to/db", dbAttachInfo.getFileName());
     }
 
+    @Test
+    public void shouldParseNewFormat_multipleServers() throws Exception {
+        DbAttachInfo dbAttachInfo = new DbAttachInfo("//server1:13050,server2,server3:13051/path/to/db");
+
+        assertEquals("server1/13050,server2/3050,server3/13051", dbAttachInfo.getServer());
+        assertEquals(13050, dbAttachInfo.getPort());
+        assertEquals("path/to/db", dbAttachInfo.getFileName());
+    }
+
+    @Test
+    public void shouldParseOldFormat_multipleServers() throws Exception {
+        DbAttachInfo dbAttachInfo = new DbAttachInfo("server1,server2/13051:path/to/db");
+
+        assertEquals("server1/3050,server2/13051", dbAttachInfo.getServer());
+        assertEquals(3050, dbAttachInfo.getPort());
+        assertEquals("path/to/db", dbAttachInfo.getFileName());
+    }
+
+    @Test
+    public void testInvalidConnectionUrl_multipleServers_emptyServer() throws Exception {
+        checkInvalidUrl("//server1,,server2/path/to/db", "Empty host or port in server list");
+    }
+
+    @Test
+    public void testInvalidConnectionUrl_multipleServers_nonNumericPort() throws Exception {
+        checkInvalidUrl("//server1,server2:x/path/to/db", "Bad port: 'x' is not a number");
+    }
+
     @Test
     public void testInvalidConnectionUrl_oldFormat_hostSeparatorAtStart() throws Exception {
         checkInvalidUrl(":localhost/3050:c:/data/db/test.fdb",
@@ -189,7 +189,7 @@ public abstract class AbstractTransactionTest extends FBJUnit4TestBase {
         }
     }
 
-    private void insertKeyValue(FbTransaction transaction, int key, String value) throws SQLException {
+    protected final void insertKeyValue(FbTransaction transaction, int key, String value) throws SQLException {
         FbStatement statement = db.createStatement(transaction);
         try {
             statement.prepare("INSERT INTO keyvalue (thekey, thevalue) VALUES (?, ?)");
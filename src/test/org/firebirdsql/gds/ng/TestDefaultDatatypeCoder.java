@@ -23,10 +23,14 @@ import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * Test for internal consistency of encoding and decoding provided by {@link org.firebirdsql.gds.ng.DefaultDatatypeCoder}.
@@ -235,4 +239,135 @@ public class TestDefaultDatatypeCoder {
 
         assertEquals("Unexpected timestamp", expected, result);
     }
+
+    /**
+     * Checks the arithmetic conversion against the conversion using a calendar, for every hour in a period with
+     * daylight saving time transitions (including the transition at midnight in America/Sao_Paulo).
+     */
+    @Test
+    public void testTimestampConsistentWithCalendarConversion() {
+        for (String timeZoneId : new String[] { "Europe/Amsterdam", "America/Sao_Paulo", "Australia/Lord_Howe" }) {
+            final TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+            final Calendar fastPathCalendar = new GregorianCalendar(timeZone);
+            final Calendar referenceCalendar = createReferenceCalendar(timeZone);
+            final long start = java.sql.Timestamp.valueOf("2014-01-01 00:00:00").getTime();
+            for (long millis = start; millis < start + TimeUnit.DAYS.toMillis(366); millis += TimeUnit.MINUTES.toMillis(61)) {
+                final java.sql.Timestamp timestamp = new java.sql.Timestamp(millis);
+                timestamp.setNanos(123400000);
+                final byte[] expectedBytes = datatypeCoder.encodeTimestampCalendar(timestamp, referenceCalendar);
+
+                assertArrayEquals("Unexpected encoding of " + timestamp + " in " + timeZoneId,
+                        expectedBytes, datatypeCoder.encodeTimestampCalendar(timestamp, fastPathCalendar));
+                assertEquals("Unexpected decoding of " + timestamp + " in " + timeZoneId,
+                        datatypeCoder.decodeTimestampCalendar(expectedBytes, referenceCalendar),
+                        datatypeCoder.decodeTimestampCalendar(expectedBytes, fastPathCalendar));
+            }
+        }
+    }
+
+    @Test
+    public void testDateConsistentWithCalendarConversion() {
+        final TimeZone timeZone = TimeZone.getTimeZone("America/Sao_Paulo");
+        final Calendar fastPathCalendar = new GregorianCalendar(timeZone);
+        final Calendar referenceCalendar = createReferenceCalendar(timeZone);
+        final long start = java.sql.Timestamp.valueOf("2014-01-01 00:00:00").getTime();
+        for (long millis = start; millis < start + TimeUnit.DAYS.toMillis(366); millis += TimeUnit.HOURS.toMillis(7)) {
+            final java.sql.Date date = new java.sql.Date(millis);
+            final byte[] expectedBytes = datatypeCoder.encodeDateCalendar(date, referenceCalendar);
+
+            assertArrayEquals("Unexpected encoding of " + date,
+                    expectedBytes, datatypeCoder.encodeDateCalendar(date, fastPathCalendar));
+            assertEquals("Unexpected decoding of " + date,
+                    datatypeCoder.decodeDateCalendar(expectedBytes, referenceCalendar),
+                    datatypeCoder.decodeDateCalendar(expectedBytes, fastPathCalendar));
+        }
+    }
+
+    @Test
+    public void testTimeConsistentWithCalendarConversion() {
+        final TimeZone timeZone = TimeZone.getTimeZone("Asia/Kolkata");
+        final Calendar fastPathCalendar = new GregorianCalendar(timeZone);
+        final Calendar referenceCalendar = createReferenceCalendar(timeZone);
+        for (long millis = 0; millis < TimeUnit.DAYS.toMillis(1); millis += TimeUnit.SECONDS.toMillis(367)) {
+            final java.sql.Time time = new java.sql.Time(millis);
+            final byte[] expectedBytes = datatypeCoder.encodeTimeCalendar(time, referenceCalendar);
+
+            assertArrayEquals("Unexpected encoding of " + time,
+                    expectedBytes, datatypeCoder.encodeTimeCalendar(time, fastPathCalendar));
+            assertEquals("Unexpected decoding of " + time,
+                    datatypeCoder.decodeTimeCalendar(expectedBytes, referenceCalendar),
+                    datatypeCoder.decodeTimeCalendar(expectedBytes, fastPathCalendar));
+        }
+    }
+
+    /**
+     * Checks that alternating between time zones (eg different connections sharing a coder) gives the same results
+     * as the calendar based conversion for each value.
+     */
+    @Test
+    public void testTimestampAlternatingTimeZones() {
+        final String[] timeZoneIds = { "Europe/Amsterdam", "America/Sao_Paulo", "Asia/Kolkata" };
+        final long start = java.sql.Timestamp.valueOf("2014-01-01 00:00:00").getTime();
+        for (long millis = start; millis < start + TimeUnit.DAYS.toMillis(366); millis += TimeUnit.HOURS.toMillis(13)) {
+            final java.sql.Timestamp timestamp = new java.sql.Timestamp(millis);
+            for (String timeZoneId : timeZoneIds) {
+                final TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+                final Calendar referenceCalendar = createReferenceCalendar(timeZone);
+                final byte[] expectedBytes = datatypeCoder.encodeTimestampCalendar(timestamp, referenceCalendar);
+
+                assertArrayEquals("Unexpected encoding of " + timestamp + " in " + timeZoneId,
+                        expectedBytes, datatypeCoder.encodeTimestampCalendar(timestamp, new GregorianCalendar(timeZone)));
+                assertEquals("Unexpected decoding of " + timestamp + " in " + timeZoneId,
+                        datatypeCoder.decodeTimestampCalendar(expectedBytes, referenceCalendar),
+                        datatypeCoder.decodeTimestampCalendar(expectedBytes, new GregorianCalendar(timeZone)));
+            }
+        }
+    }
+
+    @Test
+    public void testTimestampBeforeGregorianCutoverRoundtrip() {
+        final java.sql.Timestamp expected = java.sql.Timestamp.valueOf("1200-06-01 12:30:15.1234");
+        final byte[] dateTimeBytes = datatypeCoder.encodeTimestamp(expected);
+
+        final java.sql.Timestamp result = datatypeCoder.decodeTimestamp(dateTimeBytes);
+
+        assertEquals("Unexpected timestamp", expected, result);
+        assertEquals("Unexpected year in raw date time", 1200, datatypeCoder.decodeTimestampRaw(dateTimeBytes).year);
+    }
+
+    /**
+     * Creates a calendar that forces the calendar based conversion (a cutover different from the default), with
+     * the same results for dates after 1582.
+     */
+    private static Calendar createReferenceCalendar(TimeZone timeZone) {
+        final GregorianCalendar calendar = new GregorianCalendar(timeZone);
+        calendar.setGregorianChange(new java.util.Date(calendar.getGregorianChange().getTime() - 1));
+        return calendar;
+    }
+
+    @Test
+    public void testEquals_sameEncodingConfiguration() {
+        final DefaultDatatypeCoder other =
+                new DefaultDatatypeCoder(EncodingFactory.createInstance(StandardCharsets.UTF_8));
+
+        assertEquals(datatypeCoder, other);
+        assertEquals(datatypeCoder.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void testEquals_differentEncodingConfiguration() {
+        final DefaultDatatypeCoder other =
+                new DefaultDatatypeCoder(EncodingFactory.createInstance(StandardCharsets.ISO_8859_1));
+
+        assertNotEquals(datatypeCoder, other);
+    }
+
+    @Test
+    public void testGetSharedInstance() {
+        final DefaultDatatypeCoder shared = DefaultDatatypeCoder.getSharedInstance(datatypeCoder);
+        final DefaultDatatypeCoder other = DefaultDatatypeCoder.getSharedInstance(
+                new DefaultDatatypeCoder(EncodingFactory.createInstance(StandardCharsets.UTF_8)));
+
+        assertSame(shared, other);
+    }
 }
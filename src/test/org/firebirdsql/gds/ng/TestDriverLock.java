@@ -0,0 +1,101 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DriverLock}.
+ *
+ * @since 3.0
+ */
+public class TestDriverLock {
+
+    @Test
+    public void testDefaultFairness() {
+        assertEquals(Boolean.getBoolean(DriverLock.FAIR_LOCKING_PROPERTY), new DriverLock().isFair());
+    }
+
+    @Test
+    public void testExplicitFairness() {
+        assertTrue(new DriverLock(true).isFair());
+        assertFalse(new DriverLock(false).isFair());
+    }
+
+    @Test
+    public void testWithLock_closeReleasesLock() {
+        final DriverLock lock = new DriverLock();
+
+        try (LockCloseable ignored = lock.withLock()) {
+            assertTrue("Expected lock held", lock.isHeldByCurrentThread());
+        }
+
+        assertFalse("Expected lock released", lock.isLocked());
+    }
+
+    @Test
+    public void testWithLock_reentrant() {
+        final DriverLock lock = new DriverLock();
+
+        try (LockCloseable ignored = lock.withLock()) {
+            try (LockCloseable ignored2 = lock.withLock()) {
+                assertEquals(2, lock.getHoldCount());
+            }
+            assertEquals(1, lock.getHoldCount());
+        }
+
+        assertEquals(0, lock.getHoldCount());
+    }
+
+    @Test
+    public void testWithLock_blocksOtherThread() throws Exception {
+        final DriverLock lock = new DriverLock();
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final AtomicBoolean heldByOther = new AtomicBoolean();
+        final Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (LockCloseable ignored = lock.withLock()) {
+                    heldByOther.set(lock.isHeldByCurrentThread());
+                    acquired.countDown();
+                }
+            }
+        });
+
+        try (LockCloseable ignored = lock.withLock()) {
+            other.start();
+            assertFalse("Other thread should not acquire lock", acquired.await(100, TimeUnit.MILLISECONDS));
+        }
+
+        assertTrue("Other thread should acquire lock after release", acquired.await(5, TimeUnit.SECONDS));
+        other.join(5000);
+        assertTrue(heldByOther.get());
+    }
+
+    @Test
+    public void testNoLock_closeIsNoOp() {
+        LockCloseable.NO_LOCK.close();
+    }
+}
@@ -29,8 +29,7 @@ import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 /**
  * Tests for {@link FbConnectionProperties}
@@ -150,6 +149,85 @@ public class TestFbConnectionProperties {
         assertEquals(connectTimeout, info.getConnectTimeout());
     }
 
+    @Test
+    public void testPipelineTransactions() {
+        assertFalse(info.isPipelineTransactions());
+        info.setPipelineTransactions(true);
+        assertTrue(info.isPipelineTransactions());
+    }
+
+    @Test
+    public void testDeduplicateStrings() {
+        assertFalse(info.isDeduplicateStrings());
+        info.setDeduplicateStrings(true);
+        assertTrue(info.isDeduplicateStrings());
+    }
+
+    @Test
+    public void testKeepAliveInterval() {
+        assertEquals(0, info.getKeepAliveInterval());
+        final int keepAliveInterval = 60;
+        info.setKeepAliveInterval(keepAliveInterval);
+        assertEquals(keepAliveInterval, info.getKeepAliveInterval());
+    }
+
+    @Test
+    public void testMetaDataCacheTtl() {
+        assertEquals(0, info.getMetaDataCacheTtl());
+        final int metaDataCacheTtl = 300;
+        info.setMetaDataCacheTtl(metaDataCacheTtl);
+        assertEquals(metaDataCacheTtl, info.getMetaDataCacheTtl());
+    }
+
+    @Test
+    public void testFastConnect() {
+        assertFalse(info.isFastConnect());
+        info.setFastConnect(true);
+        assertTrue(info.isFastConnect());
+    }
+
+    @Test
+    public void testHostSelection() {
+        assertNull(info.getHostSelection());
+        info.setHostSelection("roundRobin");
+        assertEquals("roundRobin", info.getHostSelection());
+    }
+
+    @Test
+    public void testEnableMetrics() {
+        assertFalse(info.isEnableMetrics());
+        info.setEnableMetrics(true);
+        assertTrue(info.isEnableMetrics());
+    }
+
+    @Test
+    public void testSlowStatementThreshold() {
+        assertEquals(0, info.getSlowStatementThreshold());
+        info.setSlowStatementThreshold(500);
+        assertEquals(500, info.getSlowStatementThreshold());
+    }
+
+    @Test
+    public void testRetryPolicy() {
+        assertNull(info.getRetryPolicy());
+        info.setRetryPolicy("deadlock:3,statements:dml");
+        assertEquals("deadlock:3,statements:dml", info.getRetryPolicy());
+    }
+
+    @Test
+    public void testRequestPipelining() {
+        assertFalse(info.isRequestPipelining());
+        info.setRequestPipelining(true);
+        assertTrue(info.isRequestPipelining());
+    }
+
+    @Test
+    public void testBlobPrefetchSize() {
+        assertEquals(0, info.getBlobPrefetchSize());
+        info.setBlobPrefetchSize(4096);
+        assertEquals(4096, info.getBlobPrefetchSize());
+    }
+
     @Test
     public void testCopyConstructor() throws Exception {
         info.setDatabaseName("testValue");
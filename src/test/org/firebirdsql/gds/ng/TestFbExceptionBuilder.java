@@ -18,12 +18,18 @@
  */
 package org.firebirdsql.gds.ng;
 
+import org.firebirdsql.gds.GDSExceptionHelper;
 import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.jdbc.FBSQLExceptionInfo;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLTimeoutException;
@@ -275,6 +281,99 @@ public class TestFbExceptionBuilder {
         builder.toSQLException(SQLWarning.class);
     }
 
+    /**
+     * Test {@link FbExceptionBuilder#toFlatSQLException()} picks the first interesting error code and includes all
+     * messages.
+     */
+    @Test
+    public void toFlatSQLException_interestingErrorCode() {
+        FbExceptionBuilder builder = new FbExceptionBuilder();
+        builder.exception(ISCConstants.isc_dsql_error)
+                .exception(ISCConstants.isc_dsql_table_not_found).messageParameter("TABLE1");
+
+        SQLException result = builder.toFlatSQLException();
+
+        assertEquals(ISCConstants.isc_dsql_table_not_found, result.getErrorCode());
+        assertTrue("Expected message of first exception", result.getMessage().startsWith(
+                GDSExceptionHelper.getMessage(ISCConstants.isc_dsql_error).toString() + "; "));
+        assertTrue("Expected parameter in message", result.getMessage().contains("TABLE1"));
+        assertTrue("Expected FBSQLExceptionInfo as cause", result.getCause() instanceof FBSQLExceptionInfo);
+        FBSQLExceptionInfo info = (FBSQLExceptionInfo) result.getCause();
+        assertEquals(ISCConstants.isc_dsql_error, info.getErrorCode());
+        assertEquals(ISCConstants.isc_dsql_table_not_found, info.getNextException().getErrorCode());
+    }
+
+    /**
+     * Test {@link FbExceptionBuilder#toFlatSQLException()} creates an exception with stack trace for a retryable
+     * error code when stackless exceptions are not enabled.
+     */
+    @Test
+    public void toFlatSQLException_retryableErrorCode_stacklessDisabled() {
+        FbExceptionBuilder.setStacklessExceptions(false);
+        FbExceptionBuilder builder = new FbExceptionBuilder();
+        builder.exception(ISCConstants.isc_deadlock).exception(ISCConstants.isc_update_conflict);
+
+        SQLException result = builder.toFlatSQLException();
+
+        assertEquals(SQLException.class, result.getClass());
+        assertTrue("Expected stack trace", result.getStackTrace().length > 0);
+    }
+
+    /**
+     * Test {@link FbExceptionBuilder#toFlatSQLException()} creates a stackless exception for a retryable error code
+     * with the same information as a normal exception.
+     */
+    @Test
+    public void toFlatSQLException_retryableErrorCode_stacklessEnabled() throws Exception {
+        FbExceptionBuilder builder = new FbExceptionBuilder();
+        builder.exception(ISCConstants.isc_deadlock).exception(ISCConstants.isc_update_conflict);
+        FbExceptionBuilder.setStacklessExceptions(false);
+        SQLException expected = builder.toFlatSQLException();
+        try {
+            FbExceptionBuilder.setStacklessExceptions(true);
+            SQLException result = builder.toFlatSQLException();
+
+            assertNotEquals(SQLException.class, result.getClass());
+            assertEquals("Expected no stack trace", 0, result.getStackTrace().length);
+            assertEquals(ISCConstants.isc_deadlock, result.getErrorCode());
+            assertEquals(expected.getSQLState(), result.getSQLState());
+            assertEquals(expected.getMessage(), result.getMessage());
+            assertTrue("Expected FBSQLExceptionInfo as cause", result.getCause() instanceof FBSQLExceptionInfo);
+            assertEquals(ISCConstants.isc_update_conflict,
+                    ((FBSQLExceptionInfo) result.getCause()).getNextException().getErrorCode());
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+                out.writeObject(result);
+            }
+            SQLException deserialized;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+                deserialized = (SQLException) in.readObject();
+            }
+            assertEquals(expected.getMessage(), deserialized.getMessage());
+            assertTrue("Expected FBSQLExceptionInfo as cause", deserialized.getCause() instanceof FBSQLExceptionInfo);
+        } finally {
+            FbExceptionBuilder.setStacklessExceptions(false);
+        }
+    }
+
+    /**
+     * Test {@link FbExceptionBuilder#toFlatSQLException()} does not create a stackless exception for error codes that
+     * are not retryable, even when stackless exceptions are enabled.
+     */
+    @Test
+    public void toFlatSQLException_nonRetryableErrorCode_stacklessEnabled() {
+        FbExceptionBuilder.setStacklessExceptions(true);
+        try {
+            SQLException result = FbExceptionBuilder.forException(ISCConstants.isc_req_wrong_db).toFlatSQLException();
+
+            assertEquals(SQLException.class, result.getClass());
+            assertTrue("Expected stack trace", result.getStackTrace().length > 0);
+        } finally {
+            FbExceptionBuilder.setStacklessExceptions(false);
+        }
+    }
+
     /**
      * Calling {@link FbExceptionBuilder#sqlState(String)} before the exception type and code has been set
      * should result in an {@link IllegalStateException}
@@ -0,0 +1,153 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.fields;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientException;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+import static org.firebirdsql.gds.ISCConstants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ArrayDescriptor}.
+ *
+ * @since 3.0
+ */
+public class TestArrayDescriptor {
+
+    @Test
+    public void testSingleDimension() throws SQLException {
+        final ArrayDescriptor descriptor =
+                new ArrayDescriptor("T", "A", blr_long, 0, new int[] { 1 }, new int[] { 3 });
+
+        assertEquals(1, descriptor.getDimensions());
+        assertEquals(3, descriptor.getDimensionLength(0));
+        assertEquals(3, descriptor.getElementCount());
+        assertEquals(4, descriptor.getElementLength());
+        assertEquals(12, descriptor.getSliceLength());
+        assertArrayEquals(new byte[] {
+                isc_sdl_version1, isc_sdl_struct, 1, blr_long, 0,
+                isc_sdl_relation, 1, 'T',
+                isc_sdl_field, 1, 'A',
+                isc_sdl_do1, 0, isc_sdl_tiny_integer, 3,
+                isc_sdl_element, 1, isc_sdl_scalar, 0, 1, isc_sdl_variable, 0,
+                (byte) isc_sdl_eoc
+        }, descriptor.getSdl());
+    }
+
+    @Test
+    public void testMultipleDimensionsWithLowerBoundsAndLargeLiterals() throws SQLException {
+        final ArrayDescriptor descriptor = new ArrayDescriptor("TAB", "COL", blr_double, 0,
+                new int[] { 0, -200, 70000 }, new int[] { 1, 199, 70001 });
+
+        assertEquals(3, descriptor.getDimensions());
+        assertEquals(2, descriptor.getDimensionLength(0));
+        assertEquals(400, descriptor.getDimensionLength(1));
+        assertEquals(2, descriptor.getDimensionLength(2));
+        assertEquals(-200, descriptor.getLowerBound(1));
+        assertEquals(199, descriptor.getUpperBound(1));
+        assertEquals(1600, descriptor.getElementCount());
+        assertEquals(1600 * 8, descriptor.getSliceLength());
+        assertArrayEquals(new byte[] {
+                isc_sdl_version1, isc_sdl_struct, 1, blr_double, // no scale for double
+                isc_sdl_relation, 3, 'T', 'A', 'B',
+                isc_sdl_field, 3, 'C', 'O', 'L',
+                isc_sdl_do2, 0, isc_sdl_tiny_integer, 0, isc_sdl_tiny_integer, 1,
+                isc_sdl_do2, 1, isc_sdl_short_integer, 0x38, (byte) 0xff, isc_sdl_short_integer, (byte) 0xc7, 0,
+                isc_sdl_do2, 2, isc_sdl_long_integer, 0x70, 0x11, 1, 0, isc_sdl_long_integer, 0x71, 0x11, 1, 0,
+                isc_sdl_element, 1, isc_sdl_scalar, 0, 3,
+                isc_sdl_variable, 0, isc_sdl_variable, 1, isc_sdl_variable, 2,
+                (byte) isc_sdl_eoc
+        }, descriptor.getSdl());
+    }
+
+    @Test
+    public void testScaleIncludedForIntegerTypes() throws SQLException {
+        final ArrayDescriptor descriptor =
+                new ArrayDescriptor("T", "A", blr_int64, -2, new int[] { 1 }, new int[] { 1 });
+
+        final byte[] sdl = descriptor.getSdl();
+        assertEquals(blr_int64, sdl[3]);
+        assertEquals(-2, sdl[4]);
+    }
+
+    @Test
+    public void testNewFlatArray() throws SQLException {
+        assertTrue(create(blr_short).newFlatArray() instanceof short[]);
+        assertTrue(create(blr_long).newFlatArray() instanceof int[]);
+        assertTrue(create(blr_int64).newFlatArray() instanceof long[]);
+        assertTrue(create(blr_float).newFlatArray() instanceof float[]);
+        assertTrue(create(blr_double).newFlatArray() instanceof double[]);
+        assertEquals(4, ((int[]) create(blr_long).newFlatArray()).length);
+    }
+
+    @Test
+    public void testCheckFlatArray() throws SQLException {
+        final ArrayDescriptor descriptor = create(blr_long);
+
+        descriptor.checkFlatArray(new int[4]);
+        assertCheckFails(descriptor, new int[3]);
+        assertCheckFails(descriptor, new long[4]);
+        assertCheckFails(descriptor, null);
+    }
+
+    @Test(expected = SQLFeatureNotSupportedException.class)
+    public void testUnsupportedType() throws SQLException {
+        create(blr_varying);
+    }
+
+    @Test(expected = SQLNonTransientException.class)
+    public void testInvalidBounds() throws SQLException {
+        new ArrayDescriptor("T", "A", blr_long, 0, new int[] { 5 }, new int[] { 4 });
+    }
+
+    @Test(expected = SQLNonTransientException.class)
+    public void testMissingFieldName() throws SQLException {
+        new ArrayDescriptor("T", "", blr_long, 0, new int[] { 1 }, new int[] { 4 });
+    }
+
+    @Test(expected = SQLNonTransientException.class)
+    public void testTooLarge() throws SQLException {
+        new ArrayDescriptor("T", "A", blr_double, 0, new int[] { 1, 1 }, new int[] { 65536, 65536 });
+    }
+
+    @Test
+    public void testEquals() throws SQLException {
+        assertEquals(create(blr_long), create(blr_long));
+        assertEquals(create(blr_long).hashCode(), create(blr_long).hashCode());
+        assertNotEquals(create(blr_long), create(blr_int64));
+    }
+
+    private static ArrayDescriptor create(int blrType) throws SQLException {
+        return new ArrayDescriptor("T", "A", blrType, 0, new int[] { 1 }, new int[] { 4 });
+    }
+
+    private static void assertCheckFails(ArrayDescriptor descriptor, Object flatArray) {
+        try {
+            descriptor.checkFlatArray(flatArray);
+            fail("Expected checkFlatArray to fail");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+}
@@ -29,6 +29,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNull;
 
 /**
@@ -212,4 +214,25 @@ public class TestRowDescriptorBuilder {
         assertEquals("Field2.getFieldName()", "Field2", field2.getFieldName());
         assertEquals("Field2.getTableAlias()", null, field2.getTableAlias());
     }
+
+    @Test
+    public void testIntern_equalDescriptorsShareInstance() {
+        RowDescriptor first = RowDescriptor.createRowDescriptor(
+                TEST_FIELD_DESCRIPTORS.toArray(new FieldDescriptor[0]), datatypeCoder);
+        RowDescriptor second = RowDescriptor.createRowDescriptor(
+                TEST_FIELD_DESCRIPTORS.toArray(new FieldDescriptor[0]), datatypeCoder);
+        assertNotSame(first, second);
+
+        RowDescriptor interned = first.intern();
+        assertSame(interned, second.intern());
+        assertSame(interned, interned.intern());
+    }
+
+    @Test
+    public void testIntern_emptyDescriptorNotShared() {
+        RowDescriptor empty = RowDescriptor.empty(datatypeCoder);
+
+        assertSame(empty, empty.intern());
+        assertSame(datatypeCoder, empty.intern().getDatatypeCoder());
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.fields;
+
+import org.firebirdsql.encodings.EncodingFactory;
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.DefaultDatatypeCoder;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RowValueBatch}.
+ *
+ * @since 3.0
+ */
+public class TestRowValueBatch {
+
+    private final RowDescriptor rowDescriptor = new RowDescriptorBuilder(3,
+            new DefaultDatatypeCoder(EncodingFactory.createInstance(StandardCharsets.UTF_8)))
+            .setType(ISCConstants.SQL_LONG | 1).setLength(4).setFieldName("ID").addField()
+            .setType(ISCConstants.SQL_VARYING | 1).setLength(100).setFieldName("VAL").addField()
+            .setType(ISCConstants.SQL_BLOB | 1).setLength(8).setFieldName("BLOBVAL").addField()
+            .toRowDescriptor();
+
+    @Test
+    public void testNewBatchIsEmpty() {
+        final RowValueBatch batch = new RowValueBatch(3);
+
+        assertEquals(3, batch.getFieldCount());
+        assertEquals(0, batch.size());
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testAddAndReadRows() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+
+        assertEquals(0, batch.addRow(RowValue.of(rowDescriptor, bytes(1, 2, 3, 4), bytes(5), null)));
+        assertEquals(1, batch.addRow(RowValue.of(rowDescriptor, null, new byte[0], bytes(9, 9))));
+
+        assertEquals(2, batch.size());
+        final RowValue target = rowDescriptor.createDefaultFieldValues();
+        batch.readRow(1, target);
+        assertNull(target.getFieldValue(0).getFieldData());
+        assertTrue(target.getFieldValue(0).isInitialized());
+        assertArrayEquals(new byte[0], target.getFieldValue(1).getFieldData());
+        assertArrayEquals(bytes(9, 9), target.getFieldValue(2).getFieldData());
+
+        batch.readRow(0, target);
+        assertArrayEquals(bytes(1, 2, 3, 4), target.getFieldValue(0).getFieldData());
+        assertArrayEquals(bytes(5), target.getFieldValue(1).getFieldData());
+        assertNull(target.getFieldValue(2).getFieldData());
+        assertFalse(batch.isNull(0, 0));
+        assertTrue(batch.isNull(0, 2));
+        assertTrue(batch.isNull(1, 0));
+    }
+
+    @Test
+    public void testAddRowCopiesData() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+        final byte[] value = bytes(1, 2, 3, 4);
+        final RowValue source = RowValue.of(rowDescriptor, value, null, null);
+
+        batch.addRow(source);
+        value[0] = 42;
+
+        final RowValue target = rowDescriptor.createDefaultFieldValues();
+        batch.readRow(0, target);
+        assertArrayEquals(bytes(1, 2, 3, 4), target.getFieldValue(0).getFieldData());
+    }
+
+    @Test
+    public void testManyRows() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+        final int rows = 10000;
+        for (int row = 0; row < rows; row++) {
+            batch.addRow(RowValue.of(rowDescriptor, bytes(row, row >> 8, 0, 0), new byte[row % 50], null));
+        }
+
+        assertEquals(rows, batch.size());
+        final RowValue target = rowDescriptor.createDefaultFieldValues();
+        for (int row = 0; row < rows; row++) {
+            batch.readRow(row, target);
+            assertArrayEquals(bytes(row, row >> 8, 0, 0), target.getFieldValue(0).getFieldData());
+            assertEquals(row % 50, target.getFieldValue(1).getFieldData().length);
+        }
+    }
+
+    @Test
+    public void testCachedObjects() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+        for (int row = 0; row < 20; row++) {
+            batch.addRow(RowValue.of(rowDescriptor, null, null, null));
+        }
+        final Object cached = new Object();
+
+        assertNull(batch.getCachedObject(5, 2));
+        batch.setCachedObject(5, 2, cached);
+        batch.addRow(RowValue.of(rowDescriptor, null, null, null));
+
+        assertSame(cached, batch.getCachedObject(5, 2));
+        assertNull(batch.getCachedObject(5, 1));
+        assertNull(batch.getCachedObject(20, 2));
+    }
+
+    @Test
+    public void testClear() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+        batch.addRow(RowValue.of(rowDescriptor, bytes(1, 2, 3, 4), null, null));
+        batch.setCachedObject(0, 2, new Object());
+
+        batch.clear();
+
+        assertTrue(batch.isEmpty());
+        batch.addRow(RowValue.of(rowDescriptor, bytes(5, 6, 7, 8), null, null));
+        assertNull(batch.getCachedObject(0, 2));
+        final RowValue target = rowDescriptor.createDefaultFieldValues();
+        batch.readRow(0, target);
+        assertArrayEquals(bytes(5, 6, 7, 8), target.getFieldValue(0).getFieldData());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReadRow_outOfRange() throws SQLException {
+        final RowValueBatch batch = new RowValueBatch(3);
+        batch.addRow(RowValue.of(rowDescriptor, null, null, null));
+
+        batch.readRow(1, rowDescriptor.createDefaultFieldValues());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddRow_wrongFieldCount() throws SQLException {
+        new RowValueBatch(2).addRow(RowValue.of(rowDescriptor, null, null, null));
+    }
+
+    private static byte[] bytes(int... values) {
+        final byte[] result = new byte[values.length];
+        for (int idx = 0; idx < values.length; idx++) {
+            result[idx] = (byte) values[idx];
+        }
+        return result;
+    }
+}
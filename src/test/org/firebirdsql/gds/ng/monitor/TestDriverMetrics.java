@@ -0,0 +1,175 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DriverMetrics}.
+ *
+ * @since 3.0
+ */
+public class TestDriverMetrics {
+
+    private final DriverMetrics metrics = new DriverMetrics(false);
+
+    @After
+    public void tearDown() {
+        metrics.unregister();
+    }
+
+    @Test
+    public void testCounters() {
+        metrics.bytesSent(100);
+        metrics.bytesSent(20);
+        metrics.bytesReceived(50);
+        metrics.packetSent();
+        metrics.responseReceived(1000);
+        metrics.responseReceived(2000);
+        metrics.rowsFetched(3);
+        metrics.blobBytes(10);
+        metrics.statementRetried(335544336);
+
+        assertEquals(120, metrics.getBytesSent());
+        assertEquals(50, metrics.getBytesReceived());
+        assertEquals(1, metrics.getPacketsSent());
+        assertEquals(2, metrics.getRoundTrips());
+        assertEquals(3, metrics.getRowsFetched());
+        assertEquals(10, metrics.getBlobBytes());
+        assertEquals(1, metrics.getStatementRetries());
+    }
+
+    @Test
+    public void testStatementOperation() {
+        metrics.statementOperation(StatementOperation.PREPARE, 1000);
+        metrics.statementOperation(StatementOperation.EXECUTE, 1000);
+        metrics.statementOperation(StatementOperation.EXECUTE, 1000);
+        metrics.statementOperation(StatementOperation.FETCH, 1000);
+
+        assertEquals(1, metrics.getPrepareLatency().getCount());
+        assertEquals(2, metrics.getExecuteLatency().getCount());
+        assertEquals(1, metrics.getFetchLatency().getCount());
+    }
+
+    @Test
+    public void testReset() {
+        metrics.bytesSent(100);
+        metrics.statementOperation(StatementOperation.EXECUTE, 1000);
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getBytesSent());
+        assertEquals(0, metrics.getExecuteLatency().getCount());
+    }
+
+    @Test
+    public void testListenerReceivesEvents() {
+        final RecordingListener listener = new RecordingListener();
+        metrics.addMetricsListener(listener);
+
+        metrics.bytesSent(10);
+        metrics.statementOperation(StatementOperation.FETCH, 5);
+        metrics.removeMetricsListener(listener);
+        metrics.packetSent();
+
+        assertEquals(2, listener.events.size());
+        assertEquals("bytesSent 10", listener.events.get(0));
+        assertEquals("statementOperation FETCH 5", listener.events.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddSelfNotAllowed() {
+        metrics.addMetricsListener(metrics);
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+        assertTrue(metrics.register("localhost/3050:employee"));
+        final ObjectName objectName = metrics.getObjectName();
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(mBeanServer.isRegistered(objectName));
+
+        metrics.bytesSent(42);
+        metrics.statementOperation(StatementOperation.EXECUTE, 2000);
+
+        assertEquals(42L, mBeanServer.getAttribute(objectName, "BytesSent"));
+        final CompositeData executeLatency = (CompositeData) mBeanServer.getAttribute(objectName, "ExecuteLatency");
+        assertEquals(1L, executeLatency.get("count"));
+
+        metrics.unregister();
+
+        assertNull(metrics.getObjectName());
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    private static final class RecordingListener implements MetricsListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void bytesSent(int count) {
+            events.add("bytesSent " + count);
+        }
+
+        @Override
+        public void bytesReceived(int count) {
+            events.add("bytesReceived " + count);
+        }
+
+        @Override
+        public void packetSent() {
+            events.add("packetSent");
+        }
+
+        @Override
+        public void responseReceived(long nanos) {
+            events.add("responseReceived " + nanos);
+        }
+
+        @Override
+        public void statementOperation(StatementOperation operation, long nanos) {
+            events.add("statementOperation " + operation + " " + nanos);
+        }
+
+        @Override
+        public void rowsFetched(int count) {
+            events.add("rowsFetched " + count);
+        }
+
+        @Override
+        public void blobBytes(int count) {
+            events.add("blobBytes " + count);
+        }
+
+        @Override
+        public void statementRetried(int errorCode) {
+            events.add("statementRetried " + errorCode);
+        }
+    }
+}
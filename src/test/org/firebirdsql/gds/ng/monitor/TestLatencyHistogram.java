@@ -0,0 +1,89 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ *
+ * @since 3.0
+ */
+public class TestLatencyHistogram {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value = 0; value < 100000; value++) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue("value " + value + " above upper bound of its bucket",
+                    value <= LatencyHistogram.bucketUpperBound(index));
+            if (index > 0) {
+                assertTrue("value " + value + " not above upper bound of previous bucket",
+                        value > LatencyHistogram.bucketUpperBound(index - 1));
+            }
+        }
+        assertEquals(Long.MAX_VALUE,
+                LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testSnapshot_empty() {
+        final LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMaxMicros());
+    }
+
+    @Test
+    public void testSnapshot() {
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        final LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(100, histogram.count());
+        assertEquals(50500, snapshot.getMeanMicros());
+        assertEquals(100000, snapshot.getMaxMicros());
+        assertWithinBucketError(50000, snapshot.getP50Micros());
+        assertWithinBucketError(90000, snapshot.getP90Micros());
+        assertWithinBucketError(99000, snapshot.getP99Micros());
+    }
+
+    @Test
+    public void testReset() {
+        histogram.record(1000);
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.count());
+    }
+
+    private static void assertWithinBucketError(long expected, long actual) {
+        assertTrue("expected " + expected + " <= " + actual, expected <= actual);
+        assertTrue("expected " + actual + " within 25% of " + expected, actual <= expected * 1.25);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.monitor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SharedDriverMetrics}.
+ *
+ * @since 3.0
+ */
+public class TestSharedDriverMetrics {
+
+    private static final String DATABASE = "localhost/3050:shared_metrics";
+
+    private final Object owner1 = new Object();
+    private final Object owner2 = new Object();
+
+    @After
+    public void tearDown() {
+        SharedDriverMetrics.release(owner1);
+        SharedDriverMetrics.release(owner2);
+    }
+
+    @Test
+    public void testSameDatabaseSharesMetrics() {
+        final DriverMetrics metrics1 = SharedDriverMetrics.acquire(DATABASE, owner1);
+        final DriverMetrics metrics2 = SharedDriverMetrics.acquire(DATABASE, owner2);
+
+        assertSame(metrics1, metrics2);
+        assertNotNull("Expected metrics to be registered", metrics1.getObjectName());
+    }
+
+    @Test
+    public void testOtherDatabaseHasOwnMetrics() {
+        final DriverMetrics metrics1 = SharedDriverMetrics.acquire(DATABASE, owner1);
+        final DriverMetrics metrics2 = SharedDriverMetrics.acquire(DATABASE + "_other", owner2);
+
+        assertNotSame(metrics1, metrics2);
+    }
+
+    @Test
+    public void testUnregisteredWhenLastOwnerReleased() {
+        final DriverMetrics metrics = SharedDriverMetrics.acquire(DATABASE, owner1);
+        SharedDriverMetrics.acquire(DATABASE, owner2);
+        final ObjectName objectName = metrics.getObjectName();
+
+        SharedDriverMetrics.release(owner1);
+
+        assertTrue("Expected MBean to remain registered while it has an owner",
+                ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+        SharedDriverMetrics.release(owner2);
+
+        assertNull(metrics.getObjectName());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        assertNotSame("Expected new metrics after last owner released",
+                metrics, SharedDriverMetrics.acquire(DATABASE, owner1));
+    }
+
+    @Test
+    public void testUnregisteredWhenLastOwnerCollected() throws Exception {
+        final ObjectName objectName = acquireWithUnreachableOwner(DATABASE + "_collected");
+        assertTrue("Expected MBean to be registered",
+                ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+        // No further calls to SharedDriverMetrics: the cleaner thread releases the collected owner
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)
+                && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertFalse("Expected MBean to be unregistered after owner was garbage collected",
+                ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+
+    private static ObjectName acquireWithUnreachableOwner(String database) {
+        return SharedDriverMetrics.acquire(database, new Object()).getObjectName();
+    }
+}
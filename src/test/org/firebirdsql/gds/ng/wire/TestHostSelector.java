@@ -0,0 +1,97 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HostSelector}.
+ *
+ * @since 3.0
+ */
+public class TestHostSelector {
+
+    private static final ServerAddress SERVER1 = new ServerAddress("server1", 3050);
+    private static final ServerAddress SERVER2 = new ServerAddress("server2", 3050);
+    private static final ServerAddress SERVER3 = new ServerAddress("server3", 3050);
+    private static final List<ServerAddress> SERVERS = Arrays.asList(SERVER1, SERVER2, SERVER3);
+
+    private final HostSelector hostSelector = new HostSelector();
+
+    @Test
+    public void testOrder_failover() {
+        assertEquals(SERVERS, hostSelector.order(SERVERS, HostSelector.Policy.FAILOVER));
+        assertEquals(SERVERS, hostSelector.order(SERVERS, HostSelector.Policy.FAILOVER));
+    }
+
+    @Test
+    public void testOrder_roundRobin() {
+        assertEquals(SERVERS, hostSelector.order(SERVERS, HostSelector.Policy.ROUND_ROBIN));
+        assertEquals(Arrays.asList(SERVER2, SERVER3, SERVER1),
+                hostSelector.order(SERVERS, HostSelector.Policy.ROUND_ROBIN));
+        assertEquals(Arrays.asList(SERVER3, SERVER1, SERVER2),
+                hostSelector.order(SERVERS, HostSelector.Policy.ROUND_ROBIN));
+        assertEquals(SERVERS, hostSelector.order(SERVERS, HostSelector.Policy.ROUND_ROBIN));
+    }
+
+    @Test
+    public void testOrder_leastLatency() {
+        hostSelector.connectSucceeded(SERVER1, 3000000);
+        hostSelector.connectSucceeded(SERVER2, 1000000);
+
+        // SERVER3 has no statistics yet, so is tried first
+        assertEquals(Arrays.asList(SERVER3, SERVER2, SERVER1),
+                hostSelector.order(SERVERS, HostSelector.Policy.LEAST_LATENCY));
+    }
+
+    @Test
+    public void testOrder_blacklistedServerLast() {
+        hostSelector.connectFailed(SERVER1);
+
+        assertTrue(hostSelector.isBlacklisted(SERVER1));
+        assertEquals(Arrays.asList(SERVER2, SERVER3, SERVER1),
+                hostSelector.order(SERVERS, HostSelector.Policy.FAILOVER));
+    }
+
+    @Test
+    public void testConnectSucceeded_endsBlacklist() {
+        hostSelector.connectFailed(SERVER1);
+        hostSelector.connectSucceeded(SERVER1, 1000000);
+
+        assertFalse(hostSelector.isBlacklisted(SERVER1));
+    }
+
+    @Test
+    public void testPolicyForPropertyValue() throws Exception {
+        assertEquals(HostSelector.Policy.FAILOVER, HostSelector.Policy.forPropertyValue(null));
+        assertEquals(HostSelector.Policy.ROUND_ROBIN, HostSelector.Policy.forPropertyValue("roundrobin"));
+        assertEquals(HostSelector.Policy.LEAST_LATENCY, HostSelector.Policy.forPropertyValue("leastLatency"));
+    }
+
+    @Test(expected = SQLException.class)
+    public void testPolicyForPropertyValue_unknown() throws Exception {
+        HostSelector.Policy.forPropertyValue("random");
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeepAliveScheduler}.
+ *
+ * @since 3.0
+ */
+public class TestKeepAliveScheduler {
+
+    private static final long INTERVAL_MILLIS = 40;
+
+    private final KeepAliveScheduler scheduler = KeepAliveScheduler.getInstance();
+
+    @Test
+    public void testIdleConnectionIsPinged() throws Exception {
+        final StubTarget target = new StubTarget(TimeUnit.SECONDS.toNanos(60));
+        final ScheduledFuture<?> future = scheduler.schedule(target, INTERVAL_MILLIS);
+        try {
+            target.awaitPings(2);
+
+            assertEquals("Expected interval as ping timeout", INTERVAL_MILLIS, target.lastTimeout);
+        } finally {
+            future.cancel(false);
+        }
+    }
+
+    @Test
+    public void testActiveConnectionIsNotPinged() throws Exception {
+        final StubTarget target = new StubTarget(0);
+        final ScheduledFuture<?> future = scheduler.schedule(target, INTERVAL_MILLIS);
+        try {
+            Thread.sleep(5 * INTERVAL_MILLIS);
+
+            assertEquals(0, target.pingCount.get());
+        } finally {
+            future.cancel(false);
+        }
+    }
+
+    @Test
+    public void testDetachedConnectionEndsKeepAlive() throws Exception {
+        final StubTarget target = new StubTarget(TimeUnit.SECONDS.toNanos(60));
+        target.attached = false;
+        final ScheduledFuture<?> future = scheduler.schedule(target, INTERVAL_MILLIS);
+
+        final long deadline = System.currentTimeMillis() + 2000;
+        while (!future.isCancelled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue("Expected keep-alive to be cancelled", future.isCancelled());
+        assertEquals(0, target.pingCount.get());
+    }
+
+    @Test
+    public void testFailedPingClosingConnectionEndsKeepAlive() throws Exception {
+        final StubTarget target = new StubTarget(TimeUnit.SECONDS.toNanos(60)) {
+            @Override
+            public void ping(int timeout) throws SQLException {
+                super.ping(timeout);
+                attached = false;
+                throw new SQLException("ping failed");
+            }
+        };
+        final ScheduledFuture<?> future = scheduler.schedule(target, INTERVAL_MILLIS);
+
+        target.awaitPings(1);
+        final long deadline = System.currentTimeMillis() + 2000;
+        while (!future.isCancelled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue("Expected keep-alive to be cancelled", future.isCancelled());
+        assertEquals(1, target.pingCount.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInterval() {
+        scheduler.schedule(new StubTarget(0), 0);
+    }
+
+    private static class StubTarget implements KeepAliveScheduler.Target {
+
+        private final long idleNanos;
+        final AtomicInteger pingCount = new AtomicInteger();
+        volatile boolean attached = true;
+        volatile int lastTimeout;
+
+        StubTarget(long idleNanos) {
+            this.idleNanos = idleNanos;
+        }
+
+        @Override
+        public boolean isAttached() {
+            return attached;
+        }
+
+        @Override
+        public long getIdleNanos() {
+            return idleNanos;
+        }
+
+        @Override
+        public void ping(int timeout) throws SQLException {
+            lastTimeout = timeout;
+            synchronized (pingCount) {
+                pingCount.incrementAndGet();
+                pingCount.notifyAll();
+            }
+        }
+
+        void awaitPings(int count) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 2000;
+            synchronized (pingCount) {
+                while (pingCount.get() < count) {
+                    final long remaining = deadline - System.currentTimeMillis();
+                    assertTrue("Timeout waiting for " + count + " pings, received " + pingCount.get(),
+                            remaining > 0);
+                    pingCount.wait(remaining);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MultiHostConnector} (using local server sockets).
+ *
+ * @since 3.0
+ */
+public class TestMultiHostConnector {
+
+    private static final String LOCALHOST = InetAddress.getLoopbackAddress().getHostAddress();
+
+    private final HostSelector hostSelector = new HostSelector();
+    private final MultiHostConnector connector = new MultiHostConnector(hostSelector,
+            new MultiHostConnector.SocketFactory() {
+                @Override
+                public Socket createSocket() {
+                    return new Socket();
+                }
+            }, 5000);
+    private ServerSocket serverSocket;
+    private ServerAddress listening;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+        listening = new ServerAddress(LOCALHOST, serverSocket.getLocalPort());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverSocket.close();
+    }
+
+    @Test
+    public void testConnect_firstServerUnreachable() throws Exception {
+        final ServerAddress unreachable = new ServerAddress(LOCALHOST, getUnusedPort());
+
+        try (Socket socket = connector.connect(Arrays.asList(unreachable, listening))) {
+            assertTrue(socket.isConnected());
+            assertEquals(listening.getPort(), socket.getPort());
+        }
+        assertTrue("Expected unreachable server to be blacklisted", hostSelector.isBlacklisted(unreachable));
+        assertFalse(hostSelector.isBlacklisted(listening));
+    }
+
+    @Test
+    public void testConnect_allUnreachable() throws Exception {
+        final ServerAddress unreachable = new ServerAddress(LOCALHOST, getUnusedPort());
+
+        try {
+            connector.connect(Collections.singletonList(unreachable));
+            fail("Expected connect to fail");
+        } catch (IOException e) {
+            assertTrue(hostSelector.isBlacklisted(unreachable));
+        }
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.ng.LockCloseable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RequestPipeline}.
+ *
+ * @since 3.0
+ */
+public class TestRequestPipeline {
+
+    private final RequestPipeline pipeline = new RequestPipeline();
+
+    @Test
+    public void testTurnOwner() {
+        final long ticket = pipeline.register();
+        assertFalse(pipeline.isTurnOwner());
+
+        try (LockCloseable ignored = pipeline.awaitTurn(ticket)) {
+            assertTrue(pipeline.isTurnOwner());
+        }
+
+        assertFalse(pipeline.isTurnOwner());
+    }
+
+    @Test
+    public void testTurnsInOrderOfRegistration() throws Exception {
+        final int count = 5;
+        final long[] tickets = new long[count];
+        for (int idx = 0; idx < count; idx++) {
+            tickets[idx] = pipeline.register();
+        }
+        final List<Long> order = Collections.synchronizedList(new ArrayList<Long>());
+        final List<Thread> threads = new ArrayList<>();
+        // Start threads in reverse order of their tickets
+        for (int idx = count - 1; idx >= 0; idx--) {
+            final long ticket = tickets[idx];
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try (LockCloseable ignored = pipeline.awaitTurn(ticket)) {
+                        order.add(ticket);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(count, order.size());
+        for (int idx = 0; idx < count; idx++) {
+            assertEquals("Turn " + idx, tickets[idx], (long) order.get(idx));
+        }
+    }
+
+    @Test
+    public void testAwaitDrained_noTickets_returnsImmediately() {
+        pipeline.awaitDrained();
+    }
+
+    @Test
+    public void testAwaitDrained_waitsForOutstandingTickets() throws Exception {
+        final long ticket = pipeline.register();
+        final CountDownLatch drained = new CountDownLatch(1);
+        final Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pipeline.awaitDrained();
+                drained.countDown();
+            }
+        });
+        waiter.start();
+
+        final LockCloseable turn = pipeline.awaitTurn(ticket);
+        assertFalse("Pipeline should not be drained during turn", drained.await(100, TimeUnit.MILLISECONDS));
+        turn.close();
+
+        assertTrue("Pipeline should be drained after turn", drained.await(5, TimeUnit.SECONDS));
+        waiter.join(5000);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.encodings.EncodingFactory;
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.DefaultDatatypeCoder;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptorBuilder;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RowCodec}.
+ *
+ * @since 3.0
+ */
+public class TestRowCodec {
+
+    private static final DefaultBlrCalculator BLR_CALCULATOR = DefaultBlrCalculator.CALCULATOR_DIALECT_3;
+
+    private final RowDescriptor rowDescriptor = new RowDescriptorBuilder(3,
+            new DefaultDatatypeCoder(EncodingFactory.createInstance(StandardCharsets.UTF_8)))
+            .setType(ISCConstants.SQL_LONG | 1).setLength(4).setFieldName("ID").addField()
+            .setType(ISCConstants.SQL_TEXT | 1).setLength(10).setFieldName("CHARCOL").addField()
+            .setType(ISCConstants.SQL_VARYING | 1).setLength(20).setFieldName("VARCHARCOL").addField()
+            .toRowDescriptor();
+
+    @Test
+    public void testBlrAndIoLengthsMatchBlrCalculator() throws SQLException {
+        final RowCodec codec = RowCodec.create(rowDescriptor, BLR_CALCULATOR);
+
+        assertSame(rowDescriptor, codec.getRowDescriptor());
+        assertEquals(3, codec.getCount());
+        assertArrayEquals(BLR_CALCULATOR.calculateBlr(rowDescriptor), codec.getBlr());
+        for (int idx = 0; idx < codec.getCount(); idx++) {
+            assertEquals(BLR_CALCULATOR.calculateIoLength(rowDescriptor.getFieldDescriptor(idx)),
+                    codec.getIoLength(idx));
+            assertEquals(rowDescriptor.getFieldDescriptor(idx).getType(), codec.getFieldType(idx));
+        }
+    }
+
+    @Test
+    public void testIoLengthForFieldValue() throws SQLException {
+        final RowCodec codec = RowCodec.create(rowDescriptor, BLR_CALCULATOR);
+        final RowValue rowValue = RowValue.of(rowDescriptor, new byte[4], new byte[3], new byte[5]);
+
+        for (int idx = 0; idx < codec.getCount(); idx++) {
+            assertEquals(BLR_CALCULATOR.calculateIoLength(rowDescriptor.getFieldDescriptor(idx),
+                    rowValue.getFieldValue(idx)), codec.getIoLength(idx, rowValue.getFieldValue(idx)));
+        }
+    }
+
+    @Test
+    public void testRowValueBlrReusedForSameDataLengths() throws SQLException {
+        final RowCodec codec = RowCodec.create(rowDescriptor, BLR_CALCULATOR);
+        final RowValue rowValue1 = RowValue.of(rowDescriptor, new byte[4], new byte[3], new byte[5]);
+        final RowValue rowValue2 = RowValue.of(rowDescriptor, new byte[4], new byte[3], new byte[5]);
+
+        final byte[] blr1 = codec.getBlr(rowValue1);
+        assertArrayEquals(BLR_CALCULATOR.calculateBlr(rowDescriptor, rowValue1), blr1);
+        assertSame("Expected blr to be reused", blr1, codec.getBlr(rowValue2));
+    }
+
+    @Test
+    public void testRowValueBlrRecalculatedForDifferentDataLengths() throws SQLException {
+        final RowCodec codec = RowCodec.create(rowDescriptor, BLR_CALCULATOR);
+        final RowValue rowValue1 = RowValue.of(rowDescriptor, new byte[4], new byte[3], new byte[5]);
+        final RowValue rowValue2 = RowValue.of(rowDescriptor, new byte[4], new byte[3], new byte[7]);
+        final RowValue rowValue3 = RowValue.of(rowDescriptor, new byte[4], null, new byte[7]);
+
+        codec.getBlr(rowValue1);
+
+        assertArrayEquals(BLR_CALCULATOR.calculateBlr(rowDescriptor, rowValue2), codec.getBlr(rowValue2));
+        assertArrayEquals(BLR_CALCULATOR.calculateBlr(rowDescriptor, rowValue3), codec.getBlr(rowValue3));
+    }
+}
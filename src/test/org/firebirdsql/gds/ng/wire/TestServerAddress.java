@@ -0,0 +1,92 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.JaybirdErrorCodes;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.firebirdsql.common.matchers.SQLExceptionMatchers.errorCodeEquals;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ServerAddress}.
+ *
+ * @since 3.0
+ */
+public class TestServerAddress {
+
+    @Test
+    public void testIsList() {
+        assertFalse(ServerAddress.isList(null));
+        assertFalse(ServerAddress.isList("localhost"));
+        assertTrue(ServerAddress.isList("server1,server2"));
+    }
+
+    @Test
+    public void testParseList() throws Exception {
+        final List<ServerAddress> servers = ServerAddress.parseList("server1/13050, server2 ,server3/13051", 3050);
+
+        assertEquals(Arrays.asList(new ServerAddress("server1", 13050), new ServerAddress("server2", 3050),
+                new ServerAddress("server3", 13051)), servers);
+    }
+
+    @Test
+    public void testParseList_single() throws Exception {
+        assertEquals(Arrays.asList(new ServerAddress("localhost", 3051)), ServerAddress.parseList("localhost", 3051));
+    }
+
+    @Test
+    public void testParseList_emptyServer() {
+        checkInvalid("server1,,server2");
+    }
+
+    @Test
+    public void testParseList_badPort() {
+        checkInvalid("server1/x,server2");
+    }
+
+    @Test
+    public void testEquals_hostCaseInsensitive() {
+        final ServerAddress address1 = new ServerAddress("Server", 3050);
+        final ServerAddress address2 = new ServerAddress("server", 3050);
+
+        assertEquals(address1, address2);
+        assertEquals(address1.hashCode(), address2.hashCode());
+        assertNotEquals(address1, new ServerAddress("server", 3051));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("server/3050", new ServerAddress("server", 3050).toString());
+    }
+
+    private static void checkInvalid(String serverName) {
+        try {
+            ServerAddress.parseList(serverName, 3050);
+            fail("Expected exception for " + serverName);
+        } catch (SQLException e) {
+            assertThat(e, errorCodeEquals(JaybirdErrorCodes.jb_invalidConnectionString));
+        }
+    }
+}
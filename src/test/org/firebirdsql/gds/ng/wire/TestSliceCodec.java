@@ -0,0 +1,136 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire;
+
+import org.firebirdsql.gds.impl.wire.XdrInputStream;
+import org.firebirdsql.gds.impl.wire.XdrOutputStream;
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SliceCodec}.
+ *
+ * @since 3.0
+ */
+public class TestSliceCodec {
+
+    @Test
+    public void testShortRoundTrip() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_short, 3);
+        final short[] values = { 1, -1, Short.MAX_VALUE };
+
+        final byte[] encoded = write(descriptor, values);
+
+        assertEquals("SMALLINT elements are encoded as 4 byte integers", 12, encoded.length);
+        assertArrayEquals(new byte[] { 0, 0, 0, 1, -1, -1, -1, -1, 0, 0, 0x7f, -1 }, encoded);
+        assertArrayEquals(values, (short[]) read(descriptor, encoded, descriptor.getSliceLength()));
+    }
+
+    @Test
+    public void testIntRoundTrip() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_long, 3);
+        final int[] values = { 1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+
+        final byte[] encoded = write(descriptor, values);
+
+        assertEquals(12, encoded.length);
+        assertArrayEquals(values, (int[]) read(descriptor, encoded, descriptor.getSliceLength()));
+    }
+
+    @Test
+    public void testLongRoundTrip() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_int64, 2);
+        final long[] values = { Long.MIN_VALUE, 1234567890123L };
+
+        final byte[] encoded = write(descriptor, values);
+
+        assertEquals(16, encoded.length);
+        assertArrayEquals(values, (long[]) read(descriptor, encoded, descriptor.getSliceLength()));
+    }
+
+    @Test
+    public void testFloatRoundTrip() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_float, 2);
+        final float[] values = { 1.5f, -0.25f };
+
+        final byte[] encoded = write(descriptor, values);
+
+        assertEquals(8, encoded.length);
+        assertArrayEquals(values, (float[]) read(descriptor, encoded, descriptor.getSliceLength()), 0f);
+    }
+
+    @Test
+    public void testDoubleRoundTrip_multipleChunks() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_double, 5000);
+        final double[] values = new double[5000];
+        for (int idx = 0; idx < values.length; idx++) {
+            values[idx] = idx * 0.5;
+        }
+
+        final byte[] encoded = write(descriptor, values);
+
+        assertEquals(40000, encoded.length);
+        assertArrayEquals(values, (double[]) read(descriptor, encoded, descriptor.getSliceLength()), 0d);
+    }
+
+    @Test
+    public void testRead_shorterSliceLeavesRemainderZero() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_long, 4);
+        final byte[] encoded = write(create(blr_long, 2), new int[] { 7, 8 });
+
+        assertArrayEquals(new int[] { 7, 8, 0, 0 }, (int[]) read(descriptor, encoded, 8));
+    }
+
+    @Test
+    public void testRead_skipsSurplusElements() throws Exception {
+        final ArrayDescriptor descriptor = create(blr_short, 2);
+        final byte[] encoded = write(create(blr_short, 3), new short[] { 1, 2, 3 });
+        final byte[] withTrailer = new byte[encoded.length + 4];
+        System.arraycopy(encoded, 0, withTrailer, 0, encoded.length);
+        withTrailer[withTrailer.length - 1] = 42;
+
+        final XdrInputStream xdrIn = new XdrInputStream(new ByteArrayInputStream(withTrailer));
+        assertArrayEquals(new short[] { 1, 2 }, (short[]) SliceCodec.readSlice(xdrIn, descriptor, 3 * 2));
+        assertEquals("Expected stream positioned after slice", 42, xdrIn.readInt());
+    }
+
+    private static ArrayDescriptor create(int blrType, int length) throws SQLException {
+        return new ArrayDescriptor("T", "A", blrType, 0, new int[] { 1 }, new int[] { length });
+    }
+
+    private static byte[] write(ArrayDescriptor descriptor, Object flatArray) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final XdrOutputStream xdrOut = new XdrOutputStream(out, false);
+        SliceCodec.writeSlice(xdrOut, descriptor, flatArray);
+        xdrOut.flush();
+        return out.toByteArray();
+    }
+
+    private static Object read(ArrayDescriptor descriptor, byte[] encoded, int sliceLength) throws IOException {
+        return SliceCodec.readSlice(new XdrInputStream(new ByteArrayInputStream(encoded)), descriptor, sliceLength);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire.auth;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SrpKeyPool}.
+ *
+ * @since 3.0
+ */
+public class SrpKeyPoolTest {
+
+    private static final int POOL_SIZE = 4;
+
+    private final SrpKeyPool pool = new SrpKeyPool(POOL_SIZE);
+
+    @After
+    public void tearDown() {
+        pool.stop();
+    }
+
+    @Test
+    public void testTake_keyPairsNotReused() {
+        final Set<BigInteger> privateKeys = new HashSet<>();
+        for (int i = 0; i < 3 * POOL_SIZE; i++) {
+            final SrpClient.KeyPair keyPair = pool.take();
+            assertNotNull(keyPair.getPublicKey());
+            assertTrue("Expected private key to be used only once", privateKeys.add(keyPair.getPrivateKey()));
+        }
+    }
+
+    @Test
+    public void testTake_poolRefilledInBackground() throws Exception {
+        pool.take();
+
+        for (int attempt = 0; attempt < 500 && pool.size() < POOL_SIZE; attempt++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals("Expected pool to be filled to its size", POOL_SIZE, pool.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_invalidSize() {
+        new SrpKeyPool(0);
+    }
+}
@@ -27,6 +27,9 @@ import org.firebirdsql.gds.TransactionParameterBuffer;
 import org.firebirdsql.gds.impl.GDSServerVersion;
 import org.firebirdsql.gds.impl.TransactionParameterBufferImpl;
 import org.firebirdsql.gds.ng.*;
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowDescriptorBuilder;
+import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.wire.AbstractFbWireDatabase;
 import org.firebirdsql.gds.ng.wire.FbWireDatabase;
 import org.firebirdsql.gds.ng.wire.ProtocolCollection;
@@ -151,6 +154,81 @@ public class TestV10Database {
         }
     }
 
+    /**
+     * Tests if attaching to an existing database works with fast connect.
+     */
+    @Test
+    public void testBasicAttach_fastConnect() throws Exception {
+        FBManager fbManager = createFBManager();
+        defaultDatabaseSetUp(fbManager);
+        try (WireDatabaseConnection gdsConnection = createFastConnectConnection()) {
+            gdsConnection.socketConnect();
+            try (FbWireDatabase db = gdsConnection.identify()) {
+                db.attach();
+
+                assertTrue("Expected isAttached() to return true", db.isAttached());
+                assertNotEquals("Expected version should not be invalid", GDSServerVersion.INVALID_VERSION,
+                        db.getServerVersion());
+                assertNotEquals("Expected ODS major version", 0, db.getOdsMajor());
+                // Connection should be usable for further operations
+                db.ping(0);
+            }
+        } finally {
+            defaultDatabaseTearDown(fbManager);
+        }
+    }
+
+    /**
+     * Tests if attaching to a non-existent database with fast connect results in an exception
+     */
+    @Test
+    public void testAttach_NonExistentDatabase_fastConnect() throws Exception {
+        try (WireDatabaseConnection gdsConnection = createFastConnectConnection()) {
+            try {
+                gdsConnection.socketConnect();
+                FbWireDatabase db = gdsConnection.identify();
+
+                db.attach();
+                fail("Expected the attach to fail because the database doesn't exist");
+            } catch (SQLException e) {
+                assertThat("Expected isc_io_error (335544344)", e, errorCodeEquals(ISCConstants.isc_io_error));
+            }
+            assertFalse(gdsConnection.isConnected());
+        }
+    }
+
+    @Test
+    public void testPing() throws Exception {
+        FBManager fbManager = createFBManager();
+        defaultDatabaseSetUp(fbManager);
+        try (WireDatabaseConnection gdsConnection = createConnection()) {
+            gdsConnection.socketConnect();
+            try (FbWireDatabase db = gdsConnection.identify()) {
+                db.attach();
+
+                db.ping(0);
+                db.ping(1000);
+
+                assertTrue("Expected connection to be usable after ping", db.isAttached());
+                assertNotNull(db.getDatabaseInfo(new byte[] { ISCConstants.isc_info_ods_version,
+                        ISCConstants.isc_info_end }, 16));
+            }
+        } finally {
+            defaultDatabaseTearDown(fbManager);
+        }
+    }
+
+    @Test
+    public void testPing_notAttached() throws Exception {
+        try (WireDatabaseConnection gdsConnection = createConnection()) {
+            gdsConnection.socketConnect();
+            FbWireDatabase db = gdsConnection.identify();
+            expectedException.expect(SQLException.class);
+
+            db.ping(0);
+        }
+    }
+
     @Test
     public void testAttach_DoubleAttach() throws Exception {
         expectedException.expect(SQLException.class);
@@ -375,6 +453,42 @@ public class TestV10Database {
         checkCancelOperationNotSupported(ISCConstants.fb_cancel_enable);
     }
 
+    @Test
+    public void testExecuteImmediate_parametersAndOutput() throws Exception {
+        FBManager fbManager = createFBManager();
+        defaultDatabaseSetUp(fbManager);
+        try (WireDatabaseConnection gdsConnection = createConnection()) {
+            gdsConnection.socketConnect();
+            try (FbWireDatabase db = gdsConnection.identify()) {
+                db.attach();
+                final DatatypeCoder datatypeCoder = db.getDatatypeCoder();
+                final RowDescriptor intDescriptor = new RowDescriptorBuilder(1, datatypeCoder)
+                        .setType(ISCConstants.SQL_LONG | 1).setLength(4).addField()
+                        .toRowDescriptor();
+                final RowValue parameters = RowValue.of(intDescriptor, datatypeCoder.encodeInt(41));
+                final FbTransaction transaction = getTransaction(db);
+                try {
+                    final RowValue result = db.executeImmediate(
+                            "SELECT CAST(? AS INTEGER) + 1 FROM RDB$DATABASE", transaction, intDescriptor,
+                            parameters, intDescriptor);
+
+                    assertNotNull("Expected output row", result);
+                    assertEquals(42, datatypeCoder.decodeInt(result.getFieldValue(0).getFieldData()));
+
+                    final RowValue noRow = db.executeImmediate(
+                            "SELECT 1 FROM RDB$DATABASE WHERE 1 = CAST(? AS INTEGER)", transaction, intDescriptor,
+                            parameters, intDescriptor);
+
+                    assertNull("Expected no output row", noRow);
+                } finally {
+                    transaction.commit();
+                }
+            }
+        } finally {
+            defaultDatabaseTearDown(fbManager);
+        }
+    }
+
     // TODO Investigate why this doesn't work in wire protocol, but works in native
     @Ignore("Test not working")
     @Test
@@ -422,6 +536,13 @@ public class TestV10Database {
                 EncodingFactory.getPlatformDefault(), getProtocolCollection());
     }
 
+    private WireDatabaseConnection createFastConnectConnection() throws SQLException {
+        FbConnectionProperties connectionProperties = new FbConnectionProperties(getConnectionInfo());
+        connectionProperties.setFastConnect(true);
+        return new WireDatabaseConnection(connectionProperties,
+                EncodingFactory.getPlatformDefault(), getProtocolCollection());
+    }
+
     private FbTransaction getTransaction(FbDatabase db) throws SQLException {
         TransactionParameterBuffer tpb = new TransactionParameterBufferImpl();
         tpb.addArgument(ISCConstants.isc_tpb_read_committed);
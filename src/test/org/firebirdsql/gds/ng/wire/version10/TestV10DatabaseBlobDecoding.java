@@ -0,0 +1,95 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.gds.ng.wire.version10;
+
+import org.firebirdsql.gds.ng.wire.GenericResponse;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the decoding of the blob content read by
+ * {@link V10Database#readBlobs(org.firebirdsql.gds.ng.FbTransaction, long[], int)}.
+ *
+ * @since 3.0
+ */
+public class TestV10DatabaseBlobDecoding {
+
+    private static final int END_OF_BLOB = 2;
+
+    @Test
+    public void testDecodeMultipleSegments() {
+        byte[] data = { 3, 0, 1, 2, 3, 2, 0, 4, 5 };
+
+        byte[] content = V10Database.decodeBlobContent(response(END_OF_BLOB, data), 10);
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, content);
+    }
+
+    @Test
+    public void testDecodeEmptyBlob() {
+        byte[] content = V10Database.decodeBlobContent(response(END_OF_BLOB, new byte[0]), 10);
+
+        assertArrayEquals(new byte[0], content);
+    }
+
+    @Test
+    public void testDecodeEmptySegment() {
+        byte[] data = { 0, 0, 1, 0, 7 };
+
+        byte[] content = V10Database.decodeBlobContent(response(END_OF_BLOB, data), 10);
+
+        assertArrayEquals(new byte[] { 7 }, content);
+    }
+
+    @Test
+    public void testDecodeExactlyMaxLength() {
+        byte[] data = { 2, 0, 1, 2, 1, 0, 3 };
+
+        byte[] content = V10Database.decodeBlobContent(response(END_OF_BLOB, data), 3);
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, content);
+    }
+
+    @Test
+    public void testDecodeLongerThanMaxLength_returnsNull() {
+        byte[] data = { 2, 0, 1, 2, 1, 0, 3 };
+
+        assertNull(V10Database.decodeBlobContent(response(END_OF_BLOB, data), 2));
+    }
+
+    @Test
+    public void testDecodeSegmentComplete_notEndOfBlob_returnsNull() {
+        byte[] data = { 3, 0, 1, 2, 3 };
+
+        assertNull(V10Database.decodeBlobContent(response(0, data), 10));
+    }
+
+    @Test
+    public void testDecodeSegmentIncomplete_returnsNull() {
+        byte[] data = { 3, 0, 1, 2, 3 };
+
+        assertNull(V10Database.decodeBlobContent(response(1, data), 10));
+    }
+
+    private static GenericResponse response(int objectHandle, byte[] data) {
+        return new GenericResponse(objectHandle, 0, data, null);
+    }
+}
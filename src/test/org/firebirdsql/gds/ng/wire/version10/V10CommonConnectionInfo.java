@@ -102,7 +102,7 @@ public class V10CommonConnectionInfo {
     public final AbstractWireOperations createDummyWireOperations(WarningMessageCallback warningMessageCallback)
             throws SQLException {
         return (AbstractWireOperations) getProtocolDescriptor().createWireOperations(getDummyDatabaseConnection(),
-                warningMessageCallback, new Object());
+                warningMessageCallback, new DriverLock());
     }
 
     public final Class<? extends FbWireDatabase> getExpectedDatabaseType() {
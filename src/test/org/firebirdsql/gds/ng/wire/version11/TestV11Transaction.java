@@ -19,14 +19,26 @@
 package org.firebirdsql.gds.ng.wire.version11;
 
 import org.firebirdsql.common.rules.RequireProtocol;
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.TransactionParameterBuffer;
+import org.firebirdsql.gds.impl.TransactionParameterBufferImpl;
+import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.FbTransaction;
+import org.firebirdsql.gds.ng.TransactionState;
+import org.firebirdsql.gds.ng.fields.RowValue;
 import org.firebirdsql.gds.ng.wire.version10.TestV10Transaction;
 import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.sql.SQLException;
 
 import static org.firebirdsql.common.rules.RequireProtocol.requireProtocolVersion;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
- * Tests for {@link org.firebirdsql.gds.ng.wire.version10.V10Transaction} in the version 11 protocol
- * (note: there is no version 11 specific implementation of this class).
+ * Tests for {@link V11Transaction} in the version 11 protocol.
  *
  * @author <a href="mailto:mrotteveel@users.sourceforge.net">Mark Rotteveel</a>
  * @since 3.0
@@ -43,4 +55,121 @@ public class TestV11Transaction extends TestV10Transaction {
     protected TestV11Transaction(V11CommonConnectionInfo commonConnectionInfo) {
         super(commonConnectionInfo);
     }
+
+    @Test
+    public void testPipelinedStartAndCommit() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction transaction = getTransaction();
+        assertEquals(TransactionState.ACTIVE, transaction.getState());
+        final int key = 23;
+        final String value = "TheValueIs23";
+        insertKeyValue(transaction, key, value);
+        transaction.commit();
+        assertEquals(TransactionState.COMMITTED, transaction.getState());
+
+        // Commit is completed by the call to commit, not by the next operation
+        assertValueForKey(key, true, value);
+    }
+
+    @Test
+    public void testPipelinedStartWithCommit() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction transaction = getTransaction();
+        // Start and commit sent together
+        transaction.commit();
+        assertEquals(TransactionState.COMMITTED, transaction.getState());
+
+        FbTransaction nextTransaction = getTransaction();
+        assertTrue("Expected transaction id of next transaction", nextTransaction.getTransactionId() > 0);
+        nextTransaction.commit();
+        assertEquals(TransactionState.COMMITTED, nextTransaction.getState());
+    }
+
+    @Test
+    public void testPipelinedStartAndRollback() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction transaction = getTransaction();
+        final int key = 23;
+        insertKeyValue(transaction, key, "TheValueIs23");
+        transaction.rollback();
+        assertEquals(TransactionState.ROLLED_BACK, transaction.getState());
+
+        assertValueForKey(key, false, null);
+    }
+
+    @Test
+    public void testPipelinedStartFailure_reportedByPrepare() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction transaction = startTransactionLockingUnknownTable();
+        FbStatement statement = db.createStatement(transaction);
+        try {
+            statement.prepare("SELECT 1 FROM RDB$DATABASE");
+            fail("Expected prepare to report failed start of transaction");
+        } catch (SQLException expected) {
+            // expected
+        } finally {
+            statement.close();
+        }
+
+        assertEquals(TransactionState.ROLLED_BACK, transaction.getState());
+        // No-op for a transaction that was never started
+        transaction.rollback();
+    }
+
+    @Test
+    public void testPipelinedStartFailure_reportedByExecute() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction prepareTransaction = getTransaction();
+        FbStatement statement = db.createStatement(prepareTransaction);
+        try {
+            statement.prepare("INSERT INTO keyvalue (thekey, thevalue) VALUES (23, 'TheValueIs23')");
+            prepareTransaction.commit();
+
+            FbTransaction transaction = startTransactionLockingUnknownTable();
+            statement.setTransaction(transaction);
+            try {
+                statement.execute(RowValue.EMPTY_ROW_VALUE);
+                fail("Expected execute to report failed start of transaction");
+            } catch (SQLException expected) {
+                // expected
+            }
+            assertEquals(TransactionState.ROLLED_BACK, transaction.getState());
+        } finally {
+            statement.close();
+        }
+
+        assertValueForKey(23, false, null);
+    }
+
+    @Test
+    public void testPipelinedStartFailure_reportedByCommit() throws Exception {
+        usePipelinedTransactions();
+
+        FbTransaction transaction = startTransactionLockingUnknownTable();
+        expectedException.expect(SQLException.class);
+
+        transaction.commit();
+    }
+
+    private FbTransaction startTransactionLockingUnknownTable() throws SQLException {
+        TransactionParameterBuffer tpb = new TransactionParameterBufferImpl();
+        tpb.addArgument(ISCConstants.isc_tpb_read_committed);
+        tpb.addArgument(ISCConstants.isc_tpb_rec_version);
+        tpb.addArgument(ISCConstants.isc_tpb_write);
+        tpb.addArgument(ISCConstants.isc_tpb_wait);
+        tpb.addArgument(ISCConstants.isc_tpb_lock_read, "DOES_NOT_EXIST");
+        return db.startTransaction(tpb);
+    }
+
+    private void usePipelinedTransactions() throws Exception {
+        db.close();
+        connectionInfo.setPipelineTransactions(true);
+        db = createDatabase();
+        db.attach();
+    }
 }
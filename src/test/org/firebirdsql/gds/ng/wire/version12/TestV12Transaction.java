@@ -25,7 +25,7 @@ import org.junit.ClassRule;
 import static org.firebirdsql.common.rules.RequireProtocol.requireProtocolVersion;
 
 /**
- * Tests for {@link org.firebirdsql.gds.ng.wire.version10.V10Transaction} in the version 12 protocol
+ * Tests for {@link org.firebirdsql.gds.ng.wire.version11.V11Transaction} in the version 12 protocol
  * (note: there is no version 12 specific implementation of this class).
  *
  * @author <a href="mailto:mrotteveel@users.sourceforge.net">Mark Rotteveel</a>
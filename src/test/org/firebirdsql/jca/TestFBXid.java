@@ -0,0 +1,78 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jca;
+
+import org.junit.Test;
+
+import javax.transaction.xa.Xid;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FBXid}.
+ */
+public class TestFBXid {
+
+    private static final Xid XID = new Xid() {
+        @Override
+        public int getFormatId() {
+            return 0x0102_0304;
+        }
+
+        @Override
+        public byte[] getGlobalTransactionId() {
+            return new byte[] { 1, 2, 3, 4, 5 };
+        }
+
+        @Override
+        public byte[] getBranchQualifier() {
+            return new byte[] { 6, 7 };
+        }
+    };
+
+    @Test
+    public void testRoundTripFromBytes() throws Exception {
+        final byte[] bytes = new FBXid(XID).toBytes();
+
+        final FBXid xid = new FBXid(bytes, 42);
+
+        assertEquals(XID.getFormatId(), xid.getFormatId());
+        assertArrayEquals(XID.getGlobalTransactionId(), xid.getGlobalTransactionId());
+        assertArrayEquals(XID.getBranchQualifier(), xid.getBranchQualifier());
+        assertEquals(42, xid.getFirebirdTransactionId());
+        assertEquals(new FBXid(new ByteArrayInputStream(bytes), 42), xid);
+    }
+
+    @Test(expected = FBIncorrectXidException.class)
+    public void testInvalidVersion() throws Exception {
+        final byte[] bytes = new FBXid(XID).toBytes();
+        bytes[0] = 2;
+
+        new FBXid(bytes, 1);
+    }
+
+    @Test(expected = FBIncorrectXidException.class)
+    public void testTruncated() throws Exception {
+        final byte[] bytes = new FBXid(XID).toBytes();
+
+        new FBXid(Arrays.copyOf(bytes, bytes.length - 1), 1);
+    }
+}
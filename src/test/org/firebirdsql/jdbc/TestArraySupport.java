@@ -0,0 +1,161 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.common.DdlHelper;
+import org.firebirdsql.common.FBJUnit4TestBase;
+import org.firebirdsql.common.FBTestProperties;
+import org.firebirdsql.common.JdbcResourceHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for reading and writing {@code ARRAY} columns.
+ *
+ * @since 3.0
+ */
+public class TestArraySupport extends FBJUnit4TestBase {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE witharray ("
+                    + " id INTEGER NOT NULL PRIMARY KEY,"
+                    + " intarr INTEGER[4],"
+                    + " matrix DOUBLE PRECISION[0:1, 1:3],"
+                    + " numarr NUMERIC(10,2)[2]"
+                    + ")";
+    private static final String INSERT = "INSERT INTO witharray (id, intarr, matrix, numarr) VALUES (?, ?, ?, ?)";
+    private static final String SELECT = "SELECT intarr, matrix, numarr FROM witharray WHERE id = ?";
+
+    private Connection con;
+
+    @Before
+    public void setUp() throws Exception {
+        con = FBTestProperties.getConnectionViaDriverManager();
+        DdlHelper.executeCreateTable(con, CREATE_TABLE);
+        con.setAutoCommit(false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        JdbcResourceHelper.closeQuietly(con);
+    }
+
+    @Test
+    public void testInsertAndSelectJavaArrays() throws Exception {
+        final PreparedStatement insert = con.prepareStatement(INSERT);
+        try {
+            insert.setInt(1, 1);
+            insert.setObject(2, new int[] { 1, 2, 3, 4 });
+            insert.setObject(3, new double[][] { { 1.5, 2.5, 3.5 }, { -1, -2, -3 } });
+            insert.setObject(4, new BigDecimal[] { new BigDecimal("12.34"), BigDecimal.ONE });
+            insert.executeUpdate();
+        } finally {
+            JdbcResourceHelper.closeQuietly(insert);
+        }
+
+        final PreparedStatement select = con.prepareStatement(SELECT);
+        try {
+            select.setInt(1, 1);
+            final ResultSet rs = select.executeQuery();
+            assertTrue("Expected a row", rs.next());
+
+            final Array intArray = rs.getArray(1);
+            assertEquals(Types.INTEGER, intArray.getBaseType());
+            assertArrayEquals(new int[] { 1, 2, 3, 4 }, (int[]) intArray.getArray());
+
+            final double[][] matrix = (double[][]) rs.getArray(2).getArray();
+            assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, matrix[0], 0d);
+            assertArrayEquals(new double[] { -1, -2, -3 }, matrix[1], 0d);
+
+            assertArrayEquals(new BigDecimal[] { new BigDecimal("12.34"), new BigDecimal("1.00") },
+                    (BigDecimal[]) rs.getArray(3).getArray());
+        } finally {
+            JdbcResourceHelper.closeQuietly(select);
+        }
+    }
+
+    @Test
+    public void testCopyArrayAndNull() throws Exception {
+        final PreparedStatement insert = con.prepareStatement(INSERT);
+        try {
+            insert.setInt(1, 1);
+            insert.setObject(2, new int[] { 5, 6 });
+            insert.setNull(3, Types.ARRAY);
+            insert.setNull(4, Types.ARRAY);
+            insert.executeUpdate();
+
+            final PreparedStatement select = con.prepareStatement(SELECT);
+            try {
+                select.setInt(1, 1);
+                final ResultSet rs = select.executeQuery();
+                assertTrue("Expected a row", rs.next());
+                assertNull(rs.getArray(2));
+                insert.setInt(1, 2);
+                insert.setArray(2, rs.getArray(1));
+                insert.executeUpdate();
+            } finally {
+                JdbcResourceHelper.closeQuietly(select);
+            }
+        } finally {
+            JdbcResourceHelper.closeQuietly(insert);
+        }
+
+        final Statement stmt = con.createStatement();
+        try {
+            final ResultSet rs = stmt.executeQuery("SELECT intarr FROM witharray WHERE id = 2");
+            assertTrue("Expected a row", rs.next());
+            assertArrayEquals("Expected shorter array padded with 0", new int[] { 5, 6, 0, 0 },
+                    (int[]) rs.getArray(1).getArray());
+        } finally {
+            JdbcResourceHelper.closeQuietly(stmt);
+        }
+    }
+
+    @Test
+    public void testBatchInsert() throws Exception {
+        final PreparedStatement insert = con.prepareStatement("INSERT INTO witharray (id, intarr) VALUES (?, ?)");
+        try {
+            for (int id = 1; id <= 3; id++) {
+                insert.setInt(1, id);
+                insert.setObject(2, new int[] { id, id, id, id });
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        } finally {
+            JdbcResourceHelper.closeQuietly(insert);
+        }
+
+        final Statement stmt = con.createStatement();
+        try {
+            final ResultSet rs = stmt.executeQuery("SELECT id, intarr FROM witharray ORDER BY id");
+            for (int id = 1; id <= 3; id++) {
+                assertTrue("Expected row " + id, rs.next());
+                assertArrayEquals(new int[] { id, id, id, id }, (int[]) rs.getArray(2).getArray());
+            }
+        } finally {
+            JdbcResourceHelper.closeQuietly(stmt);
+        }
+    }
+}
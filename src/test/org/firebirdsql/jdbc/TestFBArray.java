@@ -0,0 +1,122 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.ng.fields.ArrayDescriptor;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.firebirdsql.gds.BlrConstants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FBArray} (no database required).
+ *
+ * @since 3.0
+ */
+public class TestFBArray {
+
+    @Test
+    public void testGetArray_singleDimension() throws SQLException {
+        final FBArray array = new FBArray(descriptor(blr_long, 0, 4), new int[] { 1, 2, 3, 4 });
+
+        assertEquals("INTEGER", array.getBaseTypeName());
+        assertEquals(Types.INTEGER, array.getBaseType());
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, (int[]) array.getArray());
+    }
+
+    @Test
+    public void testGetArray_twoDimensions() throws SQLException {
+        final FBArray array = new FBArray(descriptor(blr_double, 0, 2, 3),
+                new double[] { 1, 2, 3, 4, 5, 6 });
+
+        final double[][] result = (double[][]) array.getArray();
+
+        assertEquals(2, result.length);
+        assertArrayEquals(new double[] { 1, 2, 3 }, result[0], 0d);
+        assertArrayEquals(new double[] { 4, 5, 6 }, result[1], 0d);
+    }
+
+    @Test
+    public void testGetArray_indexAndCount() throws SQLException {
+        final FBArray array = new FBArray(descriptor(blr_short, 0, 3, 2),
+                new short[] { 1, 2, 3, 4, 5, 6 });
+
+        final short[][] result = (short[][]) array.getArray(2, 5);
+
+        assertEquals("Count limited to remaining entries", 2, result.length);
+        assertArrayEquals(new short[] { 3, 4 }, result[0]);
+        assertArrayEquals(new short[] { 5, 6 }, result[1]);
+        assertEquals(0, ((short[][]) array.getArray(4, 1)).length);
+    }
+
+    @Test(expected = SQLException.class)
+    public void testGetArray_invalidIndex() throws SQLException {
+        new FBArray(descriptor(blr_long, 0, 4), new int[4]).getArray(0, 1);
+    }
+
+    @Test
+    public void testGetArray_scaled() throws SQLException {
+        final FBArray array = new FBArray(descriptor(blr_int64, -2, 2), new long[] { 12345, -5 });
+
+        assertEquals("NUMERIC", array.getBaseTypeName());
+        assertEquals(Types.NUMERIC, array.getBaseType());
+        assertArrayEquals(new BigDecimal[] { new BigDecimal("123.45"), new BigDecimal("-0.05") },
+                (BigDecimal[]) array.getArray());
+    }
+
+    @Test
+    public void testGetArray_resultIsCopy() throws SQLException {
+        final int[] flatArray = { 1, 2 };
+        final FBArray array = new FBArray(descriptor(blr_long, 0, 2), flatArray);
+
+        ((int[]) array.getArray())[0] = 5;
+
+        assertEquals(1, flatArray[0]);
+        assertSame(flatArray, array.getFlatArray());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testConstructor_wrongFlatArray() throws SQLException {
+        new FBArray(descriptor(blr_long, 0, 2), new long[2]);
+    }
+
+    @Test
+    public void testFree() throws SQLException {
+        final FBArray array = new FBArray(descriptor(blr_long, 0, 2), new int[2]);
+
+        array.free();
+
+        try {
+            array.getArray();
+            fail("Expected exception after free");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    private static ArrayDescriptor descriptor(int blrType, int scale, int... lengths) throws SQLException {
+        final int[] lowerBounds = new int[lengths.length];
+        java.util.Arrays.fill(lowerBounds, 1);
+        return new ArrayDescriptor("T", "A", blrType, scale, lowerBounds, lengths);
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.firebirdsql.jdbc;
 
+import org.firebirdsql.gds.ng.LockCloseable;
 import org.hamcrest.Matcher;
 import org.junit.Rule;
 import org.junit.Test;
@@ -286,15 +287,16 @@ public class TestFBCachedBlob {
     }
 
     /**
-     * Test if repeated calls to {@link FBCachedBlob#getSynchronizationObject()} return the same object.
+     * Test if repeated calls to {@link FBCachedBlob#withLock()} use the same lock.
      */
     @Test
-    public void testGetSynchronizationObject() throws Exception {
+    public void testWithLock() throws Exception {
         FBCachedBlob blob = new FBCachedBlob(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
 
-        final Object sync1 = blob.getSynchronizationObject();
-        assertSame("Invocations of getSynchronizationObject() should return same object",
-                sync1, blob.getSynchronizationObject());
+        try (LockCloseable lock1 = blob.withLock();
+             LockCloseable lock2 = blob.withLock()) {
+            assertSame("Invocations of withLock() should use same lock", lock1, lock2);
+        }
     }
 
     /**
@@ -0,0 +1,107 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.ng.fields.RowDescriptor;
+import org.firebirdsql.gds.ng.fields.RowValue;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MetaDataCache}.
+ *
+ * @since 3.0
+ */
+public class TestMetaDataCache {
+
+    private static final long TTL = 60000;
+    private static final List<String> KEY = Arrays.asList("SYSDBA", null, "SELECT 1 FROM RDB$DATABASE", "T%");
+
+    private final MetaDataCache cache = new MetaDataCache();
+    private final RowDescriptor rowDescriptor = RowDescriptor.empty(null);
+    private final List<RowValue> rows = Collections.singletonList(RowValue.EMPTY_ROW_VALUE);
+
+    @Test
+    public void testPutAndGet() {
+        cache.put(KEY, cache.getGeneration(), rowDescriptor, rows);
+
+        final MetaDataCache.CachedResult result = cache.get(Arrays.asList("SYSDBA", null,
+                "SELECT 1 FROM RDB$DATABASE", "T%"), TTL);
+
+        assertNotNull("Expected cached result for equal key", result);
+        assertSame(rowDescriptor, result.getRowDescriptor());
+        assertEquals(rows, result.getRows());
+        assertNull("Expected no result for other parameters",
+                cache.get(Arrays.asList("SYSDBA", null, "SELECT 1 FROM RDB$DATABASE", "X%"), TTL));
+    }
+
+    @Test
+    public void testExpiredResultDiscarded() {
+        cache.put(KEY, cache.getGeneration(), rowDescriptor, rows);
+
+        assertNull(cache.get(KEY, 0));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.put(KEY, cache.getGeneration(), rowDescriptor, rows);
+
+        cache.invalidate();
+
+        assertNull(cache.get(KEY, TTL));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPutAfterInvalidateIgnored() {
+        final long generation = cache.getGeneration();
+        cache.invalidate();
+
+        cache.put(KEY, generation, rowDescriptor, rows);
+
+        assertNull("Result queried before invalidation should not be cached", cache.get(KEY, TTL));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDiscarded() {
+        for (int idx = 0; idx < MetaDataCache.MAX_ENTRIES; idx++) {
+            cache.put(Collections.singletonList("Q" + idx), cache.getGeneration(), rowDescriptor, rows);
+        }
+        assertNotNull(cache.get(Collections.singletonList("Q0"), TTL));
+
+        cache.put(KEY, cache.getGeneration(), rowDescriptor, rows);
+
+        assertEquals(MetaDataCache.MAX_ENTRIES, cache.size());
+        assertNotNull("Recently used entry should be retained", cache.get(Collections.singletonList("Q0"), TTL));
+        assertNull("Least recently used entry should be discarded", cache.get(Collections.singletonList("Q1"), TTL));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCachedRowsUnmodifiable() {
+        cache.put(KEY, cache.getGeneration(), rowDescriptor, rows);
+
+        cache.get(KEY, TTL).getRows().clear();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.JaybirdErrorCodes;
+import org.firebirdsql.gds.ng.FbExceptionBuilder;
+import org.firebirdsql.gds.ng.StatementType;
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+import static org.firebirdsql.gds.ISCConstants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RetryPolicy}.
+ *
+ * @since 3.0
+ */
+public class TestRetryPolicy {
+
+    @Test
+    public void testForPropertyValue_nullOrEmpty_noPolicy() throws Exception {
+        assertNull(RetryPolicy.forPropertyValue(null));
+        assertNull(RetryPolicy.forPropertyValue(" "));
+    }
+
+    @Test
+    public void testForPropertyValue_default() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("default");
+
+        assertEquals(RetryPolicy.DEFAULT_RETRIES, policy.getMaxRetries(isc_deadlock));
+        assertEquals(RetryPolicy.DEFAULT_RETRIES, policy.getMaxRetries(isc_lock_conflict));
+        assertEquals(RetryPolicy.DEFAULT_RETRIES, policy.getMaxRetries(isc_update_conflict));
+        assertEquals(0, policy.getMaxRetries(isc_lock_timeout));
+        assertEquals(RetryPolicy.DEFAULT_BACKOFF, policy.getBackoffMillis());
+        assertEquals(RetryPolicy.DEFAULT_MAX_BACKOFF, policy.getMaxBackoffMillis());
+        assertEquals(RetryPolicy.RetryableStatements.SELECT, policy.getRetryableStatements());
+    }
+
+    @Test
+    public void testForPropertyValue_allKeys() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue(
+                "deadlock:5, isc_lock_timeout:1,335544345:2,backoff:20,maxBackoff:200,statements:DML");
+
+        assertEquals(5, policy.getMaxRetries(isc_deadlock));
+        assertEquals(1, policy.getMaxRetries(isc_lock_timeout));
+        assertEquals(2, policy.getMaxRetries(isc_lock_conflict));
+        assertEquals("Budgets specified, so no default for update conflict",
+                0, policy.getMaxRetries(isc_update_conflict));
+        assertEquals(20, policy.getBackoffMillis());
+        assertEquals(200, policy.getMaxBackoffMillis());
+        assertEquals(RetryPolicy.RetryableStatements.DML, policy.getRetryableStatements());
+    }
+
+    @Test
+    public void testForPropertyValue_invalid() {
+        for (String value : new String[] { "deadlock", "deadlock:x", "unknown:3", "statements:some", "deadlock:-1",
+                "backoff:100,maxBackoff:10" }) {
+            try {
+                RetryPolicy.forPropertyValue(value);
+                fail("Expected exception for " + value);
+            } catch (SQLException e) {
+                assertEquals(JaybirdErrorCodes.jb_invalidConnectionString, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testRetryableStatements() {
+        assertTrue(RetryPolicy.RetryableStatements.SELECT.isRetryable(StatementType.SELECT));
+        assertTrue(RetryPolicy.RetryableStatements.SELECT.isRetryable(StatementType.SELECT_FOR_UPDATE));
+        assertFalse(RetryPolicy.RetryableStatements.SELECT.isRetryable(StatementType.UPDATE));
+        assertTrue(RetryPolicy.RetryableStatements.DML.isRetryable(StatementType.UPDATE));
+        assertFalse(RetryPolicy.RetryableStatements.DML.isRetryable(StatementType.STORED_PROCEDURE));
+        assertTrue(RetryPolicy.RetryableStatements.ALL.isRetryable(StatementType.STORED_PROCEDURE));
+        assertFalse(RetryPolicy.RetryableStatements.ALL.isRetryable(StatementType.DDL));
+        assertFalse(RetryPolicy.RetryableStatements.ALL.isRetryable(StatementType.NONE));
+    }
+
+    @Test
+    public void testExecution_budgetPerErrorCode() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("deadlock:2,update_conflict:1,statements:dml");
+        RetryPolicy.Execution execution = policy.newExecution();
+
+        assertNotEquals(-1, execution.nextRetry(StatementType.UPDATE, isc_deadlock));
+        assertNotEquals(-1, execution.nextRetry(StatementType.UPDATE, isc_update_conflict));
+        assertEquals("Update conflict budget exhausted",
+                -1, execution.nextRetry(StatementType.UPDATE, isc_update_conflict));
+        assertNotEquals(-1, execution.nextRetry(StatementType.UPDATE, isc_deadlock));
+        assertEquals("Deadlock budget exhausted", -1, execution.nextRetry(StatementType.UPDATE, isc_deadlock));
+        assertEquals(3, execution.getRetryCount());
+
+        assertNotEquals("New execution has a new budget",
+                -1, policy.newExecution().nextRetry(StatementType.UPDATE, isc_deadlock));
+    }
+
+    @Test
+    public void testExecution_notRetryable() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("default");
+        RetryPolicy.Execution execution = policy.newExecution();
+
+        assertEquals("Insert not retryable with statements:select",
+                -1, execution.nextRetry(StatementType.INSERT, isc_deadlock));
+        assertEquals("Error code not retryable", -1, execution.nextRetry(StatementType.SELECT, isc_no_dup));
+        assertEquals(0, execution.getRetryCount());
+    }
+
+    @Test
+    public void testExecution_backoffWithinCeiling() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("deadlock:10,backoff:10,maxBackoff:50");
+        RetryPolicy.Execution execution = policy.newExecution();
+
+        for (int retry = 1; retry <= 10; retry++) {
+            long backoff = execution.nextRetry(StatementType.SELECT, isc_deadlock);
+            assertTrue("Unexpected backoff " + backoff, backoff >= 0 && backoff <= policy.backoffCeiling(retry));
+        }
+    }
+
+    @Test
+    public void testGetRetryErrorCode_updateConflictInStatusVector() throws Exception {
+        SQLException failure = updateConflict();
+
+        assertEquals(isc_update_conflict,
+                RetryPolicy.forPropertyValue("update_conflict:1").getRetryErrorCode(failure));
+        assertEquals("Most specific error code with a budget applies", isc_update_conflict,
+                RetryPolicy.forPropertyValue("deadlock:1,update_conflict:1").getRetryErrorCode(failure));
+        assertEquals(isc_deadlock, RetryPolicy.forPropertyValue("deadlock:1").getRetryErrorCode(failure));
+        assertEquals("No budget", failure.getErrorCode(),
+                RetryPolicy.forPropertyValue("lock_timeout:1").getRetryErrorCode(failure));
+    }
+
+    @Test
+    public void testExecution_updateConflictBudget() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("deadlock:5,update_conflict:1,statements:dml");
+        RetryPolicy.Execution execution = policy.newExecution();
+        SQLException failure = updateConflict();
+
+        assertNotEquals(-1, execution.nextRetry(StatementType.UPDATE, failure));
+        assertSame(failure, execution.getFailure());
+        assertEquals("Update conflict budget exhausted", -1, execution.nextRetry(StatementType.UPDATE, failure));
+    }
+
+    @Test
+    public void testExecution_awaitBackoffInterrupted_throwsFailure() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("deadlock:10,backoff:1000,maxBackoff:1000");
+        RetryPolicy.Execution execution = policy.newExecution();
+        SQLException failure = new FbExceptionBuilder().exception(isc_deadlock).toFlatSQLException();
+        long backoff = 0;
+        while (backoff == 0) {
+            backoff = execution.nextRetry(StatementType.SELECT, failure);
+        }
+
+        Thread.currentThread().interrupt();
+        try {
+            execution.awaitBackoff();
+            fail("Expected failure to be thrown");
+        } catch (SQLException e) {
+            assertSame(failure, e);
+            assertTrue("Interrupt status restored", Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testBackoffCeiling() throws Exception {
+        RetryPolicy policy = RetryPolicy.forPropertyValue("backoff:10,maxBackoff:50");
+
+        assertEquals(10, policy.backoffCeiling(1));
+        assertEquals(20, policy.backoffCeiling(2));
+        assertEquals(40, policy.backoffCeiling(3));
+        assertEquals(50, policy.backoffCeiling(4));
+        assertEquals(50, policy.backoffCeiling(100));
+    }
+
+    /**
+     * @return Exception with the status vector of an update conflict as reported by Firebird
+     */
+    private static SQLException updateConflict() {
+        return new FbExceptionBuilder()
+                .exception(isc_deadlock)
+                .exception(isc_update_conflict)
+                .exception(isc_concurrent_transaction).messageParameter(42)
+                .toFlatSQLException();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc;
+
+import org.firebirdsql.gds.ISCConstants;
+import org.firebirdsql.gds.ng.FbDatabase;
+import org.firebirdsql.gds.ng.FbStatement;
+import org.firebirdsql.gds.ng.InfoProcessor;
+import org.firebirdsql.gds.ng.SqlCountHolder;
+import org.firebirdsql.gds.ng.monitor.RoundTripCounter;
+import org.jmock.Expectations;
+import org.jmock.api.Action;
+import org.jmock.api.Invocation;
+import org.jmock.lib.action.CustomAction;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SlowStatementLog}.
+ * <p>
+ * This test does not test against a database server.
+ * </p>
+ *
+ * @since 3.0
+ */
+public class TestSlowStatementLog {
+
+    @Rule
+    public final JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private static final String SQL = "select * from rdb$database";
+
+    private final FbDatabase database = context.mock(FbDatabase.class);
+    private final FbStatement statement = context.mock(FbStatement.class);
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final SlowStatementLog.ParameterValues NO_PARAMETERS_EXPECTED =
+            new SlowStatementLog.ParameterValues() {
+                @Override
+                public List<String> getParameterValues() {
+                    throw new AssertionError("Parameter values should only be obtained for slow executions");
+                }
+            };
+
+    @Test
+    public void testStatementCompleted_belowThreshold() throws Exception {
+        final SlowStatementLog slowStatementLog = new SlowStatementLog(1);
+        context.checking(new Expectations() {{
+            allowing(database).getMetricsListener();
+            will(returnValue(null));
+            exactly(2).of(statement).getOperationNanos();
+            will(onConsecutiveCalls(returnValue(MILLIS), returnValue(MILLIS + MILLIS / 2)));
+            never(database).getDatabaseInfo(with(any(byte[].class)), with(any(int.class)),
+                    with(any(InfoProcessor.class)));
+            never(statement).getSqlCounts();
+            never(statement).getExecutionPlan();
+        }});
+
+        slowStatementLog.statementStarted(database, statement);
+
+        assertNull(slowStatementLog.statementCompleted(database, statement, SQL, NO_PARAMETERS_EXPECTED));
+    }
+
+    @Test
+    public void testStatementCompleted_aboveThreshold() throws Exception {
+        final SlowStatementLog slowStatementLog = new SlowStatementLog(1);
+        final RoundTripCounter roundTripCounter = new RoundTripCounter(null);
+        context.checking(new Expectations() {{
+            allowing(database).getMetricsListener();
+            will(returnValue(roundTripCounter));
+            exactly(2).of(statement).getOperationNanos();
+            will(onConsecutiveCalls(returnValue(MILLIS), returnValue(6 * MILLIS)));
+            // First slow execution of the statement: page counters not measured
+            never(database).getDatabaseInfo(with(any(byte[].class)), with(any(int.class)),
+                    with(any(InfoProcessor.class)));
+            oneOf(statement).getSqlCounts();
+            will(returnValue(new SqlCountHolder(0, 0, 0, 7)));
+            oneOf(statement).getExecutionPlan();
+            will(returnValue("PLAN (RDB$DATABASE NATURAL)"));
+        }});
+
+        slowStatementLog.statementStarted(database, statement);
+        roundTripCounter.responseReceived(1000);
+        roundTripCounter.responseReceived(1000);
+        final SlowStatementRecord slowStatement = slowStatementLog.statementCompleted(database, statement, SQL,
+                parameters("1", "<redacted>"));
+
+        assertNotNull(slowStatement);
+        assertEquals(SQL, slowStatement.getSql());
+        assertEquals(Arrays.asList("1", "<redacted>"), slowStatement.getParameters());
+        assertEquals("Expected sum of statement operations", 5 * MILLIS, slowStatement.getElapsedNanos());
+        assertEquals(2, slowStatement.getRoundTrips());
+        assertEquals(7, slowStatement.getSelectCount());
+        assertEquals(0, slowStatement.getInsertCount());
+        assertEquals("PLAN (RDB$DATABASE NATURAL)", slowStatement.getExecutionPlan());
+        assertEquals(-1, slowStatement.getPageReads());
+        assertEquals(-1, slowStatement.getPageFetches());
+        assertTrue(slowStatement.toString().contains(SQL));
+    }
+
+    @Test
+    public void testStatementCompleted_repeatedSlowExecution_measuresPageCounters() throws Exception {
+        final SlowStatementLog slowStatementLog = new SlowStatementLog(1);
+        final RoundTripCounter roundTripCounter = new RoundTripCounter(null);
+        context.checking(new Expectations() {{
+            allowing(database).getMetricsListener();
+            will(returnValue(roundTripCounter));
+            exactly(4).of(statement).getOperationNanos();
+            will(onConsecutiveCalls(returnValue(0L), returnValue(2 * MILLIS),
+                    returnValue(2 * MILLIS), returnValue(5 * MILLIS)));
+            exactly(2).of(database).getDatabaseInfo(with(any(byte[].class)), with(any(int.class)),
+                    with(any(InfoProcessor.class)));
+            // The page counter requests are round trips as well, which should not be attributed to the statement
+            will(doAll(countRoundTrip(roundTripCounter),
+                    onConsecutiveCalls(returnValue(new long[] { 10, 20, 30, 40 }),
+                            returnValue(new long[] { 15, 20, 130, 41 }))));
+            allowing(statement).getSqlCounts();
+            will(returnValue(new SqlCountHolder(0, 0, 0, 7)));
+            allowing(statement).getExecutionPlan();
+            will(returnValue("PLAN (RDB$DATABASE NATURAL)"));
+        }});
+
+        slowStatementLog.statementStarted(database, statement);
+        assertNotNull(slowStatementLog.statementCompleted(database, statement, SQL, parameters()));
+
+        slowStatementLog.statementStarted(database, statement);
+        roundTripCounter.responseReceived(1000);
+        final SlowStatementRecord slowStatement = slowStatementLog.statementCompleted(database, statement, SQL,
+                parameters());
+
+        assertNotNull(slowStatement);
+        assertEquals(3 * MILLIS, slowStatement.getElapsedNanos());
+        assertEquals(1, slowStatement.getRoundTrips());
+        assertEquals(5, slowStatement.getPageReads());
+        assertEquals(0, slowStatement.getPageWrites());
+        assertEquals(100, slowStatement.getPageFetches());
+        assertEquals(1, slowStatement.getPageMarks());
+    }
+
+    @Test
+    public void testStatementCompleted_statementAllocatedDuringExecution() throws Exception {
+        final SlowStatementLog slowStatementLog = new SlowStatementLog(1);
+        context.checking(new Expectations() {{
+            allowing(database).getMetricsListener();
+            will(returnValue(null));
+            oneOf(statement).getOperationNanos();
+            will(returnValue(2 * MILLIS));
+            allowing(statement).getSqlCounts();
+            will(returnValue(null));
+            allowing(statement).getExecutionPlan();
+            will(returnValue(null));
+        }});
+
+        slowStatementLog.statementStarted(database, null);
+        final SlowStatementRecord slowStatement = slowStatementLog.statementCompleted(database, statement, SQL,
+                parameters());
+
+        assertNotNull(slowStatement);
+        assertEquals(2 * MILLIS, slowStatement.getElapsedNanos());
+    }
+
+    private static Action countRoundTrip(final RoundTripCounter roundTripCounter) {
+        return new CustomAction("count round trip") {
+            @Override
+            public Object invoke(Invocation invocation) {
+                roundTripCounter.responseReceived(1000);
+                return null;
+            }
+        };
+    }
+
+    private static SlowStatementLog.ParameterValues parameters(final String... values) {
+        return new SlowStatementLog.ParameterValues() {
+            @Override
+            public List<String> getParameterValues() {
+                return Arrays.asList(values);
+            }
+        };
+    }
+
+    @Test
+    public void testStatementCompleted_notStarted() {
+        final SlowStatementLog slowStatementLog = new SlowStatementLog(0);
+
+        assertNull(slowStatementLog.statementCompleted(database, statement, SQL, NO_PARAMETERS_EXPECTED));
+    }
+
+    @Test
+    public void testPageCounterProcessor() throws Exception {
+        final byte[] info = {
+                ISCConstants.isc_info_reads, 2, 0, 0x10, 0x01,
+                ISCConstants.isc_info_writes, 1, 0, 5,
+                ISCConstants.isc_info_fetches, 4, 0, 0x00, 0x00, 0x01, 0x00,
+                ISCConstants.isc_info_marks, 1, 0, 0,
+                ISCConstants.isc_info_end
+        };
+
+        final long[] counters = new SlowStatementLog.PageCounterProcessor().process(info);
+
+        assertArrayEquals(new long[] { 0x0110, 5, 0x010000, 0 }, counters);
+    }
+
+    @Test
+    public void testDelta_unknownStart() {
+        assertArrayEquals(new long[] { -1, -1, -1, -1 }, SlowStatementLog.delta(null, new long[] { 1, 2, 3, 4 }));
+    }
+}
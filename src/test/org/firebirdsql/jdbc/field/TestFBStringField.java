@@ -22,6 +22,7 @@ import org.firebirdsql.encodings.Encoding;
 import org.firebirdsql.encodings.EncodingFactory;
 import org.firebirdsql.gds.ISCConstants;
 import org.firebirdsql.util.IOUtils;
+import org.jmock.Expectations;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -704,6 +705,39 @@ public class TestFBStringField extends BaseJUnit4TestFBField<FBStringField, Stri
         field.setTimestamp(java.sql.Timestamp.valueOf("2016-05-02 10:57:01"), calendar);
     }
 
+    @Test
+    public void getString_deduplicateStrings_sameInstanceForEqualData() throws SQLException {
+        final byte[] data1 = encoding.encodeToCharset(TEST_STRING_SHORT);
+        final byte[] data2 = encoding.encodeToCharset(TEST_STRING_SHORT);
+        context.checking(new Expectations() {{
+            atLeast(1).of(fieldData).getFieldData();
+            will(onConsecutiveCalls(returnValue(data1), returnValue(data2)));
+        }});
+        field.setDeduplicateStrings(true);
+
+        final String value1 = field.getString();
+        final String value2 = field.getString();
+
+        assertEquals(TEST_STRING_SHORT, value1);
+        assertSame("Expected same instance for equal data", value1, value2);
+    }
+
+    @Test
+    public void getString_noDeduplicateStrings_newInstanceForEqualData() throws SQLException {
+        final byte[] data1 = encoding.encodeToCharset(TEST_STRING_SHORT);
+        final byte[] data2 = encoding.encodeToCharset(TEST_STRING_SHORT);
+        context.checking(new Expectations() {{
+            atLeast(1).of(fieldData).getFieldData();
+            will(onConsecutiveCalls(returnValue(data1), returnValue(data2)));
+        }});
+
+        final String value1 = field.getString();
+        final String value2 = field.getString();
+
+        assertEquals(value1, value2);
+        assertNotSame("Expected different instances without deduplication", value1, value2);
+    }
+
     @Override
     protected String getNonNullObject() {
         return TEST_STRING_SHORT;
@@ -0,0 +1,101 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.jdbc.field;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link StringDeduplicationCache}.
+ *
+ * @since 3.0
+ */
+public class TestStringDeduplicationCache {
+
+    private final StringDeduplicationCache cache = new StringDeduplicationCache();
+
+    @Test
+    public void testGetAfterPut() {
+        final String value = "NL";
+        cache.put(bytes(value), value);
+
+        assertSame(value, cache.get(bytes(value)));
+    }
+
+    @Test
+    public void testGetUnknownValue() {
+        cache.put(bytes("NL"), "NL");
+
+        assertNull(cache.get(bytes("BE")));
+    }
+
+    @Test
+    public void testPutStoresCopyOfData() {
+        final byte[] data = bytes("NL");
+        cache.put(data, "NL");
+        data[0] = 'B';
+
+        assertNull("Modification of the original data should not affect the cache", cache.get(data));
+        assertEquals("NL", cache.get(bytes("NL")));
+    }
+
+    @Test
+    public void testLongValueNotCached() {
+        final byte[] data = new byte[StringDeduplicationCache.MAX_VALUE_LENGTH + 1];
+        final String value = new String(data, StandardCharsets.ISO_8859_1);
+        cache.put(data, value);
+
+        assertNull(cache.get(data.clone()));
+    }
+
+    @Test
+    public void testLowCardinalityRemainsEnabled() {
+        final String[] values = { "NEW", "OPEN", "CLOSED" };
+        for (int idx = 0; idx < 2 * StringDeduplicationCache.EVALUATION_LOOKUPS; idx++) {
+            final String value = values[idx % values.length];
+            if (cache.get(bytes(value)) == null) {
+                cache.put(bytes(value), value);
+            }
+        }
+
+        assertFalse(cache.isDisabled());
+        assertSame(values[0], cache.get(bytes(values[0])));
+    }
+
+    @Test
+    public void testHighCardinalityDisablesCache() {
+        for (int idx = 0; idx < StringDeduplicationCache.EVALUATION_LOOKUPS; idx++) {
+            final String value = String.valueOf(idx);
+            if (cache.get(bytes(value)) == null) {
+                cache.put(bytes(value), value);
+            }
+        }
+
+        assertTrue(cache.isDisabled());
+        cache.put(bytes("NL"), "NL");
+        assertNull(cache.get(bytes("NL")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
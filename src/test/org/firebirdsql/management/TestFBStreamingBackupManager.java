@@ -32,8 +32,10 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.CRC32;
 
 import static org.firebirdsql.common.FBTestProperties.*;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -96,6 +98,36 @@ public class TestFBStreamingBackupManager {
         assertTrue(String.format("Expected database file %s to exist", backupPath), Files.exists(backupPath));
     }
 
+    @Test
+    public void testPipelinedStreamingBackupAndRestore() throws Exception {
+        usesDatabase.createDefaultDatabase();
+        backupManager.setPipelineDepth(4);
+        final CRC32 backupChecksum = new CRC32();
+        backupManager.setChecksum(backupChecksum);
+        final Path backupPath = Paths.get(tempFolder.getAbsolutePath(), "testbackup.fbk");
+        try (OutputStream backupOutputStream = new FileOutputStream(backupPath.toFile())) {
+            backupManager.setBackupOutputStream(backupOutputStream);
+            backupManager.backupDatabase();
+        }
+        assertTrue(String.format("Expected backup file %s to exist", backupPath), Files.exists(backupPath));
+        final CRC32 fileChecksum = new CRC32();
+        fileChecksum.update(Files.readAllBytes(backupPath));
+        assertEquals("Backup checksum", fileChecksum.getValue(), backupChecksum.getValue());
+
+        final Path restorePath = Paths.get(tempFolder.getAbsolutePath(), "testrestore.fdb");
+        backupManager.clearRestorePaths();
+        usesDatabase.addDatabase(restorePath.toString());
+        backupManager.setDatabase(restorePath.toString());
+        final CRC32 restoreChecksum = new CRC32();
+        backupManager.setChecksum(restoreChecksum);
+        try (InputStream restoreInputStream = new FileInputStream(backupPath.toFile())) {
+            backupManager.setRestoreInputStream(restoreInputStream);
+            backupManager.restoreDatabase();
+        }
+        assertTrue(String.format("Expected database file %s to exist", restorePath), Files.exists(restorePath));
+        assertEquals("Restore checksum", fileChecksum.getValue(), restoreChecksum.getValue());
+    }
+
     @Test
     public void testSetBadBufferCount() {
         expectedException.reportMissingExceptionWithMessage("Page buffer count must be a positive value")
@@ -0,0 +1,90 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link ReadAheadInputStream}.
+ */
+public class TestReadAheadInputStream {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testReadsAllData() throws Exception {
+        final byte[] data = new byte[10000];
+        new Random().nextBytes(data);
+        final CRC32 checksum = new CRC32();
+
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), checksum, 333, 2)) {
+            assertEquals(data[0] & 0xFF, in.read());
+            result.write(data[0]);
+            final byte[] buffer = new byte[500];
+            int read;
+            while ((read = in.read(buffer, 0, buffer.length)) != -1) {
+                result.write(buffer, 0, read);
+            }
+            assertEquals(-1, in.read());
+        }
+
+        assertArrayEquals(data, result.toByteArray());
+        final CRC32 expectedChecksum = new CRC32();
+        expectedChecksum.update(data);
+        assertEquals(expectedChecksum.getValue(), checksum.getValue());
+    }
+
+    @Test
+    public void testSourceFailureReported() throws Exception {
+        final InputStream failingSource = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Read error");
+            }
+        };
+        try (ReadAheadInputStream in = new ReadAheadInputStream(failingSource, null, 10, 1)) {
+            expectedException.expect(IOException.class);
+
+            in.read();
+        }
+    }
+
+    @Test
+    public void testReadAfterCloseThrowsException() throws Exception {
+        final ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[10]), null, 10, 1);
+        in.close();
+        expectedException.expect(IOException.class);
+
+        in.read();
+    }
+}
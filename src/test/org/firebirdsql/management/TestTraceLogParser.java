@@ -0,0 +1,147 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TraceLogParser}.
+ */
+public class TestTraceLogParser {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final String TRACE_OUTPUT = "Trace session ID 3 started\n"
+            + "2016-02-10T10:12:34.5670 (3412:0x7f6d0c3e3700) START_TRANSACTION\n"
+            + "\t/db/employee.fdb (ATT_12, SYSDBA:NONE, UTF8, TCPv4:127.0.0.1/51234)\n"
+            + "\t\t(TRA_34, READ_COMMITTED | REC_VERSION | WAIT | READ_WRITE)\n"
+            + "\n"
+            + "2016-02-10T10:12:34.5880 (3412:0x7f6d0c3e3700) EXECUTE_STATEMENT_FINISH\n"
+            + "\t/db/employee.fdb (ATT_12, SYSDBA:NONE, UTF8, TCPv4:127.0.0.1/51234)\n"
+            + "\t\t(TRA_34, READ_COMMITTED | REC_VERSION | WAIT | READ_WRITE)\n"
+            + "\n"
+            + "Statement 56:\n"
+            + "-------------------------------------------------------------------------------\n"
+            + "select *\n"
+            + "from country where currency = ?\n"
+            + "^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^^\n"
+            + "\n"
+            + "PLAN (COUNTRY NATURAL)\n"
+            + "\n"
+            + "param0 = varchar(10), \"Euro\"\n"
+            + "\n"
+            + "3 records fetched\n"
+            + "     12 ms, 4 read(s), 1 write(s), 35 fetch(es), 2 mark(s)\n"
+            + "\n"
+            + "Table                             Natural     Index    Update    Insert    Delete   Backout     Purge   Expunge\n"
+            + "***************************************************************************************************************\n"
+            + "COUNTRY                                14                                                                      \n"
+            + "\n"
+            + "2016-02-10T10:12:35.0010 (3412:0x7f6d0c3e3700) FAILED EXECUTE_STATEMENT_FINISH\n"
+            + "\t/db/employee.fdb (ATT_12, SYSDBA:NONE, UTF8, TCPv4:127.0.0.1/51234)\n";
+
+    @Test
+    public void testParseCompleteOutput() {
+        final List<TraceEvent> events = parseInChunks(TRACE_OUTPUT.getBytes(UTF8), Integer.MAX_VALUE);
+
+        assertEquals("Number of events", 3, events.size());
+
+        final TraceEvent startTransaction = events.get(0);
+        assertEquals(TraceEvent.Type.START_TRANSACTION, startTransaction.getType());
+        assertEquals("2016-02-10T10:12:34.5670", startTransaction.getTimestamp());
+        assertEquals("3412:0x7f6d0c3e3700", startTransaction.getProcessId());
+        assertEquals(12, startTransaction.getAttachmentId());
+        assertEquals(34, startTransaction.getTransactionId());
+        assertNull(startTransaction.getSql());
+
+        final TraceEvent statementFinish = events.get(1);
+        assertEquals(TraceEvent.Type.EXECUTE_STATEMENT_FINISH, statementFinish.getType());
+        assertFalse(statementFinish.isFailed());
+        assertEquals(56, statementFinish.getStatementId());
+        assertEquals("select *\nfrom country where currency = ?", statementFinish.getSql());
+        assertEquals("PLAN (COUNTRY NATURAL)", statementFinish.getPlan());
+        assertEquals(Arrays.asList("param0 = varchar(10), \"Euro\""), statementFinish.getParameters());
+        assertEquals(3, statementFinish.getRecordsFetched());
+        assertEquals(12, statementFinish.getElapsedMillis());
+        assertEquals(4, statementFinish.getReads());
+        assertEquals(1, statementFinish.getWrites());
+        assertEquals(35, statementFinish.getFetches());
+        assertEquals(2, statementFinish.getMarks());
+
+        final TraceEvent failedFinish = events.get(2);
+        assertEquals(TraceEvent.Type.EXECUTE_STATEMENT_FINISH, failedFinish.getType());
+        assertTrue(failedFinish.isFailed());
+        assertEquals(-1, failedFinish.getElapsedMillis());
+    }
+
+    @Test
+    public void testParseInSmallChunks() {
+        final List<TraceEvent> completeParse = parseInChunks(TRACE_OUTPUT.getBytes(UTF8), Integer.MAX_VALUE);
+        final List<TraceEvent> chunkedParse = parseInChunks(TRACE_OUTPUT.getBytes(UTF8), 7);
+
+        assertEquals(completeParse.size(), chunkedParse.size());
+        for (int idx = 0; idx < completeParse.size(); idx++) {
+            assertEquals(completeParse.get(idx).getText(), chunkedParse.get(idx).getText());
+        }
+    }
+
+    @Test
+    public void testEventReportedWhenNextEventStarts() {
+        final List<TraceEvent> events = new ArrayList<>();
+        final TraceLogParser parser = new TraceLogParser(UTF8, new CollectingListener(events));
+        final byte[] data = TRACE_OUTPUT.getBytes(UTF8);
+
+        final int secondEventStart = TRACE_OUTPUT.indexOf("2016-02-10T10:12:34.5880");
+        parser.parse(data, 0, secondEventStart);
+        assertEquals("No event before start of next event", 0, events.size());
+
+        parser.parse(data, secondEventStart, data.length - secondEventStart);
+        assertEquals("Events before last event", 2, events.size());
+    }
+
+    private static List<TraceEvent> parseInChunks(byte[] data, int chunkSize) {
+        final List<TraceEvent> events = new ArrayList<>();
+        final TraceLogParser parser = new TraceLogParser(UTF8, new CollectingListener(events));
+        for (int off = 0; off < data.length; off += chunkSize) {
+            parser.parse(data, off, Math.min(chunkSize, data.length - off));
+        }
+        parser.flush();
+        return events;
+    }
+
+    private static final class CollectingListener implements TraceEventListener {
+        private final List<TraceEvent> events;
+
+        private CollectingListener(List<TraceEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void traceEvent(TraceEvent event) {
+            events.add(event);
+        }
+    }
+}
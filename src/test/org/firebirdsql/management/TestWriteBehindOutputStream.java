@@ -0,0 +1,93 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.management;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link WriteBehindOutputStream}.
+ */
+public class TestWriteBehindOutputStream {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void testAllDataWrittenOnClose() throws Exception {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final CRC32 checksum = new CRC32();
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(target, checksum, 2);
+        for (int i = 0; i < 1000; i++) {
+            byte[] data = { (byte) i, (byte) (i >> 8), 1, 2, 3 };
+            if (i % 2 == 0) {
+                out.write(data);
+            } else {
+                out.writeOwned(data, 1, 4);
+                data = new byte[] { (byte) (i >> 8), 1, 2, 3 };
+            }
+            expected.write(data);
+        }
+        out.write(42);
+        expected.write(42);
+        out.close();
+
+        assertArrayEquals(expected.toByteArray(), target.toByteArray());
+        final CRC32 expectedChecksum = new CRC32();
+        expectedChecksum.update(expected.toByteArray());
+        assertEquals(expectedChecksum.getValue(), checksum.getValue());
+    }
+
+    @Test
+    public void testWriteAfterCloseThrowsException() throws Exception {
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(new ByteArrayOutputStream(), null, 1);
+        out.close();
+        expectedException.expect(IOException.class);
+
+        out.write(1);
+    }
+
+    @Test
+    public void testTargetFailureReported() throws Exception {
+        final OutputStream failingTarget = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        final WriteBehindOutputStream out = new WriteBehindOutputStream(failingTarget, null, 1);
+        expectedException.expect(IOException.class);
+
+        for (int i = 0; i < 100; i++) {
+            out.write(new byte[10]);
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Firebird Open Source JavaEE Connector - JDBC Driver
+ *
+ * Distributable under LGPL license.
+ * You may obtain a copy of the License at http://www.gnu.org/copyleft/lgpl.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * LGPL License for more details.
+ *
+ * This file was created by members of the firebird development team.
+ * All individual contributions remain the Copyright (C) of those
+ * individuals.  Contributors to this file are either listed here or
+ * can be obtained from a source control history command.
+ *
+ * All rights reserved.
+ */
+package org.firebirdsql.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link WeakInterner}.
+ *
+ * @since 3.0
+ */
+public class TestWeakInterner {
+
+    private final WeakInterner<String> interner = new WeakInterner<>();
+
+    @Test
+    public void testIntern_firstInstanceReturned() {
+        final String first = new String("value");
+        final String second = new String("value");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void testIntern_differentValues() {
+        final String first = new String("value1");
+        final String second = new String("value2");
+
+        assertSame(first, interner.intern(first));
+        assertSame(second, interner.intern(second));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void testIntern_unusedInstanceRemoved() throws Exception {
+        interner.intern(new String("value"));
+
+        for (int attempt = 0; attempt < 50 && interner.size() > 0; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals("Expected unused instance to be removed", 0, interner.size());
+    }
+}